@@ -79,6 +79,7 @@ class DashboardCard extends Component {
             newDashboardUrl: null,
             showMessage: false,
             message: '',
+            storedThumbnail: null,
         };
 
         this.handleMenuIconClick = this.handleMenuIconClick.bind(this);
@@ -101,6 +102,25 @@ class DashboardCard extends Component {
         this.renderMenu = this.renderMenu.bind(this);
     }
 
+    componentDidMount() {
+        DashboardThumbnail.loadStoredDashboardThumbnail(this.props.dashboard)
+            .then((storedThumbnail) => {
+                if (this.unmounted) {
+                    URL.revokeObjectURL(storedThumbnail);
+                } else {
+                    this.setState({ storedThumbnail });
+                }
+            })
+            .catch(() => {});
+    }
+
+    componentWillUnmount() {
+        this.unmounted = true;
+        if (this.state.storedThumbnail) {
+            URL.revokeObjectURL(this.state.storedThumbnail);
+        }
+    }
+
     handleMenuIconClick(event) {
         event.preventDefault();
         this.setState({
@@ -411,6 +431,7 @@ class DashboardCard extends Component {
         const subtitle = dashboard.description ? dashboard.description.trim() : null;
         const dashboardUrl = dashboard.url;
         const history = this.props.history;
+        const thumbnail = this.state.storedThumbnail || DashboardThumbnail.getDashboardThumbnail(dashboardUrl);
 
         return (
             <span>
@@ -420,7 +441,7 @@ class DashboardCard extends Component {
                         style={{
                             cursor: 'pointer',
                             width: '100%',
-                            backgroundImage: `url(${DashboardThumbnail.getDashboardThumbnail(dashboardUrl)})`,
+                            backgroundImage: `url(${thumbnail})`,
                             backgroundRepeat: 'no-repeat',
                             backgroundSize: 'cover',
                         }}
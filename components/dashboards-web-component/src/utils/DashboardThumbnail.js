@@ -19,8 +19,16 @@
 import html2canvas from 'html2canvas';
 import _ from 'lodash';
 import AuthManager from '../auth/utils/AuthManager';
+import DashboardAPI from './apis/DashboardAPI';
 import dashboardDefaultThumbnail from '../listing/components/dashboard-default-thumbnail.png';
 
+/**
+ * Maximum size of a dashboard thumbnail. Thumbnails are shown in dashboard cards only, and the server does not accept
+ * thumbnails larger than 1 MiB.
+ */
+const THUMBNAIL_MAX_WIDTH = 480;
+const THUMBNAIL_MAX_HEIGHT = 270;
+
 export default class DashboardThumbnail {
     /**
      * Returns local storage key for the thumbnail of the specified dashboard.
@@ -34,18 +42,72 @@ export default class DashboardThumbnail {
     }
 
     /**
-     * Saves the thumbnail for the specified dashboard into the local storage for the current user.
+     * Returns local storage key for the dashboard version which the thumbnail of the specified dashboard was taken of.
+     * @private
+     * @param {string} dashboardId dashboard ID
+     * @returns {string} local storage key for the thumbnail version
+     */
+    static getDashboardThumbnailVersionKey(dashboardId) {
+        return `${DashboardThumbnail.getDashboardThumbnailKey(dashboardId)}#version`;
+    }
+
+    /**
+     * Scales down the given canvas to fit the thumbnail size.
+     * @private
+     * @param {HTMLCanvasElement} canvas rendered dashboard
+     * @returns {HTMLCanvasElement} thumbnail canvas
+     */
+    static scaleToThumbnail(canvas) {
+        const scale = Math.min(1, THUMBNAIL_MAX_WIDTH / canvas.width, THUMBNAIL_MAX_HEIGHT / canvas.height);
+        if (scale === 1) {
+            return canvas;
+        }
+        const thumbnailCanvas = document.createElement('canvas');
+        thumbnailCanvas.width = Math.max(1, Math.round(canvas.width * scale));
+        thumbnailCanvas.height = Math.max(1, Math.round(canvas.height * scale));
+        thumbnailCanvas.getContext('2d').drawImage(canvas, 0, 0, thumbnailCanvas.width, thumbnailCanvas.height);
+        return thumbnailCanvas;
+    }
+
+    /**
+     * Saves the thumbnail for the specified dashboard into the local storage for the current user and uploads it to
+     * the server, so that the dashboard listing can show it to every user without rendering the dashboard. The
+     * thumbnail is taken again whenever the dashboard version changes.
      * @param {string} dashboardId dashboard ID
      * @param {string} dashboardContainerId ID of the container element which dashboard is rendered
+     * @param {string} dashboardVersion version of the rendered dashboard, i.e. the entity tag of the dashboard
      */
-    static saveDashboardThumbnail(dashboardId, dashboardContainerId) {
+    static saveDashboardThumbnail(dashboardId, dashboardContainerId, dashboardVersion) {
         const dashboardThumbnailKey = DashboardThumbnail.getDashboardThumbnailKey(dashboardId);
-        if (localStorage.getItem(dashboardThumbnailKey)) {
+        const dashboardThumbnailVersionKey = DashboardThumbnail.getDashboardThumbnailVersionKey(dashboardId);
+        if (localStorage.getItem(dashboardThumbnailKey)
+            && (!dashboardVersion || localStorage.getItem(dashboardThumbnailVersionKey) === dashboardVersion)) {
             return;
         }
 
         html2canvas(document.getElementById(dashboardContainerId))
-            .then(canvas => localStorage.setItem(dashboardThumbnailKey, canvas.toDataURL()));
+            .then((canvas) => {
+                const thumbnailCanvas = DashboardThumbnail.scaleToThumbnail(canvas);
+                localStorage.setItem(dashboardThumbnailKey, thumbnailCanvas.toDataURL());
+                if (dashboardVersion) {
+                    localStorage.setItem(dashboardThumbnailVersionKey, dashboardVersion);
+                }
+                thumbnailCanvas.toBlob((thumbnail) => {
+                    if (!thumbnail) {
+                        return;
+                    }
+                    DashboardAPI.updateDashboardThumbnail(dashboardId, thumbnail)
+                        .catch((error) => {
+                            // Only owners and editors can update the stored thumbnail.
+                            if (!error.response || error.response.status !== 403) {
+                                console.error(`Uploading thumbnail of dashboard '${dashboardId}' failed.`, error);
+                            }
+                        });
+                }, 'image/png');
+            })
+            .catch((error) => {
+                console.error(`Taking thumbnail of dashboard '${dashboardId}' failed.`, error);
+            });
     }
 
     /**
@@ -58,6 +120,20 @@ export default class DashboardThumbnail {
         return thumbnail || dashboardDefaultThumbnail;
     }
 
+    /**
+     * Loads the thumbnail stored in the server for a dashboard of the listing. Thumbnail URLs change whenever the
+     * thumbnail changes, hence the browser serves repeated loads from its cache.
+     * @param {{url: string, thumbnailUrl: string}} dashboard dashboard metadata from the dashboard listing
+     * @returns {Promise} Promise that resolves to an object URL of the thumbnail image
+     */
+    static loadStoredDashboardThumbnail(dashboard) {
+        if (!dashboard.thumbnailUrl) {
+            return Promise.reject(new Error(`Dashboard '${dashboard.url}' has no stored thumbnail.`));
+        }
+        return DashboardAPI.getDashboardThumbnail(dashboard.thumbnailUrl)
+            .then(response => URL.createObjectURL(response.data));
+    }
+
     /**
      * Deletes dashboard thumbnails of the current user.
      */
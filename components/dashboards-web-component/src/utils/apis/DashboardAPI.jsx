@@ -101,6 +101,29 @@ export default class DashboardAPI {
         return this.getHTTPClient().put(dashboardId, dashboard);
     }
 
+    /**
+     * Returns the thumbnail image behind the given thumbnail URL of the dashboard listing.
+     * @param {string} thumbnailUrl thumbnail URL, relative to the dashboards API
+     * @returns {Promise} Promise that resolves to the thumbnail image blob
+     */
+    static getDashboardThumbnail(thumbnailUrl) {
+        return new DashboardAPI()
+            .getHTTPClient()
+            .get(thumbnailUrl, { responseType: 'blob' });
+    }
+
+    /**
+     * Stores the thumbnail image of the dashboard with given ID.
+     * @param {string} dashboardId Dashboard ID
+     * @param {Blob} thumbnail thumbnail image
+     * @returns {Promise} Promise
+     */
+    static updateDashboardThumbnail(dashboardId, thumbnail) {
+        return new DashboardAPI()
+            .getHTTPClient()
+            .put(`${dashboardId}/thumbnail`, thumbnail, { headers: { 'Content-Type': thumbnail.type } });
+    }
+
     /**
      * This method will delete the dashboard with given ID
      * @param dashboardId
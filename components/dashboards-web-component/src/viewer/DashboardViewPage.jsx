@@ -50,6 +50,7 @@ class DashboardViewPage extends Component {
         super(props);
         const isDarkTheme = window.localStorage.getItem('isDarkTheme');
         this.dashboard = null;
+        this.dashboardVersion = null;
         this.isInitilialLoading = true;
         this.state = {
             dashboardFetchStatus: HttpStatus.UNKNOWN,
@@ -86,6 +87,8 @@ class DashboardViewPage extends Component {
         new DashboardAPI().getDashboardByID(this.props.match.params.dashboardId)
             .then((response) => {
                 this.dashboard = response.data;
+                // Entity tag of the dashboard changes whenever the dashboard changes.
+                this.dashboardVersion = response.headers.etag || null;
                 if (_.isString(this.dashboard.content.pages)) {
                     this.dashboard.content.pages = JSON.parse(this.dashboard.content.pages);
                 }
@@ -311,6 +314,7 @@ class DashboardViewPage extends Component {
                     dashboardName={this.dashboard ? this.dashboard.name : this.props.match.params.dashboardId}
                     dashboardPageContents={page.content}
                     dashboardPageHeight={page.height}
+                    dashboardVersion={this.dashboardVersion}
                     theme={theme}
                     dashboard={this.dashboard}
                 />
@@ -179,7 +179,8 @@ export default class DashboardRenderer extends Component {
     onWidgetLoadedEvent(totalNumberOfWidgets, dashboardName) {
         this.loadedWidgetsCount++;
         if (this.loadedWidgetsCount === totalNumberOfWidgets) {
-            DashboardThumbnail.saveDashboardThumbnail(dashboardName, dashboardContainerId);
+            DashboardThumbnail.saveDashboardThumbnail(dashboardName, dashboardContainerId,
+                this.props.dashboardVersion);
         }
     }
 
@@ -215,5 +216,10 @@ DashboardRenderer.propTypes = {
     dashboardName: PropTypes.string.isRequired,
     dashboardPageContents: PropTypes.arrayOf({}).isRequired,
     dashboardPageHeight: PropTypes.number.isRequired,
+    dashboardVersion: PropTypes.string,
     theme: PropTypes.shape({}).isRequired,
 };
+
+DashboardRenderer.defaultProps = {
+    dashboardVersion: null,
+};
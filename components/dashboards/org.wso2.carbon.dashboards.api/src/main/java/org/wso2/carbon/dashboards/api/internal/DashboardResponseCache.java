@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import com.google.gson.Gson;
+import org.wso2.carbon.dashboards.core.DashboardMetadataProvider;
+import org.wso2.carbon.dashboards.core.bean.CacheConfigurations;
+import org.wso2.carbon.dashboards.core.bean.CacheStatistics;
+import org.wso2.carbon.dashboards.core.cache.BoundedCache;
+import org.wso2.carbon.dashboards.core.exception.DashboardException;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
+
+/**
+ * Cache of serialized dashboards, so that popular dashboards are not serialized to JSON again for every request.
+ * Entries are validated against the content version of the dashboard on every request, hence updates made through
+ * the dashboard provider, on any node that shares its database, are never served stale. Missing dashboards are not
+ * cached, nor are dashboards without a version yet, such as deleted ones or ones stored before versions were kept.
+ *
+ * @since 4.1.26
+ */
+class DashboardResponseCache {
+
+    private static final Gson GSON = DashboardUtil.getGson();
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private final DashboardMetadataProvider dashboardDataProvider;
+    private final ResponseCompressor responseCompressor;
+    private final BoundedCache<String, SerializedDashboard> cache;
+
+    DashboardResponseCache(DashboardMetadataProvider dashboardDataProvider, ResponseCompressor responseCompressor,
+                           CacheConfigurations cacheConfigurations) {
+        this.dashboardDataProvider = dashboardDataProvider;
+        this.responseCompressor = responseCompressor;
+        this.cache = new BoundedCache<>("dashboard-responses", cacheConfigurations.getDashboardResponseCacheSize(),
+                                        cacheConfigurations.getDashboardResponseCacheExpiry(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the serialized form of the specified dashboard. Permissions should be checked before calling this.
+     *
+     * @param dashboardUrl URL of the dashboard
+     * @return serialized dashboard, or empty if there is no such dashboard
+     * @throws DashboardException if cannot read the dashboard
+     */
+    Optional<SerializedDashboard> get(String dashboardUrl) throws DashboardException {
+        long contentVersion = dashboardDataProvider.getContentVersion(dashboardUrl);
+        if (contentVersion <= 0) {
+            // Versions are not tracked by the provider, or not yet for this dashboard, hence a cached entry could not
+            // be told apart from a deleted dashboard.
+            cache.invalidate(dashboardUrl);
+            return serialize(dashboardUrl, contentVersion);
+        }
+        // Missing dashboards are loaded as null, which is not cached.
+        return Optional.ofNullable(cache.get(dashboardUrl, cached -> cached.contentVersion == contentVersion,
+                                             url -> serialize(url, contentVersion).orElse(null)));
+    }
+
+    /**
+     * Serializes the specified dashboard. The content version should be read before the dashboard, so that a
+     * concurrent update leaves a stale version behind rather than a stale dashboard under the new version.
+     */
+    private Optional<SerializedDashboard> serialize(String dashboardUrl, long contentVersion)
+            throws DashboardException {
+        return dashboardDataProvider.get(dashboardUrl)
+                .map(dashboard -> new SerializedDashboard(contentVersion, GSON.toJson(dashboard)));
+    }
+
+    /**
+     * Evicts the specified dashboard, e.g. when it is deleted.
+     *
+     * @param dashboardUrl URL of the dashboard
+     */
+    void invalidate(String dashboardUrl) {
+        cache.invalidate(dashboardUrl);
+    }
+
+    CacheStatistics getStatistics() {
+        return cache.getStatistics();
+    }
+
+    /**
+     * Serialized form of a dashboard.
+     */
+    class SerializedDashboard {
+
+        private final long contentVersion;
+        private final String json;
+        private final byte[] jsonBytes;
+        private final String contentHash;
+        private final ConcurrentMap<String, byte[]> compressedJsonBytes = new ConcurrentHashMap<>(2);
+
+        private SerializedDashboard(long contentVersion, String json) {
+            this.contentVersion = contentVersion;
+            this.json = json;
+            this.jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+            this.contentHash = DashboardUtil.getContentHash(jsonBytes);
+        }
+
+        /**
+         * Creates a response that serves this dashboard.
+         *
+         * @param acceptEncoding value of the {@code Accept-Encoding} request header, if any
+         * @param ifNoneMatch    value of the {@code If-None-Match} request header, if any
+         * @return response
+         */
+        Response toResponse(String acceptEncoding, String ifNoneMatch) {
+            String entityTag = "\"" + contentHash + "\"";
+            if (ThumbnailResponses.matches(ifNoneMatch, contentHash)) {
+                return Response.status(NOT_MODIFIED)
+                        .header(HttpHeaders.ETAG, entityTag)
+                        .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                        .build();
+            }
+            String encoding = responseCompressor.getEncoding(acceptEncoding, jsonBytes.length);
+            Response.ResponseBuilder responseBuilder;
+            if (encoding != null) {
+                // Compressed lazily as many clients never ask for a particular encoding.
+                responseBuilder = responseCompressor.ok(compressedJsonBytes.computeIfAbsent(
+                        encoding, key -> responseCompressor.compress(jsonBytes, key)), encoding);
+            } else {
+                // Strings are written as they are by the JSON entity writer.
+                responseBuilder = Response.ok(json).type(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            return responseBuilder
+                    .header(HttpHeaders.ETAG, entityTag)
+                    .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                    .build();
+        }
+    }
+}
@@ -25,19 +25,28 @@ import org.wso2.carbon.analytics.idp.client.core.models.Role;
 import org.wso2.carbon.analytics.msf4j.interceptor.common.AuthenticationInterceptor;
 import org.wso2.carbon.analytics.msf4j.interceptor.common.util.InterceptorConstants;
 import org.wso2.carbon.dashboards.core.DashboardMetadataProvider;
+import org.wso2.carbon.dashboards.core.bean.CacheStatistics;
 import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.DependencyCallStatistics;
 import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
 import org.wso2.carbon.dashboards.core.exception.UnauthorizedException;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
+import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.msf4j.Microservice;
 import org.wso2.msf4j.Request;
 import org.wso2.msf4j.interceptor.annotation.RequestInterceptor;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
@@ -45,6 +54,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -52,6 +62,8 @@ import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.CREATED;
 import static javax.ws.rs.core.Response.Status.FORBIDDEN;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.REQUEST_ENTITY_TOO_LARGE;
+import static javax.ws.rs.core.Response.Status.UNSUPPORTED_MEDIA_TYPE;
 
 /**
  * REST API for dashboard related operations.
@@ -63,9 +75,12 @@ public class DashboardRestApi implements Microservice {
 
     public static final String API_CONTEXT_PATH = "/apis/dashboards";
     private static final Logger LOGGER = LoggerFactory.getLogger(DashboardRestApi.class);
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = DashboardUtil.getGson();
 
     private final DashboardMetadataProvider dashboardDataProvider;
+    private final DashboardResponseCache dashboardResponseCache;
+    private final RequestExecutor requestExecutor;
+    private final RequestPipeline requestPipeline;
 
     /**
      * Creates a new dashboard REST API.
@@ -73,7 +88,40 @@ public class DashboardRestApi implements Microservice {
      * @param dashboardDataProvider metadata provider for dhashboards
      */
     public DashboardRestApi(DashboardMetadataProvider dashboardDataProvider) {
+        this(dashboardDataProvider, new ResponseCompressor(
+                     dashboardDataProvider.getReportGenerationConfigurations().getCompressionConfigurations()),
+             () -> null, RequestExecutor.direct());
+    }
+
+    /**
+     * Creates a new dashboard REST API that serves requests on the given executor.
+     *
+     * @param dashboardDataProvider metadata provider for dhashboards
+     * @param responseCompressor    compressor for large responses
+     * @param metricServiceSupplier supplier of the metric service, which supplies {@code null} when metrics are not
+     *                              available
+     * @param requestExecutor       executor that serves requests
+     * @since 4.1.26
+     */
+    DashboardRestApi(DashboardMetadataProvider dashboardDataProvider, ResponseCompressor responseCompressor,
+                     Supplier<MetricService> metricServiceSupplier, RequestExecutor requestExecutor) {
         this.dashboardDataProvider = dashboardDataProvider;
+        this.requestExecutor = requestExecutor;
+        this.requestPipeline = new RequestPipeline(requestExecutor,
+                                                   new RestApiMetrics(API_CONTEXT_PATH, metricServiceSupplier),
+                                                   new ReadinessGate(dashboardDataProvider::isReady),
+                                                   responseCompressor);
+        this.dashboardResponseCache = new DashboardResponseCache(dashboardDataProvider, responseCompressor,
+                dashboardDataProvider.getReportGenerationConfigurations().getCacheConfigurations());
+    }
+
+    /**
+     * Returns the statistics of the caches held by this API.
+     *
+     * @return cache statistics
+     */
+    List<CacheStatistics> getCacheStatistics() {
+        return Collections.singletonList(dashboardResponseCache.getStatistics());
     }
 
     /**
@@ -86,14 +134,16 @@ public class DashboardRestApi implements Microservice {
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/")
     public Response get(@Context Request request) {
-        try {
-            return Response.ok().entity(dashboardDataProvider.getAllByUser(getUserName(request))).build();
-        } catch (UnauthorizedException e) {
-            return Response.status(FORBIDDEN).build();
-        } catch (DashboardException e) {
-            LOGGER.error("An error occurred when listing dashboards.", e);
-            return Response.serverError().entity("Cannot list dashboards.").build();
-        }
+        return serve("GET /", request, null, () -> {
+            try {
+                return Response.ok(dashboardDataProvider.getAllByUser(getUserName(request))).build();
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).build();
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when listing dashboards.", e);
+                return Response.serverError().entity("Cannot list dashboards.").build();
+            }
+        });
     }
 
     /**
@@ -107,20 +157,28 @@ public class DashboardRestApi implements Microservice {
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/{id}")
     public Response get(@PathParam("id") String id, @Context Request request) {
-        try {
-            return dashboardDataProvider.getDashboardByUser(getUserName(request), id,
-                                                            request.getHeader("X-Dashboard-Origin-Component")).map(
-                    metadata ->
-                            Response.ok().entity(metadata).build())
-                    .orElse(Response.status(NOT_FOUND).entity("Cannot find a dashboard for ID '" + id + "'.").build());
-        } catch (UnauthorizedException e) {
-            return Response.status(FORBIDDEN).entity("Insufficient permissions to retrieve dashboard with ID : " +
-                                                        id).build();
-        } catch (DashboardException e) {
-            LOGGER.error(String.format("An error occurred when retrieving" +
-                                       " dashboard for ID %s.", replaceCRLFCharacters(id)), e);
-            return Response.serverError().entity("Cannot retrieve dashboard for ID '" + id + "'.").build();
-        }
+        return serve("GET /{id}", request, id, () -> {
+            try {
+                // Content is read while permissions are resolved, as both may take long.
+                RequestExecutor.Fork<Optional<DashboardResponseCache.SerializedDashboard>> content =
+                        requestExecutor.fork(() -> dashboardResponseCache.get(id));
+                if (!dashboardDataProvider.isAuthorized(getUserName(request), id,
+                                                        request.getHeader("X-Dashboard-Origin-Component"))) {
+                    return Response.status(FORBIDDEN)
+                            .entity("Insufficient permissions to retrieve dashboard with ID : " + id).build();
+                }
+                return content.join()
+                        .map(serializedDashboard -> serializedDashboard.toResponse(
+                                request.getHeader(HttpHeaders.ACCEPT_ENCODING),
+                                request.getHeader(HttpHeaders.IF_NONE_MATCH)))
+                        .orElse(Response.status(NOT_FOUND)
+                                        .entity("Cannot find a dashboard for ID '" + id + "'.").build());
+            } catch (DashboardException e) {
+                LOGGER.error(String.format("An error occurred when retrieving" +
+                                           " dashboard for ID %s.", replaceCRLFCharacters(id)), e);
+                return Response.serverError().entity("Cannot retrieve dashboard for ID '" + id + "'.").build();
+            }
+        });
     }
 
     /**
@@ -134,24 +192,26 @@ public class DashboardRestApi implements Microservice {
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/")
     public Response create(@Context Request request, DashboardMetadata dashboardMetadata) {
-        try {
-            if (!dashboardDataProvider.get(dashboardMetadata.getUrl()).isPresent()) {
-                dashboardDataProvider.add(getUserName(request), dashboardMetadata);
-                return Response.status(CREATED).build();
-            } else {
-                return Response.status(CONFLICT)
-                        .entity("Dashboard with URL " + dashboardMetadata.getUrl() + " already exists.")
-                        .build();
+        return serve("POST /", request, null, () -> {
+            try {
+                if (!dashboardDataProvider.get(dashboardMetadata.getUrl()).isPresent()) {
+                    dashboardDataProvider.add(getUserName(request), dashboardMetadata);
+                    return Response.status(CREATED).build();
+                } else {
+                    return Response.status(CONFLICT)
+                            .entity("Dashboard with URL " + dashboardMetadata.getUrl() + " already exists.")
+                            .build();
+                }
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).entity("Insufficient permissions to create a dashboard").build();
+            } catch (DashboardException e) {
+                // TODO: 12/7/17
+                LOGGER.error("An error occurred when creating a new dashboard from {} data.",
+                             replaceCRLFCharacters(dashboardMetadata.toString()), e);
+                return Response.serverError()
+                        .entity("Cannot create a new dashboard from '" + dashboardMetadata + "'.").build();
             }
-        } catch (UnauthorizedException e) {
-            return Response.status(FORBIDDEN).entity("Insufficient permissions to create a dashboard").build();
-        } catch (DashboardException e) {
-            // TODO: 12/7/17
-            LOGGER.error("An error occurred when creating a new dashboard from {} data.",
-                         replaceCRLFCharacters(dashboardMetadata.toString()), e);
-            return Response.serverError()
-                    .entity("Cannot create a new dashboard from '" + dashboardMetadata + "'.").build();
-        }
+        });
     }
 
     /**
@@ -166,16 +226,18 @@ public class DashboardRestApi implements Microservice {
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/{id}")
     public Response update(@PathParam("id") String id, DashboardMetadata dashboardMetadata, @Context Request request) {
-        try {
-            dashboardDataProvider.update(getUserName(request), dashboardMetadata);
-            return Response.ok().build();
-        } catch (UnauthorizedException e) {
-            return Response.status(FORBIDDEN).entity("Insufficient permissions to update the dashboard with ID : " +
-                                                        dashboardMetadata.getUrl()).build();
-        } catch (DashboardException e) {
-            LOGGER.error("An error occurred when updating dashboard '{}' with {} data.", id, dashboardMetadata, e);
-            return Response.serverError().entity("Cannot update dashboard '" + id + "'.").build();
-        }
+        return serve("PUT /{id}", request, id, () -> {
+            try {
+                dashboardDataProvider.update(getUserName(request), dashboardMetadata);
+                return Response.ok().build();
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).entity("Insufficient permissions to update the dashboard with ID : " +
+                                                            dashboardMetadata.getUrl()).build();
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when updating dashboard '{}' with {} data.", id, dashboardMetadata, e);
+                return Response.serverError().entity("Cannot update dashboard '" + id + "'.").build();
+            }
+        });
     }
 
     /**
@@ -187,101 +249,191 @@ public class DashboardRestApi implements Microservice {
     @DELETE
     @Path("/{id}")
     public Response delete(@PathParam("id") String id, @Context Request request) {
-        try {
-            dashboardDataProvider.delete(getUserName(request), id);
-            return Response.ok().build();
-        } catch (UnauthorizedException e) {
-            return Response.status(FORBIDDEN).entity("Insufficient permissions to delete the dashboard with ID : "
-                                                        + id).build();
-        } catch (DashboardException e) {
-            LOGGER.error(String.format("An error occurred when deleting dashboard %s",
-                                       replaceCRLFCharacters(id)), e);
-            return Response.serverError().entity("Cannot delete dashboard '" + id + "'.").build();
-        }
+        return serve("DELETE /{id}", request, id, () -> {
+            try {
+                dashboardDataProvider.delete(getUserName(request), id);
+                dashboardResponseCache.invalidate(id);
+                return Response.ok().build();
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).entity("Insufficient permissions to delete the dashboard with ID : "
+                                                            + id).build();
+            } catch (DashboardException e) {
+                LOGGER.error(String.format("An error occurred when deleting dashboard %s",
+                                           replaceCRLFCharacters(id)), e);
+                return Response.serverError().entity("Cannot delete dashboard '" + id + "'.").build();
+            }
+        });
+    }
+
+    /**
+     * Returns the thumbnail of the dashboard corresponding to the supplied ID.
+     *
+     * @since 4.1.26
+     *
+     * @param id          ID of the dashboard
+     * @param version     version of the thumbnail, as given in the thumbnail URL of the dashboard listing
+     * @param ifNoneMatch entity tag of the thumbnail cached by the client
+     * @return response that carries the thumbnail image
+     */
+    @GET
+    @Path("/{id}/thumbnail")
+    public Response getThumbnail(@PathParam("id") String id,
+                                 @QueryParam(ThumbnailResponses.QUERY_PARAM_VERSION) String version,
+                                 @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                 @Context Request request) {
+        return serve("GET /{id}/thumbnail", request, id, () -> {
+            try {
+                return dashboardDataProvider.getThumbnail(getUserName(request), id)
+                        .map(thumbnail -> ThumbnailResponses.ok(thumbnail, version, ifNoneMatch))
+                        .orElse(Response.status(NOT_FOUND)
+                                        .entity("Cannot find thumbnail of dashboard '" + id + "'.").build());
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).entity("Insufficient permissions to retrieve thumbnail of " +
+                                                            "dashboard with ID : " + id).build();
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when retrieving thumbnail of dashboard '{}'.",
+                             replaceCRLFCharacters(id), e);
+                return Response.serverError().entity("Cannot retrieve thumbnail of dashboard '" + id + "'.").build();
+            }
+        });
+    }
+
+    /**
+     * Stores the thumbnail of the dashboard corresponding to the supplied ID. The request body is the thumbnail image.
+     *
+     * @since 4.1.26
+     *
+     * @param id ID of the dashboard
+     * @return response
+     */
+    @PUT
+    @Path("/{id}/thumbnail")
+    public Response updateThumbnail(@PathParam("id") String id, @Context Request request) {
+        return serve("PUT /{id}/thumbnail", request, id, () -> {
+            try {
+                String mediaType = ThumbnailResponses.getImageMediaType(request.getContentType());
+                if (mediaType == null) {
+                    return Response.status(UNSUPPORTED_MEDIA_TYPE)
+                            .entity("Thumbnail should be a PNG, JPEG, GIF or WebP image.").build();
+                }
+                if (!dashboardDataProvider.get(id).isPresent()) {
+                    return Response.status(NOT_FOUND).entity("Cannot find a dashboard for ID '" + id + "'.").build();
+                }
+                byte[] content = ThumbnailResponses.readThumbnail(request.getMessageContentStream());
+                if (content == null) {
+                    return Response.status(REQUEST_ENTITY_TOO_LARGE)
+                            .entity("Thumbnail should not be larger than " + ThumbnailResponses.MAX_THUMBNAIL_SIZE +
+                                    " bytes.").build();
+                }
+                if (!ThumbnailResponses.isImage(content, mediaType)) {
+                    return Response.status(UNSUPPORTED_MEDIA_TYPE)
+                            .entity("Thumbnail is not a valid '" + mediaType + "' image.").build();
+                }
+                dashboardDataProvider.setThumbnail(getUserName(request), id, mediaType, content);
+                return Response.ok().build();
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).entity("Insufficient permissions to update thumbnail of dashboard " +
+                                                            "with ID : " + id).build();
+            } catch (DashboardException | IOException e) {
+                LOGGER.error("An error occurred when updating thumbnail of dashboard '{}'.",
+                             replaceCRLFCharacters(id), e);
+                return Response.serverError().entity("Cannot update thumbnail of dashboard '" + id + "'.").build();
+            }
+        });
     }
 
     @GET
     @Path("/roles")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getRoles(@Context Request request) {
-        try {
-            List<Role> allRoles = dashboardDataProvider.getAllRoles(getUserName(request));
-            return Response.ok()
-                    .entity(allRoles)
-                    .build();
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot retrieve user roles.", e);
-            return Response.serverError()
-                    .entity("Cannot retrieve user roles.")
-                    .build();
-        }
+        return serve("GET /roles", request, null, () -> {
+            try {
+                List<Role> allRoles = dashboardDataProvider.getAllRoles(getUserName(request));
+                return Response.ok()
+                        .entity(allRoles)
+                        .build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot retrieve user roles.", e);
+                return Response.serverError()
+                        .entity("Cannot retrieve user roles.")
+                        .build();
+            }
+        });
     }
 
     @GET
     @Path("/roles/{username}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getRolesByUsername(@PathParam("username") String username) {
-        try {
-            List<Role> roles = dashboardDataProvider.getRolesByUsername(username);
-            return Response.ok()
-                    .entity(roles)
-                    .build();
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot retrieve user roles for '" + replaceCRLFCharacters(username) + "'.", e);
-            return Response.serverError()
-                    .entity("Cannot retrieve user roles for '" + username + "'.")
-                    .build();
-        }
+    public Response getRolesByUsername(@PathParam("username") String username, @Context Request request) {
+        return serve("GET /roles/{username}", request, null, () -> {
+            try {
+                List<Role> roles = dashboardDataProvider.getRolesByUsername(username);
+                return Response.ok()
+                        .entity(roles)
+                        .build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot retrieve user roles for '" + replaceCRLFCharacters(username) + "'.", e);
+                return Response.serverError()
+                        .entity("Cannot retrieve user roles for '" + username + "'.")
+                        .build();
+            }
+        });
     }
 
     @GET
     @Path("/roles/{username}/iscreator")
     @Produces(MediaType.TEXT_PLAIN)
-    public Response isCreator(@PathParam("username") String username) {
-        try {
-            boolean isCreator = dashboardDataProvider.isCreator(username);
-            return Response.ok()
-                    .entity(isCreator)
-                    .build();
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot read user roles for '" + username + "'.", e);
-            return Response.serverError()
-                    .entity("Cannot read user roles for '" + username + "'.")
-                    .build();
-        }
+    public Response isCreator(@PathParam("username") String username, @Context Request request) {
+        return serve("GET /roles/{username}/iscreator", request, null, () -> {
+            try {
+                boolean isCreator = dashboardDataProvider.isCreator(username);
+                return Response.ok()
+                        .entity(isCreator)
+                        .build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot read user roles for '" + username + "'.", e);
+                return Response.serverError()
+                        .entity("Cannot read user roles for '" + username + "'.")
+                        .build();
+            }
+        });
     }
 
     @GET
     @Path("/roles/{username}/iswidgetcreator")
     @Produces(MediaType.TEXT_PLAIN)
-    public Response isWidgetCreator(@PathParam("username") String username) {
-        try {
-            boolean isWidgetCreator = dashboardDataProvider.isWidgetCreator(username);
-            return Response.ok()
-                    .entity(isWidgetCreator)
-                    .build();
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot read user roles for '" + username + "'.", e);
-            return Response.serverError()
-                    .entity("Cannot read user roles for '" + username + "'.")
-                    .build();
-        }
+    public Response isWidgetCreator(@PathParam("username") String username, @Context Request request) {
+        return serve("GET /roles/{username}/iswidgetcreator", request, null, () -> {
+            try {
+                boolean isWidgetCreator = dashboardDataProvider.isWidgetCreator(username);
+                return Response.ok()
+                        .entity(isWidgetCreator)
+                        .build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot read user roles for '" + username + "'.", e);
+                return Response.serverError()
+                        .entity("Cannot read user roles for '" + username + "'.")
+                        .build();
+            }
+        });
     }
 
     @GET
     @Path("/{url}/roles")
     @Produces(MediaType.APPLICATION_JSON)
     public Response getDashboardRoles(@PathParam("url") String url, @Context Request request) {
-        try {
-            return Response.ok()
-                    .entity(dashboardDataProvider.getDashboardRoles(url, getUserName(request)))
-                    .build();
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot retrieve roles for dashboard '" + replaceCRLFCharacters(url) + "'", e);
-            return Response.serverError()
-                    .entity("Cannot retrieve roles for dashboard '" + url + "'")
-                    .build();
-        }
+        return serve("GET /{url}/roles", request, url, () -> {
+            try {
+                return Response.ok()
+                        .entity(dashboardDataProvider.getDashboardRoles(url, getUserName(request)))
+                        .build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot retrieve roles for dashboard '" + replaceCRLFCharacters(url) + "'", e);
+                return Response.serverError()
+                        .entity("Cannot retrieve roles for dashboard '" + url + "'")
+                        .build();
+            }
+        });
     }
 
     @POST
@@ -289,18 +441,20 @@ public class DashboardRestApi implements Microservice {
     @Consumes(MediaType.APPLICATION_JSON)
     public Response updateDashboardRoles(@PathParam("url") String url, @Context Request request, Map<String,
             List<String>> roles) {
-        try {
-            dashboardDataProvider.updateDashboardRoles(getUserName(request), url, roles);
-            return Response.ok().build();
-        } catch (UnauthorizedException e) {
-            return Response.status(FORBIDDEN).entity("Insufficient permissions to update the roles of dashboard " +
-                                                        "with ID : " + url).build();
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot update user roles of dashboard '" + replaceCRLFCharacters(url) + "'.", e);
-            return Response.serverError()
-                    .entity("Cannot update user roles of dashboard '" + url + "'.")
-                    .build();
-        }
+        return serve("POST /{url}/roles", request, url, () -> {
+            try {
+                dashboardDataProvider.updateDashboardRoles(getUserName(request), url, roles);
+                return Response.ok().build();
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).entity("Insufficient permissions to update the roles of dashboard " +
+                                                            "with ID : " + url).build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot update user roles of dashboard '" + replaceCRLFCharacters(url) + "'.", e);
+                return Response.serverError()
+                        .entity("Cannot update user roles of dashboard '" + url + "'.")
+                        .build();
+            }
+        });
     }
 
     /**
@@ -321,18 +475,21 @@ public class DashboardRestApi implements Microservice {
     @Produces(MediaType.APPLICATION_JSON)
     public Response exportDashboard(@PathParam("url") String url, @QueryParam("download") boolean download,
                                     @QueryParam("permissions") boolean permissions, @Context Request request) {
-        try {
-            DashboardArtifact artifact = dashboardDataProvider.exportDashboard(url, permissions, getUserName(request));
-            Response.ResponseBuilder responseBuilder = Response.ok(artifact);
-            if (download) {
-                responseBuilder.header("Content-Disposition", "attachment; filename=\""
-                        + replaceCRLFCharacters(url) + ".json\"");
+        return serve("GET /{url}/export", request, url, () -> {
+            try {
+                DashboardArtifact artifact = dashboardDataProvider.exportDashboard(url, permissions,
+                                                                                   getUserName(request));
+                Response.ResponseBuilder responseBuilder = Response.ok(artifact);
+                if (download) {
+                    responseBuilder.header("Content-Disposition", "attachment; filename=\""
+                            + replaceCRLFCharacters(url) + ".json\"");
+                }
+                return responseBuilder.build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot export dashboard '" + replaceCRLFCharacters(url) + "'.", e);
+                return Response.serverError().entity("Cannot export dashboard '" + url + "'.").build();
             }
-            return responseBuilder.build();
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot export dashboard '" + replaceCRLFCharacters(url) + "'.", e);
-            return Response.serverError().entity("Cannot export dashboard '" + url + "'.").build();
-        }
+        });
     }
 
     private static String getUserName(Request request) {
@@ -355,10 +512,12 @@ public class DashboardRestApi implements Microservice {
     @Path("/report-config")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getReportConfigs() {
-        Map<String, Object> reportConfigurations = dashboardDataProvider.getReportGenerationConfigurations()
-                                                                  .getReportConfigs();
-        return Response.ok().entity(reportConfigurations).build();
+    public Response getReportConfigs(@Context Request request) {
+        return serve("GET /report-config", request, null, () -> {
+            Map<String, Object> reportConfigurations = dashboardDataProvider.getReportGenerationConfigurations()
+                                                                      .getReportConfigs();
+            return Response.ok().entity(reportConfigurations).build();
+        });
     }
 
     /**
@@ -372,14 +531,16 @@ public class DashboardRestApi implements Microservice {
     @Path("/favicon-path")
     @Produces(MediaType.TEXT_PLAIN)
     public Response getFaviconPath(@Context Request request) {
-        String faviconPath;
-        try {
-            faviconPath = dashboardDataProvider.getFaviconPath(getUserName(request));
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot get the path where favicon is stored.", e);
-            return Response.serverError().entity("Cannot get the path where favicon is stored.").build();
-        }
-        return Response.ok().entity(faviconPath).build();
+        return serve("GET /favicon-path", request, null, () -> {
+            String faviconPath;
+            try {
+                faviconPath = dashboardDataProvider.getFaviconPath(getUserName(request));
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot get the path where favicon is stored.", e);
+                return Response.serverError().entity("Cannot get the path where favicon is stored.").build();
+            }
+            return Response.ok().entity(faviconPath).build();
+        });
     }
 
     /**
@@ -393,13 +554,46 @@ public class DashboardRestApi implements Microservice {
     @Path("/logo-path")
     @Produces(MediaType.TEXT_PLAIN)
     public Response getLogoPath(@Context Request request) {
-        String logoPath;
-        try {
-            logoPath = dashboardDataProvider.getLogoPath(getUserName(request));
-        } catch (DashboardException e) {
-            LOGGER.error("Cannot get the path where logo image is stored.", e);
-            return Response.serverError().entity("Cannot get the path where logo image is stored.").build();
-        }
-        return Response.ok().entity(logoPath).build();
+        return serve("GET /logo-path", request, null, () -> {
+            String logoPath;
+            try {
+                logoPath = dashboardDataProvider.getLogoPath(getUserName(request));
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot get the path where logo image is stored.", e);
+                return Response.serverError().entity("Cannot get the path where logo image is stored.").build();
+            }
+            return Response.ok().entity(logoPath).build();
+        });
+    }
+
+    /**
+     * Gets call statistics of the permission provider and the identity provider client. Only administrators can view
+     * them.
+     *
+     * @since 4.1.26
+     *
+     * @return response
+     */
+    @GET
+    @Path("/debug/dependencies")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getDependencyCallStatistics(@Context Request request) {
+        return serve("GET /debug/dependencies", request, null, () -> {
+            try {
+                List<DependencyCallStatistics> statistics =
+                        dashboardDataProvider.getDependencyCallStatistics(getUserName(request));
+                return Response.ok().entity(statistics).build();
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).entity("Insufficient permissions to view dependency call "
+                                                          + "statistics.").build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot retrieve dependency call statistics.", e);
+                return Response.serverError().entity("Cannot retrieve dependency call statistics.").build();
+            }
+        });
+    }
+
+    private Response serve(String route, Request request, String dashboardUrl, Supplier<Response> resourceMethod) {
+        return requestPipeline.serve(route, request, dashboardUrl, resourceMethod);
     }
 }
@@ -30,6 +30,8 @@ import org.slf4j.LoggerFactory;
 import org.wso2.carbon.config.ConfigurationException;
 import org.wso2.carbon.config.provider.ConfigProvider;
 import org.wso2.carbon.dashboards.core.DashboardMetadataProvider;
+import org.wso2.carbon.dashboards.core.DiagnosticsContributor;
+import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.carbon.uiserver.api.App;
 import org.wso2.carbon.uiserver.spi.RestApiProvider;
 import org.wso2.msf4j.Microservice;
@@ -37,6 +39,7 @@ import org.wso2.msf4j.Microservice;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provider that supplies Microservices for the {@link #DASHBOARD_PORTAL_APP_NAME} web app.
@@ -53,6 +56,9 @@ public class DashboardRestApiProvider implements RestApiProvider {
 
     private DashboardMetadataProvider dashboardMetadataProvider;
     private ConfigProvider configProvider;
+    private volatile MetricService metricService;
+    private volatile RequestExecutor requestExecutor;
+    private final Map<String, DiagnosticsContributor> diagnosticsContributors = new ConcurrentHashMap<>();
 
     @Activate
     protected void activate(BundleContext bundleContext) {
@@ -61,6 +67,10 @@ public class DashboardRestApiProvider implements RestApiProvider {
 
     @Deactivate
     protected void deactivate(BundleContext bundleContext) {
+        RequestExecutor executor = requestExecutor;
+        if (executor != null) {
+            executor.shutdown();
+        }
         LOGGER.debug("{} deactivated.", this.getClass().getName());
     }
 
@@ -92,6 +102,34 @@ public class DashboardRestApiProvider implements RestApiProvider {
         LOGGER.debug("ConfigProvider '{}' unregistered.", configProvider.getClass().getName());
     }
 
+    @Reference(service = MetricService.class,
+               cardinality = ReferenceCardinality.OPTIONAL,
+               policy = ReferencePolicy.DYNAMIC,
+               unbind = "unsetMetricService")
+    protected void setMetricService(MetricService metricService) {
+        this.metricService = metricService;
+        LOGGER.debug("MetricService '{}' registered.", metricService.getClass().getName());
+    }
+
+    protected void unsetMetricService(MetricService metricService) {
+        this.metricService = null;
+        LOGGER.debug("MetricService '{}' unregistered.", metricService.getClass().getName());
+    }
+
+    @Reference(service = DiagnosticsContributor.class,
+               cardinality = ReferenceCardinality.MULTIPLE,
+               policy = ReferencePolicy.DYNAMIC,
+               unbind = "unsetDiagnosticsContributor")
+    protected void setDiagnosticsContributor(DiagnosticsContributor diagnosticsContributor) {
+        this.diagnosticsContributors.put(diagnosticsContributor.getName(), diagnosticsContributor);
+        LOGGER.debug("DiagnosticsContributor '{}' registered.", diagnosticsContributor.getClass().getName());
+    }
+
+    protected void unsetDiagnosticsContributor(DiagnosticsContributor diagnosticsContributor) {
+        this.diagnosticsContributors.remove(diagnosticsContributor.getName(), diagnosticsContributor);
+        LOGGER.debug("DiagnosticsContributor '{}' unregistered.", diagnosticsContributor.getClass().getName());
+    }
+
     @Override
     public String getAppName() {
         return DASHBOARD_PORTAL_APP_NAME;
@@ -101,10 +139,27 @@ public class DashboardRestApiProvider implements RestApiProvider {
     public Map<String, Microservice> getMicroservices(App app) {
         dashboardMetadataProvider.init(app);
         HashMap<String, Microservice> additionalServices = getAdditionalApiServices();
-        Map<String, Microservice> microservices = new HashMap<>(additionalServices.size() + 2);
-        microservices.put(DashboardRestApi.API_CONTEXT_PATH, new DashboardRestApi(dashboardMetadataProvider));
+        Map<String, Microservice> microservices = new HashMap<>(additionalServices.size() + 3);
+        ResponseCompressor responseCompressor = new ResponseCompressor(
+                dashboardMetadataProvider.getReportGenerationConfigurations().getCompressionConfigurations());
+        RequestExecutor executor = new RequestExecutor(
+                dashboardMetadataProvider.getReportGenerationConfigurations().getRequestExecutionConfigurations(),
+                () -> metricService);
+        RequestExecutor previousExecutor = requestExecutor;
+        requestExecutor = executor;
+        if (previousExecutor != null) {
+            previousExecutor.shutdown();
+        }
+        DashboardRestApi dashboardRestApi = new DashboardRestApi(dashboardMetadataProvider, responseCompressor,
+                                                                 () -> metricService, executor);
+        microservices.put(DashboardRestApi.API_CONTEXT_PATH, dashboardRestApi);
         microservices.put(WidgetRestApi.API_CONTEXT_PATH,
-                          new WidgetRestApi(dashboardMetadataProvider.getWidgetMetadataProvider()));
+                          new WidgetRestApi(dashboardMetadataProvider.getWidgetMetadataProvider(), responseCompressor,
+                                            () -> metricService, dashboardMetadataProvider::isReady, executor,
+                                            dashboardMetadataProvider::isWidgetCreator));
+        microservices.put(DiagnosticsRestApi.API_CONTEXT_PATH,
+                          new DiagnosticsRestApi(dashboardMetadataProvider, dashboardRestApi::getCacheStatistics,
+                                                 diagnosticsContributors.values(), () -> metricService));
         microservices.putAll(additionalServices);
         return microservices;
     }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.analytics.msf4j.interceptor.common.AuthenticationInterceptor;
+import org.wso2.carbon.analytics.msf4j.interceptor.common.util.InterceptorConstants;
+import org.wso2.carbon.dashboards.core.DashboardMetadataProvider;
+import org.wso2.carbon.dashboards.core.DiagnosticsContributor;
+import org.wso2.carbon.dashboards.core.bean.CacheStatistics;
+import org.wso2.carbon.dashboards.core.bean.Diagnostics;
+import org.wso2.carbon.dashboards.core.exception.DashboardException;
+import org.wso2.carbon.dashboards.core.exception.UnauthorizedException;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.msf4j.Microservice;
+import org.wso2.msf4j.Request;
+import org.wso2.msf4j.interceptor.annotation.RequestInterceptor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.Response.Status.FORBIDDEN;
+
+/**
+ * REST API for administrative diagnostics of the dashboard server.
+ *
+ * @since 4.1.26
+ */
+@RequestInterceptor(AuthenticationInterceptor.class)
+public class DiagnosticsRestApi implements Microservice {
+
+    public static final String API_CONTEXT_PATH = "/apis/dashboards/admin";
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiagnosticsRestApi.class);
+
+    private final DashboardMetadataProvider dashboardMetadataProvider;
+    private final Supplier<List<CacheStatistics>> apiCacheStatisticsSupplier;
+    private final Collection<DiagnosticsContributor> diagnosticsContributors;
+    private final RestApiMetrics metrics;
+
+    /**
+     * Creates a new diagnostics REST API.
+     *
+     * @param dashboardMetadataProvider  metadata provider for dashboards
+     * @param apiCacheStatisticsSupplier supplier of the statistics of the caches held by the REST APIs
+     * @param diagnosticsContributors    other components that report diagnostics, which may change over time
+     * @param metricServiceSupplier      supplier of the metric service, which supplies {@code null} when metrics are
+     *                                   not available
+     */
+    public DiagnosticsRestApi(DashboardMetadataProvider dashboardMetadataProvider,
+                              Supplier<List<CacheStatistics>> apiCacheStatisticsSupplier,
+                              Collection<DiagnosticsContributor> diagnosticsContributors,
+                              Supplier<MetricService> metricServiceSupplier) {
+        this.dashboardMetadataProvider = dashboardMetadataProvider;
+        this.apiCacheStatisticsSupplier = apiCacheStatisticsSupplier;
+        this.diagnosticsContributors = diagnosticsContributors;
+        this.metrics = new RestApiMetrics(API_CONTEXT_PATH, metricServiceSupplier);
+    }
+
+    /**
+     * Gets the diagnostics of the dashboard server. Only administrators can view them.
+     *
+     * @param request HTTP request
+     * @return response that carries the diagnostics
+     */
+    @GET
+    @Path("/diagnostics")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getDiagnostics(@Context Request request) {
+        return metrics.time("GET /diagnostics", request, null, () -> {
+            Diagnostics diagnostics;
+            try {
+                diagnostics = dashboardMetadataProvider.getDiagnostics(getUserName(request));
+            } catch (UnauthorizedException e) {
+                return Response.status(FORBIDDEN).entity("Insufficient permissions to view diagnostics.").build();
+            } catch (DashboardException e) {
+                LOGGER.error("Cannot retrieve diagnostics.", e);
+                return Response.serverError().entity("Cannot retrieve diagnostics.").build();
+            }
+            apiCacheStatisticsSupplier.get().forEach(diagnostics::addCache);
+            for (DiagnosticsContributor contributor : diagnosticsContributors) {
+                try {
+                    diagnostics.putComponent(contributor.getName(), contributor.getDiagnostics());
+                } catch (RuntimeException e) {
+                    // A faulty component should not hide the diagnostics of others.
+                    LOGGER.warn("Cannot retrieve diagnostics of component '{}'.", contributor.getName(), e);
+                }
+            }
+            return Response.ok().entity(diagnostics).build();
+        });
+    }
+
+    private static String getUserName(Request request) {
+        return request.getProperty(InterceptorConstants.PROPERTY_USERNAME).toString();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+
+/**
+ * Rejects requests with {@code 503 Service Unavailable} until the dashboard server has completed its startup, e.g.
+ * importing dashboards in the background.
+ *
+ * @since 4.1.26
+ */
+class ReadinessGate {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final BooleanSupplier readinessSupplier;
+
+    ReadinessGate(BooleanSupplier readinessSupplier) {
+        this.readinessSupplier = readinessSupplier;
+    }
+
+    /**
+     * Guards a resource method so that it runs only when the server is ready.
+     *
+     * @param resourceMethod body of the resource method
+     * @return guarded resource method
+     */
+    Supplier<Response> guard(Supplier<Response> resourceMethod) {
+        return () -> {
+            if (!readinessSupplier.getAsBoolean()) {
+                return Response.status(SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .entity("Dashboard server is starting up.")
+                        .build();
+            }
+            return resourceMethod.get();
+        };
+    }
+}
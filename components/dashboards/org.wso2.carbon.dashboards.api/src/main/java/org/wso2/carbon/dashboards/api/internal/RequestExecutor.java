@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.dashboards.core.bean.RequestExecutionConfigurations;
+import org.wso2.carbon.dashboards.core.exception.DashboardException;
+import org.wso2.carbon.dashboards.core.utils.MetricsHolder;
+import org.wso2.carbon.metrics.core.Counter;
+import org.wso2.carbon.metrics.core.Histogram;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Timer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+
+/**
+ * Bounded executor that serves REST API requests, so that slow dependencies (e.g. the identity provider) cannot hold
+ * all the threads of the MSF4J transport, which also serve the static resources of the portal. Requests that cannot
+ * be queued, that wait in the queue for too long, or that are not served within the maximum request time, are
+ * answered with {@code 503 Service Unavailable}.
+ * <p>
+ * MSF4J does not support asynchronous responses, hence a transport thread waits for the response of its request.
+ * At most as many transport threads as requests that are served and queued wait at a time, each of them no longer
+ * than the maximum request time. Calls forked by requests run on a separate, small pool so that they never wait
+ * behind the requests that fork them. Metrics are named {@code org.wso2.carbon.dashboards.api.executor.<metric>}.
+ *
+ * @since 4.1.26
+ */
+class RequestExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestExecutor.class);
+    private static final String METRIC_PREFIX = "org.wso2.carbon.dashboards.api.executor.";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor forkExecutor;
+    private final long maxQueueTimeNanos;
+    private final long maxRequestTimeNanos;
+    private final Supplier<MetricService> metricServiceSupplier;
+    private final MetricsHolder<ExecutorMetrics> metrics = new MetricsHolder<>(ExecutorMetrics::new);
+
+    /**
+     * Creates a new request executor.
+     *
+     * @param configurations        request execution configurations
+     * @param metricServiceSupplier supplier of the metric service, which supplies {@code null} when the service is
+     *                              not available
+     */
+    RequestExecutor(RequestExecutionConfigurations configurations, Supplier<MetricService> metricServiceSupplier) {
+        RequestExecutionConfigurations defaults = new RequestExecutionConfigurations();
+        int maxThreads = configurations.getMaxConcurrentRequests();
+        if (maxThreads < 1) {
+            LOGGER.warn("Maximum number of concurrent REST API requests should be positive, but found {}. Hence {} is "
+                        + "used.", maxThreads, defaults.getMaxConcurrentRequests());
+            maxThreads = defaults.getMaxConcurrentRequests();
+        }
+        int maxQueuedRequests = configurations.getMaxQueuedRequests();
+        if (maxQueuedRequests < 0) {
+            LOGGER.warn("Maximum number of queued REST API requests should not be negative, but found {}. Hence {} is "
+                        + "used.", maxQueuedRequests, defaults.getMaxQueuedRequests());
+            maxQueuedRequests = defaults.getMaxQueuedRequests();
+        }
+        long maxQueueTime = configurations.getMaxQueueTime();
+        if (maxQueueTime <= 0) {
+            LOGGER.warn("Maximum queue time of REST API requests should be positive, but found {} ms. Hence {} ms is "
+                        + "used.", maxQueueTime, defaults.getMaxQueueTime());
+            maxQueueTime = defaults.getMaxQueueTime();
+        }
+        long maxRequestTime = configurations.getMaxRequestTime();
+        if (maxRequestTime < maxQueueTime) {
+            long fallback = Math.max(defaults.getMaxRequestTime(), maxQueueTime);
+            LOGGER.warn("Maximum time of REST API requests should not be less than their maximum queue time of {} ms, "
+                        + "but found {} ms. Hence {} ms is used.", maxQueueTime, maxRequestTime, fallback);
+            maxRequestTime = fallback;
+        }
+        BlockingQueue<Runnable> queue = (maxQueuedRequests > 0) ?
+                new ArrayBlockingQueue<>(maxQueuedRequests) : new SynchronousQueue<>();
+        this.executor = createExecutor("dashboard-api-", maxThreads, queue);
+        // Forked calls are not queued, as they run on the joining thread when no forking thread is free.
+        this.forkExecutor = createExecutor("dashboard-api-fork-", Math.max(1, maxThreads / 4),
+                                           new SynchronousQueue<>());
+        this.maxQueueTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueTime);
+        this.maxRequestTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxRequestTime);
+        this.metricServiceSupplier = metricServiceSupplier;
+    }
+
+    private RequestExecutor() {
+        this.executor = null;
+        this.forkExecutor = null;
+        this.maxQueueTimeNanos = 0;
+        this.maxRequestTimeNanos = 0;
+        this.metricServiceSupplier = () -> null;
+    }
+
+    private static ThreadPoolExecutor createExecutor(String threadNamePrefix, int maxThreads,
+                                                     BlockingQueue<Runnable> queue) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, queue,
+                                                             threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns an executor that serves requests on the calling thread, without any bounds.
+     *
+     * @return request executor
+     */
+    static RequestExecutor direct() {
+        return new RequestExecutor();
+    }
+
+    /**
+     * Serves a request on this executor and waits for its response, until the maximum request time.
+     *
+     * @param resourceMethod body of the resource method
+     * @return response of the resource method, or {@code 503 Service Unavailable} if the request is rejected or not
+     * served in time
+     */
+    Response execute(Supplier<Response> resourceMethod) {
+        if (executor == null) {
+            return resourceMethod.get();
+        }
+        ExecutorMetrics executorMetrics = getMetrics();
+        QueuedRequest queuedRequest = new QueuedRequest(resourceMethod, executorMetrics);
+        if (executorMetrics != null) {
+            executorMetrics.queueDepth.update(executor.getQueue().size());
+            executorMetrics.activeRequests.update(executor.getActiveCount());
+        }
+        long startTime = System.nanoTime();
+        try {
+            executor.execute(queuedRequest);
+        } catch (RejectedExecutionException e) {
+            if (executorMetrics != null) {
+                executorMetrics.rejected.inc();
+            }
+            return unavailable("Too many requests are being served.");
+        }
+        try {
+            try {
+                return queuedRequest.get(maxQueueTimeNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (queuedRequest.abandon()) {
+                    executor.remove(queuedRequest);
+                    if (executorMetrics != null) {
+                        executorMetrics.timedOut.inc();
+                    }
+                    return unavailable("Request waited too long to be served.");
+                }
+            }
+            try {
+                // Request has already started, hence its response is awaited until the request deadline. The
+                // request is not interrupted, as resource methods may not leave connections in a usable state.
+                return queuedRequest.get(maxRequestTimeNanos - (System.nanoTime() - startTime),
+                                         TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (executorMetrics != null) {
+                    executorMetrics.expired.inc();
+                }
+                return unavailable("Request took too long to be served.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queuedRequest.abandon();
+            return unavailable("Request was interrupted.");
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Starts a call that is independent of the rest of the request, so that both run concurrently. The call runs on
+     * the joining thread instead if no forking thread is free, or if none picks it up by then.
+     *
+     * @param call call to start
+     * @param <T>  type of the result of the call
+     * @return started call
+     */
+    <T> Fork<T> fork(Call<T> call) {
+        FutureTask<T> task = new FutureTask<>(call::call);
+        if (forkExecutor != null) {
+            try {
+                forkExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Runs on the joining thread.
+            }
+        }
+        return new Fork<>(task);
+    }
+
+    /**
+     * Stops the threads of this executor once the requests that are being served complete.
+     */
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            forkExecutor.shutdown();
+        }
+    }
+
+    private ExecutorMetrics getMetrics() {
+        MetricService metricService = metricServiceSupplier.get();
+        if (metricService == null) {
+            return null;
+        }
+        return metrics.get(metricService);
+    }
+
+    private static Response unavailable(String message) {
+        return Response.status(SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .entity(message)
+                .build();
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * A call that can be forked.
+     *
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    interface Call<T> {
+
+        T call() throws DashboardException;
+    }
+
+    /**
+     * A forked call.
+     *
+     * @param <T> type of the result
+     */
+    static final class Fork<T> {
+
+        private final FutureTask<T> task;
+
+        private Fork(FutureTask<T> task) {
+            this.task = task;
+        }
+
+        /**
+         * Waits for the call to complete, running it on the current thread if it has not started yet.
+         *
+         * @return result of the call
+         * @throws DashboardException if the call failed
+         */
+        T join() throws DashboardException {
+            // Does nothing if the call has already started.
+            task.run();
+            try {
+                return task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DashboardException("Interrupted while waiting for a forked call.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof DashboardException) {
+                    throw (DashboardException) e.getCause();
+                }
+                throw rethrow(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * A request that waits in the queue of the executor, and runs only if the client is still waiting for it.
+     */
+    private static class QueuedRequest extends FutureTask<Response> {
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final long enqueuedTime = System.nanoTime();
+        private final ExecutorMetrics executorMetrics;
+
+        private QueuedRequest(Supplier<Response> resourceMethod, ExecutorMetrics executorMetrics) {
+            super(resourceMethod::get);
+            this.executorMetrics = executorMetrics;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            if (executorMetrics != null) {
+                executorMetrics.queueTime.update(System.nanoTime() - enqueuedTime, TimeUnit.NANOSECONDS);
+            }
+            super.run();
+        }
+
+        /**
+         * Gives up the request if it has not started yet.
+         *
+         * @return {@code true} if the request will not run
+         */
+        private boolean abandon() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Metrics of the executor.
+     */
+    private static class ExecutorMetrics {
+
+        private final Histogram queueDepth;
+        private final Histogram activeRequests;
+        private final Timer queueTime;
+        private final Counter rejected;
+        private final Counter timedOut;
+        private final Counter expired;
+
+        private ExecutorMetrics(MetricService metricService) {
+            this.queueDepth = metricService.histogram(METRIC_PREFIX + "queueDepth", Level.INFO);
+            this.activeRequests = metricService.histogram(METRIC_PREFIX + "activeRequests", Level.INFO);
+            this.queueTime = metricService.timer(METRIC_PREFIX + "queueTime", Level.INFO);
+            this.rejected = metricService.counter(METRIC_PREFIX + "rejected", Level.INFO);
+            this.timedOut = metricService.counter(METRIC_PREFIX + "timedOut", Level.INFO);
+            this.expired = metricService.counter(METRIC_PREFIX + "expired", Level.INFO);
+        }
+    }
+}
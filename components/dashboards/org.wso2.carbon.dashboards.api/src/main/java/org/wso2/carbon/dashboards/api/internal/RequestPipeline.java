@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.wso2.msf4j.Request;
+
+import java.util.function.Supplier;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * Steps every request of the dashboard and widget REST APIs goes through: the request is queued on the request
+ * executor, timed, rejected until the server is ready, and its response is compressed.
+ * <p>
+ * MSF4J interceptors run before the entity of a response is set, hence these steps wrap the bodies of resource methods
+ * instead. Every resource method should be served through {@link #serve(String, Request, String, Supplier)}.
+ *
+ * @since 4.1.26
+ */
+class RequestPipeline {
+
+    private final RequestExecutor requestExecutor;
+    private final RestApiMetrics metrics;
+    private final ReadinessGate readinessGate;
+    private final ResponseCompressor responseCompressor;
+
+    RequestPipeline(RequestExecutor requestExecutor, RestApiMetrics metrics, ReadinessGate readinessGate,
+                    ResponseCompressor responseCompressor) {
+        this.requestExecutor = requestExecutor;
+        this.metrics = metrics;
+        this.readinessGate = readinessGate;
+        this.responseCompressor = responseCompressor;
+    }
+
+    /**
+     * Serves a request.
+     *
+     * @param route          HTTP method and path of the route, relative to the API context path
+     * @param request        request
+     * @param dashboardUrl   URL of the requested dashboard, or {@code null} if the route is not about a dashboard
+     * @param resourceMethod body of the resource method
+     * @return response
+     */
+    Response serve(String route, Request request, String dashboardUrl, Supplier<Response> resourceMethod) {
+        Supplier<Response> guardedMethod = readinessGate.guard(resourceMethod);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return requestExecutor.execute(() -> metrics.time(
+                route, request, dashboardUrl, () -> responseCompressor.compress(guardedMethod.get(), acceptEncoding)));
+    }
+}
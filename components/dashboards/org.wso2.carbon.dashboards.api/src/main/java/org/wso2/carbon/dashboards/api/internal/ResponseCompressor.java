@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.dashboards.core.bean.CompressionConfigurations;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Compresses JSON responses of the REST APIs for clients that accept gzip or deflate content encoding.
+ * <p>
+ * Response interceptors of MSF4J run before the entity of a resource method is set to the response, hence responses
+ * are compressed by the {@link RequestPipeline} every resource method is served through instead. Deflaters are
+ * pooled, as each of them holds a native zlib stream that is costly to allocate.
+ *
+ * @since 4.1.26
+ */
+class ResponseCompressor {
+
+    static final String ENCODING_GZIP = "gzip";
+    static final String ENCODING_DEFLATE = "deflate";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCompressor.class);
+    private static final Gson GSON = DashboardUtil.getGson();
+    private static final String MEDIA_TYPE_JSON_UTF8 = MediaType.APPLICATION_JSON + ";charset=UTF-8";
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int BUFFER_SIZE = 8192;
+
+    private final boolean enabled;
+    private final int minResponseSize;
+    private final int level;
+    private final BlockingQueue<Deflater> gzipDeflaters;
+    private final BlockingQueue<Deflater> zlibDeflaters;
+
+    ResponseCompressor(CompressionConfigurations configurations) {
+        this.enabled = configurations.isEnabled();
+        this.minResponseSize = configurations.getMinResponseSize();
+        this.level = getLevel(configurations);
+        int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+        this.gzipDeflaters = new ArrayBlockingQueue<>(poolSize);
+        this.zlibDeflaters = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    private static int getLevel(CompressionConfigurations configurations) {
+        int level = configurations.getLevel();
+        if ((level != Deflater.DEFAULT_COMPRESSION) &&
+                ((level < Deflater.BEST_SPEED) || (level > Deflater.BEST_COMPRESSION))) {
+            LOGGER.warn("Compression level should be from {} to {}, or {} for the default level, but found {}. Hence "
+                        + "the default level is used.", Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION,
+                        Deflater.DEFAULT_COMPRESSION, level);
+            return Deflater.DEFAULT_COMPRESSION;
+        }
+        return level;
+    }
+
+    /**
+     * Compresses the entity of the given response as JSON, if the client accepts it and the JSON is large enough.
+     * Only successful responses that carry a bean are compressed. Responses that carry strings, primitives, streams,
+     * files or byte arrays, and responses that are already encoded, are returned as they are.
+     *
+     * @param response       response of a resource method
+     * @param acceptEncoding value of the {@code Accept-Encoding} request header, if any
+     * @return compressed response, or the given response if it should not be compressed
+     */
+    Response compress(Response response, String acceptEncoding) {
+        if (!enabled || !isCompressible(response)) {
+            return response;
+        }
+        String json = GSON.toJson(response.getEntity());
+        byte[] content = json.getBytes(StandardCharsets.UTF_8);
+        String encoding = getEncoding(acceptEncoding, content.length);
+        Response.ResponseBuilder responseBuilder = Response.fromResponse(response);
+        if (encoding == null) {
+            // Strings are written as they are by the JSON entity writer, hence the bean is not serialized again.
+            responseBuilder.entity(json);
+        } else {
+            responseBuilder.entity(new ByteArrayInputStream(compress(content, encoding)))
+                    .type(MEDIA_TYPE_JSON_UTF8)
+                    .header(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        return responseBuilder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+    }
+
+    private static boolean isCompressible(Response response) {
+        Object entity = response.getEntity();
+        return (Response.Status.Family.familyOf(response.getStatus()) == Response.Status.Family.SUCCESSFUL)
+               && !response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)
+               && (entity != null) && !(entity instanceof CharSequence) && !(entity instanceof Number)
+               && !(entity instanceof Boolean) && !(entity instanceof InputStream) && !(entity instanceof File)
+               && !(entity instanceof byte[]);
+    }
+
+    /**
+     * Creates an OK response builder that carries already compressed JSON.
+     *
+     * @param compressedContent compressed JSON
+     * @param encoding          encoding the JSON was compressed with
+     * @return response builder
+     */
+    Response.ResponseBuilder ok(byte[] compressedContent, String encoding) {
+        return Response.ok(new ByteArrayInputStream(compressedContent))
+                .type(MEDIA_TYPE_JSON_UTF8)
+                .header(HttpHeaders.CONTENT_ENCODING, encoding)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Chooses the content encoding of a response.
+     *
+     * @param acceptEncoding value of the {@code Accept-Encoding} request header, if any
+     * @param contentLength  size of the uncompressed response in bytes
+     * @return {@link #ENCODING_GZIP}, {@link #ENCODING_DEFLATE} or {@code null} if the response should not be
+     * compressed
+     */
+    String getEncoding(String acceptEncoding, int contentLength) {
+        if (!enabled || (acceptEncoding == null) || (contentLength < minResponseSize)) {
+            return null;
+        }
+        String encoding = null;
+        float encodingQuality = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            if (name.equals("*")) {
+                name = ENCODING_GZIP;
+            } else if (!name.equals(ENCODING_GZIP) && !name.equals(ENCODING_DEFLATE)) {
+                continue;
+            }
+            float quality = getQuality(parts);
+            if (quality <= 0) {
+                continue;
+            }
+            // On a tie gzip wins, as some old clients mistake deflate for raw deflate data.
+            if ((quality > encodingQuality) || ((quality == encodingQuality) && name.equals(ENCODING_GZIP))) {
+                encoding = name;
+                encodingQuality = quality;
+            }
+        }
+        return encoding;
+    }
+
+    /**
+     * Compresses the given content.
+     *
+     * @param content  content to compress
+     * @param encoding {@link #ENCODING_GZIP} or {@link #ENCODING_DEFLATE}
+     * @return compressed content
+     */
+    byte[] compress(byte[] content, String encoding) {
+        boolean gzip = ENCODING_GZIP.equals(encoding);
+        BlockingQueue<Deflater> pool = gzip ? gzipDeflaters : zlibDeflaters;
+        Deflater deflater = pool.poll();
+        if (deflater == null) {
+            // GZIP framing is written here, hence gzip deflaters produce raw deflate data.
+            deflater = new Deflater(level, gzip);
+        }
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(content.length / 4, 64));
+            if (gzip) {
+                outputStream.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+            deflater.setInput(content);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, length);
+            }
+            if (gzip) {
+                CRC32 crc = new CRC32();
+                crc.update(content, 0, content.length);
+                writeIntLittleEndian(outputStream, (int) crc.getValue());
+                writeIntLittleEndian(outputStream, content.length);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.reset();
+            if (!pool.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    private static float getQuality(String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            String parameter = codingParts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static void writeIntLittleEndian(ByteArrayOutputStream outputStream, int value) {
+        outputStream.write(value);
+        outputStream.write(value >>> 8);
+        outputStream.write(value >>> 16);
+        outputStream.write(value >>> 24);
+    }
+}
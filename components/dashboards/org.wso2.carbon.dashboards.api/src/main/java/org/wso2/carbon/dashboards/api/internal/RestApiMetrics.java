@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.wso2.carbon.analytics.msf4j.interceptor.common.util.InterceptorConstants;
+import org.wso2.carbon.dashboards.core.jfr.FlightRecorderSupport;
+import org.wso2.carbon.dashboards.core.jfr.RestRequestEvent;
+import org.wso2.carbon.dashboards.core.utils.DependencyCallCounter;
+import org.wso2.carbon.dashboards.core.utils.MetricsHolder;
+import org.wso2.carbon.metrics.core.Counter;
+import org.wso2.carbon.metrics.core.Histogram;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Timer;
+import org.wso2.msf4j.Request;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.ws.rs.core.Response;
+
+/**
+ * Records latency, error, response size and dependency call metrics for the routes of a REST API. Metrics are named
+ * {@code org.wso2.carbon.dashboards.api.<METHOD> <path>.<metric>} and published through the reporters of the Carbon
+ * metrics service, when that service is available.
+ * <p>
+ * MSF4J interceptors run before the status and the entity of a response are known, hence resource methods are
+ * timed by wrapping their bodies with {@link #time(String, Supplier)}. A {@link RestRequestEvent} is emitted for every
+ * request when flight recording is available, regardless of the metric service.
+ *
+ * @since 4.1.26
+ */
+class RestApiMetrics {
+
+    private static final String METRIC_PREFIX = "org.wso2.carbon.dashboards.api.";
+
+    private final String apiContextPath;
+    private final Supplier<MetricService> metricServiceSupplier;
+    private final ConcurrentMap<String, MetricsHolder<RouteMetrics>> routeMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Creates metrics for a REST API.
+     *
+     * @param apiContextPath        context path of the REST API
+     * @param metricServiceSupplier supplier of the metric service, which supplies {@code null} when the service is
+     *                              not available
+     */
+    RestApiMetrics(String apiContextPath, Supplier<MetricService> metricServiceSupplier) {
+        this.apiContextPath = apiContextPath;
+        this.metricServiceSupplier = metricServiceSupplier;
+    }
+
+    /**
+     * Runs a resource method and records its metrics.
+     *
+     * @param route          HTTP method and path of the route, relative to the API context path
+     * @param resourceMethod body of the resource method
+     * @return response of the resource method
+     */
+    Response time(String route, Supplier<Response> resourceMethod) {
+        return time(route, null, null, resourceMethod);
+    }
+
+    /**
+     * Runs a resource method and records its metrics, along with the user and the dashboard of the request.
+     *
+     * @param route          HTTP method and path of the route, relative to the API context path
+     * @param request        request, or {@code null} if not available to the resource method
+     * @param dashboardUrl   URL of the requested dashboard, or {@code null} if the route is not about a dashboard
+     * @param resourceMethod body of the resource method
+     * @return response of the resource method
+     */
+    Response time(String route, Request request, String dashboardUrl, Supplier<Response> resourceMethod) {
+        MetricService metricService = metricServiceSupplier.get();
+        RestRequestEvent event = FlightRecorderSupport.isAvailable() ? RestRequestEvent.start() : null;
+        if ((metricService == null) && (event == null)) {
+            return resourceMethod.get();
+        }
+        DependencyCallCounter.reset();
+        long startTime = System.nanoTime();
+        Response response = null;
+        try {
+            response = resourceMethod.get();
+            return response;
+        } finally {
+            if (metricService != null) {
+                getRouteMetrics(metricService, route).record(System.nanoTime() - startTime, response,
+                                                             DependencyCallCounter.get());
+            }
+            if (event != null) {
+                // A resource method that throws is answered with an internal server error.
+                event.complete(route, getUsername(request), dashboardUrl,
+                               (response == null) ? 500 : response.getStatus());
+            }
+        }
+    }
+
+    private static String getUsername(Request request) {
+        Object username = (request == null) ? null : request.getProperty(InterceptorConstants.PROPERTY_USERNAME);
+        return (username == null) ? null : username.toString();
+    }
+
+    private RouteMetrics getRouteMetrics(MetricService metricService, String route) {
+        return routeMetrics.computeIfAbsent(route, key -> new MetricsHolder<>(
+                service -> new RouteMetrics(service, METRIC_PREFIX + key.replaceFirst(" ", " " + apiContextPath))))
+                .get(metricService);
+    }
+
+    /**
+     * Metrics of a single route.
+     */
+    private static class RouteMetrics {
+
+        private final Timer latency;
+        private final Counter clientErrors;
+        private final Counter serverErrors;
+        private final Histogram responseSize;
+        private final Histogram dependencyCalls;
+
+        private RouteMetrics(MetricService metricService, String name) {
+            this.latency = metricService.timer(name + ".latency", Level.INFO);
+            this.clientErrors = metricService.counter(name + ".clientErrors", Level.INFO);
+            this.serverErrors = metricService.counter(name + ".serverErrors", Level.INFO);
+            this.responseSize = metricService.histogram(name + ".responseSize", Level.INFO);
+            this.dependencyCalls = metricService.histogram(name + ".dependencyCalls", Level.INFO);
+        }
+
+        private void record(long elapsedNanos, Response response, int dependencyCallCount) {
+            latency.update(elapsedNanos, TimeUnit.NANOSECONDS);
+            dependencyCalls.update(dependencyCallCount);
+            // A resource method that throws is answered with an internal server error.
+            int status = (response == null) ? 500 : response.getStatus();
+            if (status >= 500) {
+                serverErrors.inc();
+            } else if (status >= 400) {
+                clientErrors.inc();
+            }
+            long size = (response == null) ? -1 : getEntitySize(response.getEntity());
+            if (size >= 0) {
+                responseSize.update(size);
+            }
+        }
+
+        private static long getEntitySize(Object entity) {
+            if (entity == null) {
+                return 0;
+            } else if (entity instanceof String) {
+                return getUtf8Length((String) entity);
+            } else if (entity instanceof ByteArrayInputStream) {
+                return ((ByteArrayInputStream) entity).available();
+            } else if (entity instanceof byte[]) {
+                return ((byte[]) entity).length;
+            } else if (entity instanceof File) {
+                return ((File) entity).length();
+            }
+            // Size of beans is not known until MSF4J serializes them.
+            return -1;
+        }
+
+        private static long getUtf8Length(String value) {
+            long length = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+    }
+}
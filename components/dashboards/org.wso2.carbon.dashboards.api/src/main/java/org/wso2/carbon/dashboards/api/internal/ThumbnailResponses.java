@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
+
+/**
+ * Builds HTTP responses that serve thumbnail images.
+ *
+ * @since 4.1.26
+ */
+class ThumbnailResponses {
+
+    /**
+     * Query parameter that carries the thumbnail version. Since a versioned URL always refers to the same image,
+     * responses to it can be cached for good.
+     */
+    static final String QUERY_PARAM_VERSION = "v";
+    static final int MAX_THUMBNAIL_SIZE = 1024 * 1024;
+
+    private static final String CACHE_CONTROL_VERSIONED = "private, max-age=31536000, immutable";
+    private static final String CACHE_CONTROL_UNVERSIONED = "private, no-cache";
+    /**
+     * Thumbnails are shown with {@code <img>} elements only, hence nothing they refer to is ever needed. This keeps
+     * scripts in an image (e.g. an SVG thumbnail of a custom widget) from running when the image URL is opened.
+     */
+    private static final String CONTENT_SECURITY_POLICY = "default-src 'none'; style-src 'unsafe-inline'; sandbox";
+    private static final String HEADER_CONTENT_SECURITY_POLICY = "Content-Security-Policy";
+    private static final String HEADER_CONTENT_TYPE_OPTIONS = "X-Content-Type-Options";
+    /**
+     * File name extensions of the image media types accepted for uploaded thumbnails.
+     */
+    private static final Map<String, String> UPLOAD_MEDIA_TYPES;
+
+    static {
+        Map<String, String> uploadMediaTypes = new HashMap<>();
+        uploadMediaTypes.put("image/png", "png");
+        uploadMediaTypes.put("image/jpeg", "jpg");
+        uploadMediaTypes.put("image/gif", "gif");
+        uploadMediaTypes.put("image/webp", "webp");
+        UPLOAD_MEDIA_TYPES = Collections.unmodifiableMap(uploadMediaTypes);
+    }
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] GIF87A_SIGNATURE = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89A_SIGNATURE = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIFF_SIGNATURE = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP_SIGNATURE = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+    private ThumbnailResponses() {
+    }
+
+    /**
+     * Creates a response that serves the given thumbnail. Thumbnails held in memory are written from memory while
+     * others are streamed from their files.
+     *
+     * @param thumbnail        thumbnail to serve
+     * @param requestedVersion version in the request URL, if any
+     * @param ifNoneMatch      value of the {@code If-None-Match} request header, if any
+     * @return response
+     */
+    static Response ok(Thumbnail thumbnail, String requestedVersion, String ifNoneMatch) {
+        String entityTag = "\"" + thumbnail.getVersion() + "\"";
+        String cacheControl = thumbnail.getVersion().equals(requestedVersion) ?
+                CACHE_CONTROL_VERSIONED : CACHE_CONTROL_UNVERSIONED;
+        if (matches(ifNoneMatch, thumbnail.getVersion())) {
+            return Response.status(NOT_MODIFIED)
+                    .header(HttpHeaders.ETAG, entityTag)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .build();
+        }
+        Object entity = (thumbnail.getContent() != null) ?
+                new ByteArrayInputStream(thumbnail.getContent()) : thumbnail.getFile().toFile();
+        String extension = UPLOAD_MEDIA_TYPES.get(thumbnail.getMediaType());
+        return Response.ok(entity).type(thumbnail.getMediaType())
+                .header(HttpHeaders.ETAG, entityTag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "inline; filename=\"thumbnail" + ((extension == null) ? "" : "." + extension) + "\"")
+                .header(HEADER_CONTENT_TYPE_OPTIONS, "nosniff")
+                .header(HEADER_CONTENT_SECURITY_POLICY, CONTENT_SECURITY_POLICY)
+                .build();
+    }
+
+    /**
+     * Reads an uploaded thumbnail image.
+     *
+     * @param inputStream request body
+     * @return image content, or {@code null} if the image is larger than {@link #MAX_THUMBNAIL_SIZE}
+     * @throws IOException if cannot read the request body
+     */
+    static byte[] readThumbnail(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            if (content.size() + read > MAX_THUMBNAIL_SIZE) {
+                return null;
+            }
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+    /**
+     * Returns the image media type of an uploaded thumbnail. Only PNG, JPEG, GIF and WebP images are accepted, as
+     * other image types (e.g. SVG) can carry scripts.
+     *
+     * @param contentType value of the {@code Content-Type} request header
+     * @return media type without parameters, or {@code null} if the content type is not an accepted image type
+     */
+    static String getImageMediaType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int parametersIndex = contentType.indexOf(';');
+        String mediaType = ((parametersIndex < 0) ? contentType : contentType.substring(0, parametersIndex))
+                .trim().toLowerCase(Locale.ENGLISH);
+        return UPLOAD_MEDIA_TYPES.containsKey(mediaType) ? mediaType : null;
+    }
+
+    /**
+     * Checks whether an uploaded thumbnail starts with the signature of its image media type, so that clients never
+     * get anything else under an image media type.
+     *
+     * @param content   image content
+     * @param mediaType media type returned by {@link #getImageMediaType(String)}
+     * @return {@code true} if the content is an image of the given media type
+     */
+    static boolean isImage(byte[] content, String mediaType) {
+        switch (mediaType) {
+            case "image/png":
+                return startsWith(content, 0, PNG_SIGNATURE);
+            case "image/jpeg":
+                return startsWith(content, 0, JPEG_SIGNATURE);
+            case "image/gif":
+                return startsWith(content, 0, GIF87A_SIGNATURE) || startsWith(content, 0, GIF89A_SIGNATURE);
+            case "image/webp":
+                return startsWith(content, 0, RIFF_SIGNATURE) && startsWith(content, 8, WEBP_SIGNATURE);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean startsWith(byte[] content, int offset, byte[] signature) {
+        if (content.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (content[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the {@code If-None-Match} request header matches the given entity version.
+     *
+     * @param ifNoneMatch value of the {@code If-None-Match} request header, if any
+     * @param version     entity version, without quotes
+     * @return {@code true} if the client already has this version
+     */
+    static boolean matches(String ifNoneMatch, String version) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals("\"" + version + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -21,27 +21,42 @@ package org.wso2.carbon.dashboards.api.internal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.analytics.msf4j.interceptor.common.AuthenticationInterceptor;
+import org.wso2.carbon.analytics.msf4j.interceptor.common.util.InterceptorConstants;
 import org.wso2.carbon.dashboards.core.WidgetMetadataProvider;
+import org.wso2.carbon.dashboards.core.bean.CompressionConfigurations;
 import org.wso2.carbon.dashboards.core.bean.importer.WidgetType;
 import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
+import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.msf4j.Microservice;
+import org.wso2.msf4j.Request;
 import org.wso2.msf4j.interceptor.annotation.RequestInterceptor;
 
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.CREATED;
+import static javax.ws.rs.core.Response.Status.FORBIDDEN;
 import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.OK;
+import static javax.ws.rs.core.Response.Status.REQUEST_ENTITY_TOO_LARGE;
+import static javax.ws.rs.core.Response.Status.UNSUPPORTED_MEDIA_TYPE;
 
 /**
  * REST API for widget related operations.
@@ -55,170 +70,283 @@ public class WidgetRestApi implements Microservice {
     private static final Logger LOGGER = LoggerFactory.getLogger(WidgetRestApi.class);
 
     private final WidgetMetadataProvider widgetMetadataProvider;
+    private final RequestPipeline requestPipeline;
+    private final WidgetCreatorCheck widgetCreatorCheck;
 
     /**
-     * Creates a new widget REST API.
+     * Creates a new widget REST API. As users cannot be checked for widget creator roles, widget thumbnails cannot
+     * be updated through this API.
      *
      * @param widgetMetadataProvider metadata provider for widgets
      */
     public WidgetRestApi(WidgetMetadataProvider widgetMetadataProvider) {
+        this(widgetMetadataProvider, new ResponseCompressor(new CompressionConfigurations()), () -> null, () -> true,
+             RequestExecutor.direct(), username -> false);
+    }
+
+    /**
+     * Creates a new widget REST API that serves requests on the given executor once the server is ready.
+     *
+     * @param widgetMetadataProvider metadata provider for widgets
+     * @param responseCompressor     compressor for large responses
+     * @param metricServiceSupplier  supplier of the metric service, which supplies {@code null} when metrics are not
+     *                               available
+     * @param readinessSupplier      supplies whether the server has completed its startup
+     * @param requestExecutor        executor that serves requests
+     * @param widgetCreatorCheck     checks whether a user has a widget creator role
+     * @since 4.1.26
+     */
+    WidgetRestApi(WidgetMetadataProvider widgetMetadataProvider, ResponseCompressor responseCompressor,
+                  Supplier<MetricService> metricServiceSupplier, BooleanSupplier readinessSupplier,
+                  RequestExecutor requestExecutor, WidgetCreatorCheck widgetCreatorCheck) {
         this.widgetMetadataProvider = widgetMetadataProvider;
+        this.requestPipeline = new RequestPipeline(requestExecutor,
+                                                   new RestApiMetrics(API_CONTEXT_PATH, metricServiceSupplier),
+                                                   new ReadinessGate(readinessSupplier), responseCompressor);
+        this.widgetCreatorCheck = widgetCreatorCheck;
     }
 
     /**
      * Returns a list of widget configurations.
      *
+     * @param request HTTP request
      * @return response that carries list of widget configurations
      */
     @GET
     @Path("/")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getWidgetsMetaInfo() {
-        try {
-            return okResponse(widgetMetadataProvider.getAllWidgetConfigurations());
-        } catch (DashboardException e) {
-            LOGGER.error("An error occurred when listing widget configurations.", e);
-            return serverErrorResponse("Cannot list widget configurations.");
-        } catch (Throwable throwable) {
-            LOGGER.error("Server error occurred when listing widget configurations.", throwable);
-            return Response.serverError()
-                    .entity("Server error occurred when listing widget configurations.").build();
-        }
+    public Response getWidgetsMetaInfo(@Context Request request) {
+        return serve("GET /", request, () -> {
+            try {
+                return Response.ok(widgetMetadataProvider.getAllWidgetConfigurations()).build();
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when listing widget configurations.", e);
+                return serverErrorResponse("Cannot list widget configurations.");
+            } catch (Throwable throwable) {
+                LOGGER.error("Server error occurred when listing widget configurations.", throwable);
+                return Response.serverError()
+                        .entity("Server error occurred when listing widget configurations.").build();
+            }
+        });
     }
 
     /**
      * This method return the configuration of given widget.
      *
      * @param widgetId widget id
+     * @param request  HTTP request
      * @return widget configuration
      */
     @GET
     @Path("/{id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getWidgetConf(@PathParam("id") String widgetId) {
-        try {
-            return widgetMetadataProvider.getWidgetConfiguration(widgetId)
-                    .map(WidgetRestApi::okResponse)
-                    .orElse(Response.status(NOT_FOUND).entity("Cannot find widget '" + widgetId + "'.").build());
-        } catch (DashboardException e) {
-            LOGGER.error("An error occurred when retrieving configuration of widget '{}'.",
-                    replaceCRLFCharacters(widgetId), e);
-            return serverErrorResponse("Cannot retrieve configuration of widget '" + widgetId + "'.");
-        } catch (Throwable throwable) {
-            LOGGER.error("Server error occurred when retrieving configuration of widget '{}': ",
-                    replaceCRLFCharacters(replaceCRLFCharacters(widgetId)), throwable);
-            return Response.serverError()
-                    .entity("Server error occurred when retrieving configuration of widget '{}': " +
-                            widgetId + "'.").build();
-        }
+    public Response getWidgetConf(@PathParam("id") String widgetId, @Context Request request) {
+        return serve("GET /{id}", request, () -> {
+            try {
+                return widgetMetadataProvider.getWidgetConfiguration(widgetId)
+                        .map(widgetConfiguration -> Response.ok(widgetConfiguration).build())
+                        .orElse(Response.status(NOT_FOUND).entity("Cannot find widget '" + widgetId + "'.").build());
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when retrieving configuration of widget '{}'.",
+                        replaceCRLFCharacters(widgetId), e);
+                return serverErrorResponse("Cannot retrieve configuration of widget '" + widgetId + "'.");
+            } catch (Throwable throwable) {
+                LOGGER.error("Server error occurred when retrieving configuration of widget '{}': ",
+                        replaceCRLFCharacters(replaceCRLFCharacters(widgetId)), throwable);
+                return Response.serverError()
+                        .entity("Server error occurred when retrieving configuration of widget '{}': " +
+                                widgetId + "'.").build();
+            }
+        });
     }
 
     /**
      * This method provides thumbnail of given widget.
      *
-     * @param widgetId widget id
+     * @param widgetId    widget id
+     * @param version     version of the thumbnail, if known by the client
+     * @param ifNoneMatch entity tag of the thumbnail cached by the client
+     * @param request     HTTP request
      * @return thumbnail of given widget
      */
     @GET
     @Path("/{id}/thumbnail")
-    public Response getThumbnail(@PathParam("id") String widgetId) {
-        // TODO: 11/8/17 Implement
-        return Response.ok().build();
+    public Response getThumbnail(@PathParam("id") String widgetId,
+                                 @QueryParam(ThumbnailResponses.QUERY_PARAM_VERSION) String version,
+                                 @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                 @Context Request request) {
+        return serve("GET /{id}/thumbnail", request, () -> {
+            try {
+                return widgetMetadataProvider.getWidgetThumbnail(widgetId)
+                        .map(thumbnail -> ThumbnailResponses.ok(thumbnail, version, ifNoneMatch))
+                        .orElse(Response.status(NOT_FOUND)
+                                        .entity("Cannot find thumbnail of widget '" + widgetId + "'.").build());
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when retrieving thumbnail of widget '{}'.",
+                        replaceCRLFCharacters(widgetId), e);
+                return serverErrorResponse("Cannot retrieve thumbnail of widget '" + widgetId + "'.");
+            } catch (Throwable throwable) {
+                LOGGER.error("Server error occurred when retrieving thumbnail of widget '{}'.",
+                        replaceCRLFCharacters(widgetId), throwable);
+                return Response.serverError()
+                        .entity("Server error occurred when retrieving thumbnail of widget '" + widgetId + "'.")
+                        .build();
+            }
+        });
     }
 
-    private static Response okResponse(Object content) {
-        return Response.ok().entity(content).build();
+    /**
+     * Stores the thumbnail of the given generated widget. The request body is the thumbnail image.
+     *
+     * @param widgetId widget id
+     * @param request  HTTP request
+     * @return response
+     */
+    @PUT
+    @Path("/{id}/thumbnail")
+    public Response updateThumbnail(@PathParam("id") String widgetId, @Context Request request) {
+        return serve("PUT /{id}/thumbnail", request, () -> {
+            try {
+                if (!widgetCreatorCheck.isWidgetCreator(getUserName(request))) {
+                    return Response.status(FORBIDDEN)
+                            .entity("Insufficient permissions to update thumbnail of widget '" + widgetId + "'.")
+                            .build();
+                }
+                String mediaType = ThumbnailResponses.getImageMediaType(request.getContentType());
+                if (mediaType == null) {
+                    return Response.status(UNSUPPORTED_MEDIA_TYPE)
+                            .entity("Thumbnail should be a PNG, JPEG, GIF or WebP image.").build();
+                }
+                if (!widgetMetadataProvider.isWidgetPresent(widgetId, WidgetType.GENERATED)) {
+                    return Response.status(NOT_FOUND).entity("Cannot find widget '" + widgetId + "'.").build();
+                }
+                byte[] content = ThumbnailResponses.readThumbnail(request.getMessageContentStream());
+                if (content == null) {
+                    return Response.status(REQUEST_ENTITY_TOO_LARGE)
+                            .entity("Thumbnail should not be larger than " + ThumbnailResponses.MAX_THUMBNAIL_SIZE +
+                                    " bytes.").build();
+                }
+                if (!ThumbnailResponses.isImage(content, mediaType)) {
+                    return Response.status(UNSUPPORTED_MEDIA_TYPE)
+                            .entity("Thumbnail is not a valid '" + mediaType + "' image.").build();
+                }
+                widgetMetadataProvider.setWidgetThumbnail(widgetId, mediaType, content);
+                return Response.status(OK).build();
+            } catch (DashboardException | IOException e) {
+                LOGGER.error("An error occurred when updating thumbnail of widget '{}'.",
+                        replaceCRLFCharacters(widgetId), e);
+                return serverErrorResponse("Cannot update thumbnail of widget '" + widgetId + "'.");
+            } catch (Throwable throwable) {
+                LOGGER.error("Server error occurred when updating thumbnail of widget '{}'.",
+                        replaceCRLFCharacters(widgetId), throwable);
+                return Response.serverError()
+                        .entity("Server error occurred when updating thumbnail of widget '" + widgetId + "'.").build();
+            }
+        });
     }
 
     private static Response serverErrorResponse(String message) {
         return Response.serverError().entity(message).build();
     }
 
+    private static String getUserName(Request request) {
+        return request.getProperty(InterceptorConstants.PROPERTY_USERNAME).toString();
+    }
+
     /**
      * Validate widget name.
      *
      * @param widgetName data for the validate widget name.
+     * @param request    HTTP request
      * @return response
      */
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Path("{widgetName}/validate")
-    public Response validateWidgetName(@PathParam("widgetName") String widgetName) {
-        try {
-            if (!widgetMetadataProvider.isWidgetPresent(widgetName)) {
-                return Response.status(OK).build();
-            } else {
-                return Response.status(CONFLICT).build();
+    public Response validateWidgetName(@PathParam("widgetName") String widgetName, @Context Request request) {
+        return serve("POST /{widgetName}/validate", request, () -> {
+            try {
+                if (!widgetMetadataProvider.isWidgetPresent(widgetName)) {
+                    return Response.status(OK).build();
+                } else {
+                    return Response.status(CONFLICT).build();
+                }
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when validating the widget name: " +
+                        replaceCRLFCharacters(widgetName) + ".", e);
+                return Response.serverError()
+                        .entity("An error occurred when validating the widget name: " + widgetName + ".").build();
+            } catch (Throwable throwable) {
+                LOGGER.error("Server error occurred when validating the widget name: ",
+                        replaceCRLFCharacters(replaceCRLFCharacters(widgetName)), throwable);
+                return Response.serverError()
+                        .entity("Server error occurred when validating the widget name: '" +
+                                widgetName + "'.").build();
             }
-        } catch (DashboardException e) {
-            LOGGER.error("An error occurred when validating the widget name: " +
-                    replaceCRLFCharacters(widgetName) + ".", e);
-            return Response.serverError()
-                    .entity("An error occurred when validating the widget name: " + widgetName + ".").build();
-        } catch (Throwable throwable) {
-            LOGGER.error("Server error occurred when validating the widget name: ",
-                    replaceCRLFCharacters(replaceCRLFCharacters(widgetName)), throwable);
-            return Response.serverError()
-                    .entity("Server error occurred when validating the widget name: '" +
-                            widgetName + "'.").build();
-        }
+        });
     }
 
     /**
      * Deletes the widget corresponding to the provided ID.
      *
      * @param widgetId ID of the dashboard to delete
+     * @param request  HTTP request
      * @return response
      */
     @DELETE
     @Path("/{id}")
-    public Response deleteWidget(@PathParam("id") String widgetId) {
-        try {
-            if (widgetMetadataProvider.isWidgetPresent(widgetId, WidgetType.GENERATED)) {
-                widgetMetadataProvider.delete(widgetId);
-                return Response.status(OK).build();
-            } else {
-                return Response.status(422).entity("Cannot find widget '" + widgetId + "'.").build();
+    public Response deleteWidget(@PathParam("id") String widgetId, @Context Request request) {
+        return serve("DELETE /{id}", request, () -> {
+            try {
+                if (widgetMetadataProvider.isWidgetPresent(widgetId, WidgetType.GENERATED)) {
+                    widgetMetadataProvider.delete(widgetId);
+                    return Response.status(OK).build();
+                } else {
+                    return Response.status(422).entity("Cannot find widget '" + widgetId + "'.").build();
+                }
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when deleting widget '{}'.", replaceCRLFCharacters(widgetId), e);
+                return Response.serverError().entity("Cannot delete widget '" + widgetId + "'.").build();
+            } catch (Throwable throwable) {
+                LOGGER.error("Server error occurred when deleting widget '{}'. ",
+                        replaceCRLFCharacters(replaceCRLFCharacters(widgetId)), throwable);
+                return Response.serverError()
+                        .entity("Server error occurred when deleting widget '{}'. '" +
+                                widgetId + "'.").build();
             }
-        } catch (DashboardException e) {
-            LOGGER.error("An error occurred when deleting widget '{}'.", replaceCRLFCharacters(widgetId), e);
-            return Response.serverError().entity("Cannot delete widget '" + widgetId + "'.").build();
-        } catch (Throwable throwable) {
-            LOGGER.error("Server error occurred when deleting widget '{}'. ",
-                    replaceCRLFCharacters(replaceCRLFCharacters(widgetId)), throwable);
-            return Response.serverError()
-                    .entity("Server error occurred when deleting widget '{}'. '" +
-                            widgetId + "'.").build();
-        }
+        });
     }
 
     /**
      * Create a generated widget.
      *
      * @param generatedWidgetConfigs data for the creating widget.
+     * @param request                HTTP request
      * @return response
      */
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/")
-    public Response create(GeneratedWidgetConfigs generatedWidgetConfigs) {
-        try {
-            widgetMetadataProvider.addGeneratedWidgetConfigs(generatedWidgetConfigs);
-            return Response.status(CREATED).build();
-        } catch (DashboardException e) {
-            LOGGER.error("An error occurred when creating a new gadget from {} data.",
-                    replaceCRLFCharacters(generatedWidgetConfigs.toString()), e);
-            return Response.serverError()
-                    .entity("Cannot create a new gadget from '" + generatedWidgetConfigs + "'.").build();
-        } catch (Throwable throwable) {
-            LOGGER.error("Server error occurred when creating a new gadget from {} data. ",
-                    replaceCRLFCharacters(generatedWidgetConfigs.toString()), throwable);
-            return Response.serverError()
-                    .entity("Server error occurred when creating a new gadget from {} data. '" +
-                            generatedWidgetConfigs.toString() + "'.").build();
-        }
+    public Response create(GeneratedWidgetConfigs generatedWidgetConfigs, @Context Request request) {
+        return serve("POST /", request, () -> {
+            try {
+                widgetMetadataProvider.addGeneratedWidgetConfigs(generatedWidgetConfigs);
+                return Response.status(CREATED).build();
+            } catch (DashboardException e) {
+                LOGGER.error("An error occurred when creating a new gadget from {} data.",
+                        replaceCRLFCharacters(generatedWidgetConfigs.toString()), e);
+                return Response.serverError()
+                        .entity("Cannot create a new gadget from '" + generatedWidgetConfigs + "'.").build();
+            } catch (Throwable throwable) {
+                LOGGER.error("Server error occurred when creating a new gadget from {} data. ",
+                        replaceCRLFCharacters(generatedWidgetConfigs.toString()), throwable);
+                return Response.serverError()
+                        .entity("Server error occurred when creating a new gadget from {} data. '" +
+                                generatedWidgetConfigs.toString() + "'.").build();
+            }
+        });
     }
 
     private String replaceCRLFCharacters(String str) {
@@ -227,4 +355,26 @@ public class WidgetRestApi implements Microservice {
         }
         return str;
     }
+
+    /**
+     * Checks whether a user has a widget creator role.
+     *
+     * @since 4.1.26
+     */
+    @FunctionalInterface
+    interface WidgetCreatorCheck {
+
+        /**
+         * Checks whether the given user has a widget creator role.
+         *
+         * @param username name of the user
+         * @return {@code true} if the user can create widgets
+         * @throws DashboardException if cannot read the roles of the user
+         */
+        boolean isWidgetCreator(String username) throws DashboardException;
+    }
+
+    private Response serve(String route, Request request, Supplier<Response> resourceMethod) {
+        return requestPipeline.serve(route, request, null, resourceMethod);
+    }
 }
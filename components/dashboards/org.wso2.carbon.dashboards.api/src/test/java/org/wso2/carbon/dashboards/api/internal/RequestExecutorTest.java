@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.dashboards.core.bean.RequestExecutionConfigurations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * Test cases for {@link RequestExecutor} class.
+ *
+ * @since 4.1.26
+ */
+public class RequestExecutorTest {
+
+    private final List<RequestExecutor> executors = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executors.forEach(RequestExecutor::shutdown);
+    }
+
+    @Test
+    void testRequestIsServed() {
+        RequestExecutor executor = createExecutor(2, 2, 1000, 5000);
+
+        Response response = executor.execute(() -> Response.ok(Thread.currentThread().getName()).build());
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertTrue(((String) response.getEntity()).startsWith("dashboard-api-"),
+                              "Requests should be served on the executor threads");
+    }
+
+    @Test
+    void testRequestsAreRejectedWhenQueueIsFull() throws Exception {
+        RequestExecutor executor = createExecutor(1, 0, 1000, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Response> blockingRequest = executeBlocking(executor, started);
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        Response response = executor.execute(() -> Response.ok().build());
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertNotNull(response.getHeaderString(HttpHeaders.RETRY_AFTER));
+
+        release.countDown();
+        Assertions.assertEquals(200, blockingRequest.get(10, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void testQueuedRequestsTimeOut() throws Exception {
+        RequestExecutor executor = createExecutor(1, 1, 100, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Response> blockingRequest = executeBlocking(executor, started);
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        AtomicInteger runs = new AtomicInteger();
+        Response response = executor.execute(() -> {
+            runs.incrementAndGet();
+            return Response.ok().build();
+        });
+        Assertions.assertEquals(503, response.getStatus());
+
+        release.countDown();
+        Assertions.assertEquals(200, blockingRequest.get(10, TimeUnit.SECONDS).getStatus());
+        // Executor is free again, hence a request queued after the timed out one is served.
+        Assertions.assertEquals(200, executor.execute(() -> Response.ok().build()).getStatus());
+        Assertions.assertEquals(0, runs.get(), "Requests that timed out in the queue should never run");
+    }
+
+    @Test
+    void testStartedRequestsAreAwaitedUntilDeadline() {
+        RequestExecutor executor = createExecutor(1, 1, 500, 1000);
+        CountDownLatch started = new CountDownLatch(1);
+
+        long startTime = System.nanoTime();
+        Response response = executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+            return Response.ok().build();
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        Assertions.assertEquals(0, started.getCount());
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertTrue(elapsedMillis >= 1000, "Started requests should be awaited until the deadline");
+        Assertions.assertTrue(elapsedMillis < 5000);
+    }
+
+    @Test
+    void testExceptionsOfResourceMethodsArePropagated() {
+        RequestExecutor executor = createExecutor(1, 1, 1000, 5000);
+
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, () -> executor.execute(() -> {
+            throw new IllegalStateException("failed");
+        }));
+        Assertions.assertEquals("failed", e.getMessage());
+    }
+
+    @Test
+    void testInvalidConfigurationsFallBackToDefaults() {
+        RequestExecutor executor = createExecutor(0, -1, 0, -1);
+
+        Assertions.assertEquals(200, executor.execute(() -> Response.ok().build()).getStatus());
+    }
+
+    @Test
+    void testForkedCallsRunOnJoiningThreadWhenNotStarted() throws Exception {
+        RequestExecutor executor = createExecutor(1, 1, 1000, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        // Occupies the only forking thread.
+        RequestExecutor.Fork<String> blockingFork = executor.fork(() -> {
+            started.countDown();
+            awaitRelease();
+            return Thread.currentThread().getName();
+        });
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        RequestExecutor.Fork<String> fork = executor.fork(() -> Thread.currentThread().getName());
+        Assertions.assertEquals(Thread.currentThread().getName(), fork.join());
+
+        release.countDown();
+        Assertions.assertTrue(blockingFork.join().startsWith("dashboard-api-fork-"));
+    }
+
+    @Test
+    void testDirectExecutorServesOnCallingThread() {
+        RequestExecutor executor = RequestExecutor.direct();
+
+        Response response = executor.execute(() -> Response.ok(Thread.currentThread().getName()).build());
+        Assertions.assertEquals(Thread.currentThread().getName(), response.getEntity());
+    }
+
+    private RequestExecutor createExecutor(int maxConcurrentRequests, int maxQueuedRequests, long maxQueueTime,
+                                           long maxRequestTime) {
+        RequestExecutionConfigurations configurations = Mockito.mock(RequestExecutionConfigurations.class);
+        Mockito.when(configurations.getMaxConcurrentRequests()).thenReturn(maxConcurrentRequests);
+        Mockito.when(configurations.getMaxQueuedRequests()).thenReturn(maxQueuedRequests);
+        Mockito.when(configurations.getMaxQueueTime()).thenReturn(maxQueueTime);
+        Mockito.when(configurations.getMaxRequestTime()).thenReturn(maxRequestTime);
+        RequestExecutor executor = new RequestExecutor(configurations, () -> null);
+        executors.add(executor);
+        return executor;
+    }
+
+    /**
+     * Serves a request that holds its executor thread until released, from another thread.
+     */
+    private CompletableFuture<Response> executeBlocking(RequestExecutor executor, CountDownLatch started) {
+        return CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+            return Response.ok().build();
+        }));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
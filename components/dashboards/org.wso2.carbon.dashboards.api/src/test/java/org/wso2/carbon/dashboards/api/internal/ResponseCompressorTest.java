@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.dashboards.core.bean.CompressionConfigurations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import static org.wso2.carbon.dashboards.api.internal.ResponseCompressor.ENCODING_DEFLATE;
+import static org.wso2.carbon.dashboards.api.internal.ResponseCompressor.ENCODING_GZIP;
+
+/**
+ * Test cases for {@link ResponseCompressor} class.
+ *
+ * @since 4.1.26
+ */
+public class ResponseCompressorTest {
+
+    private static final int LARGE_CONTENT_LENGTH = 4096;
+
+    @Test
+    void testEncodingNegotiation() {
+        ResponseCompressor compressor = new ResponseCompressor(new CompressionConfigurations());
+
+        Assertions.assertNull(compressor.getEncoding(null, LARGE_CONTENT_LENGTH));
+        Assertions.assertEquals(ENCODING_GZIP, compressor.getEncoding("gzip", LARGE_CONTENT_LENGTH));
+        Assertions.assertEquals(ENCODING_GZIP, compressor.getEncoding("GZIP", LARGE_CONTENT_LENGTH));
+        Assertions.assertEquals(ENCODING_DEFLATE, compressor.getEncoding("deflate", LARGE_CONTENT_LENGTH));
+        Assertions.assertEquals(ENCODING_GZIP, compressor.getEncoding("deflate, gzip", LARGE_CONTENT_LENGTH),
+                                "gzip should win a tie");
+        Assertions.assertEquals(ENCODING_DEFLATE, compressor.getEncoding("gzip;q=0.5, deflate", LARGE_CONTENT_LENGTH));
+        Assertions.assertEquals(ENCODING_GZIP, compressor.getEncoding("br, *", LARGE_CONTENT_LENGTH));
+        Assertions.assertNull(compressor.getEncoding("gzip;q=0, deflate;q=0", LARGE_CONTENT_LENGTH));
+        Assertions.assertNull(compressor.getEncoding("gzip;q=invalid", LARGE_CONTENT_LENGTH));
+        Assertions.assertNull(compressor.getEncoding("br, identity", LARGE_CONTENT_LENGTH));
+        Assertions.assertNull(compressor.getEncoding("gzip", 10), "Small responses should not be compressed");
+    }
+
+    @Test
+    void testCompressionCanBeDisabled() {
+        CompressionConfigurations configurations = Mockito.mock(CompressionConfigurations.class);
+        Mockito.when(configurations.isEnabled()).thenReturn(false);
+        ResponseCompressor compressor = new ResponseCompressor(configurations);
+        Response response = Response.ok(getLargeBean()).build();
+
+        Assertions.assertNull(compressor.getEncoding("gzip", LARGE_CONTENT_LENGTH));
+        Assertions.assertSame(response, compressor.compress(response, "gzip"));
+    }
+
+    @Test
+    void testPooledDeflatersProduceValidContent() throws Exception {
+        ResponseCompressor compressor = new ResponseCompressor(new CompressionConfigurations());
+        byte[] content = getLargeContent("sequential");
+        byte[] otherContent = getLargeContent("other");
+
+        // Deflaters returned to the pool are reset, hence the same deflater compresses different content correctly.
+        for (int i = 0; i < 10; i++) {
+            byte[] expected = (i % 2 == 0) ? content : otherContent;
+            Assertions.assertArrayEquals(expected, gunzip(compressor.compress(expected, ENCODING_GZIP)));
+            Assertions.assertArrayEquals(expected, inflate(compressor.compress(expected, ENCODING_DEFLATE)));
+        }
+
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                byte[] expected = getLargeContent("concurrent-" + i);
+                String encoding = (i % 2 == 0) ? ENCODING_GZIP : ENCODING_DEFLATE;
+                results.add(threads.submit(() -> {
+                    byte[] compressed = compressor.compress(expected, encoding);
+                    byte[] actual = ENCODING_GZIP.equals(encoding) ? gunzip(compressed) : inflate(compressed);
+                    return Arrays.equals(expected, actual);
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assertions.assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidLevelFallsBackToDefault() throws IOException {
+        CompressionConfigurations configurations = Mockito.mock(CompressionConfigurations.class);
+        Mockito.when(configurations.isEnabled()).thenReturn(true);
+        Mockito.when(configurations.getLevel()).thenReturn(42);
+        ResponseCompressor compressor = new ResponseCompressor(configurations);
+        byte[] content = getLargeContent("level");
+
+        Assertions.assertArrayEquals(content, gunzip(compressor.compress(content, ENCODING_GZIP)));
+    }
+
+    @Test
+    void testCompressResponse() throws IOException {
+        ResponseCompressor compressor = new ResponseCompressor(new CompressionConfigurations());
+        Map<String, String> bean = getLargeBean();
+
+        Response compressed = compressor.compress(Response.ok(bean).build(), "gzip, deflate");
+        Assertions.assertEquals(200, compressed.getStatus());
+        Assertions.assertEquals(ENCODING_GZIP, compressed.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertEquals(HttpHeaders.ACCEPT_ENCODING, compressed.getHeaderString(HttpHeaders.VARY));
+        String json = new String(gunzip(read((InputStream) compressed.getEntity())), StandardCharsets.UTF_8);
+        Assertions.assertTrue(json.startsWith("{\"content\":\""));
+
+        Response uncompressed = compressor.compress(Response.ok(bean).build(), null);
+        Assertions.assertNull(uncompressed.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertEquals(HttpHeaders.ACCEPT_ENCODING, uncompressed.getHeaderString(HttpHeaders.VARY),
+                                "Caches should know that the response depends on the accepted encodings");
+        Assertions.assertEquals(json, uncompressed.getEntity(), "Beans should be serialized once");
+    }
+
+    @Test
+    void testResponsesThatAreNotCompressed() {
+        ResponseCompressor compressor = new ResponseCompressor(new CompressionConfigurations());
+        Map<String, String> bean = getLargeBean();
+        List<Response> responses = new ArrayList<>();
+        responses.add(Response.ok(bean.get("content")).build());
+        responses.add(Response.ok(new ByteArrayInputStream(new byte[LARGE_CONTENT_LENGTH])).build());
+        responses.add(Response.ok(new byte[LARGE_CONTENT_LENGTH]).build());
+        responses.add(Response.status(Response.Status.NOT_FOUND).entity(bean).build());
+        responses.add(Response.ok(bean).header(HttpHeaders.CONTENT_ENCODING, ENCODING_DEFLATE).build());
+        responses.add(Response.noContent().build());
+
+        for (Response response : responses) {
+            Assertions.assertSame(response, compressor.compress(response, "gzip"));
+        }
+    }
+
+    private static Map<String, String> getLargeBean() {
+        return Collections.singletonMap("content", new String(getLargeContent("bean"), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] getLargeContent(String seed) {
+        StringBuilder content = new StringBuilder(LARGE_CONTENT_LENGTH);
+        for (int i = 0; content.length() < LARGE_CONTENT_LENGTH; i++) {
+            content.append(seed).append('-').append(i).append(' ');
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] content) throws IOException {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return read(inputStream);
+        }
+    }
+
+    private static byte[] inflate(byte[] content) throws IOException {
+        try (InputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(content))) {
+            return read(inputStream);
+        }
+    }
+
+    private static byte[] read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+}
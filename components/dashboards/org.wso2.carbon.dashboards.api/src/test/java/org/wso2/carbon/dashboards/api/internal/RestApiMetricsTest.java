@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.dashboards.core.utils.DependencyCallCounter;
+import org.wso2.carbon.metrics.core.Counter;
+import org.wso2.carbon.metrics.core.Histogram;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response;
+
+/**
+ * Test cases for {@link RestApiMetrics} class.
+ *
+ * @since 4.1.26
+ */
+public class RestApiMetricsTest {
+
+    private static final String ROUTE = "GET /dashboards/{url}";
+    private static final String METRIC_NAME = "org.wso2.carbon.dashboards.api.GET /apis/dashboards/dashboards/{url}";
+
+    private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+    private MetricService metricService;
+
+    @BeforeEach
+    void setUp() {
+        metricService = Mockito.mock(MetricService.class);
+        Mockito.when(metricService.timer(Mockito.anyString(), Mockito.any())).thenAnswer(
+                invocation -> metrics.computeIfAbsent(invocation.getArgument(0), name -> Mockito.mock(Timer.class)));
+        Mockito.when(metricService.counter(Mockito.anyString(), Mockito.any())).thenAnswer(
+                invocation -> metrics.computeIfAbsent(invocation.getArgument(0), name -> Mockito.mock(Counter.class)));
+        Mockito.when(metricService.histogram(Mockito.anyString(), Mockito.any())).thenAnswer(
+                invocation -> metrics.computeIfAbsent(invocation.getArgument(0),
+                                                      name -> Mockito.mock(Histogram.class)));
+    }
+
+    @Test
+    void testSuccessfulRequestIsRecorded() {
+        RestApiMetrics restApiMetrics = new RestApiMetrics("/apis/dashboards", () -> metricService);
+
+        Response response = restApiMetrics.time(ROUTE, () -> {
+            DependencyCallCounter.increment();
+            DependencyCallCounter.increment();
+            return Response.ok("h\u00e9llo").build();
+        });
+
+        Assertions.assertEquals(200, response.getStatus());
+        Mockito.verify(getMetric(Timer.class, "latency")).update(Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+        Mockito.verify(getMetric(Histogram.class, "dependencyCalls")).update(2);
+        Mockito.verify(getMetric(Histogram.class, "responseSize")).update(6L);
+        Mockito.verify(getMetric(Counter.class, "clientErrors"), Mockito.never()).inc();
+        Mockito.verify(getMetric(Counter.class, "serverErrors"), Mockito.never()).inc();
+    }
+
+    @Test
+    void testErrorsAreCounted() {
+        RestApiMetrics restApiMetrics = new RestApiMetrics("/apis/dashboards", () -> metricService);
+
+        restApiMetrics.time(ROUTE, () -> Response.status(Response.Status.NOT_FOUND).build());
+        restApiMetrics.time(ROUTE, () -> Response.serverError().build());
+        Assertions.assertThrows(IllegalStateException.class, () -> restApiMetrics.time(ROUTE, () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        Mockito.verify(getMetric(Counter.class, "clientErrors"), Mockito.times(1)).inc();
+        Mockito.verify(getMetric(Counter.class, "serverErrors"), Mockito.times(2)).inc();
+        Mockito.verify(getMetric(Timer.class, "latency"), Mockito.times(3))
+                .update(Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void testSizeOfBeansIsNotRecorded() {
+        RestApiMetrics restApiMetrics = new RestApiMetrics("/apis/dashboards", () -> metricService);
+
+        restApiMetrics.time(ROUTE, () -> Response.ok(new Object()).build());
+
+        Mockito.verify(getMetric(Histogram.class, "responseSize"), Mockito.never()).update(Mockito.anyLong());
+    }
+
+    @Test
+    void testRequestIsServedWithoutMetricService() {
+        RestApiMetrics restApiMetrics = new RestApiMetrics("/apis/dashboards", () -> null);
+
+        Assertions.assertEquals(204, restApiMetrics.time(ROUTE, () -> Response.noContent().build()).getStatus());
+        Assertions.assertTrue(metrics.isEmpty());
+    }
+
+    private <M> M getMetric(Class<M> type, String metric) {
+        Object value = metrics.get(METRIC_NAME + "." + metric);
+        Assertions.assertNotNull(value, "Metric " + metric + " should be registered for the route");
+        return type.cast(value);
+    }
+}
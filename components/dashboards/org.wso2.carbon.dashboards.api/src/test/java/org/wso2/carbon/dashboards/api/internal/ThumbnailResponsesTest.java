@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.api.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * Test cases for {@link ThumbnailResponses} class.
+ *
+ * @since 4.1.26
+ */
+public class ThumbnailResponsesTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0};
+
+    @Test
+    void testVersionedThumbnailIsCachedForGood() {
+        Thumbnail thumbnail = Thumbnail.fromContent("image/png", PNG);
+
+        Response response = ThumbnailResponses.ok(thumbnail, thumbnail.getVersion(), null);
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals("\"" + thumbnail.getVersion() + "\"", response.getHeaderString(HttpHeaders.ETAG));
+        Assertions.assertTrue(response.getHeaderString(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        Assertions.assertTrue(response.getEntity() instanceof ByteArrayInputStream);
+        Assertions.assertEquals("nosniff", response.getHeaderString("X-Content-Type-Options"));
+        Assertions.assertTrue(response.getHeaderString("Content-Security-Policy").contains("sandbox"));
+        Assertions.assertEquals("inline; filename=\"thumbnail.png\"",
+                                response.getHeaderString(HttpHeaders.CONTENT_DISPOSITION));
+    }
+
+    @Test
+    void testUnversionedThumbnailIsRevalidated() {
+        Thumbnail thumbnail = Thumbnail.fromContent("image/png", PNG);
+
+        for (String requestedVersion : new String[]{null, "stale"}) {
+            Response response = ThumbnailResponses.ok(thumbnail, requestedVersion, null);
+            Assertions.assertEquals(200, response.getStatus());
+            String cacheControl = response.getHeaderString(HttpHeaders.CACHE_CONTROL);
+            Assertions.assertTrue(cacheControl.contains("no-cache"));
+            Assertions.assertFalse(cacheControl.contains("immutable"),
+                                   "URLs of other versions should not be cached for good");
+        }
+    }
+
+    @Test
+    void testNotModified() {
+        Thumbnail thumbnail = Thumbnail.fromContent("image/png", PNG);
+        String entityTag = "\"" + thumbnail.getVersion() + "\"";
+
+        for (String ifNoneMatch : new String[]{entityTag, "W/" + entityTag, "\"other\", " + entityTag, "*"}) {
+            Response response = ThumbnailResponses.ok(thumbnail, null, ifNoneMatch);
+            Assertions.assertEquals(304, response.getStatus(), ifNoneMatch);
+            Assertions.assertNull(response.getEntity());
+            Assertions.assertEquals(entityTag, response.getHeaderString(HttpHeaders.ETAG));
+            Assertions.assertNotNull(response.getHeaderString(HttpHeaders.CACHE_CONTROL));
+        }
+        Assertions.assertEquals(200, ThumbnailResponses.ok(thumbnail, null, "\"other\"").getStatus());
+        Assertions.assertEquals(200, ThumbnailResponses.ok(thumbnail, null, thumbnail.getVersion()).getStatus(),
+                                "Entity tags are quoted");
+    }
+
+    @Test
+    void testThumbnailIsStreamedFromFile() {
+        Thumbnail thumbnail = Thumbnail.fromFile("image/png", Paths.get("thumbnail.png"), 2048, 1000);
+
+        Response response = ThumbnailResponses.ok(thumbnail, null, null);
+        Assertions.assertEquals(new File("thumbnail.png"), response.getEntity());
+        Assertions.assertEquals("\"" + thumbnail.getVersion() + "\"", response.getHeaderString(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testUploadedThumbnailValidation() throws IOException {
+        Assertions.assertEquals("image/png", ThumbnailResponses.getImageMediaType("IMAGE/PNG; charset=binary"));
+        Assertions.assertNull(ThumbnailResponses.getImageMediaType("image/svg+xml"));
+        Assertions.assertNull(ThumbnailResponses.getImageMediaType(null));
+
+        Assertions.assertTrue(ThumbnailResponses.isImage(PNG, "image/png"));
+        Assertions.assertFalse(ThumbnailResponses.isImage(PNG, "image/jpeg"));
+        Assertions.assertFalse(ThumbnailResponses.isImage("<svg/>".getBytes(StandardCharsets.UTF_8), "image/png"));
+
+        Assertions.assertArrayEquals(PNG, ThumbnailResponses.readThumbnail(new ByteArrayInputStream(PNG)));
+        Assertions.assertNull(ThumbnailResponses.readThumbnail(
+                new ByteArrayInputStream(new byte[ThumbnailResponses.MAX_THUMBNAIL_SIZE + 1])));
+    }
+}
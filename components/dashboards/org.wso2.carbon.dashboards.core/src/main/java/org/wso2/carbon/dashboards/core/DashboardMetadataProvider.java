@@ -20,10 +20,15 @@ package org.wso2.carbon.dashboards.core;
 import org.wso2.carbon.analytics.permissions.bean.Role;
 import org.wso2.carbon.dashboards.core.bean.DashboardConfigurations;
 import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.DependencyCallStatistics;
+import org.wso2.carbon.dashboards.core.bean.Diagnostics;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
 import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
+import org.wso2.carbon.dashboards.core.exception.UnauthorizedException;
 import org.wso2.carbon.uiserver.api.App;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,6 +48,18 @@ public interface DashboardMetadataProvider {
      */
     void init(App dashboardApp);
 
+    /**
+     * Checks whether this provider is ready to serve dashboards. Initialization may complete in the background, e.g.
+     * while dashboards are imported, and callers should ask clients to retry until then.
+     *
+     * @since 4.1.26
+     *
+     * @return {@code true} if dashboards and widgets can be served
+     */
+    default boolean isReady() {
+        return true;
+    }
+
     /**
      * Returns the widget provider.
      *
@@ -63,6 +80,51 @@ public interface DashboardMetadataProvider {
     Optional<DashboardMetadata> getDashboardByUser(String user, String dashboardUrl, String originComponent) throws
             DashboardException;
 
+    /**
+     * Checks whether the given user may retrieve the specified dashboard, as {@link #getDashboardByUser(String,
+     * String, String)} would do.
+     *
+     * @since 4.1.26
+     *
+     * @param user            Username
+     * @param dashboardUrl    URL of the dashboard
+     * @param originComponent origin component of the request (designer/settings), or {@code null} for viewing
+     * @return {@code true} if the user is authorized
+     */
+    default boolean isAuthorized(String user, String dashboardUrl, String originComponent) {
+        try {
+            getDashboardByUser(user, dashboardUrl, originComponent);
+            return true;
+        } catch (DashboardException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the content version of the specified dashboard. The version changes whenever the dashboard is added,
+     * updated or deleted through this provider, hence can be used to validate anything derived from the dashboard.
+     * Providers that do not track versions return a negative value, and then nothing derived should be reused.
+     *
+     * @since 4.1.26
+     *
+     * @param dashboardUrl URL of the dashboard
+     * @return content version, or a negative value if not tracked
+     */
+    default long getContentVersion(String dashboardUrl) {
+        return -1;
+    }
+
+    /**
+     * Changes the content version of the specified dashboard so that anything derived from it is discarded. This is
+     * meant to be called when the dashboard is changed without going through a dashboard provider.
+     *
+     * @since 4.1.26
+     *
+     * @param dashboardUrl URL of the dashboard
+     */
+    default void invalidateDashboard(String dashboardUrl) {
+    }
+
     List<DashboardMetadata> getAllByUser(String user) throws DashboardException;
 
     /**
@@ -105,6 +167,37 @@ public interface DashboardMetadataProvider {
 
     void delete(String user, String dashboardUrl) throws DashboardException;
 
+    /**
+     * Returns the thumbnail of the specified dashboard, with permission check for the given user.
+     *
+     * @since 4.1.26
+     *
+     * @param user         Username
+     * @param dashboardUrl URL of the dashboard
+     * @return thumbnail of the dashboard
+     * @throws DashboardException if an error occurred when reading the thumbnail
+     */
+    default Optional<Thumbnail> getThumbnail(String user, String dashboardUrl) throws DashboardException {
+        return Optional.empty();
+    }
+
+    /**
+     * Stores the thumbnail of the specified dashboard, replacing any existing one, with permission check for the
+     * given user.
+     *
+     * @since 4.1.26
+     *
+     * @param user         Username
+     * @param dashboardUrl URL of the dashboard
+     * @param mediaType    media type of the thumbnail image
+     * @param content      thumbnail image
+     * @throws DashboardException if an error occurred when storing the thumbnail, or if thumbnails are not supported
+     */
+    default void setThumbnail(String user, String dashboardUrl, String mediaType, byte[] content)
+            throws DashboardException {
+        throw new DashboardException("Dashboard thumbnails are not supported by this dashboard provider.");
+    }
+
     Map<String, List<Role>> getDashboardRoles(String dashboardUrl, String username) throws DashboardException;
 
     List<org.wso2.carbon.analytics.idp.client.core.models.Role> getAllRoles(String username) throws DashboardException;
@@ -157,4 +250,35 @@ public interface DashboardMetadataProvider {
      * @throws DashboardException If an error occurred while getting the favicon path
      */
     String getLogoPath(String username) throws DashboardException;
+
+    /**
+     * Returns call statistics of the external dependencies of this provider (i.e. the permission provider and the
+     * identity provider client), collected since the server started. Only administrators can view them.
+     *
+     * @since 4.1.26
+     *
+     * @param username name of the user
+     * @return call statistics of dependency methods
+     * @throws UnauthorizedException if the user is not an administrator
+     * @throws DashboardException    if cannot check the roles of the user
+     */
+    default List<DependencyCallStatistics> getDependencyCallStatistics(String username) throws DashboardException {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns a snapshot of the runtime state of dashboards and widgets, i.e. stored content sizes, cache statistics,
+     * data source pool usage and timings of the last dashboard import. Only administrators can view it.
+     *
+     * @since 4.1.26
+     *
+     * @param username name of the user
+     * @return diagnostics
+     * @throws UnauthorizedException if the user is not an administrator
+     * @throws DashboardException    if cannot check the roles of the user or read the statistics, or if diagnostics
+     *                               are not supported
+     */
+    default Diagnostics getDiagnostics(String username) throws DashboardException {
+        throw new DashboardException("Diagnostics are not supported by this dashboard provider.");
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core;
+
+import java.util.Map;
+
+/**
+ * Component that reports its runtime state in the dashboard diagnostics. Implementations are registered as OSGi
+ * services.
+ *
+ * @since 4.1.26
+ */
+public interface DiagnosticsContributor {
+
+    /**
+     * Returns the name under which the diagnostics of this component are reported.
+     *
+     * @return name of the component
+     */
+    String getName();
+
+    /**
+     * Returns the current diagnostics of this component. This should be cheap, as it is called on every diagnostics
+     * request.
+     *
+     * @return diagnostics as name-value pairs
+     */
+    Map<String, Object> getDiagnostics();
+}
@@ -18,6 +18,8 @@
 
 package org.wso2.carbon.dashboards.core;
 
+import org.wso2.carbon.dashboards.core.bean.Diagnostics;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
 import org.wso2.carbon.dashboards.core.bean.importer.WidgetType;
 import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
 import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
@@ -104,4 +106,62 @@ public interface WidgetMetadataProvider {
      * @throws DashboardException
      */
     boolean isWidgetPresent(String widgetName, WidgetType widgetType) throws DashboardException;
+
+    /**
+     * Returns the thumbnail of the specified widget. Thumbnails of custom widgets are read from the widget directory
+     * while thumbnails of generated widgets are read from the database.
+     *
+     * @since 4.1.26
+     *
+     * @param widgetId id of the widget
+     * @return thumbnail of the widget
+     * @throws DashboardException if an error occurred when reading the thumbnail
+     */
+    default Optional<Thumbnail> getWidgetThumbnail(String widgetId) throws DashboardException {
+        return Optional.empty();
+    }
+
+    /**
+     * Stores the thumbnail of the specified generated widget, replacing any existing one.
+     *
+     * @since 4.1.26
+     *
+     * @param widgetId  id of the generated widget
+     * @param mediaType media type of the thumbnail image
+     * @param content   thumbnail image
+     * @throws DashboardException if an error occurred when storing the thumbnail, or if thumbnails are not supported
+     */
+    default void setWidgetThumbnail(String widgetId, String mediaType, byte[] content) throws DashboardException {
+        throw new DashboardException("Widget thumbnails are not supported by this widget provider.");
+    }
+
+    /**
+     * Discard any configuration or thumbnail of the specified widget held in memory, so that they are read again from
+     * the database. This is meant to be called when the widget is changed by another node of a cluster.
+     *
+     * @since 4.1.26
+     *
+     * @param widgetId id of the widget
+     */
+    default void invalidateWidgetConfiguration(String widgetId) {
+    }
+
+    /**
+     * Discard all widget configurations and thumbnails held in memory.
+     *
+     * @since 4.1.26
+     */
+    default void invalidateWidgetConfigurations() {
+    }
+
+    /**
+     * Adds widget counts, configuration sizes and cache statistics to the given diagnostics.
+     *
+     * @since 4.1.26
+     *
+     * @param diagnostics diagnostics to add to
+     * @throws DashboardException if an error occurred when reading widget statistics
+     */
+    default void addDiagnostics(Diagnostics diagnostics) throws DashboardException {
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Bean class for the in-memory cache configurations in deployment yaml.
+ *
+ * @since 4.1.26
+ */
+public class CacheConfigurations {
+
+    @Element(description = "Maximum number of generated widget configurations kept in memory")
+    private int widgetConfigurationCacheSize = 1000;
+
+    @Element(description = "Seconds a cached generated widget configuration is kept, zero to keep until evicted")
+    private long widgetConfigurationCacheExpiry = 300;
+
+    @Element(description = "Seconds between background checks of custom widget configuration files for changes, zero "
+            + "to disable the checks")
+    private long customWidgetCheckInterval = 10;
+
+    @Element(description = "Maximum number of widget thumbnails kept in memory")
+    private int thumbnailCacheSize = 500;
+
+    @Element(description = "Maximum size in bytes of a widget thumbnail file that is kept in memory, larger files "
+            + "are streamed from disk")
+    private long thumbnailMaxInMemorySize = 64 * 1024;
+
+    @Element(description = "Maximum number of dashboard thumbnails kept in memory")
+    private int dashboardThumbnailCacheSize = 200;
+
+    @Element(description = "Maximum number of serialized dashboard responses kept in memory")
+    private int dashboardResponseCacheSize = 100;
+
+    @Element(description = "Seconds a serialized dashboard response is kept, zero to keep until evicted. Responses are "
+            + "validated against the content version of the dashboard on every request, hence this only bounds how "
+            + "long a response is served if the version cannot be saved")
+    private long dashboardResponseCacheExpiry = 300;
+
+    public int getWidgetConfigurationCacheSize() {
+        return widgetConfigurationCacheSize;
+    }
+
+    public long getWidgetConfigurationCacheExpiry() {
+        return widgetConfigurationCacheExpiry;
+    }
+
+    public long getCustomWidgetCheckInterval() {
+        return customWidgetCheckInterval;
+    }
+
+    public int getThumbnailCacheSize() {
+        return thumbnailCacheSize;
+    }
+
+    public long getThumbnailMaxInMemorySize() {
+        return thumbnailMaxInMemorySize;
+    }
+
+    public int getDashboardThumbnailCacheSize() {
+        return dashboardThumbnailCacheSize;
+    }
+
+    public int getDashboardResponseCacheSize() {
+        return dashboardResponseCacheSize;
+    }
+
+    public long getDashboardResponseCacheExpiry() {
+        return dashboardResponseCacheExpiry;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+/**
+ * Bean class for the statistics of an in-memory cache, collected since the cache was created.
+ *
+ * @since 4.1.26
+ */
+public class CacheStatistics {
+
+    private final String name;
+    private final int size;
+    private final int maxEntries;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final double hitRatio;
+
+    /**
+     * Creates cache statistics.
+     *
+     * @param name          name of the cache
+     * @param size          number of entries currently in the cache
+     * @param maxEntries    maximum number of entries of the cache
+     * @param hitCount      number of look ups that found a cached value
+     * @param missCount     number of look ups that did not find a cached value
+     * @param evictionCount number of entries evicted to keep the cache within its bounds
+     */
+    public CacheStatistics(String name, int size, int maxEntries, long hitCount, long missCount, long evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        long lookups = hitCount + missCount;
+        this.hitRatio = (lookups == 0) ? 0 : ((double) hitCount / lookups);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the ratio of look ups that found a cached value.
+     *
+     * @return hit ratio between 0 and 1, or 0 if there were no look ups
+     */
+    public double getHitRatio() {
+        return hitRatio;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Bean class for the REST API response compression configurations in deployment yaml.
+ *
+ * @since 4.1.26
+ */
+public class CompressionConfigurations {
+
+    @Element(description = "Compress REST API responses for clients that accept gzip or deflate encoding")
+    private boolean enabled = true;
+
+    @Element(description = "Minimum size in bytes of a response that is compressed")
+    private int minResponseSize = 1024;
+
+    @Element(description = "Compression level from 1 (fastest) to 9 (smallest), -1 for the default level")
+    private int level = -1;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMinResponseSize() {
+        return minResponseSize;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+}
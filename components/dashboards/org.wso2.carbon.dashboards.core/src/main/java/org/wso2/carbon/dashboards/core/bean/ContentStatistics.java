@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+/**
+ * Bean class for the count and sizes of stored content (e.g. dashboard content blobs).
+ *
+ * @since 4.1.26
+ */
+public class ContentStatistics {
+
+    private final long count;
+    private final long averageSize;
+    private final long maxSize;
+
+    /**
+     * Creates content statistics.
+     *
+     * @param count       number of stored items
+     * @param averageSize average size of the content of an item in bytes
+     * @param maxSize     maximum size of the content of an item in bytes
+     */
+    public ContentStatistics(long count, long averageSize, long maxSize) {
+        this.count = count;
+        this.averageSize = averageSize;
+        this.maxSize = maxSize;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getAverageSize() {
+        return averageSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+}
@@ -57,6 +57,18 @@ public class DashboardConfigurations {
     @Element(description = "file name of the favicon")
     public String faviconFileName = "favicon.ico";
 
+    @Element(description = "In-memory cache configurations")
+    public CacheConfigurations cache = new CacheConfigurations();
+
+    @Element(description = "REST API response compression configurations")
+    public CompressionConfigurations compression = new CompressionConfigurations();
+
+    @Element(description = "Database access configurations")
+    public DatabaseConfigurations database = new DatabaseConfigurations();
+
+    @Element(description = "REST API request execution configurations")
+    public RequestExecutionConfigurations requestExecution = new RequestExecutionConfigurations();
+
     /**
      * Get map of roles.
      *
@@ -120,5 +132,40 @@ public class DashboardConfigurations {
         return faviconFileName;
     }
 
+    /**
+     * Get in-memory cache configurations.
+     *
+     * @return cache configurations
+     */
+    public CacheConfigurations getCacheConfigurations() {
+        return cache;
+    }
+
+    /**
+     * Get REST API response compression configurations.
+     *
+     * @return compression configurations
+     */
+    public CompressionConfigurations getCompressionConfigurations() {
+        return compression;
+    }
+
+    /**
+     * Get database access configurations.
+     *
+     * @return database configurations
+     */
+    public DatabaseConfigurations getDatabaseConfigurations() {
+        return database;
+    }
+
+    /**
+     * Get REST API request execution configurations.
+     *
+     * @return request execution configurations
+     */
+    public RequestExecutionConfigurations getRequestExecutionConfigurations() {
+        return requestExecution;
+    }
 
 }
@@ -38,6 +38,7 @@ public class DashboardMetadata {
     protected boolean hasOwnerPermission;
     protected boolean hasDesignerPermission;
     protected boolean hasViewerPermission;
+    protected String thumbnailUrl;
 
     /**
      * This method is to get whether user has owner permission or not
@@ -219,6 +220,27 @@ public class DashboardMetadata {
         this.content = content;
     }
 
+    /**
+     * Returns the URL of the dashboard thumbnail, relative to the dashboards REST API. The URL changes whenever the
+     * thumbnail changes, hence can be cached by clients for good.
+     *
+     * @return thumbnail URL, or {@code null} if the dashboard has no stored thumbnail
+     * @since 4.1.26
+     */
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    /**
+     * Set the URL of the dashboard thumbnail.
+     *
+     * @param thumbnailUrl thumbnail URL, relative to the dashboards REST API
+     * @since 4.1.26
+     */
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
     @Override
     public String toString() {
         return "DashboardMetadata{url='" + url + "', owner='" + owner + "', name='" + name + "'}'";
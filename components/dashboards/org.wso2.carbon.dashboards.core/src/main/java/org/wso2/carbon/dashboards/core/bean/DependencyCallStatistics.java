@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+/**
+ * Bean class for the call statistics of a method of an external dependency (e.g. the permission provider), collected
+ * since the server started.
+ *
+ * @since 4.1.26
+ */
+public class DependencyCallStatistics {
+
+    private final String dependency;
+    private final String method;
+    private final long calls;
+    private final long failures;
+    private final double meanLatency;
+    private final double maxLatency;
+
+    /**
+     * Creates call statistics.
+     *
+     * @param dependency  name of the dependency
+     * @param method      name of the method
+     * @param calls       number of calls
+     * @param failures    number of calls that threw an exception
+     * @param meanLatency mean latency of a call in milliseconds
+     * @param maxLatency  maximum latency of a call in milliseconds
+     */
+    public DependencyCallStatistics(String dependency, String method, long calls, long failures, double meanLatency,
+                                    double maxLatency) {
+        this.dependency = dependency;
+        this.method = method;
+        this.calls = calls;
+        this.failures = failures;
+        this.meanLatency = meanLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public double getMeanLatency() {
+        return meanLatency;
+    }
+
+    public double getMaxLatency() {
+        return maxLatency;
+    }
+}
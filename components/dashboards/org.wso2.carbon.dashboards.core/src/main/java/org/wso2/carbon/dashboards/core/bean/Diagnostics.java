@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bean class for a snapshot of the runtime state of the dashboard server, used by operators to tune capacity.
+ *
+ * @since 4.1.26
+ */
+public class Diagnostics {
+
+    private ContentStatistics dashboards;
+    private ContentStatistics generatedWidgets;
+    private int customWidgets;
+    private final List<CacheStatistics> caches = new ArrayList<>();
+    private Map<String, Object> dataSourcePool;
+    private ImportStatistics lastImport;
+    private final Map<String, Map<String, Object>> components = new LinkedHashMap<>();
+
+    /**
+     * Returns the count and content sizes of stored dashboards.
+     *
+     * @return dashboard statistics
+     */
+    public ContentStatistics getDashboards() {
+        return dashboards;
+    }
+
+    public void setDashboards(ContentStatistics dashboards) {
+        this.dashboards = dashboards;
+    }
+
+    /**
+     * Returns the count and configuration sizes of stored generated widgets.
+     *
+     * @return generated widget statistics
+     */
+    public ContentStatistics getGeneratedWidgets() {
+        return generatedWidgets;
+    }
+
+    public void setGeneratedWidgets(ContentStatistics generatedWidgets) {
+        this.generatedWidgets = generatedWidgets;
+    }
+
+    /**
+     * Returns the number of custom widgets deployed in the dashboard app.
+     *
+     * @return number of custom widgets
+     */
+    public int getCustomWidgets() {
+        return customWidgets;
+    }
+
+    public void setCustomWidgets(int customWidgets) {
+        this.customWidgets = customWidgets;
+    }
+
+    public List<CacheStatistics> getCaches() {
+        return Collections.unmodifiableList(caches);
+    }
+
+    public void addCache(CacheStatistics cacheStatistics) {
+        caches.add(cacheStatistics);
+    }
+
+    /**
+     * Returns the usage of the connection pool of the dashboard data source.
+     *
+     * @return pool usage, or {@code null} if the data source does not expose it
+     */
+    public Map<String, Object> getDataSourcePool() {
+        return dataSourcePool;
+    }
+
+    public void setDataSourcePool(Map<String, Object> dataSourcePool) {
+        this.dataSourcePool = dataSourcePool;
+    }
+
+    /**
+     * Returns the timings of the last run of importing dashboard artifacts.
+     *
+     * @return import statistics, or {@code null} if dashboards have not been imported yet
+     */
+    public ImportStatistics getLastImport() {
+        return lastImport;
+    }
+
+    public void setLastImport(ImportStatistics lastImport) {
+        this.lastImport = lastImport;
+    }
+
+    /**
+     * Returns diagnostics reported by other components, keyed by component name.
+     *
+     * @return diagnostics of other components
+     */
+    public Map<String, Map<String, Object>> getComponents() {
+        return Collections.unmodifiableMap(components);
+    }
+
+    public void putComponent(String name, Map<String, Object> diagnostics) {
+        components.put(name, diagnostics);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bean class for the timings of a run of importing dashboard artifacts.
+ *
+ * @since 4.1.26
+ */
+public class ImportStatistics {
+
+    private final long startTime;
+    private long duration;
+    private final List<ArtifactImport> artifacts = new ArrayList<>();
+
+    /**
+     * Creates statistics for an import run.
+     *
+     * @param startTime time the import started, in milliseconds since the epoch
+     */
+    public ImportStatistics(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the time taken by the whole import run.
+     *
+     * @return duration in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public List<ArtifactImport> getArtifacts() {
+        return Collections.unmodifiableList(artifacts);
+    }
+
+    public void addArtifact(ArtifactImport artifact) {
+        artifacts.add(artifact);
+    }
+
+    /**
+     * Outcome and timing of importing a single dashboard artifact.
+     *
+     * @since 4.1.26
+     */
+    public static class ArtifactImport {
+
+        private final String artifact;
+        private final String dashboardUrl;
+        private final String outcome;
+        private final long duration;
+
+        /**
+         * Creates the statistics of importing an artifact.
+         *
+         * @param artifact     path of the artifact
+         * @param dashboardUrl URL of the imported dashboard
+         * @param outcome      outcome of the import, i.e. {@code imported}, {@code partial} or {@code failed}
+         * @param duration     time taken to import the artifact in milliseconds
+         */
+        public ArtifactImport(String artifact, String dashboardUrl, String outcome, long duration) {
+            this.artifact = artifact;
+            this.dashboardUrl = dashboardUrl;
+            this.outcome = outcome;
+            this.duration = duration;
+        }
+
+        public String getArtifact() {
+            return artifact;
+        }
+
+        public String getDashboardUrl() {
+            return dashboardUrl;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+
+        public long getDuration() {
+            return duration;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Bean class for the configurations of the executor that runs REST API requests, in deployment yaml.
+ *
+ * @since 4.1.26
+ */
+public class RequestExecutionConfigurations {
+
+    @Element(description = "Maximum number of REST API requests that are served concurrently")
+    private int maxConcurrentRequests = 16;
+
+    @Element(description = "Maximum number of REST API requests that wait to be served, further requests are " +
+                           "rejected with 503 Service Unavailable. Transport threads wait for served and queued " +
+                           "requests, hence their sum should stay well below the number of transport threads")
+    private int maxQueuedRequests = 16;
+
+    @Element(description = "Maximum time in milliseconds a REST API request waits to be served before it is " +
+                           "rejected with 503 Service Unavailable")
+    private long maxQueueTime = 5000;
+
+    @Element(description = "Maximum time in milliseconds a REST API request is waited for, including its queue " +
+                           "time, before it is answered with 503 Service Unavailable")
+    private long maxRequestTime = 30000;
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    public long getMaxQueueTime() {
+        return maxQueueTime;
+    }
+
+    public long getMaxRequestTime() {
+        return maxRequestTime;
+    }
+}
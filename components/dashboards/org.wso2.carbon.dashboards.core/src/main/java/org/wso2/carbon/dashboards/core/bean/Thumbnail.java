@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.bean;
+
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
+
+import java.nio.file.Path;
+
+/**
+ * Bean class for a thumbnail image. The image is either held in memory or, when it is too large to be kept in memory,
+ * referred by its file.
+ *
+ * @since 4.1.26
+ */
+public class Thumbnail {
+
+    private final String mediaType;
+    private final byte[] content;
+    private final Path file;
+    private final long size;
+    private final String version;
+
+    private Thumbnail(String mediaType, byte[] content, Path file, long size, String version) {
+        this.mediaType = mediaType;
+        this.content = content;
+        this.file = file;
+        this.size = size;
+        this.version = version;
+    }
+
+    /**
+     * Creates a thumbnail held in memory.
+     *
+     * @param mediaType media type of the image
+     * @param content   image content
+     * @return thumbnail
+     */
+    public static Thumbnail fromContent(String mediaType, byte[] content) {
+        return new Thumbnail(mediaType, content, null, content.length, DashboardUtil.getContentHash(content));
+    }
+
+    /**
+     * Creates a thumbnail that is read from the given file when served.
+     *
+     * @param mediaType    media type of the image
+     * @param file         image file
+     * @param size         size of the file in bytes
+     * @param lastModified last modified time of the file in milliseconds
+     * @return thumbnail
+     */
+    public static Thumbnail fromFile(String mediaType, Path file, long size, long lastModified) {
+        return new Thumbnail(mediaType, null, file, size,
+                             Long.toHexString(size) + "-" + Long.toHexString(lastModified));
+    }
+
+    /**
+     * Returns the media type of the image.
+     *
+     * @return media type
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Returns the image content if it is held in memory.
+     *
+     * @return image content or {@code null} if the image should be read from its file
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Returns the image file if the image is not held in memory.
+     *
+     * @return image file or {@code null} if the image is held in memory
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the size of the image in bytes.
+     *
+     * @return size of the image
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns an opaque string that changes whenever the image changes. Suitable to be used as an entity tag or as a
+     * cache busting parameter.
+     *
+     * @return version of the image
+     */
+    public String getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.cache;
+
+import org.wso2.carbon.dashboards.core.bean.CacheStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * In-memory cache with a bounded number of entries that are evicted in least recently used order. Concurrent misses
+ * for the same key are collapsed into a single load.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ * @since 4.1.26
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long expiryNanos;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private final ConcurrentMap<K, Load<V>> inFlightLoads = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param name       name of the cache, used when reporting statistics
+     * @param maxEntries maximum number of entries kept in the cache
+     * @param expiry     time an entry is kept after it was put, zero or negative to keep entries until evicted
+     * @param unit       time unit of the expiry
+     */
+    public BoundedCache(String name, int maxEntries, long expiry, TimeUnit unit) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Maximum number of entries of cache '" + name +
+                                               "' should be positive, but found " + maxEntries + ".");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.expiryNanos = (expiry > 0) ? unit.toNanos(expiry) : 0;
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > BoundedCache.this.maxEntries) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the given key, if any.
+     *
+     * @param key key to look up
+     * @return cached value
+     */
+    public Optional<V> getIfPresent(K key) {
+        CacheEntry<V> entry = lookup(key);
+        if (entry == null) {
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        return Optional.of(entry.value);
+    }
+
+    /**
+     * Returns the cached value for the given key, loading it with the given loader on a miss. If several threads miss
+     * the same key at the same time only one of them runs the loader while others wait for its result. {@code null}
+     * values returned by the loader are not cached.
+     *
+     * @param key    key to look up
+     * @param loader loader to compute the value on a miss
+     * @param <E>    type of the exception thrown by the loader
+     * @return cached or loaded value
+     * @throws E if the loader failed
+     */
+    public <E extends Exception> V get(K key, Loader<? super K, ? extends V, E> loader) throws E {
+        return get(key, value -> true, loader);
+    }
+
+    /**
+     * Returns the cached value for the given key if it is still valid, loading it with the given loader on a miss or
+     * when the cached value is no longer valid. This takes a single look up, unlike checking the value returned by
+     * {@link #getIfPresent(Object)} and then calling {@link #get(Object, Loader)}.
+     *
+     * @param key       key to look up
+     * @param validator checks whether a cached value is still valid, e.g. against the version of its source
+     * @param loader    loader to compute the value on a miss
+     * @param <E>       type of the exception thrown by the loader
+     * @return valid cached value or loaded value
+     * @throws E if the loader failed
+     */
+    public <E extends Exception> V get(K key, Predicate<? super V> validator,
+                                       Loader<? super K, ? extends V, E> loader) throws E {
+        CacheEntry<V> entry = lookup(key);
+        if (entry != null) {
+            if (validator.test(entry.value)) {
+                hitCount.increment();
+                return entry.value;
+            }
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+        }
+        missCount.increment();
+
+        Load<V> load = new Load<>(new FutureTask<>(() -> loader.load(key)));
+        Load<V> inFlightLoad = inFlightLoads.putIfAbsent(key, load);
+        boolean isLoader = (inFlightLoad == null);
+        if (isLoader) {
+            inFlightLoad = load;
+            load.task.run();
+        }
+        try {
+            V value = inFlightLoad.task.get();
+            if (isLoader && (value != null)) {
+                synchronized (entries) {
+                    // Do not resurrect a value that was invalidated while it was being loaded.
+                    if (!load.invalidated) {
+                        entries.put(key, new CacheEntry<>(value, expiresAt()));
+                    }
+                }
+            }
+            return value;
+        } catch (ExecutionException e) {
+            throw BoundedCache.<E>rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for '" + key + "' to be loaded into cache '" +
+                                            name + "'.", e);
+        } finally {
+            if (isLoader) {
+                inFlightLoads.remove(key, load);
+            }
+        }
+    }
+
+    /**
+     * Puts the given value into the cache.
+     *
+     * @param key   key of the value
+     * @param value value to cache
+     */
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, new CacheEntry<>(value, expiresAt()));
+        }
+    }
+
+    /**
+     * Removes the value cached for the given key. A value of the key that is being loaded is not cached either, and
+     * later look ups load the value again instead of waiting for it. Loads of other keys are not affected.
+     *
+     * @param key key to invalidate
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+            Load<V> load = inFlightLoads.remove(key);
+            if (load != null) {
+                load.invalidated = true;
+            }
+        }
+    }
+
+    /**
+     * Removes all cached values, including values that are being loaded.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            inFlightLoads.forEach((key, load) -> {
+                load.invalidated = true;
+                inFlightLoads.remove(key, load);
+            });
+        }
+    }
+
+    /**
+     * Returns the name of this cache.
+     *
+     * @return name of the cache
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of entries currently held by this cache.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the maximum number of entries this cache holds.
+     *
+     * @return maximum number of entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the number of look ups that found a cached value.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of look ups that did not find a cached value.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted to keep the cache within its bounds.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return cache statistics
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(name, size(), maxEntries, getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+    private CacheEntry<V> lookup(K key) {
+        synchronized (entries) {
+            CacheEntry<V> entry = entries.get(key);
+            if ((entry != null) && (expiryNanos > 0) && (System.nanoTime() - entry.expiresAt > 0)) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private long expiresAt() {
+        return System.nanoTime() + expiryNanos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> RuntimeException rethrow(Throwable throwable) throws E {
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        } else if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        throw (E) throwable;
+    }
+
+    /**
+     * Computes values on cache misses.
+     *
+     * @param <K> type of the keys
+     * @param <V> type of the values
+     * @param <E> type of the exception thrown when loading fails
+     * @since 4.1.26
+     */
+    @FunctionalInterface
+    public interface Loader<K, V, E extends Exception> {
+
+        /**
+         * Loads the value for the given key.
+         *
+         * @param key key to load
+         * @return loaded value or {@code null} if there is no value for the key
+         * @throws E if loading failed
+         */
+        V load(K key) throws E;
+    }
+
+    /**
+     * A load of a value, which later look ups of the same key wait for instead of loading again.
+     *
+     * @param <V> type of the value
+     */
+    private static class Load<V> {
+
+        private final FutureTask<V> task;
+        /**
+         * Whether the key was invalidated while this load was in flight. Guarded by the lock of the entries.
+         */
+        private boolean invalidated = false;
+
+        private Load(FutureTask<V> task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * A cached value.
+     *
+     * @param <V> type of the value
+     */
+    private static class CacheEntry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
+import org.wso2.carbon.dashboards.core.exception.DashboardRuntimeException;
+import org.wso2.carbon.dashboards.core.internal.io.WidgetConfigurationReader;
+import org.wso2.carbon.uiserver.api.Extension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable index of the custom widgets of the dashboard portal app, keyed by widget name. Widget configurations are
+ * parsed once when the index is built, so that lookups do not touch the file system.
+ *
+ * @since 4.1.26
+ */
+final class CustomWidgetIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomWidgetIndex.class);
+
+    private final Map<String, Entry> entries;
+    private final List<WidgetMetaInfo> configurations;
+
+    private CustomWidgetIndex(Map<String, Entry> entries) {
+        this.entries = Collections.unmodifiableMap(entries);
+        List<WidgetMetaInfo> configurations = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            if (entry.configuration != null) {
+                configurations.add(entry.configuration);
+            }
+        }
+        this.configurations = Collections.unmodifiableList(configurations);
+    }
+
+    /**
+     * Builds an index of the given widgets. Configurations of widgets that are unchanged since the previous index was
+     * built are reused instead of being parsed again.
+     *
+     * @param widgets  custom widgets
+     * @param previous previously built index, or {@code null} if there is none
+     * @return index of the widgets, which is the previous index itself if no widget changed
+     */
+    static CustomWidgetIndex build(Collection<Extension> widgets, CustomWidgetIndex previous) {
+        Map<String, Entry> entries = new HashMap<>();
+        boolean changed = (previous == null) || (previous.entries.size() != widgets.size());
+        for (Extension widget : widgets) {
+            Path widgetConfPath = WidgetConfigurationReader.getConfigurationPath(widget);
+            Fingerprint fingerprint = Fingerprint.of(widgetConfPath);
+            Entry previousEntry = (previous == null) ? null : previous.entries.get(widget.getName());
+            if ((previousEntry != null) && previousEntry.widgetConfPath.equals(widgetConfPath) &&
+                    Objects.equals(fingerprint, previousEntry.fingerprint)) {
+                entries.put(widget.getName(), new Entry(widget, widgetConfPath, fingerprint,
+                                                        previousEntry.configuration));
+                continue;
+            }
+            changed = true;
+            WidgetMetaInfo configuration;
+            try {
+                configuration = WidgetConfigurationReader.getConfiguration(widget);
+            } catch (DashboardRuntimeException e) {
+                LOGGER.error("Cannot load custom widget '{}'.", widget.getName(), e);
+                configuration = null;
+            }
+            entries.put(widget.getName(), new Entry(widget, widgetConfPath, fingerprint, configuration));
+        }
+        return changed ? new CustomWidgetIndex(entries) : previous;
+    }
+
+    /**
+     * Returns the indexed custom widget for the given name.
+     *
+     * @param widgetName name of the widget
+     * @return indexed widget
+     */
+    Optional<Entry> get(String widgetName) {
+        return Optional.ofNullable(entries.get(widgetName));
+    }
+
+    /**
+     * Checks whether a custom widget with the given name exists.
+     *
+     * @param widgetName name of the widget
+     * @return {@code true} if the widget exists, even if its configuration is invalid
+     */
+    boolean contains(String widgetName) {
+        return entries.containsKey(widgetName);
+    }
+
+    /**
+     * Returns the configurations of all custom widgets that have a valid configuration.
+     *
+     * @return widget configurations
+     */
+    List<WidgetMetaInfo> getConfigurations() {
+        return configurations;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * An indexed custom widget.
+     */
+    static final class Entry {
+
+        private final Extension widget;
+        private final Path widgetConfPath;
+        private final Fingerprint fingerprint;
+        private final WidgetMetaInfo configuration;
+
+        private Entry(Extension widget, Path widgetConfPath, Fingerprint fingerprint, WidgetMetaInfo configuration) {
+            this.widget = widget;
+            this.widgetConfPath = widgetConfPath;
+            this.fingerprint = fingerprint;
+            this.configuration = configuration;
+        }
+
+        Extension getWidget() {
+            return widget;
+        }
+
+        /**
+         * Returns the parsed configuration of the widget.
+         *
+         * @return configuration, or empty if the configuration of the widget is invalid
+         */
+        Optional<WidgetMetaInfo> getConfiguration() {
+            return Optional.ofNullable(configuration);
+        }
+    }
+
+    /**
+     * Size and last modified time of a widget configuration file.
+     */
+    private static final class Fingerprint {
+
+        private final long size;
+        private final long lastModified;
+
+        private Fingerprint(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        static Fingerprint of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) obj;
+            return (size == other.size) && (lastModified == other.lastModified);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, lastModified);
+        }
+    }
+}
@@ -24,17 +24,21 @@ import org.slf4j.LoggerFactory;
 import org.wso2.carbon.dashboards.core.DashboardMetadataProvider;
 import org.wso2.carbon.dashboards.core.WidgetMetadataProvider;
 import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.ImportStatistics;
 import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
 import org.wso2.carbon.dashboards.core.bean.importer.WidgetType;
 import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
 import org.wso2.carbon.dashboards.core.internal.io.DashboardArtifactHandler;
+import org.wso2.carbon.dashboards.core.jfr.DashboardImportEvent;
+import org.wso2.carbon.dashboards.core.jfr.FlightRecorderSupport;
 import org.wso2.carbon.utils.Utils;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Dashboard importer component. This is used to import dashboards in {DASHBOARD_RUNTIME}/resources/dashboards directory
@@ -61,23 +65,36 @@ public class DashboardImporter {
         this.widgetMetadataProvider = widgetMetadataProvider;
     }
 
-    public void importDashboards() {
+    /**
+     * Imports dashboards in the dashboards directory of the runtime.
+     *
+     * @return timings of the import
+     */
+    public ImportStatistics importDashboards() {
+        ImportStatistics importStatistics = new ImportStatistics(System.currentTimeMillis());
+        long importStartTime = System.nanoTime();
         Path path = Utils.getRuntimePath().resolve(Paths.get("resources", "dashboards"));
         Map<String, DashboardArtifact> dashboardArtifacts;
+        DashboardImportEvent readEvent = startEvent();
         try {
             dashboardArtifacts = DashboardArtifactHandler.readArtifactsIn(path);
         } catch (DashboardException e) {
             LOGGER.error("Cannot read dashboard artifacts in '{}' to import.", path, e);
-            return;
+            importStatistics.setDuration(millisSince(importStartTime));
+            return importStatistics;
+        } finally {
+            completeEvent(readEvent, path.toString(), "read");
         }
 
         for (Map.Entry<String, DashboardArtifact> entry : dashboardArtifacts.entrySet()) {
+            long artifactStartTime = System.nanoTime();
             DashboardArtifact dashboardArtifact = entry.getValue();
             DashboardMetadata dashboard = dashboardArtifact.getDashboard();
             String dashboardArtifactPath = entry.getKey();
             boolean importedSuccessfully = true;
 
             // Save the dashboard to DB.
+            DashboardImportEvent saveEvent = startEvent();
             try {
                 if (dashboardMetadataProvider.get(dashboard.getUrl()).isPresent()) {
                     dashboardMetadataProvider.update(dashboard);
@@ -99,10 +116,15 @@ public class DashboardImporter {
                 }
             } catch (DashboardException e) {
                 LOGGER.warn("Cannot save dashboard importing from '{}' to the database.", dashboardArtifactPath, e);
+                importStatistics.addArtifact(new ImportStatistics.ArtifactImport(
+                        dashboardArtifactPath, dashboard.getUrl(), "failed", millisSince(artifactStartTime)));
                 continue;
+            } finally {
+                completeEvent(saveEvent, dashboardArtifactPath, "save-dashboard");
             }
 
             // Notify missing custom widgets.
+            DashboardImportEvent customWidgetsEvent = startEvent();
             for (String widgetId : dashboardArtifact.getWidgets().getCustom()) {
                 try {
                     if (!widgetMetadataProvider.isWidgetPresent(widgetId, WidgetType.ALL)) {
@@ -119,8 +141,10 @@ public class DashboardImporter {
                     importedSuccessfully = false;
                 }
             }
+            completeEvent(customWidgetsEvent, dashboardArtifactPath, "check-custom-widgets");
 
             // Deploy generated widgets if not available.
+            DashboardImportEvent generatedWidgetsEvent = startEvent();
             for (GeneratedWidgetConfigs widgetConfigs : dashboardArtifact.getWidgets().getGenerated()) {
                 String widgetConfigsId = widgetConfigs.getId();
                 try {
@@ -139,9 +163,29 @@ public class DashboardImporter {
                     importedSuccessfully = false;
                 }
             }
+            completeEvent(generatedWidgetsEvent, dashboardArtifactPath, "deploy-generated-widgets");
 
             LOGGER.info("{} imported dashboard '{}' from '{}'.", (importedSuccessfully ? "Successfully" : "Partially"),
                         dashboard.getUrl(), dashboardArtifactPath);
+            importStatistics.addArtifact(new ImportStatistics.ArtifactImport(
+                    dashboardArtifactPath, dashboard.getUrl(), (importedSuccessfully ? "imported" : "partial"),
+                    millisSince(artifactStartTime)));
+        }
+        importStatistics.setDuration(millisSince(importStartTime));
+        return importStatistics;
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static DashboardImportEvent startEvent() {
+        return FlightRecorderSupport.isAvailable() ? DashboardImportEvent.start() : null;
+    }
+
+    private static void completeEvent(DashboardImportEvent event, String artifact, String phase) {
+        if (event != null) {
+            event.complete(artifact, phase);
         }
     }
 }
@@ -30,15 +30,21 @@ import org.wso2.carbon.dashboards.core.DashboardThemeConfigProvider;
 import org.wso2.carbon.dashboards.core.WidgetMetadataProvider;
 import org.wso2.carbon.dashboards.core.bean.DashboardConfigurations;
 import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.DependencyCallStatistics;
+import org.wso2.carbon.dashboards.core.bean.Diagnostics;
+import org.wso2.carbon.dashboards.core.bean.ImportStatistics;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
 import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
 import org.wso2.carbon.dashboards.core.bean.importer.WidgetCollection;
 import org.wso2.carbon.dashboards.core.bean.importer.WidgetType;
 import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
+import org.wso2.carbon.dashboards.core.cache.BoundedCache;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
 import org.wso2.carbon.dashboards.core.exception.DashboardRuntimeException;
 import org.wso2.carbon.dashboards.core.exception.UnauthorizedException;
 import org.wso2.carbon.dashboards.core.internal.database.DashboardMetadataDao;
 import org.wso2.carbon.dashboards.core.internal.database.DashboardMetadataDaoFactory;
+import org.wso2.carbon.dashboards.core.internal.database.QueryMetrics;
 import org.wso2.carbon.dashboards.core.internal.roles.provider.RolesProvider;
 import org.wso2.carbon.datasource.core.api.DataSourceService;
 import org.wso2.carbon.uiserver.api.App;
@@ -51,6 +57,12 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.wso2.carbon.dashboards.core.utils.DashboardUtil.findWidgets;
@@ -67,6 +79,9 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
     private static final String PERMISSION_SUFFIX_VIEWER = ".viewer";
     private static final String PERMISSION_SUFFIX_EDITOR = ".editor";
     private static final String PERMISSION_SUFFIX_OWNER = ".owner";
+    private static final String THUMBNAIL_PATH = "/thumbnail?v=";
+    private static final long STARTUP_RETRY_MIN_DELAY_SECONDS = 5;
+    private static final long STARTUP_RETRY_MAX_DELAY_SECONDS = 300;
 
     private final DashboardMetadataDao dao;
     private DataSourceService dataSourceService;
@@ -74,24 +89,52 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
     private final PermissionProvider permissionProvider;
     private final IdPClient identityClient;
     private final DashboardThemeConfigProvider dashboardThemeConfigProvider;
+    private final BoundedCache<String, Optional<Thumbnail>> thumbnailCache;
+    private final QueryMetrics queryMetrics;
+    private final DependencyMetrics dependencyMetrics;
 
     private WidgetMetadataProvider widgetMetadataProvider;
+    /**
+     * Runs background tasks of this provider, e.g. reloading custom widgets, so that they are stopped together.
+     */
+    private final ScheduledExecutorService backgroundExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-background");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> customWidgetReloads;
+    private Startup startup;
+    private volatile ImportStatistics lastImportStatistics;
+    private final StartupPhases startupPhases = new StartupPhases();
+    /**
+     * Whether database tables are created and dashboards are imported. Until then requests are asked to retry.
+     */
+    private volatile boolean ready;
 
     public DashboardMetadataProviderImpl(DataSourceService dataSourceService,
                                          DashboardConfigurations dashboardConfigurations,
                                          PermissionProvider permissionProvider, IdPClient identityClient,
                                          Map<String, DashboardThemeConfigProvider>
-                                                 dashboardThemeConfigProviderClassMap) {
+                                                 dashboardThemeConfigProviderClassMap,
+                                         QueryMetrics queryMetrics, DependencyMetrics dependencyMetrics) {
+        long startTime = System.nanoTime();
         try {
-            this.dao = DashboardMetadataDaoFactory.createDao(dataSourceService, dashboardConfigurations);
-            this.dao.initDashboardTable();
+            // Tables are created when initializing, in the background.
+            this.dao = DashboardMetadataDaoFactory.createDao(dataSourceService, dashboardConfigurations,
+                                                             queryMetrics);
         } catch (DashboardException e) {
             throw new DashboardRuntimeException("Cannot create dashboard DAO for DB access.", e);
         }
+        startupPhases.record("create-dashboard-dao", startTime);
         this.dataSourceService = dataSourceService;
         this.dashboardConfigurations = dashboardConfigurations;
-        this.permissionProvider = permissionProvider;
-        this.identityClient = identityClient;
+        // Permission and identity checks are made on the request path, hence calls to them are recorded.
+        this.permissionProvider = dependencyMetrics.instrument(PermissionProvider.class, permissionProvider,
+                                                               "permissionProvider");
+        this.identityClient = dependencyMetrics.instrument(IdPClient.class, identityClient, "identityClient");
+        this.thumbnailCache = createThumbnailCache(dashboardConfigurations);
+        this.queryMetrics = queryMetrics;
+        this.dependencyMetrics = dependencyMetrics;
         try {
             this.dashboardThemeConfigProvider = getDashboardThemeConfigProvider(dashboardThemeConfigProviderClassMap);
         } catch (DashboardException e) {
@@ -107,6 +150,17 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
         this.permissionProvider = permissionProvider;
         this.identityClient = identityClient;
         this.dashboardThemeConfigProvider = dashboardThemeConfigProvider;
+        this.thumbnailCache = createThumbnailCache(dashboardConfigurations);
+        this.queryMetrics = QueryMetrics.disabled();
+        this.dependencyMetrics = new DependencyMetrics(() -> null);
+        this.ready = true;
+    }
+
+    private static BoundedCache<String, Optional<Thumbnail>> createThumbnailCache(
+            DashboardConfigurations dashboardConfigurations) {
+        return new BoundedCache<>("dashboard-thumbnails",
+                                  dashboardConfigurations.getCacheConfigurations().getDashboardThumbnailCacheSize(),
+                                  0, TimeUnit.SECONDS);
     }
 
     private DashboardThemeConfigProvider getDashboardThemeConfigProvider(
@@ -123,11 +177,94 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
     }
 
     @Override
-    public void init(App dashboardApp) {
-        this.widgetMetadataProvider = new WidgetMetadataProviderImpl(dashboardApp, dataSourceService,
-                                                                     dashboardConfigurations);
-        DashboardImporter dashboardImporter = new DashboardImporter(this, widgetMetadataProvider);
-        dashboardImporter.importDashboards();
+    public synchronized void init(App dashboardApp) {
+        long startTime = System.nanoTime();
+        ready = false;
+        WidgetMetadataProviderImpl widgetMetadataProviderImpl = new WidgetMetadataProviderImpl(
+                dashboardApp, dataSourceService, dashboardConfigurations, queryMetrics);
+        this.widgetMetadataProvider = widgetMetadataProviderImpl;
+        // Custom widgets of the previous deployment of the dashboard app are no longer checked.
+        if (customWidgetReloads != null) {
+            customWidgetReloads.cancel(false);
+        }
+        customWidgetReloads = widgetMetadataProviderImpl.scheduleCustomWidgetReloads(backgroundExecutor);
+        startupPhases.record("create-widget-provider", startTime);
+        // Creating tables and importing dashboards take long, hence do not block the caller (i.e. the web app
+        // deployment) with them. The startup of the previous deployment of the dashboard app is abandoned.
+        if (startup != null) {
+            startup.cancel();
+        }
+        startup = new Startup(widgetMetadataProviderImpl);
+        startup.schedule(0);
+    }
+
+    /**
+     * Creates database tables and imports dashboards.
+     *
+     * @param widgetMetadataProviderImpl widget provider of the deployed dashboard app
+     * @return {@code true} if the startup completed, or {@code false} if database tables could not be created
+     */
+    boolean completeStartup(WidgetMetadataProviderImpl widgetMetadataProviderImpl) {
+        ready = false;
+        try {
+            long startTime = System.nanoTime();
+            try {
+                dao.initDashboardTable();
+            } catch (DashboardException | RuntimeException e) {
+                // Nothing can be served without the tables, hence stay unready so that clients are asked to retry.
+                LOGGER.error("Cannot initialize dashboard database tables.", e);
+                return false;
+            }
+            startupPhases.record("init-dashboard-tables", startTime);
+
+            startTime = System.nanoTime();
+            try {
+                widgetMetadataProviderImpl.initTables();
+            } catch (DashboardException | RuntimeException e) {
+                LOGGER.error("Cannot initialize widget database tables.", e);
+                return false;
+            }
+            startupPhases.record("init-widget-tables", startTime);
+
+            startTime = System.nanoTime();
+            try {
+                lastImportStatistics = new DashboardImporter(this, widgetMetadataProviderImpl).importDashboards();
+            } catch (RuntimeException e) {
+                // Dashboards that already exist can still be served, so that clients see the actual errors if any.
+                LOGGER.error("Cannot import dashboards.", e);
+            }
+            startupPhases.record("import-dashboards", startTime);
+            ready = true;
+            return true;
+        } finally {
+            LOGGER.info("Dashboard startup phases: {}.", startupPhases.getReport());
+        }
+    }
+
+    /**
+     * Returns the delay before retrying a failed startup, which doubles with every attempt up to five minutes.
+     *
+     * @param attempt number of the failed attempt, starting from 1
+     * @return delay in seconds
+     */
+    static long getStartupRetryDelay(int attempt) {
+        int doublings = Math.min(Math.max(attempt - 1, 0), 30);
+        return Math.min(STARTUP_RETRY_MIN_DELAY_SECONDS << doublings, STARTUP_RETRY_MAX_DELAY_SECONDS);
+    }
+
+    /**
+     * Stops the background tasks of this provider.
+     */
+    synchronized void destroy() {
+        if (startup != null) {
+            startup.cancel();
+        }
+        backgroundExecutor.shutdownNow();
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
     }
 
     void setWidgetMetadataProvider(WidgetMetadataProvider widgetMetadataProvider) {
@@ -149,9 +286,7 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
     public Optional<DashboardMetadata> getDashboardByUser(String user, String dashboardUrl, String originComponent)
             throws DashboardException {
         // TODO: 11/10/17 validate parameters
-        boolean isAuthorized = originComponent != null ? checkPermissions(user, dashboardUrl, originComponent) :
-                checkPermissions(user, dashboardUrl);
-        if (isAuthorized) {
+        if (isAuthorized(user, dashboardUrl, originComponent)) {
             return get(dashboardUrl);
         } else {
             throw new UnauthorizedException("Insufficient permissions to retrieve the dashboard with ID" +
@@ -159,9 +294,51 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
         }
     }
 
+    @Override
+    public boolean isAuthorized(String user, String dashboardUrl, String originComponent) {
+        return originComponent != null ? checkPermissions(user, dashboardUrl, originComponent) :
+                checkPermissions(user, dashboardUrl);
+    }
+
+    @Override
+    public long getContentVersion(String dashboardUrl) {
+        try {
+            return dao.getContentVersion(dashboardUrl);
+        } catch (DashboardException e) {
+            LOGGER.warn("Cannot read content version of dashboard '{}', hence it is served without caching.",
+                        dashboardUrl, e);
+            return -1;
+        }
+    }
+
+    @Override
+    public void invalidateDashboard(String dashboardUrl) {
+        if (dashboardUrl == null) {
+            return;
+        }
+        thumbnailCache.invalidate(dashboardUrl);
+        // Versions are random rather than counted, so that nodes sharing the database never hand out the same version
+        // and a version is not reused when a dashboard is deleted and created again.
+        long contentVersion = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        try {
+            dao.saveContentVersion(dashboardUrl, contentVersion);
+        } catch (DashboardException e) {
+            LOGGER.error("Cannot save content version of dashboard '{}', hence cached copies of it may be served " +
+                         "until they expire.", dashboardUrl, e);
+        }
+    }
+
     @Override
     public List<DashboardMetadata> getAllByUser(String user) throws DashboardException {
         List<DashboardMetadata> dashboardList = dao.getAll();
+        // Only versions are read here, so that listing does not load thumbnail images.
+        Map<String, String> thumbnailVersions = dao.getThumbnailVersions();
+        for (DashboardMetadata dashboardMetadata : dashboardList) {
+            String thumbnailVersion = thumbnailVersions.get(dashboardMetadata.getUrl());
+            if (thumbnailVersion != null) {
+                dashboardMetadata.setThumbnailUrl(dashboardMetadata.getUrl() + THUMBNAIL_PATH + thumbnailVersion);
+            }
+        }
         return dashboardList.stream().
                 filter(dashboardMetadata -> {
                     DashboardMetadata dashboardMetadataDetails;
@@ -202,7 +379,11 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
     public void add(DashboardMetadata dashboardMetadata) throws DashboardException {
         RolesProvider rolesProvider = new RolesProvider(dashboardConfigurations);
 
-        dao.add(dashboardMetadata);
+        try {
+            dao.add(dashboardMetadata);
+        } finally {
+            invalidateDashboard(dashboardMetadata.getUrl());
+        }
         for (Permission permission : buildDashboardPermissions(dashboardMetadata.getUrl())) {
             permissionProvider.addPermission(permission);
             for (String roleId: rolesProvider.getCreatorRoleIds()) {
@@ -221,7 +402,11 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
                 .collect(Collectors.toSet());
         if (!filteredRoleIds.isEmpty()) {
             dashboardMetadata.setOwner(user);
-            dao.add(dashboardMetadata);
+            try {
+                dao.add(dashboardMetadata);
+            } finally {
+                invalidateDashboard(dashboardMetadata.getUrl());
+            }
             for (Permission permission : buildDashboardPermissions(dashboardMetadata.getUrl())) {
                 permissionProvider.addPermission(permission);
                 for (String roleId : rolesProvider.getCreatorRoleIds()) {
@@ -235,7 +420,11 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
 
     @Override
     public void update(DashboardMetadata dashboardMetadata) throws DashboardException {
-        dao.update(dashboardMetadata);
+        try {
+            dao.update(dashboardMetadata);
+        } finally {
+            invalidateDashboard(dashboardMetadata.getUrl());
+        }
     }
 
     @Override
@@ -246,7 +435,11 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
                 || permissionProvider.hasPermission(user,
                 new Permission(PERMISSION_APP_NAME, dashboardMetadata.getUrl() + PERMISSION_SUFFIX_EDITOR)))
                 && !isReadOnly(dashboardMetadata.getUrl())) {
-            dao.update(dashboardMetadata);
+            try {
+                dao.update(dashboardMetadata);
+            } finally {
+                invalidateDashboard(dashboardMetadata.getUrl());
+            }
         } else {
             throw new UnauthorizedException("Insufficient permissions to update the dashboard with ID "
                     + dashboardMetadata.getUrl());
@@ -258,7 +451,14 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
         // TODO: 11/10/17 validate parameters
         if (permissionProvider.hasPermission(user, new Permission(PERMISSION_APP_NAME,
                 dashboardUrl + PERMISSION_SUFFIX_OWNER))) {
-            dao.delete(dashboardUrl);
+            try {
+                dao.delete(dashboardUrl);
+                dao.deleteThumbnail(dashboardUrl);
+                // Without a version the dashboard is not cached anywhere, and a deleted dashboard needs none.
+                dao.deleteContentVersion(dashboardUrl);
+            } finally {
+                thumbnailCache.invalidate(dashboardUrl);
+            }
             for (Permission permission : buildDashboardPermissions(dashboardUrl)) {
                 permissionProvider.deletePermission(permission);
             }
@@ -268,6 +468,30 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
         }
     }
 
+    @Override
+    public Optional<Thumbnail> getThumbnail(String user, String dashboardUrl) throws DashboardException {
+        if (!checkPermissions(user, dashboardUrl)) {
+            throw new UnauthorizedException("Insufficient permissions to retrieve thumbnail of the dashboard with ID "
+                    + dashboardUrl);
+        }
+        return thumbnailCache.get(dashboardUrl, dao::getThumbnail);
+    }
+
+    @Override
+    public void setThumbnail(String user, String dashboardUrl, String mediaType, byte[] content)
+            throws DashboardException {
+        if (!hasPermission(user, dashboardUrl, PERMISSION_SUFFIX_OWNER) &&
+                !hasPermission(user, dashboardUrl, PERMISSION_SUFFIX_EDITOR)) {
+            throw new UnauthorizedException("Insufficient permissions to update thumbnail of the dashboard with ID "
+                    + dashboardUrl);
+        }
+        try {
+            dao.saveThumbnail(dashboardUrl, Thumbnail.fromContent(mediaType, content));
+        } finally {
+            thumbnailCache.invalidate(dashboardUrl);
+        }
+    }
+
     @Override
     public Map<String, List<Role>> getDashboardRoles(String dashboardUrl, String username) throws DashboardException {
         Map<String, List<Role>> roles = new HashMap<>();
@@ -518,6 +742,40 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
         return isCreator;
     }
 
+    @Override
+    public List<DependencyCallStatistics> getDependencyCallStatistics(String username) throws DashboardException {
+        if (!isAdmin(username)) {
+            throw new UnauthorizedException("Insufficient permissions to view dependency call statistics.");
+        }
+        return dependencyMetrics.getStatistics();
+    }
+
+    @Override
+    public Diagnostics getDiagnostics(String username) throws DashboardException {
+        if (!isAdmin(username)) {
+            throw new UnauthorizedException("Insufficient permissions to view diagnostics.");
+        }
+        Diagnostics diagnostics = new Diagnostics();
+        diagnostics.setDashboards(dao.getContentStatistics());
+        diagnostics.setDataSourcePool(dao.getDataSourcePoolStatistics().orElse(null));
+        diagnostics.addCache(thumbnailCache.getStatistics());
+        if (widgetMetadataProvider != null) {
+            widgetMetadataProvider.addDiagnostics(diagnostics);
+        }
+        diagnostics.setLastImport(lastImportStatistics);
+        return diagnostics;
+    }
+
+    private boolean isAdmin(String username) throws DashboardException {
+        try {
+            String adminRoleId = identityClient.getAdminRole().getId();
+            return identityClient.getUserRoles(username).stream()
+                    .anyMatch(userRole -> Objects.equals(userRole.getId(), adminRoleId));
+        } catch (IdPClientException e) {
+            throw new DashboardException("Unable to get roles for the username.", e);
+        }
+    }
+
     @Override
     public boolean isWidgetCreator(String username) throws DashboardException {
         List<org.wso2.carbon.analytics.idp.client.core.models.Role> userRoles;
@@ -549,4 +807,74 @@ public class DashboardMetadataProviderImpl implements DashboardMetadataProvider
     public String getLogoPath(String username) throws DashboardException {
         return this.dashboardThemeConfigProvider.getLogoPath(username);
     }
+
+    /**
+     * Startup of a deployment of the dashboard app, which runs on the background executor and is retried while
+     * database tables cannot be created, e.g. because the database is not reachable yet.
+     */
+    final class Startup implements Runnable {
+
+        private final WidgetMetadataProviderImpl widgetMetadataProviderImpl;
+        private int attempts;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> scheduledAttempt;
+
+        Startup(WidgetMetadataProviderImpl widgetMetadataProviderImpl) {
+            this.widgetMetadataProviderImpl = widgetMetadataProviderImpl;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            attempts++;
+            if (completeStartup(widgetMetadataProviderImpl)) {
+                if (attempts > 1) {
+                    LOGGER.info("Dashboard startup completed on attempt {}.", attempts);
+                }
+                return;
+            }
+            long delay = getStartupRetryDelay(attempts);
+            LOGGER.warn("Dashboard startup attempt {} failed, hence dashboards are not served yet. Retrying in {} "
+                        + "seconds.", attempts, delay);
+            schedule(delay);
+        }
+
+        /**
+         * Schedules an attempt, unless this startup is cancelled or the provider is destroyed.
+         *
+         * @param delaySeconds delay before the attempt
+         */
+        void schedule(long delaySeconds) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                scheduledAttempt = backgroundExecutor.schedule(this, delaySeconds, TimeUnit.SECONDS);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Dashboard startup is not retried as the dashboard provider is stopped.");
+            }
+        }
+
+        /**
+         * Cancels the pending attempt of this startup. An attempt that is running completes, but is not retried.
+         */
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> attempt = scheduledAttempt;
+            if (attempt != null) {
+                attempt.cancel(false);
+            }
+        }
+
+        int getAttempts() {
+            return attempts;
+        }
+
+        boolean isRetryScheduled() {
+            ScheduledFuture<?> attempt = scheduledAttempt;
+            return !cancelled && (attempt != null) && !attempt.isDone();
+        }
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal;
+
+import org.wso2.carbon.analytics.permissions.bean.Permission;
+import org.wso2.carbon.dashboards.core.bean.DependencyCallStatistics;
+import org.wso2.carbon.dashboards.core.jfr.DependencyCallEvent;
+import org.wso2.carbon.dashboards.core.jfr.FlightRecorderSupport;
+import org.wso2.carbon.dashboards.core.utils.DependencyCallCounter;
+import org.wso2.carbon.dashboards.core.utils.MetricsHolder;
+import org.wso2.carbon.metrics.core.Counter;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Records latency and failures of the calls made to external dependencies, such as the permission provider and the
+ * identity provider client. Dependencies are decorated with {@link #instrument(Class, Object, String)}, which times
+ * every method of the dependency interface without having to know its methods.
+ * <p>
+ * Metrics are named {@code org.wso2.carbon.dashboards.core.dependency.<dependency>.<method>.<metric>} and published
+ * through the Carbon metrics service when that service is available. Statistics since startup are always kept and
+ * can be read with {@link #getStatistics()}. A {@link DependencyCallEvent} is emitted for every call when flight
+ * recording is available.
+ *
+ * @since 4.1.26
+ */
+class DependencyMetrics {
+
+    private static final String METRIC_PREFIX = "org.wso2.carbon.dashboards.core.dependency.";
+
+    private final Supplier<MetricService> metricServiceSupplier;
+    private final ConcurrentMap<String, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Creates dependency metrics.
+     *
+     * @param metricServiceSupplier supplier of the metric service, which supplies {@code null} when the service is
+     *                              not available
+     */
+    DependencyMetrics(Supplier<MetricService> metricServiceSupplier) {
+        this.metricServiceSupplier = metricServiceSupplier;
+    }
+
+    /**
+     * Decorates a dependency so that calls to it are recorded.
+     *
+     * @param type       interface of the dependency
+     * @param dependency dependency to decorate
+     * @param name       name of the dependency used in metric names
+     * @param <T>        type of the dependency
+     * @return decorated dependency, or {@code null} if the dependency is {@code null}
+     */
+    <T> T instrument(Class<T> type, T dependency, String name) {
+        if (dependency == null) {
+            return null;
+        }
+        InvocationHandler handler = new InstrumentingHandler(dependency, name);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Returns statistics of the dependency calls made since startup.
+     *
+     * @return call statistics sorted by dependency and method
+     */
+    List<DependencyCallStatistics> getStatistics() {
+        List<DependencyCallStatistics> statistics = new ArrayList<>(methodMetrics.size());
+        for (MethodMetrics metrics : methodMetrics.values()) {
+            statistics.add(metrics.getStatistics());
+        }
+        statistics.sort(Comparator.comparing(DependencyCallStatistics::getDependency)
+                                .thenComparing(DependencyCallStatistics::getMethod));
+        return statistics;
+    }
+
+    private MethodMetrics getMethodMetrics(String dependency, String method) {
+        return methodMetrics.computeIfAbsent(dependency + "." + method, key -> new MethodMetrics(dependency, method));
+    }
+
+    /**
+     * Invocation handler that times calls to a dependency.
+     */
+    private class InstrumentingHandler implements InvocationHandler {
+
+        private final Object dependency;
+        private final String name;
+
+        private InstrumentingHandler(Object dependency, String name) {
+            this.dependency = dependency;
+            this.name = name;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeDependency(method, args);
+            }
+            DependencyCallCounter.increment();
+            DependencyCallEvent event = FlightRecorderSupport.isAvailable() ? DependencyCallEvent.start() : null;
+            long startTime = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invokeDependency(method, args);
+                failed = false;
+                return result;
+            } finally {
+                getMethodMetrics(name, method.getName()).record(System.nanoTime() - startTime, failed,
+                                                                metricServiceSupplier.get());
+                if (event != null) {
+                    event.complete(name, method.getName(), getPermissionString(args), failed);
+                }
+            }
+        }
+
+        private String getPermissionString(Object[] args) {
+            if (args != null) {
+                for (Object arg : args) {
+                    if (arg instanceof Permission) {
+                        return ((Permission) arg).getPermissionString();
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Object invokeDependency(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(dependency, args);
+            } catch (InvocationTargetException e) {
+                // Callers expect the exceptions declared by the dependency, not the reflective wrapper.
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Metrics of a single method of a dependency.
+     */
+    private static class MethodMetrics {
+
+        private final String dependency;
+        private final String method;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLong maxLatency = new AtomicLong();
+        private final MetricsHolder<PublishedMetrics> publishedMetrics;
+
+        private MethodMetrics(String dependency, String method) {
+            this.dependency = dependency;
+            this.method = method;
+            this.publishedMetrics = new MetricsHolder<>(
+                    metricService -> new PublishedMetrics(metricService, METRIC_PREFIX + dependency + "." + method));
+        }
+
+        private void record(long elapsedNanos, boolean failed, MetricService metricService) {
+            calls.increment();
+            totalLatency.add(elapsedNanos);
+            maxLatency.accumulateAndGet(elapsedNanos, Math::max);
+            if (failed) {
+                failures.increment();
+            }
+            if (metricService != null) {
+                PublishedMetrics metrics = publishedMetrics.get(metricService);
+                metrics.latency.update(elapsedNanos, TimeUnit.NANOSECONDS);
+                if (failed) {
+                    metrics.failures.inc();
+                }
+            }
+        }
+
+        private DependencyCallStatistics getStatistics() {
+            long callCount = calls.sum();
+            double meanLatency = (callCount == 0) ? 0 : toMillis(totalLatency.sum() / (double) callCount);
+            return new DependencyCallStatistics(dependency, method, callCount, failures.sum(), meanLatency,
+                                                toMillis(maxLatency.get()));
+        }
+
+        private static double toMillis(double nanos) {
+            return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    /**
+     * Metrics of a method published through the metric service.
+     */
+    private static class PublishedMetrics {
+
+        private final Timer latency;
+        private final Counter failures;
+
+        private PublishedMetrics(MetricService metricService, String name) {
+            this.latency = metricService.timer(name + ".latency", Level.INFO);
+            this.failures = metricService.counter(name + ".failures", Level.INFO);
+        }
+    }
+}
@@ -35,7 +35,9 @@ import org.wso2.carbon.config.provider.ConfigProvider;
 import org.wso2.carbon.dashboards.core.DashboardMetadataProvider;
 import org.wso2.carbon.dashboards.core.DashboardThemeConfigProvider;
 import org.wso2.carbon.dashboards.core.bean.DashboardConfigurations;
+import org.wso2.carbon.dashboards.core.internal.database.QueryMetrics;
 import org.wso2.carbon.datasource.core.api.DataSourceService;
+import org.wso2.carbon.metrics.core.MetricService;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -52,7 +54,9 @@ public class StartupListener {
     private DashboardConfigurations dashboardConfigurations;
     private PermissionProvider permissionProvider;
     private IdPClient idPClient;
+    private volatile MetricService metricService;
     private Map<String, DashboardThemeConfigProvider> dashboardThemeConfigProviderClassMap = new ConcurrentHashMap<>();
+    private DashboardMetadataProviderImpl dashboardMetadataProvider;
 
     @Reference(service = DataSourceService.class,
                cardinality = ReferenceCardinality.AT_LEAST_ONE,
@@ -128,16 +132,36 @@ public class StartupListener {
                 dashboardThemeConfigProvider.getClass().getName());
     }
 
+    @Reference(service = MetricService.class,
+               cardinality = ReferenceCardinality.OPTIONAL,
+               policy = ReferencePolicy.DYNAMIC,
+               unbind = "unsetMetricService")
+    protected void setMetricService(MetricService metricService) {
+        this.metricService = metricService;
+        LOGGER.debug("Metric service '{}' registered.", metricService.getClass().getName());
+    }
+
+    protected void unsetMetricService(MetricService metricService) {
+        this.metricService = null;
+        LOGGER.debug("Metric service '{}' unregistered.", metricService.getClass().getName());
+    }
+
     @Activate
     protected void activate(BundleContext bundleContext) {
-        DashboardMetadataProvider dashboardMetadataProvider = new DashboardMetadataProviderImpl(dataSourceService,
-                dashboardConfigurations, permissionProvider, idPClient, dashboardThemeConfigProviderClassMap);
+        QueryMetrics queryMetrics = new QueryMetrics(dashboardConfigurations.getDatabaseConfigurations(),
+                                                     () -> metricService);
+        dashboardMetadataProvider = new DashboardMetadataProviderImpl(dataSourceService,
+                dashboardConfigurations, permissionProvider, idPClient, dashboardThemeConfigProviderClassMap,
+                queryMetrics, new DependencyMetrics(() -> metricService));
         bundleContext.registerService(DashboardMetadataProvider.class, dashboardMetadataProvider, null);
         LOGGER.debug("{} activated.", this.getClass().getName());
     }
 
     @Deactivate
     protected void deactivate() {
+        if (dashboardMetadataProvider != null) {
+            dashboardMetadataProvider.destroy();
+        }
         LOGGER.debug("{} deactivated.", this.getClass().getName());
     }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the phases of starting up dashboards, in the order they completed.
+ *
+ * @since 4.1.26
+ */
+final class StartupPhases {
+
+    private final List<String> phases = new ArrayList<>();
+    private final List<Long> durations = new ArrayList<>();
+
+    /**
+     * Records a completed phase.
+     *
+     * @param phase      name of the phase
+     * @param startNanos {@link System#nanoTime()} when the phase started
+     */
+    synchronized void record(String phase, long startNanos) {
+        phases.add(phase);
+        durations.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Returns a one line report of the recorded phases, e.g. {@code import-dashboards 120 ms}.
+     *
+     * @return report of the phases
+     */
+    synchronized String getReport() {
+        StringJoiner report = new StringJoiner(", ");
+        long total = 0;
+        for (int i = 0; i < phases.size(); i++) {
+            report.add(phases.get(i) + " " + durations.get(i) + " ms");
+            total += durations.get(i);
+        }
+        return report + " (total " + total + " ms)";
+    }
+}
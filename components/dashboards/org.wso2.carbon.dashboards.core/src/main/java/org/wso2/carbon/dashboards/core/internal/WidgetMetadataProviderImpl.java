@@ -17,8 +17,14 @@
  */
 package org.wso2.carbon.dashboards.core.internal;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wso2.carbon.dashboards.core.WidgetMetadataProvider;
+import org.wso2.carbon.dashboards.core.cache.BoundedCache;
+import org.wso2.carbon.dashboards.core.bean.CacheConfigurations;
 import org.wso2.carbon.dashboards.core.bean.DashboardConfigurations;
+import org.wso2.carbon.dashboards.core.bean.Diagnostics;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
 import org.wso2.carbon.dashboards.core.bean.importer.WidgetType;
 import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
 import org.wso2.carbon.dashboards.core.bean.widget.WidgetConfigs;
@@ -26,13 +32,18 @@ import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
 import org.wso2.carbon.dashboards.core.exception.DashboardRuntimeException;
 import org.wso2.carbon.dashboards.core.internal.database.WidgetMetadataDao;
+import org.wso2.carbon.dashboards.core.internal.database.QueryMetrics;
 import org.wso2.carbon.dashboards.core.internal.database.WidgetMetadataDaoFactory;
-import org.wso2.carbon.dashboards.core.internal.io.WidgetConfigurationReader;
+import org.wso2.carbon.dashboards.core.internal.io.WidgetThumbnailReader;
 import org.wso2.carbon.datasource.core.api.DataSourceService;
 import org.wso2.carbon.uiserver.api.App;
 
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -42,30 +53,79 @@ import java.util.stream.Collectors;
  */
 public class WidgetMetadataProviderImpl implements WidgetMetadataProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(WidgetMetadataProviderImpl.class);
     private static final String EXTENSION_TYPE_WIDGETS = "widgets";
 
     private final App dashboardApp;
     private final WidgetMetadataDao widgetMetadataDao;
+    /**
+     * Custom widgets of the dashboard app. The index is immutable and is replaced as a whole when custom widgets are
+     * reloaded in the background, hence readers never see a partially built index nor wait for a reload.
+     */
+    private volatile CustomWidgetIndex customWidgetIndex;
+    /**
+     * Seconds between checks of custom widget configuration files for changes.
+     */
+    private final long customWidgetCheckInterval;
+    /**
+     * Generated widget configurations keyed by widget ID. An empty value means that there is no generated widget for
+     * the ID (e.g. it is a custom widget), so the database is not queried for it again.
+     */
+    private final BoundedCache<String, Optional<GeneratedWidgetConfigs>> generatedWidgetConfigsCache;
+    private final BoundedCache<String, Optional<Thumbnail>> thumbnailCache;
+    private final long thumbnailMaxInMemorySize;
 
     public WidgetMetadataProviderImpl(App dashboardApp, DataSourceService dataSourceService,
-                                      DashboardConfigurations dashboardConfigurations) {
+                                      DashboardConfigurations dashboardConfigurations, QueryMetrics queryMetrics) {
+        this(dashboardApp, dashboardConfigurations.getCacheConfigurations(),
+             createDao(dataSourceService, dashboardConfigurations, queryMetrics));
+    }
+
+    WidgetMetadataProviderImpl(App dashboardApp, WidgetMetadataDao dao) {
+        this(dashboardApp, new CacheConfigurations(), dao);
+    }
+
+    WidgetMetadataProviderImpl(App dashboardApp, CacheConfigurations cacheConfigurations, WidgetMetadataDao dao) {
         this.dashboardApp = dashboardApp;
+        this.widgetMetadataDao = dao;
+        this.generatedWidgetConfigsCache = new BoundedCache<>(
+                "generated-widget-configurations", cacheConfigurations.getWidgetConfigurationCacheSize(),
+                cacheConfigurations.getWidgetConfigurationCacheExpiry(), TimeUnit.SECONDS);
+        this.thumbnailCache = new BoundedCache<>("widget-thumbnails", cacheConfigurations.getThumbnailCacheSize(),
+                                                 0, TimeUnit.SECONDS);
+        this.thumbnailMaxInMemorySize = cacheConfigurations.getThumbnailMaxInMemorySize();
+        this.customWidgetIndex = CustomWidgetIndex.build(dashboardApp.getExtensions(EXTENSION_TYPE_WIDGETS), null);
+        this.customWidgetCheckInterval = cacheConfigurations.getCustomWidgetCheckInterval();
+    }
+
+    private static WidgetMetadataDao createDao(DataSourceService dataSourceService,
+                                               DashboardConfigurations dashboardConfigurations,
+                                               QueryMetrics queryMetrics) {
         try {
-            this.widgetMetadataDao = WidgetMetadataDaoFactory.createDao(dataSourceService, dashboardConfigurations);
-            this.widgetMetadataDao.initWidgetTable();
+            return WidgetMetadataDaoFactory.createDao(dataSourceService, dashboardConfigurations, queryMetrics);
         } catch (DashboardException e) {
             throw new DashboardRuntimeException("Cannot create widget DAO for DB access.", e);
         }
     }
 
-    WidgetMetadataProviderImpl(App dashboardApp, WidgetMetadataDao dao) {
-        this.dashboardApp = dashboardApp;
-        this.widgetMetadataDao = dao;
+    /**
+     * Creates widget tables in the database if they do not exist. Tables are not created when this provider is created
+     * so that it does not block startup.
+     *
+     * @throws DashboardException if cannot create the tables
+     */
+    void initTables() throws DashboardException {
+        widgetMetadataDao.initWidgetTable();
+    }
+
+    private Optional<GeneratedWidgetConfigs> getGeneratedWidgetConfigs(String widgetId) throws DashboardException {
+        return generatedWidgetConfigsCache.get(widgetId, id -> Optional.ofNullable(
+                widgetMetadataDao.getGeneratedWidgetConfigsForId(id)));
     }
 
     @Override
     public Optional<WidgetMetaInfo> getWidgetConfiguration(String widgetId) throws DashboardException {
-        GeneratedWidgetConfigs generatedWidgetConfigs = widgetMetadataDao.getGeneratedWidgetConfigsForId(widgetId);
+        GeneratedWidgetConfigs generatedWidgetConfigs = getGeneratedWidgetConfigs(widgetId).orElse(null);
         if (generatedWidgetConfigs != null) {
             WidgetMetaInfo widgetMetaInfo = new WidgetMetaInfo();
             WidgetConfigs widgetConfigs = new WidgetConfigs();
@@ -80,19 +140,26 @@ public class WidgetMetadataProviderImpl implements WidgetMetadataProvider {
             widgetMetaInfo.setConfigs(widgetConfigs);
             return Optional.of(widgetMetaInfo);
         } else {
-            return dashboardApp.getExtension(EXTENSION_TYPE_WIDGETS, widgetId)
-                    .map(WidgetConfigurationReader::getConfiguration);
+            return customWidgetIndex.get(widgetId).flatMap(CustomWidgetIndex.Entry::getConfiguration);
         }
     }
 
     @Override
     public void addGeneratedWidgetConfigs(GeneratedWidgetConfigs generatedWidgetConfigs) throws DashboardException {
-        widgetMetadataDao.addGeneratedWidgetConfigs(generatedWidgetConfigs);
+        try {
+            widgetMetadataDao.addGeneratedWidgetConfigs(generatedWidgetConfigs);
+        } finally {
+            generatedWidgetConfigsCache.invalidate(generatedWidgetConfigs.getId());
+        }
     }
 
     @Override
     public void updateGeneratedWidgetConfigs(GeneratedWidgetConfigs generatedWidgetConfigs) throws DashboardException {
-        widgetMetadataDao.updateGeneratedWidgetConfigs(generatedWidgetConfigs);
+        try {
+            widgetMetadataDao.updateGeneratedWidgetConfigs(generatedWidgetConfigs);
+        } finally {
+            generatedWidgetConfigsCache.invalidate(generatedWidgetConfigs.getId());
+        }
     }
 
     @Override
@@ -115,20 +182,16 @@ public class WidgetMetadataProviderImpl implements WidgetMetadataProvider {
     }
 
     private boolean isGeneratedWidgetPresent(String widgetName) throws DashboardException {
-        return widgetMetadataDao.getGeneratedWidgetIdSet().stream()
-                .map(GeneratedWidgetConfigs::getId)
-                .anyMatch(name -> name.equals(widgetName));
+        return getGeneratedWidgetConfigs(widgetName).isPresent();
     }
 
     private boolean isCustomWidgetPresent(String widgetName) {
-        return dashboardApp.getExtension(EXTENSION_TYPE_WIDGETS, widgetName).isPresent();
+        return customWidgetIndex.contains(widgetName);
     }
 
     @Override
     public Set<WidgetMetaInfo> getAllWidgetConfigurations() throws DashboardException {
-        Set<WidgetMetaInfo> widgetMetaInfoSet = dashboardApp.getExtensions(EXTENSION_TYPE_WIDGETS).stream()
-                .map(WidgetConfigurationReader::getConfiguration)
-                .collect(Collectors.toSet());
+        Set<WidgetMetaInfo> widgetMetaInfoSet = new HashSet<>(customWidgetIndex.getConfigurations());
         Set<GeneratedWidgetConfigs> generatedWidgetConfigsSet = widgetMetadataDao.getGeneratedWidgetIdSet();
         for (GeneratedWidgetConfigs generatedWidgetConfigs : generatedWidgetConfigsSet) {
             WidgetMetaInfo widgetMetaInfo = new WidgetMetaInfo();
@@ -154,6 +217,95 @@ public class WidgetMetadataProviderImpl implements WidgetMetadataProvider {
 
     @Override
     public void delete(String widgetId) throws DashboardException {
-        widgetMetadataDao.delete(widgetId);
+        try {
+            widgetMetadataDao.delete(widgetId);
+            widgetMetadataDao.deleteThumbnail(widgetId);
+        } finally {
+            invalidateWidgetConfiguration(widgetId);
+        }
+    }
+
+    @Override
+    public Optional<Thumbnail> getWidgetThumbnail(String widgetId) throws DashboardException {
+        return thumbnailCache.get(widgetId, this::readThumbnail);
+    }
+
+    private Optional<Thumbnail> readThumbnail(String widgetId) throws DashboardException {
+        if (getGeneratedWidgetConfigs(widgetId).isPresent()) {
+            return Optional.ofNullable(widgetMetadataDao.getThumbnail(widgetId));
+        }
+        Optional<CustomWidgetIndex.Entry> widget = customWidgetIndex.get(widgetId);
+        if (!widget.isPresent() || !widget.get().getConfiguration().isPresent()) {
+            return Optional.empty();
+        }
+        String thumbnailPath = widget.get().getConfiguration().get().getThumbnailURL();
+        return WidgetThumbnailReader.getThumbnail(widget.get().getWidget(), thumbnailPath, thumbnailMaxInMemorySize);
+    }
+
+    @Override
+    public void setWidgetThumbnail(String widgetId, String mediaType, byte[] content) throws DashboardException {
+        try {
+            widgetMetadataDao.saveThumbnail(widgetId, mediaType, content);
+        } finally {
+            thumbnailCache.invalidate(widgetId);
+        }
+    }
+
+    @Override
+    public void invalidateWidgetConfiguration(String widgetId) {
+        generatedWidgetConfigsCache.invalidate(widgetId);
+        thumbnailCache.invalidate(widgetId);
+    }
+
+    @Override
+    public void addDiagnostics(Diagnostics diagnostics) throws DashboardException {
+        diagnostics.setGeneratedWidgets(widgetMetadataDao.getConfigStatistics());
+        diagnostics.setCustomWidgets(customWidgetIndex.size());
+        diagnostics.addCache(generatedWidgetConfigsCache.getStatistics());
+        diagnostics.addCache(thumbnailCache.getStatistics());
+    }
+
+    @Override
+    public void invalidateWidgetConfigurations() {
+        reloadCustomWidgets();
+        generatedWidgetConfigsCache.invalidateAll();
+        thumbnailCache.invalidateAll();
+    }
+
+    /**
+     * Checks the configuration files of custom widgets for changes at every check interval, so that requests never
+     * scan the file system themselves.
+     *
+     * @param scheduler scheduler to run the checks on
+     * @return scheduled checks, or {@code null} if checks are disabled
+     */
+    ScheduledFuture<?> scheduleCustomWidgetReloads(ScheduledExecutorService scheduler) {
+        if (customWidgetCheckInterval <= 0) {
+            return null;
+        }
+        return scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reloadCustomWidgets();
+            } catch (RuntimeException e) {
+                // A failed check must not cancel the following ones.
+                LOGGER.warn("Cannot reload custom widgets.", e);
+            }
+        }, customWidgetCheckInterval, customWidgetCheckInterval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Rebuilds the index of custom widgets and swaps it in if any widget changed. Only configurations of widgets that
+     * changed since the index was last built are read again.
+     */
+    synchronized void reloadCustomWidgets() {
+        CustomWidgetIndex index = CustomWidgetIndex.build(dashboardApp.getExtensions(EXTENSION_TYPE_WIDGETS),
+                                                          customWidgetIndex);
+        if (index == customWidgetIndex) {
+            return;
+        }
+        customWidgetIndex = index;
+        // Thumbnail paths of custom widgets come from their configurations.
+        thumbnailCache.invalidateAll();
+        LOGGER.debug("Indexed {} custom widgets.", index.size());
     }
 }
@@ -22,9 +22,14 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.dashboards.core.bean.ContentStatistics;
 import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
 import org.wso2.carbon.dashboards.core.bean.DashboardMetadataContent;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
+import org.wso2.carbon.dashboards.core.jfr.FlightRecorderSupport;
+import org.wso2.carbon.dashboards.core.jfr.JsonEvent;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -36,7 +41,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.sql.DataSource;
 
@@ -46,7 +53,7 @@ import javax.sql.DataSource;
 public class DashboardMetadataDao {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DashboardMetadataDao.class);
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = DashboardUtil.getGson();
     private static final String COLUMN_DASHBOARD_LANDING_PAGE = "LANDING_PAGE";
     private static final String COLUMN_DASHBOARD_PARENT_ID = "PARENT_ID";
     private static final String COLUMN_DASHBOARD_CONTENT = "CONTENT";
@@ -54,43 +61,60 @@ public class DashboardMetadataDao {
     private static final String COLUMN_DASHBOARD_NAME = "NAME";
     private static final String COLUMN_DASHBOARD_URL = "URL";
     private static final String COLUMN_DASHBOARD_OWNER = "OWNER";
+    private static final String COLUMN_THUMBNAIL_MEDIA_TYPE = "MEDIA_TYPE";
+    private static final String COLUMN_THUMBNAIL_VERSION = "THUMBNAIL_VERSION";
+    private static final String COLUMN_THUMBNAIL = "THUMBNAIL";
+    private static final String COLUMN_CONTENT_VERSION = "CONTENT_VERSION";
     private static final String POSTGRESQL_DB_TYPE = "PostgreSQL";
 
     private final DataSource dataSource;
     private final QueryManager queryManager;
+    private final QueryMetrics queryMetrics;
 
     public DashboardMetadataDao(DataSource dataSource, QueryManager queryManager) {
+        this(dataSource, queryManager, QueryMetrics.disabled());
+    }
+
+    public DashboardMetadataDao(DataSource dataSource, QueryManager queryManager, QueryMetrics queryMetrics) {
         this.dataSource = dataSource;
         this.queryManager = queryManager;
+        this.queryMetrics = queryMetrics;
     }
 
     public void initDashboardTable() throws DashboardException {
         if (!tableExists(QueryManager.DASHBOARD_RESOURCE_TABLE)) {
-            this.createDashboardResourceTable();
+            this.createTable(QueryManager.DASHBOARD_RESOURCE_TABLE, QueryManager.CREATE_DASHBOARD_RESOURCE_TABLE);
+        }
+        if (!tableExists(QueryManager.DASHBOARD_THUMBNAIL_TABLE)) {
+            this.createTable(QueryManager.DASHBOARD_THUMBNAIL_TABLE, QueryManager.CREATE_DASHBOARD_THUMBNAIL_TABLE);
+        }
+        if (!tableExists(QueryManager.DASHBOARD_VERSION_TABLE)) {
+            this.createTable(QueryManager.DASHBOARD_VERSION_TABLE, QueryManager.CREATE_DASHBOARD_VERSION_TABLE);
         }
     }
 
     /**
-     * Create dashboard resource table.
+     * Create a dashboard table.
      * @throws DashboardException when faild to execute the table create queries.
      */
-    private void createDashboardResourceTable() throws DashboardException {
+    private void createTable(String tableName, String createQueryKey) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(createQueryKey);
         Connection connection = null;
         PreparedStatement ps = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             connection.setAutoCommit(false);
-            query = queryManager.getQuery(connection, QueryManager.CREATE_DASHBOARD_RESOURCE_TABLE);
+            query = queryManager.getQuery(connection, createQueryKey);
             ps = connection.prepareStatement(query);
-            ps.executeUpdate();
+            execution.addRows(ps.executeUpdate());
             connection.commit();
         } catch (SQLException e) {
             rollbackQuietly(connection);
             LOGGER.debug("Failed to execute SQL query {}", query);
-            throw new DashboardException("Unable to create the '" + QueryManager.DASHBOARD_RESOURCE_TABLE +
-                    "' table.", e);
+            throw new DashboardException("Unable to create the '" + tableName + "' table.", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, null);
         }
     }
@@ -101,49 +125,48 @@ public class DashboardMetadataDao {
      * @return true/false based on the table existence.
      */
     public boolean tableExists(String tableName) {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.TABLE_CHECK);
         Connection connection = null;
-        PreparedStatement ps = null;
-        String query = null;
         try {
-            connection = getConnection();
-            query = queryManager.getQuery(connection, QueryManager.TABLE_CHECK);
-            ps = connection.prepareStatement(query.replace(QueryManager.TABLE_NAME_PLACEHOLDER, tableName));
-            ps.execute();
-            return true;
+            connection = execution.getConnection(dataSource);
+            return DatabaseTables.exists(connection, tableName);
         } catch (SQLException e) {
-            rollbackQuietly(connection);
-            LOGGER.debug("Table '{}' assumed to not exist since its existence check query {} resulted "
-                    + "in exception {}.", tableName, query, e.getMessage());
+            LOGGER.debug("Table '{}' assumed to not exist since its existence could not be checked: {}", tableName,
+                         e.getMessage());
             return false;
         } finally {
-            closeQuietly(connection, ps, null);
+            execution.end(connection);
+            closeQuietly(connection, null, null);
         }
     }
 
     public void update(DashboardMetadata dashboardMetadata) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.UPDATE_DASHBOARD_CONTENT_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             query = queryManager.getQuery(connection, QueryManager.UPDATE_DASHBOARD_CONTENT_QUERY);
             connection.setAutoCommit(false);
             String dbType = connection.getMetaData().getDatabaseProductName();
+            byte[] content = toJsonBytes(dashboardMetadata.getContent());
+            execution.addBlobBytesWritten(content.length);
             ps = connection.prepareStatement(query);
             ps.setString(1, dashboardMetadata.getName());
             ps.setString(2, dashboardMetadata.getDescription());
             if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
-                ps.setBinaryStream(3, new ByteArrayInputStream(toJsonBytes(dashboardMetadata.getContent())));
+                ps.setBinaryStream(3, new ByteArrayInputStream(content));
                 ps.setInt(4, Integer.parseInt(dashboardMetadata.getParentId()));
             } else {
                 Blob blob = connection.createBlob();
-                blob.setBytes(1, toJsonBytes(dashboardMetadata.getContent()));
+                blob.setBytes(1, content);
                 ps.setBlob(3, blob);
                 ps.setString(4, dashboardMetadata.getParentId());
             }
             ps.setString(5, dashboardMetadata.getLandingPage());
             ps.setString(6, dashboardMetadata.getUrl());
-            ps.executeUpdate();
+            execution.addRows(ps.executeUpdate());
             connection.commit();
         } catch (SQLException e) {
             rollbackQuietly(connection);
@@ -151,19 +174,23 @@ public class DashboardMetadataDao {
             throw new DashboardException(
                     "Cannot update dashboard " + dashboardMetadata + ".", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, null);
         }
     }
 
     public void add(DashboardMetadata dashboardMetadata) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.ADD_DASHBOARD_CONTENT_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             query = queryManager.getQuery(connection, QueryManager.ADD_DASHBOARD_CONTENT_QUERY);
             connection.setAutoCommit(false);
             String dbType = connection.getMetaData().getDatabaseProductName();
+            byte[] content = toJsonBytes(dashboardMetadata.getContent());
+            execution.addBlobBytesWritten(content.length);
             ps = connection.prepareStatement(query);
             ps.setString(1, dashboardMetadata.getUrl());
             ps.setString(2, dashboardMetadata.getOwner());
@@ -172,52 +199,56 @@ public class DashboardMetadataDao {
             ps.setString(6, dashboardMetadata.getLandingPage());
             if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
                 ps.setInt(5, Integer.parseInt(dashboardMetadata.getParentId()));
-                ps.setBinaryStream(7, new ByteArrayInputStream(toJsonBytes(dashboardMetadata.getContent())));
+                ps.setBinaryStream(7, new ByteArrayInputStream(content));
             } else {
                 ps.setString(5, dashboardMetadata.getParentId());
                 Blob blob = connection.createBlob();
-                blob.setBytes(1, toJsonBytes(dashboardMetadata.getContent()));
+                blob.setBytes(1, content);
                 ps.setBlob(7, blob);
             }
-            ps.executeUpdate();
+            execution.addRows(ps.executeUpdate());
             connection.commit();
         } catch (SQLException e) {
             rollbackQuietly(connection);
             LOGGER.debug("Failed to execute SQL query {}", query);
             throw new DashboardException("Cannot create a new dashboard with " + dashboardMetadata + ".", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, null);
         }
     }
 
     public void delete(String url) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.DELETE_DASHBOARD_BY_URL_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             query = queryManager.getQuery(connection, QueryManager.DELETE_DASHBOARD_BY_URL_QUERY);
             connection.setAutoCommit(false);
             ps = connection.prepareStatement(query);
             ps.setString(1, url);
-            ps.executeUpdate();
+            execution.addRows(ps.executeUpdate());
             connection.commit();
         } catch (SQLException e) {
             rollbackQuietly(connection);
             LOGGER.debug("Failed to execute SQL query {}", query);
             throw new DashboardException("Cannot delete dashboard '" + url + "'.", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, null);
         }
     }
 
     public Optional<DashboardMetadata> get(String url) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_DASHBOARD_BY_URL_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         ResultSet result = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             String dbType = connection.getMetaData().getDatabaseProductName();
             query = queryManager.getQuery(connection, QueryManager.GET_DASHBOARD_BY_URL_QUERY);
             ps = connection.prepareStatement(query);
@@ -225,15 +256,17 @@ public class DashboardMetadataDao {
             result = ps.executeQuery();
 
             if (result.next()) {
+                execution.addRows(1);
                 DashboardMetadata dashboardMetadata = toDashboardMetadata(result);
+                byte[] content;
                 if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
                     dashboardMetadata.setParentId(String.valueOf(result.getInt(COLUMN_DASHBOARD_PARENT_ID)));
-                    dashboardMetadata.setContent(
-                            parseDashboardMetadataContent(result.getBinaryStream(COLUMN_DASHBOARD_CONTENT)));
+                    content = readBytes(result.getBinaryStream(COLUMN_DASHBOARD_CONTENT));
                 } else {
-                    dashboardMetadata.setContent(
-                            parseDashboardMetadataContent(result.getBlob(COLUMN_DASHBOARD_CONTENT)));
+                    content = readBytes(result.getBlob(COLUMN_DASHBOARD_CONTENT));
                 }
+                execution.addBlobBytesRead(content.length);
+                dashboardMetadata.setContent(parseDashboardMetadataContent(content));
                 return Optional.of(dashboardMetadata);
             } else {
                 return Optional.empty();
@@ -245,64 +278,342 @@ public class DashboardMetadataDao {
             LOGGER.debug("Failed to read dashboard content");
             throw new DashboardException("Cannot retrieve dashboard for URl '" + url + "'.", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, result);
         }
     }
 
     public List<DashboardMetadata> getAll() throws DashboardException {
         List<DashboardMetadata> dashboardMetadatas = new ArrayList<>();
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_DASHBOARD_METADATA_LIST_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         ResultSet results = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             query = queryManager.getQuery(connection, QueryManager.GET_DASHBOARD_METADATA_LIST_QUERY);
             ps = connection.prepareStatement(query);
             results = ps.executeQuery();
             while (results.next()) {
                 dashboardMetadatas.add(toDashboardMetadata(results));
             }
+            execution.addRows(dashboardMetadatas.size());
         } catch (SQLException e) {
             LOGGER.debug("Failed to execute SQL query {}", query);
             throw new DashboardException("Cannot retrieve dashboards.", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, results);
         }
 
         return dashboardMetadatas;
     }
 
-    private Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+    public Optional<Thumbnail> getThumbnail(String url) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_DASHBOARD_THUMBNAIL_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet result = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            String dbType = connection.getMetaData().getDatabaseProductName();
+            query = queryManager.getQuery(connection, QueryManager.GET_DASHBOARD_THUMBNAIL_QUERY);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, url);
+            result = ps.executeQuery();
+            if (result.next()) {
+                byte[] content;
+                if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
+                    content = result.getBytes(COLUMN_THUMBNAIL);
+                } else {
+                    Blob blob = result.getBlob(COLUMN_THUMBNAIL);
+                    content = blob.getBytes(1, (int) blob.length());
+                }
+                execution.addRows(1);
+                execution.addBlobBytesRead(content.length);
+                return Optional.of(Thumbnail.fromContent(result.getString(COLUMN_THUMBNAIL_MEDIA_TYPE), content));
+            } else {
+                return Optional.empty();
+            }
+        } catch (SQLException e) {
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot retrieve thumbnail of dashboard '" + url + "'.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, result);
+        }
     }
 
-    private static byte[] toJsonBytes(Object dashboardPages) {
-        return GSON.toJson(dashboardPages).getBytes(StandardCharsets.UTF_8);
+    /**
+     * Returns versions of all stored dashboard thumbnails, without reading the thumbnails themselves.
+     *
+     * @return thumbnail versions keyed by dashboard URL
+     * @throws DashboardException if cannot read thumbnail versions
+     */
+    public Map<String, String> getThumbnailVersions() throws DashboardException {
+        Map<String, String> versions = new HashMap<>();
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_DASHBOARD_THUMBNAIL_VERSIONS_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet results = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            query = queryManager.getQuery(connection, QueryManager.GET_DASHBOARD_THUMBNAIL_VERSIONS_QUERY);
+            ps = connection.prepareStatement(query);
+            results = ps.executeQuery();
+            while (results.next()) {
+                versions.put(results.getString(COLUMN_DASHBOARD_URL), results.getString(COLUMN_THUMBNAIL_VERSION));
+            }
+            execution.addRows(versions.size());
+        } catch (SQLException e) {
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot retrieve dashboard thumbnail versions.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, results);
+        }
+        return versions;
     }
 
-    private static DashboardMetadataContent parseDashboardMetadataContent(Blob blob) throws SQLException {
-        String content = new String(blob.getBytes(1, (int) blob.length()), StandardCharsets.UTF_8);
+    /**
+     * Returns the content version of the specified dashboard, without reading the dashboard itself. Versions are kept
+     * in the database so that every node that shares it sees changes made by other nodes.
+     *
+     * @param url URL of the dashboard
+     * @return content version, or zero if the dashboard was never versioned
+     * @throws DashboardException if cannot read the content version
+     */
+    public long getContentVersion(String url) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_DASHBOARD_VERSION_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet result = null;
+        String query = null;
         try {
-            return new Gson().fromJson(content, DashboardMetadataContent.class);
-        } catch (JsonParseException e) {
-            JsonArray pages = new Gson().fromJson(content, JsonArray.class);
-            DashboardMetadataContent dashboardMetadataContent = new DashboardMetadataContent(pages);
-            return dashboardMetadataContent;
+            connection = execution.getConnection(dataSource);
+            query = queryManager.getQuery(connection, QueryManager.GET_DASHBOARD_VERSION_QUERY);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, url);
+            result = ps.executeQuery();
+            if (result.next()) {
+                execution.addRows(1);
+                return result.getLong(COLUMN_CONTENT_VERSION);
+            }
+            return 0;
+        } catch (SQLException e) {
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot retrieve content version of dashboard '" + url + "'.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, result);
+        }
+    }
+
+    /**
+     * Replaces the content version of the specified dashboard.
+     *
+     * @param url     URL of the dashboard
+     * @param version new content version
+     * @throws DashboardException if cannot save the content version
+     */
+    public void saveContentVersion(String url, long version) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.ADD_DASHBOARD_VERSION_QUERY);
+        Connection connection = null;
+        PreparedStatement deletePs = null;
+        PreparedStatement ps = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            connection.setAutoCommit(false);
+            query = queryManager.getQuery(connection, QueryManager.DELETE_DASHBOARD_VERSION_QUERY);
+            deletePs = connection.prepareStatement(query);
+            deletePs.setString(1, url);
+            execution.addRows(deletePs.executeUpdate());
+            query = queryManager.getQuery(connection, QueryManager.ADD_DASHBOARD_VERSION_QUERY);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, url);
+            ps.setLong(2, version);
+            execution.addRows(ps.executeUpdate());
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot save content version of dashboard '" + url + "'.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(null, deletePs, null);
+            closeQuietly(connection, ps, null);
+        }
+    }
+
+    /**
+     * Deletes the content version of the specified dashboard, e.g. when the dashboard is deleted.
+     *
+     * @param url URL of the dashboard
+     * @throws DashboardException if cannot delete the content version
+     */
+    public void deleteContentVersion(String url) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.DELETE_DASHBOARD_VERSION_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            query = queryManager.getQuery(connection, QueryManager.DELETE_DASHBOARD_VERSION_QUERY);
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, url);
+            execution.addRows(ps.executeUpdate());
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot delete content version of dashboard '" + url + "'.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, null);
+        }
+    }
+
+    /**
+     * Returns the number of stored dashboards and the sizes of their content, without reading the content.
+     *
+     * @return dashboard content statistics
+     * @throws DashboardException if cannot compute the statistics
+     */
+    public ContentStatistics getContentStatistics() throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_DASHBOARD_CONTENT_STATISTICS_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet results = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            query = queryManager.getQuery(connection, QueryManager.GET_DASHBOARD_CONTENT_STATISTICS_QUERY);
+            ps = connection.prepareStatement(query);
+            results = ps.executeQuery();
+            if (!results.next()) {
+                return new ContentStatistics(0, 0, 0);
+            }
+            execution.addRows(1);
+            // Average and maximum are NULL when there are no dashboards, which are read as zero.
+            return new ContentStatistics(results.getLong(1), results.getLong(2), results.getLong(3));
+        } catch (SQLException e) {
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot retrieve dashboard content statistics.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, results);
+        }
+    }
+
+    /**
+     * Returns the usage of the connection pool of the data source of this DAO.
+     *
+     * @return pool usage, or empty if the data source does not expose it
+     */
+    public Optional<Map<String, Object>> getDataSourcePoolStatistics() {
+        return DataSourcePoolStatistics.of(dataSource);
+    }
+
+    public void saveThumbnail(String url, Thumbnail thumbnail) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.ADD_DASHBOARD_THUMBNAIL_QUERY);
+        Connection connection = null;
+        PreparedStatement deletePs = null;
+        PreparedStatement ps = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            String dbType = connection.getMetaData().getDatabaseProductName();
+            connection.setAutoCommit(false);
+            query = queryManager.getQuery(connection, QueryManager.DELETE_DASHBOARD_THUMBNAIL_QUERY);
+            deletePs = connection.prepareStatement(query);
+            deletePs.setString(1, url);
+            execution.addRows(deletePs.executeUpdate());
+            query = queryManager.getQuery(connection, QueryManager.ADD_DASHBOARD_THUMBNAIL_QUERY);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, url);
+            ps.setString(2, thumbnail.getMediaType());
+            ps.setString(3, thumbnail.getVersion());
+            execution.addBlobBytesWritten(thumbnail.getContent().length);
+            if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
+                ps.setBinaryStream(4, new ByteArrayInputStream(thumbnail.getContent()));
+            } else {
+                Blob blob = connection.createBlob();
+                blob.setBytes(1, thumbnail.getContent());
+                ps.setBlob(4, blob);
+            }
+            execution.addRows(ps.executeUpdate());
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot save thumbnail of dashboard '" + url + "'.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(null, deletePs, null);
+            closeQuietly(connection, ps, null);
         }
     }
 
-    private static DashboardMetadataContent parseDashboardMetadataContent(InputStream inputStream)
-            throws IOException {
+    public void deleteThumbnail(String url) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.DELETE_DASHBOARD_THUMBNAIL_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            query = queryManager.getQuery(connection, QueryManager.DELETE_DASHBOARD_THUMBNAIL_QUERY);
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, url);
+            execution.addRows(ps.executeUpdate());
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot delete thumbnail of dashboard '" + url + "'.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, null);
+        }
+    }
+
+    private static byte[] toJsonBytes(Object dashboardPages) {
+        JsonEvent event = FlightRecorderSupport.isAvailable() ? JsonEvent.start() : null;
+        byte[] bytes = GSON.toJson(dashboardPages).getBytes(StandardCharsets.UTF_8);
+        if (event != null) {
+            event.complete(JsonEvent.SERIALIZE, DashboardMetadataContent.class, bytes.length);
+        }
+        return bytes;
+    }
+
+    private static byte[] readBytes(Blob blob) throws SQLException {
+        return blob.getBytes(1, (int) blob.length());
+    }
+
+    private static byte[] readBytes(InputStream inputStream) throws IOException {
         ByteArrayInputStream binaryStream = (ByteArrayInputStream) inputStream;
         byte[] buffer = new byte[binaryStream.available()];
         binaryStream.read(buffer);
-        String content = new String(buffer, StandardCharsets.UTF_8);
+        return buffer;
+    }
+
+    private static DashboardMetadataContent parseDashboardMetadataContent(byte[] bytes) {
+        JsonEvent event = FlightRecorderSupport.isAvailable() ? JsonEvent.start() : null;
+        String content = new String(bytes, StandardCharsets.UTF_8);
         try {
-            return new Gson().fromJson(content, DashboardMetadataContent.class);
+            return GSON.fromJson(content, DashboardMetadataContent.class);
         } catch (JsonParseException e) {
-            JsonArray pages = new Gson().fromJson(content, JsonArray.class);
+            JsonArray pages = GSON.fromJson(content, JsonArray.class);
             return new DashboardMetadataContent(pages);
+        } finally {
+            if (event != null) {
+                event.complete(JsonEvent.PARSE, DashboardMetadataContent.class, bytes.length);
+            }
         }
     }
 
@@ -35,7 +35,7 @@ public class DashboardMetadataDaoFactory {
     private static final String DATA_SOURCE_NAME_DASHBOARD = "WSO2_DASHBOARD_DB";
 
     /**
-     * Creates a new DAO.
+     * Creates a new DAO that does not record query metrics.
      *
      * @param dataSourceService       data sources service
      * @param dashboardConfigurations dashboard configurations
@@ -45,6 +45,23 @@ public class DashboardMetadataDaoFactory {
     public static DashboardMetadataDao createDao(DataSourceService dataSourceService,
                                                  DashboardConfigurations dashboardConfigurations)
             throws DashboardException {
+        return createDao(dataSourceService, dashboardConfigurations, QueryMetrics.disabled());
+    }
+
+    /**
+     * Creates a new DAO.
+     *
+     * @param dataSourceService       data sources service
+     * @param dashboardConfigurations dashboard configurations
+     * @param queryMetrics            metrics recorder for the queries of the DAO
+     * @return DAO
+     * @throws DashboardException if cannot find required data source or load dashboard configurations
+     * @since 4.1.26
+     */
+    public static DashboardMetadataDao createDao(DataSourceService dataSourceService,
+                                                 DashboardConfigurations dashboardConfigurations,
+                                                 QueryMetrics queryMetrics)
+            throws DashboardException {
         DataSource dataSource;
         try {
             dataSource = (DataSource) dataSourceService.getDataSource(DATA_SOURCE_NAME_DASHBOARD);
@@ -52,6 +69,6 @@ public class DashboardMetadataDaoFactory {
             throw new DashboardException("Cannot find data source named '" + DATA_SOURCE_NAME_DASHBOARD + "'.", e);
         }
         QueryManager queryManager = new QueryManager(dashboardConfigurations);
-        return new DashboardMetadataDao(dataSource, queryManager);
+        return new DashboardMetadataDao(dataSource, queryManager, queryMetrics);
     }
 }
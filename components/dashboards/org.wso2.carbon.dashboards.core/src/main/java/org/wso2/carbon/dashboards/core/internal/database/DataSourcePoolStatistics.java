@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.database;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.sql.DataSource;
+
+/**
+ * Reads the usage of the connection pool behind a data source. Carbon data sources are backed by HikariCP, which is
+ * not a dependency of this bundle, hence the pool is read reflectively and other pools are reported as unavailable.
+ *
+ * @since 4.1.26
+ */
+final class DataSourcePoolStatistics {
+
+    private static final String[] POOL_PROPERTIES = {"ActiveConnections", "IdleConnections", "TotalConnections",
+            "ThreadsAwaitingConnection"};
+
+    private DataSourcePoolStatistics() {
+    }
+
+    /**
+     * Returns the usage of the connection pool of the given data source.
+     *
+     * @param dataSource data source
+     * @return pool usage, or empty if the data source is not a pool or its pool has not started yet
+     */
+    static Optional<Map<String, Object>> of(DataSource dataSource) {
+        try {
+            Object pool = invoke(dataSource, "getHikariPoolMXBean");
+            if (pool == null) {
+                return Optional.empty();
+            }
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("poolName", invoke(dataSource, "getPoolName"));
+            statistics.put("maximumPoolSize", invoke(dataSource, "getMaximumPoolSize"));
+            for (String property : POOL_PROPERTIES) {
+                statistics.put(Character.toLowerCase(property.charAt(0)) + property.substring(1),
+                               invoke(pool, "get" + property));
+            }
+            return Optional.of(statistics);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Object invoke(Object target, String methodName) throws ReflectiveOperationException {
+        Method method = target.getClass().getMethod(methodName);
+        method.setAccessible(true);
+        return method.invoke(target);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Checks the existence of tables through JDBC database metadata, instead of querying a table and treating the failure
+ * as absence.
+ *
+ * @since 4.1.26
+ */
+final class DatabaseTables {
+
+    private static final String[] TABLE_TYPES = {"TABLE"};
+
+    private DatabaseTables() {
+    }
+
+    /**
+     * Checks whether a table with the given name exists in the current schema of the connection.
+     *
+     * @param connection connection to the database
+     * @param tableName  unquoted name of the table
+     * @return {@code true} if the table exists
+     * @throws SQLException if cannot read database metadata
+     */
+    static boolean exists(Connection connection, String tableName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String catalog = connection.getCatalog();
+        String schema = getSchema(connection);
+        for (String name : getStoredNames(metaData, tableName)) {
+            try (ResultSet tables = metaData.getTables(catalog, schema, escape(metaData, name), TABLE_TYPES)) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the names the database may have stored an unquoted table name as.
+     */
+    private static Set<String> getStoredNames(DatabaseMetaData metaData, String tableName) throws SQLException {
+        Set<String> names = new LinkedHashSet<>(2);
+        if (metaData.storesUpperCaseIdentifiers()) {
+            names.add(tableName.toUpperCase(Locale.ENGLISH));
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            names.add(tableName.toLowerCase(Locale.ENGLISH));
+        }
+        names.add(tableName);
+        return names;
+    }
+
+    private static String getSchema(Connection connection) {
+        try {
+            return connection.getSchema();
+        } catch (SQLException | AbstractMethodError e) {
+            // Drivers older than JDBC 4.1 do not know the current schema, hence search all schemas.
+            return null;
+        }
+    }
+
+    private static String escape(DatabaseMetaData metaData, String name) throws SQLException {
+        String escape = metaData.getSearchStringEscape();
+        if (escape == null || escape.isEmpty()) {
+            return name;
+        }
+        return name.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+    }
+}
@@ -43,9 +43,15 @@ import java.util.Map;
 public class QueryManager {
     public static final String DASHBOARD_RESOURCE_TABLE = "DASHBOARD_RESOURCE";
     public static final String WIDGET_RESOURCE_TABLE = "WIDGET_RESOURCE";
+    public static final String WIDGET_THUMBNAIL_TABLE = "WIDGET_THUMBNAIL";
+    public static final String DASHBOARD_THUMBNAIL_TABLE = "DASHBOARD_THUMBNAIL";
+    public static final String DASHBOARD_VERSION_TABLE = "DASHBOARD_VERSION";
     public static final String TABLE_CHECK = "table_check";
     public static final String CREATE_DASHBOARD_RESOURCE_TABLE = "create_dashboard_resource_table";
     public static final String CREATE_WIDGET_RESOURCE_TABLE = "create_widget_resource_table";
+    public static final String CREATE_WIDGET_THUMBNAIL_TABLE = "create_widget_thumbnail_table";
+    public static final String CREATE_DASHBOARD_THUMBNAIL_TABLE = "create_dashboard_thumbnail_table";
+    public static final String CREATE_DASHBOARD_VERSION_TABLE = "create_dashboard_version_table";
     public static final String TABLE_NAME_PLACEHOLDER = "{{TABLE_NAME}}";
     public static final String ADD_DASHBOARD_CONTENT_QUERY = "add_dashboard";
     public static final String ADD_WIDGET_CONFIG_QUERY = "add_widget_config";
@@ -53,10 +59,22 @@ public class QueryManager {
     public static final String GET_WIDGET_CONFIG_QUERY = "get_widget_config";
     public static final String GET_WIDGET_NAME_ID_MAP_QUERY = "get_widget_name_id_map";
     public static final String DELETE_WIDGET_BY_ID = "delete_widget_by_id";
+    public static final String GET_WIDGET_THUMBNAIL_QUERY = "get_widget_thumbnail";
+    public static final String ADD_WIDGET_THUMBNAIL_QUERY = "add_widget_thumbnail";
+    public static final String DELETE_WIDGET_THUMBNAIL_QUERY = "delete_widget_thumbnail";
     public static final String GET_DASHBOARD_METADATA_LIST_QUERY = "get_dashboard_metadata_list";
     public static final String GET_DASHBOARD_BY_URL_QUERY = "get_dashboard_by_url";
     public static final String DELETE_DASHBOARD_BY_URL_QUERY = "delete_dashboard_by_url";
     public static final String UPDATE_DASHBOARD_CONTENT_QUERY = "update_dashboard_content";
+    public static final String GET_DASHBOARD_THUMBNAIL_QUERY = "get_dashboard_thumbnail";
+    public static final String GET_DASHBOARD_THUMBNAIL_VERSIONS_QUERY = "get_dashboard_thumbnail_versions";
+    public static final String ADD_DASHBOARD_THUMBNAIL_QUERY = "add_dashboard_thumbnail";
+    public static final String DELETE_DASHBOARD_THUMBNAIL_QUERY = "delete_dashboard_thumbnail";
+    public static final String GET_DASHBOARD_VERSION_QUERY = "get_dashboard_version";
+    public static final String ADD_DASHBOARD_VERSION_QUERY = "add_dashboard_version";
+    public static final String DELETE_DASHBOARD_VERSION_QUERY = "delete_dashboard_version";
+    public static final String GET_DASHBOARD_CONTENT_STATISTICS_QUERY = "get_dashboard_content_statistics";
+    public static final String GET_WIDGET_CONFIG_STATISTICS_QUERY = "get_widget_config_statistics";
     public static final String DEFAULT_DB_TYPE = "H2";
     public static final String DEFAULT_DB_VERSION = "default";
     private static final String DB2_DB_TYPE = "DB2";
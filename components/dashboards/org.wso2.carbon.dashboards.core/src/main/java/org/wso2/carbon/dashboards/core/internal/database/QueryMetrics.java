@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.dashboards.core.bean.DatabaseConfigurations;
+import org.wso2.carbon.dashboards.core.jfr.DaoQueryEvent;
+import org.wso2.carbon.dashboards.core.jfr.FlightRecorderSupport;
+import org.wso2.carbon.dashboards.core.utils.MetricsHolder;
+import org.wso2.carbon.metrics.core.Histogram;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Timer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+/**
+ * Records timing, row count and blob size metrics of DAO calls, keyed by the {@link QueryManager} query key. Metrics
+ * are named {@code org.wso2.carbon.dashboards.core.database.<query key>.<metric>} and published through the Carbon
+ * metrics service when that service is available. Calls that take longer than the configured threshold are logged
+ * regardless of the metrics service, and a {@link DaoQueryEvent} is emitted for every call when flight recording is
+ * available.
+ *
+ * @since 4.1.26
+ */
+public class QueryMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryMetrics.class);
+    private static final String METRIC_PREFIX = "org.wso2.carbon.dashboards.core.database.";
+    private static final String METRIC_CONNECTION_ACQUISITION = METRIC_PREFIX + "connection.acquisition";
+
+    private final long slowQueryThresholdNanos;
+    private final Supplier<MetricService> metricServiceSupplier;
+    private final ConcurrentMap<String, MetricsHolder<KeyMetrics>> keyMetrics = new ConcurrentHashMap<>();
+    private final MetricsHolder<ConnectionMetrics> connectionMetrics = new MetricsHolder<>(ConnectionMetrics::new);
+
+    /**
+     * Creates query metrics.
+     *
+     * @param databaseConfigurations database configurations
+     * @param metricServiceSupplier  supplier of the metric service, which supplies {@code null} when the service is
+     *                               not available
+     */
+    public QueryMetrics(DatabaseConfigurations databaseConfigurations, Supplier<MetricService> metricServiceSupplier) {
+        this(TimeUnit.MILLISECONDS.toNanos(databaseConfigurations.getSlowQueryThreshold()), metricServiceSupplier);
+    }
+
+    private QueryMetrics(long slowQueryThresholdNanos, Supplier<MetricService> metricServiceSupplier) {
+        this.slowQueryThresholdNanos = slowQueryThresholdNanos;
+        this.metricServiceSupplier = metricServiceSupplier;
+    }
+
+    /**
+     * Returns query metrics that neither record metrics nor log slow queries.
+     *
+     * @return disabled query metrics
+     */
+    public static QueryMetrics disabled() {
+        return new QueryMetrics(0, () -> null);
+    }
+
+    /**
+     * Starts recording a DAO call.
+     *
+     * @param queryKey key of the (main) query executed by the call
+     * @return recording of the call, which should be ended once the call completes
+     */
+    Execution start(String queryKey) {
+        return new Execution(queryKey);
+    }
+
+    private KeyMetrics getKeyMetrics(MetricService metricService, String queryKey) {
+        return keyMetrics.computeIfAbsent(queryKey, key -> new MetricsHolder<>(
+                service -> new KeyMetrics(service, METRIC_PREFIX + key))).get(metricService);
+    }
+
+    /**
+     * A DAO call that is being recorded.
+     */
+    final class Execution {
+
+        private final String queryKey;
+        private final long startTime;
+        private final DaoQueryEvent event;
+        private long rows;
+        private long blobBytesRead;
+        private long blobBytesWritten;
+
+        private Execution(String queryKey) {
+            this.queryKey = queryKey;
+            this.startTime = System.nanoTime();
+            this.event = FlightRecorderSupport.isAvailable() ? DaoQueryEvent.start() : null;
+        }
+
+        /**
+         * Acquires a connection from the given data source, recording the time taken to acquire it.
+         *
+         * @param dataSource data source
+         * @return connection
+         * @throws SQLException if cannot acquire a connection
+         */
+        Connection getConnection(DataSource dataSource) throws SQLException {
+            MetricService metricService = metricServiceSupplier.get();
+            if (metricService == null) {
+                return dataSource.getConnection();
+            }
+            long acquisitionStartTime = System.nanoTime();
+            try {
+                return dataSource.getConnection();
+            } finally {
+                connectionMetrics.get(metricService).acquisition.update(System.nanoTime() - acquisitionStartTime,
+                                                                       TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void addRows(long count) {
+            rows += count;
+        }
+
+        void addBlobBytesRead(long count) {
+            blobBytesRead += count;
+        }
+
+        void addBlobBytesWritten(long count) {
+            blobBytesWritten += count;
+        }
+
+        /**
+         * Ends recording this call. Should be called before the connection is closed, as the database product name is
+         * read from the connection when logging a slow query.
+         *
+         * @param connection connection used by the call, or {@code null} if none was acquired
+         */
+        void end(Connection connection) {
+            long elapsedTime = System.nanoTime() - startTime;
+            if (event != null) {
+                event.complete(queryKey, rows, blobBytesRead, blobBytesWritten);
+            }
+            MetricService metricService = metricServiceSupplier.get();
+            if (metricService != null) {
+                getKeyMetrics(metricService, queryKey).record(elapsedTime, rows, blobBytesRead, blobBytesWritten);
+            }
+            if ((slowQueryThresholdNanos > 0) && (elapsedTime >= slowQueryThresholdNanos)) {
+                LOGGER.warn("Slow database query '{}' on {} took {} ms (rows: {}, blob bytes read: {}, blob bytes "
+                                    + "written: {}).", queryKey, getDatabaseProductName(connection),
+                            TimeUnit.NANOSECONDS.toMillis(elapsedTime), rows, blobBytesRead, blobBytesWritten);
+            }
+        }
+
+        private String getDatabaseProductName(Connection connection) {
+            if (connection == null) {
+                return "unknown database";
+            }
+            try {
+                return connection.getMetaData().getDatabaseProductName();
+            } catch (SQLException | RuntimeException e) {
+                return "unknown database";
+            }
+        }
+    }
+
+    /**
+     * Metrics of a single query key.
+     */
+    private static class KeyMetrics {
+
+        private final Timer latency;
+        private final Histogram rows;
+        private final Histogram blobBytesRead;
+        private final Histogram blobBytesWritten;
+
+        private KeyMetrics(MetricService metricService, String name) {
+            this.latency = metricService.timer(name + ".latency", Level.INFO);
+            this.rows = metricService.histogram(name + ".rows", Level.INFO);
+            this.blobBytesRead = metricService.histogram(name + ".blobBytesRead", Level.DEBUG);
+            this.blobBytesWritten = metricService.histogram(name + ".blobBytesWritten", Level.DEBUG);
+        }
+
+        private void record(long elapsedNanos, long rowCount, long bytesRead, long bytesWritten) {
+            latency.update(elapsedNanos, TimeUnit.NANOSECONDS);
+            rows.update(rowCount);
+            if (bytesRead > 0) {
+                blobBytesRead.update(bytesRead);
+            }
+            if (bytesWritten > 0) {
+                blobBytesWritten.update(bytesWritten);
+            }
+        }
+    }
+
+    /**
+     * Metrics of acquiring connections from the data source.
+     */
+    private static class ConnectionMetrics {
+
+        private final Timer acquisition;
+
+        private ConnectionMetrics(MetricService metricService) {
+            this.acquisition = metricService.timer(METRIC_CONNECTION_ACQUISITION, Level.INFO);
+        }
+    }
+}
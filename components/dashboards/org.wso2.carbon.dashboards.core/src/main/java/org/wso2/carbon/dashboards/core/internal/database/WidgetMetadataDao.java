@@ -20,8 +20,13 @@ package org.wso2.carbon.dashboards.core.internal.database;
 import com.google.gson.Gson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.dashboards.core.bean.ContentStatistics;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
 import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
+import org.wso2.carbon.dashboards.core.jfr.FlightRecorderSupport;
+import org.wso2.carbon.dashboards.core.jfr.JsonEvent;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -45,43 +50,55 @@ public class WidgetMetadataDao {
     private static final String COLUMN_WIDGET_ID = "WIDGET_ID";
     private static final String COLUMN_WIDGET_NAME = "WIDGET_NAME";
     private static final String COLUMN_WIDGET_CONFIGS = "WIDGET_CONFIGS";
+    private static final String COLUMN_MEDIA_TYPE = "MEDIA_TYPE";
+    private static final String COLUMN_THUMBNAIL = "THUMBNAIL";
     private static final String POSTGRESQL_DB_TYPE = "PostgreSQL";
 
     private final DataSource dataSource;
     private final QueryManager queryManager;
-    private static final Gson GSON = new Gson();
+    private final QueryMetrics queryMetrics;
+    private static final Gson GSON = DashboardUtil.getGson();
 
     public WidgetMetadataDao(DataSource dataSource, QueryManager queryManager) {
+        this(dataSource, queryManager, QueryMetrics.disabled());
+    }
+
+    public WidgetMetadataDao(DataSource dataSource, QueryManager queryManager, QueryMetrics queryMetrics) {
         this.dataSource = dataSource;
         this.queryManager = queryManager;
+        this.queryMetrics = queryMetrics;
     }
 
     public void initWidgetTable() throws DashboardException {
         if (!tableExists(QueryManager.WIDGET_RESOURCE_TABLE)) {
-            this.createWidgetResourceTable();
+            this.createTable(QueryManager.WIDGET_RESOURCE_TABLE, QueryManager.CREATE_WIDGET_RESOURCE_TABLE);
+        }
+        if (!tableExists(QueryManager.WIDGET_THUMBNAIL_TABLE)) {
+            this.createTable(QueryManager.WIDGET_THUMBNAIL_TABLE, QueryManager.CREATE_WIDGET_THUMBNAIL_TABLE);
         }
     }
 
     /**
-     * Create widget resource table.
+     * Create a widget table.
      */
-    private void createWidgetResourceTable() throws DashboardException {
+    private void createTable(String tableName, String createQueryKey) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(createQueryKey);
         Connection connection = null;
         PreparedStatement ps = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             connection.setAutoCommit(false);
-            query = queryManager.getQuery(connection, QueryManager.CREATE_WIDGET_RESOURCE_TABLE);
+            query = queryManager.getQuery(connection, createQueryKey);
             ps = connection.prepareStatement(query);
-            ps.executeUpdate();
+            execution.addRows(ps.executeUpdate());
             connection.commit();
         } catch (SQLException e) {
             rollbackQuietly(connection);
             LOGGER.debug("Failed to execute SQL query {}", query);
-            throw new DashboardException("Unable to create the '" + QueryManager.WIDGET_RESOURCE_TABLE +
-                    "' table.", e);
+            throw new DashboardException("Unable to create the '" + tableName + "' table.", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, null);
         }
     }
@@ -92,85 +109,86 @@ public class WidgetMetadataDao {
      * @return true/false based on the table existence.
      */
     private boolean tableExists(String tableName) {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.TABLE_CHECK);
         Connection connection = null;
-        PreparedStatement ps = null;
-        String query = null;
         try {
-            connection = getConnection();
-            query = queryManager.getQuery(connection, QueryManager.TABLE_CHECK);
-            ps = connection.prepareStatement(query.replace(QueryManager.TABLE_NAME_PLACEHOLDER, tableName));
-            return ps.execute();
+            connection = execution.getConnection(dataSource);
+            return DatabaseTables.exists(connection, tableName);
         } catch (SQLException e) {
-            rollbackQuietly(connection);
-            LOGGER.debug("Table '{}' assumed to not exist since its existence check query {} resulted "
-                    + "in exception {}.", tableName, query, e.getMessage());
+            LOGGER.debug("Table '{}' assumed to not exist since its existence could not be checked: {}", tableName,
+                         e.getMessage());
             return false;
         } finally {
-            closeQuietly(connection, ps, null);
+            execution.end(connection);
+            closeQuietly(connection, null, null);
         }
     }
 
-    private Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
-    }
-
     public void addGeneratedWidgetConfigs(GeneratedWidgetConfigs generatedWidgetConfigs) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.ADD_WIDGET_CONFIG_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         String query = null;
         generatedWidgetConfigs.setId(generatedWidgetConfigs.getName().replace(" ", "-"));
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             String dbType = connection.getMetaData().getDatabaseProductName();
             query = queryManager.getQuery(connection, QueryManager.ADD_WIDGET_CONFIG_QUERY);
             connection.setAutoCommit(false);
             ps = connection.prepareStatement(query);
             ps.setString(1, generatedWidgetConfigs.getId());
             ps.setString(2, generatedWidgetConfigs.getName());
+            byte[] content = toJsonBytes(generatedWidgetConfigs);
+            execution.addBlobBytesWritten(content.length);
             if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
-                ps.setBinaryStream(3, new ByteArrayInputStream(toJsonBytes(generatedWidgetConfigs)));
+                ps.setBinaryStream(3, new ByteArrayInputStream(content));
             } else {
                 Blob blob = connection.createBlob();
-                blob.setBytes(1, toJsonBytes(generatedWidgetConfigs));
+                blob.setBytes(1, content);
                 ps.setObject(3, blob);
             }
-            ps.executeUpdate();
+            execution.addRows(ps.executeUpdate());
             connection.commit();
         } catch (SQLException e) {
             rollbackQuietly(connection);
             LOGGER.debug("Failed to execute SQL query {}", query);
             throw new DashboardException("Cannot create a new widget with " + generatedWidgetConfigs + ".", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, null);
         }
     }
 
     public void updateGeneratedWidgetConfigs(GeneratedWidgetConfigs generatedWidgetConfigs) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.UPDATE_WIDGET_CONFIG_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         String query = null;
         generatedWidgetConfigs.setId(generatedWidgetConfigs.getName().replace(" ", "-"));
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             String dbType = connection.getMetaData().getDatabaseProductName();
             query = queryManager.getQuery(connection, QueryManager.UPDATE_WIDGET_CONFIG_QUERY);
             connection.setAutoCommit(false);
             ps = connection.prepareStatement(query);
+            byte[] content = toJsonBytes(generatedWidgetConfigs);
+            execution.addBlobBytesWritten(content.length);
             if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
-                ps.setBinaryStream(1, new ByteArrayInputStream(toJsonBytes(generatedWidgetConfigs)));
+                ps.setBinaryStream(1, new ByteArrayInputStream(content));
             } else {
                 Blob blob = connection.createBlob();
-                blob.setBytes(1, toJsonBytes(generatedWidgetConfigs));
+                blob.setBytes(1, content);
                 ps.setObject(1, blob);
             }
             ps.setString(2, generatedWidgetConfigs.getId());
-            ps.executeUpdate();
+            execution.addRows(ps.executeUpdate());
             connection.commit();
         } catch (SQLException e) {
             rollbackQuietly(connection);
             LOGGER.debug("Failed to execute SQL query {}", query);
             throw new DashboardException("Cannot update widget with " + generatedWidgetConfigs + ".", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, null);
         }
     }
@@ -178,41 +196,60 @@ public class WidgetMetadataDao {
 
 
     private static byte[] toJsonBytes(Object generatedWidgetConfigs) {
-        return GSON.toJson(generatedWidgetConfigs).getBytes(StandardCharsets.UTF_8);
+        JsonEvent event = FlightRecorderSupport.isAvailable() ? JsonEvent.start() : null;
+        byte[] bytes = GSON.toJson(generatedWidgetConfigs).getBytes(StandardCharsets.UTF_8);
+        if (event != null) {
+            event.complete(JsonEvent.SERIALIZE, GeneratedWidgetConfigs.class, bytes.length);
+        }
+        return bytes;
     }
 
-    private static GeneratedWidgetConfigs fromJsonBytes(Blob byteBlob) throws SQLException {
-        return GSON.fromJson(new String(byteBlob.getBytes(1, (int) byteBlob.length()), StandardCharsets.UTF_8),
-                GeneratedWidgetConfigs.class);
+    private static GeneratedWidgetConfigs fromJsonBytes(byte[] bytes) {
+        JsonEvent event = FlightRecorderSupport.isAvailable() ? JsonEvent.start() : null;
+        try {
+            return GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), GeneratedWidgetConfigs.class);
+        } finally {
+            if (event != null) {
+                event.complete(JsonEvent.PARSE, GeneratedWidgetConfigs.class, bytes.length);
+            }
+        }
+    }
+
+    private static byte[] readBytes(Blob blob) throws SQLException {
+        return blob.getBytes(1, (int) blob.length());
     }
 
-    private static GeneratedWidgetConfigs fromJsonBytes(InputStream inputStream) throws IOException {
+    private static byte[] readBytes(InputStream inputStream) throws IOException {
         ByteArrayInputStream binaryStream = (ByteArrayInputStream) inputStream;
         byte[] buffer = new byte[binaryStream.available()];
         binaryStream.read(buffer);
-        String content = new String(buffer, StandardCharsets.UTF_8);
-        return GSON.fromJson(content, GeneratedWidgetConfigs.class);
+        return buffer;
     }
 
     public GeneratedWidgetConfigs getGeneratedWidgetConfigsForId(String widgetId) throws
             DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_WIDGET_CONFIG_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         ResultSet resultSet = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             String dbType = connection.getMetaData().getDatabaseProductName();
             query = queryManager.getQuery(connection, QueryManager.GET_WIDGET_CONFIG_QUERY);
             ps = connection.prepareStatement(query);
             ps.setString(1, widgetId);
             resultSet = ps.executeQuery();
             if (resultSet.next()) {
+                byte[] content;
                 if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
-                    return fromJsonBytes(resultSet.getBinaryStream(COLUMN_WIDGET_CONFIGS));
+                    content = readBytes(resultSet.getBinaryStream(COLUMN_WIDGET_CONFIGS));
                 } else {
-                    return fromJsonBytes(resultSet.getBlob(COLUMN_WIDGET_CONFIGS));
+                    content = readBytes(resultSet.getBlob(COLUMN_WIDGET_CONFIGS));
                 }
+                execution.addRows(1);
+                execution.addBlobBytesRead(content.length);
+                return fromJsonBytes(content);
             }
         } catch (SQLException e) {
             rollbackQuietly(connection);
@@ -222,31 +259,35 @@ public class WidgetMetadataDao {
             LOGGER.debug("Failed to read generated widget configuration");
             throw new DashboardException("Cannot get widget configuration for widget id  " + widgetId + ".", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, resultSet);
         }
         return null;
     }
 
     public Set<GeneratedWidgetConfigs> getGeneratedWidgetIdSet() throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_WIDGET_NAME_ID_MAP_QUERY);
         Connection connection = null;
         PreparedStatement ps = null;
         ResultSet resultSet = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             String dbType = connection.getMetaData().getDatabaseProductName();
             query = queryManager.getQuery(connection, QueryManager.GET_WIDGET_NAME_ID_MAP_QUERY);
             ps = connection.prepareStatement(query);
             resultSet = ps.executeQuery();
             Set<GeneratedWidgetConfigs> widgetNameSet = new HashSet<>();
-            GeneratedWidgetConfigs generatedWidgetConfigs;
             while (resultSet.next()) {
+                byte[] content;
                 if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
-                    generatedWidgetConfigs = fromJsonBytes(resultSet.getBinaryStream(COLUMN_WIDGET_CONFIGS));
+                    content = readBytes(resultSet.getBinaryStream(COLUMN_WIDGET_CONFIGS));
                 } else {
-                    generatedWidgetConfigs = fromJsonBytes(resultSet.getBlob(COLUMN_WIDGET_CONFIGS));
+                    content = readBytes(resultSet.getBlob(COLUMN_WIDGET_CONFIGS));
                 }
-                widgetNameSet.add(generatedWidgetConfigs);
+                execution.addRows(1);
+                execution.addBlobBytesRead(content.length);
+                widgetNameSet.add(fromJsonBytes(content));
             }
             return widgetNameSet;
         } catch (SQLException e) {
@@ -257,27 +298,161 @@ public class WidgetMetadataDao {
             LOGGER.debug("Failed to read generated widget configurations");
             throw new DashboardException("Failed to get widget widget name set.", e);
         } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, resultSet);
         }
     }
 
+    /**
+     * Returns the number of stored generated widgets and the sizes of their configurations, without reading the
+     * configurations.
+     *
+     * @return generated widget configuration statistics
+     * @throws DashboardException if cannot compute the statistics
+     */
+    public ContentStatistics getConfigStatistics() throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_WIDGET_CONFIG_STATISTICS_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet results = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            query = queryManager.getQuery(connection, QueryManager.GET_WIDGET_CONFIG_STATISTICS_QUERY);
+            ps = connection.prepareStatement(query);
+            results = ps.executeQuery();
+            if (!results.next()) {
+                return new ContentStatistics(0, 0, 0);
+            }
+            execution.addRows(1);
+            // Average and maximum are NULL when there are no widgets, which are read as zero.
+            return new ContentStatistics(results.getLong(1), results.getLong(2), results.getLong(3));
+        } catch (SQLException e) {
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot retrieve generated widget configuration statistics.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, results);
+        }
+    }
+
     public void delete(String widgetId) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.DELETE_WIDGET_BY_ID);
         Connection connection = null;
         PreparedStatement ps = null;
         String query = null;
         try {
-            connection = getConnection();
+            connection = execution.getConnection(dataSource);
             query = queryManager.getQuery(connection, QueryManager.DELETE_WIDGET_BY_ID);
             connection.setAutoCommit(false);
             ps = connection.prepareStatement(query);
             ps.setString(1, widgetId);
-            ps.executeUpdate();
+            execution.addRows(ps.executeUpdate());
             connection.commit();
         } catch (SQLException e) {
             rollbackQuietly(connection);
             LOGGER.debug("Failed to execute SQL query {}", query);
             throw new DashboardException("Cannot delete widget id: '" + widgetId + "'.", e);
         } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, null);
+        }
+    }
+
+    public Thumbnail getThumbnail(String widgetId) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_WIDGET_THUMBNAIL_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet resultSet = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            String dbType = connection.getMetaData().getDatabaseProductName();
+            query = queryManager.getQuery(connection, QueryManager.GET_WIDGET_THUMBNAIL_QUERY);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, widgetId);
+            resultSet = ps.executeQuery();
+            if (resultSet.next()) {
+                byte[] content;
+                if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
+                    content = resultSet.getBytes(COLUMN_THUMBNAIL);
+                } else {
+                    Blob blob = resultSet.getBlob(COLUMN_THUMBNAIL);
+                    content = blob.getBytes(1, (int) blob.length());
+                }
+                execution.addRows(1);
+                execution.addBlobBytesRead(content.length);
+                return Thumbnail.fromContent(resultSet.getString(COLUMN_MEDIA_TYPE), content);
+            }
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot get thumbnail for widget id '" + widgetId + "'.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(connection, ps, resultSet);
+        }
+        return null;
+    }
+
+    public void saveThumbnail(String widgetId, String mediaType, byte[] content) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.ADD_WIDGET_THUMBNAIL_QUERY);
+        Connection connection = null;
+        PreparedStatement deletePs = null;
+        PreparedStatement ps = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            String dbType = connection.getMetaData().getDatabaseProductName();
+            connection.setAutoCommit(false);
+            query = queryManager.getQuery(connection, QueryManager.DELETE_WIDGET_THUMBNAIL_QUERY);
+            deletePs = connection.prepareStatement(query);
+            deletePs.setString(1, widgetId);
+            execution.addRows(deletePs.executeUpdate());
+            query = queryManager.getQuery(connection, QueryManager.ADD_WIDGET_THUMBNAIL_QUERY);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, widgetId);
+            ps.setString(2, mediaType);
+            execution.addBlobBytesWritten(content.length);
+            if (dbType.equalsIgnoreCase(POSTGRESQL_DB_TYPE)) {
+                ps.setBinaryStream(3, new ByteArrayInputStream(content));
+            } else {
+                Blob blob = connection.createBlob();
+                blob.setBytes(1, content);
+                ps.setObject(3, blob);
+            }
+            execution.addRows(ps.executeUpdate());
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot save thumbnail for widget id '" + widgetId + "'.", e);
+        } finally {
+            execution.end(connection);
+            closeQuietly(null, deletePs, null);
+            closeQuietly(connection, ps, null);
+        }
+    }
+
+    public void deleteThumbnail(String widgetId) throws DashboardException {
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.DELETE_WIDGET_THUMBNAIL_QUERY);
+        Connection connection = null;
+        PreparedStatement ps = null;
+        String query = null;
+        try {
+            connection = execution.getConnection(dataSource);
+            query = queryManager.getQuery(connection, QueryManager.DELETE_WIDGET_THUMBNAIL_QUERY);
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(query);
+            ps.setString(1, widgetId);
+            execution.addRows(ps.executeUpdate());
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            LOGGER.debug("Failed to execute SQL query {}", query);
+            throw new DashboardException("Cannot delete thumbnail of widget id: '" + widgetId + "'.", e);
+        } finally {
+            execution.end(connection);
             closeQuietly(connection, ps, null);
         }
     }
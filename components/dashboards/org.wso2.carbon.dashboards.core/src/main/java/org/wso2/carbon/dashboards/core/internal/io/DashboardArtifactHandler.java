@@ -26,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -44,7 +45,7 @@ import java.util.stream.Collectors;
 public class DashboardArtifactHandler {
 
     private static final String ARTIFACT_EXTENSION = ".json";
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = DashboardUtil.getGson();
     private static final Logger LOGGER = LoggerFactory.getLogger(DashboardArtifactHandler.class);
 
     /**
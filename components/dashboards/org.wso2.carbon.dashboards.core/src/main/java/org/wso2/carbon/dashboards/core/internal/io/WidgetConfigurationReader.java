@@ -22,6 +22,7 @@ import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
 import org.wso2.carbon.dashboards.core.exception.DashboardRuntimeException;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
 import org.wso2.carbon.uiserver.api.Extension;
 
 import java.io.IOException;
@@ -38,7 +39,7 @@ import java.nio.file.Paths;
 public class WidgetConfigurationReader {
 
     private static final String FILE_NAME_WIDGET_CONFIGURATION = "widgetConf.json";
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = DashboardUtil.getGson();
 
     /**
      * Reads and returns the configurations of the specified widget.
@@ -48,7 +49,7 @@ public class WidgetConfigurationReader {
      * @throws DashboardRuntimeException if cannot read configuration file or its is invalid
      */
     public static WidgetMetaInfo getConfiguration(Extension widget) throws DashboardRuntimeException {
-        Path widgetConfPath = Paths.get(widget.getLeastPriorityPath(), FILE_NAME_WIDGET_CONFIGURATION);
+        Path widgetConfPath = getConfigurationPath(widget);
         try {
             String widgetConf = new String(Files.readAllBytes(widgetConfPath), StandardCharsets.UTF_8);
             return GSON.fromJson(widgetConf, WidgetMetaInfo.class);
@@ -60,4 +61,15 @@ public class WidgetConfigurationReader {
                     "Configuration file '" + widgetConfPath + "' of widget '" + widget.getName() + "' is invalid.");
         }
     }
+
+    /**
+     * Returns the path of the configuration file of the specified widget.
+     *
+     * @param widget widget
+     * @return path of the configuration file
+     * @since 4.1.26
+     */
+    public static Path getConfigurationPath(Extension widget) {
+        return Paths.get(widget.getLeastPriorityPath(), FILE_NAME_WIDGET_CONFIGURATION);
+    }
 }
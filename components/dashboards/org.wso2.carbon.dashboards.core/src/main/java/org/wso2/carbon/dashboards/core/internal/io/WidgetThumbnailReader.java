@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.io;
+
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
+import org.wso2.carbon.dashboards.core.exception.DashboardRuntimeException;
+import org.wso2.carbon.uiserver.api.Extension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reader for thumbnail images bundled with widgets.
+ *
+ * @since 4.1.26
+ */
+public class WidgetThumbnailReader {
+
+    private static final Map<String, String> MEDIA_TYPES = new HashMap<>();
+
+    static {
+        MEDIA_TYPES.put("png", "image/png");
+        MEDIA_TYPES.put("jpg", "image/jpeg");
+        MEDIA_TYPES.put("jpeg", "image/jpeg");
+        MEDIA_TYPES.put("gif", "image/gif");
+        MEDIA_TYPES.put("svg", "image/svg+xml");
+        MEDIA_TYPES.put("webp", "image/webp");
+    }
+
+    /**
+     * Reads the thumbnail of the specified widget.
+     *
+     * @param widget          widget
+     * @param thumbnailPath   path of the thumbnail relative to the widget directory, as given in the widget
+     *                        configuration
+     * @param maxInMemorySize maximum size of a thumbnail that is read into memory, larger ones are referred by file
+     * @return thumbnail of the widget, or empty if the widget does not bundle an image at the given path
+     * @throws DashboardRuntimeException if cannot read the thumbnail file
+     */
+    public static Optional<Thumbnail> getThumbnail(Extension widget, String thumbnailPath, long maxInMemorySize)
+            throws DashboardRuntimeException {
+        // Thumbnails hosted elsewhere are loaded by the browser directly.
+        if (thumbnailPath == null || thumbnailPath.isEmpty() || thumbnailPath.contains("://")) {
+            return Optional.empty();
+        }
+        String mediaType = getMediaType(thumbnailPath);
+        if (mediaType == null) {
+            return Optional.empty();
+        }
+        Path widgetPath = Paths.get(widget.getLeastPriorityPath()).toAbsolutePath().normalize();
+        Path file;
+        try {
+            file = widgetPath.resolve(thumbnailPath).normalize();
+        } catch (InvalidPathException e) {
+            return Optional.empty();
+        }
+        // Thumbnail path comes from the widget configuration, hence do not let it point outside the widget.
+        if (!file.startsWith(widgetPath) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.size() <= maxInMemorySize) {
+                return Optional.of(Thumbnail.fromContent(mediaType, Files.readAllBytes(file)));
+            }
+            return Optional.of(Thumbnail.fromFile(mediaType, file, attributes.size(),
+                                                  attributes.lastModifiedTime().toMillis()));
+        } catch (IOException e) {
+            throw new DashboardRuntimeException(
+                    "Cannot read thumbnail '" + file + "' of widget '" + widget.getName() + "'.", e);
+        }
+    }
+
+    private static String getMediaType(String thumbnailPath) {
+        int extensionIndex = thumbnailPath.lastIndexOf('.');
+        if (extensionIndex < 0) {
+            return null;
+        }
+        return MEDIA_TYPES.get(thumbnailPath.substring(extensionIndex + 1).toLowerCase(Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Base of the hand-written type adapters of dashboard beans. Values are read the same lenient way reflective Gson
+ * bindings read them, so that replacing those bindings does not change what is accepted.
+ *
+ * @param <T> type of the bean
+ * @since 4.1.26
+ */
+abstract class BeanTypeAdapter<T> extends TypeAdapter<T> {
+
+    /**
+     * Reads a string value.
+     *
+     * @param in JSON reader
+     * @return string, or {@code null} if the value is null
+     * @throws IOException if cannot read the value
+     */
+    static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Reads a boolean value.
+     *
+     * @param in JSON reader
+     * @return boolean, or {@code null} if the value is null
+     * @throws IOException if cannot read the value
+     */
+    static Boolean readBoolean(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    /**
+     * Consumes a null value if it is the next one.
+     *
+     * @param in JSON reader
+     * @return {@code true} if a null value was consumed
+     * @throws IOException if cannot read the value
+     */
+    static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+}
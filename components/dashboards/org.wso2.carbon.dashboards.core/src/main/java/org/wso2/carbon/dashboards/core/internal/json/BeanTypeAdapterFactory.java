@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadataContent;
+import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
+import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
+import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
+
+/**
+ * Supplies hand-written type adapters for the frequently (de)serialized dashboard beans, in place of reflective
+ * bindings. Only the exact bean types are adapted, hence subclasses keep their reflective bindings and fields.
+ *
+ * @since 4.1.26
+ */
+public class BeanTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == DashboardMetadata.class) {
+            return (TypeAdapter<T>) new DashboardMetadataAdapter(gson);
+        } else if (rawType == DashboardMetadataContent.class) {
+            return (TypeAdapter<T>) new DashboardMetadataContentAdapter(gson);
+        } else if (rawType == GeneratedWidgetConfigs.class) {
+            return (TypeAdapter<T>) new GeneratedWidgetConfigsAdapter(gson);
+        } else if (rawType == WidgetMetaInfo.class) {
+            return (TypeAdapter<T>) new WidgetMetaInfoAdapter(gson);
+        } else if (rawType == DashboardArtifact.class) {
+            return (TypeAdapter<T>) new DashboardArtifactAdapter(gson);
+        }
+        return null;
+    }
+}
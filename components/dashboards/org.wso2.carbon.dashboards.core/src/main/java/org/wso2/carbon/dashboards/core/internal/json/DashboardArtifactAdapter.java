@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
+import org.wso2.carbon.dashboards.core.bean.importer.WidgetCollection;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type adapter for {@link DashboardArtifact}.
+ *
+ * @since 4.1.26
+ */
+class DashboardArtifactAdapter extends BeanTypeAdapter<DashboardArtifact> {
+
+    private static final TypeToken<Map<String, List<String>>> PERMISSIONS_TYPE =
+            new TypeToken<Map<String, List<String>>>() {
+            };
+
+    private final TypeAdapter<DashboardMetadata> dashboardAdapter;
+    private final TypeAdapter<WidgetCollection> widgetsAdapter;
+    private final TypeAdapter<Map<String, List<String>>> permissionsAdapter;
+
+    DashboardArtifactAdapter(Gson gson) {
+        this.dashboardAdapter = gson.getAdapter(DashboardMetadata.class);
+        this.widgetsAdapter = gson.getAdapter(WidgetCollection.class);
+        this.permissionsAdapter = gson.getAdapter(PERMISSIONS_TYPE);
+    }
+
+    @Override
+    public void write(JsonWriter out, DashboardArtifact artifact) throws IOException {
+        if (artifact == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("dashboard");
+        dashboardAdapter.write(out, artifact.getDashboard());
+        out.name("widgets");
+        widgetsAdapter.write(out, artifact.getWidgets());
+        out.name("permissions");
+        permissionsAdapter.write(out, artifact.getPermissions());
+        out.endObject();
+    }
+
+    @Override
+    public DashboardArtifact read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        DashboardArtifact artifact = new DashboardArtifact();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "dashboard":
+                    artifact.setDashboard(dashboardAdapter.read(in));
+                    break;
+                case "widgets":
+                    artifact.setWidgets(widgetsAdapter.read(in));
+                    break;
+                case "permissions":
+                    artifact.setPermissions(permissionsAdapter.read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return artifact;
+    }
+}
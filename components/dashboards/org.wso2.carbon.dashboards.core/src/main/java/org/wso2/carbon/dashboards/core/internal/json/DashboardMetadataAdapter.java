@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadataContent;
+
+import java.io.IOException;
+
+/**
+ * Type adapter for {@link DashboardMetadata}.
+ *
+ * @since 4.1.26
+ */
+class DashboardMetadataAdapter extends BeanTypeAdapter<DashboardMetadata> {
+
+    private final TypeAdapter<DashboardMetadataContent> contentAdapter;
+
+    DashboardMetadataAdapter(Gson gson) {
+        this.contentAdapter = gson.getAdapter(DashboardMetadataContent.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, DashboardMetadata metadata) throws IOException {
+        if (metadata == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("url").value(metadata.getUrl());
+        out.name("owner").value(metadata.getOwner());
+        out.name("name").value(metadata.getName());
+        out.name("description").value(metadata.getDescription());
+        out.name("landingPage").value(metadata.getLandingPage());
+        out.name("parentId").value(metadata.getParentId());
+        out.name("content");
+        contentAdapter.write(out, metadata.getContent());
+        out.name("hasOwnerPermission").value(metadata.isHasOwnerPermission());
+        out.name("hasDesignerPermission").value(metadata.isHasDesignerPermission());
+        out.name("hasViewerPermission").value(metadata.isHasViewerPermission());
+        out.name("thumbnailUrl").value(metadata.getThumbnailUrl());
+        out.endObject();
+    }
+
+    @Override
+    public DashboardMetadata read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        DashboardMetadata metadata = new DashboardMetadata();
+        in.beginObject();
+        while (in.hasNext()) {
+            Boolean permission;
+            switch (in.nextName()) {
+                case "url":
+                    metadata.setUrl(readString(in));
+                    break;
+                case "owner":
+                    metadata.setOwner(readString(in));
+                    break;
+                case "name":
+                    metadata.setName(readString(in));
+                    break;
+                case "description":
+                    metadata.setDescription(readString(in));
+                    break;
+                case "landingPage":
+                    metadata.setLandingPage(readString(in));
+                    break;
+                case "parentId":
+                    metadata.setParentId(readString(in));
+                    break;
+                case "content":
+                    metadata.setContent(contentAdapter.read(in));
+                    break;
+                case "hasOwnerPermission":
+                    permission = readBoolean(in);
+                    if (permission != null) {
+                        metadata.setHasOwnerPermission(permission);
+                    }
+                    break;
+                case "hasDesignerPermission":
+                    permission = readBoolean(in);
+                    if (permission != null) {
+                        metadata.setHasDesignerPermission(permission);
+                    }
+                    break;
+                case "hasViewerPermission":
+                    permission = readBoolean(in);
+                    if (permission != null) {
+                        metadata.setHasViewerPermission(permission);
+                    }
+                    break;
+                case "thumbnailUrl":
+                    metadata.setThumbnailUrl(readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return metadata;
+    }
+}
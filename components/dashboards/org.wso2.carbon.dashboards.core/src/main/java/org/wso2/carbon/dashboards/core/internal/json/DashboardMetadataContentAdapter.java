@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadataContent;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Type adapter for {@link DashboardMetadataContent}.
+ *
+ * @since 4.1.26
+ */
+class DashboardMetadataContentAdapter extends BeanTypeAdapter<DashboardMetadataContent> {
+
+    private static final TypeToken<Map<String, String>> PROPERTIES_TYPE = new TypeToken<Map<String, String>>() {
+    };
+
+    private final TypeAdapter<Map<String, String>> propertiesAdapter;
+    private final TypeAdapter<JsonArray> pagesAdapter;
+
+    DashboardMetadataContentAdapter(Gson gson) {
+        this.propertiesAdapter = gson.getAdapter(PROPERTIES_TYPE);
+        this.pagesAdapter = gson.getAdapter(JsonArray.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, DashboardMetadataContent content) throws IOException {
+        if (content == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("properties");
+        propertiesAdapter.write(out, content.getProperties());
+        out.name("readOnly").value(content.isReadOnly());
+        out.name("pages");
+        pagesAdapter.write(out, content.getPages());
+        out.endObject();
+    }
+
+    @Override
+    public DashboardMetadataContent read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        DashboardMetadataContent content = new DashboardMetadataContent();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "properties":
+                    content.setProperties(propertiesAdapter.read(in));
+                    break;
+                case "readOnly":
+                    Boolean readOnly = readBoolean(in);
+                    if (readOnly != null) {
+                        content.setReadOnly(readOnly);
+                    }
+                    break;
+                case "pages":
+                    content.setPages(pagesAdapter.read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return content;
+    }
+}
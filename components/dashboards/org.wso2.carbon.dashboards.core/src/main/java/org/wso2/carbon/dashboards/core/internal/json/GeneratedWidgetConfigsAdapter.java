@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
+
+import java.io.IOException;
+
+/**
+ * Type adapter for {@link GeneratedWidgetConfigs}.
+ *
+ * @since 4.1.26
+ */
+class GeneratedWidgetConfigsAdapter extends BeanTypeAdapter<GeneratedWidgetConfigs> {
+
+    private final TypeAdapter<JsonElement> jsonElementAdapter;
+
+    GeneratedWidgetConfigsAdapter(Gson gson) {
+        this.jsonElementAdapter = gson.getAdapter(JsonElement.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, GeneratedWidgetConfigs configs) throws IOException {
+        if (configs == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(configs.getName());
+        out.name("id").value(configs.getId());
+        out.name("chartConfig");
+        jsonElementAdapter.write(out, configs.getChartConfig());
+        out.name("providerConfig");
+        jsonElementAdapter.write(out, configs.getProviderConfig());
+        out.name("metadata");
+        jsonElementAdapter.write(out, configs.getMetadata());
+        out.name("version").value(configs.getVersion());
+        out.name("pubsub");
+        jsonElementAdapter.write(out, configs.getPubsub());
+        out.endObject();
+    }
+
+    @Override
+    public GeneratedWidgetConfigs read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        GeneratedWidgetConfigs configs = new GeneratedWidgetConfigs();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    configs.setName(readString(in));
+                    break;
+                case "id":
+                    configs.setId(readString(in));
+                    break;
+                case "chartConfig":
+                    configs.setChartConfig(jsonElementAdapter.read(in));
+                    break;
+                case "providerConfig":
+                    configs.setProviderConfig(jsonElementAdapter.read(in));
+                    break;
+                case "metadata":
+                    configs.setMetadata(jsonElementAdapter.read(in));
+                    break;
+                case "version":
+                    configs.setVersion(readString(in));
+                    break;
+                case "pubsub":
+                    configs.setPubsub(jsonElementAdapter.read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return configs;
+    }
+}
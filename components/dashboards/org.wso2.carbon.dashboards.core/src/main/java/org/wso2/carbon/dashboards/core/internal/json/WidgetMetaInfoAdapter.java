@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.wso2.carbon.dashboards.core.bean.widget.WidgetConfigs;
+import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
+
+import java.io.IOException;
+
+/**
+ * Type adapter for {@link WidgetMetaInfo}.
+ *
+ * @since 4.1.26
+ */
+class WidgetMetaInfoAdapter extends BeanTypeAdapter<WidgetMetaInfo> {
+
+    private final TypeAdapter<WidgetConfigs> configsAdapter;
+
+    WidgetMetaInfoAdapter(Gson gson) {
+        this.configsAdapter = gson.getAdapter(WidgetConfigs.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, WidgetMetaInfo widgetMetaInfo) throws IOException {
+        if (widgetMetaInfo == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(widgetMetaInfo.getName());
+        out.name("id").value(widgetMetaInfo.getId());
+        out.name("thumbnailURL").value(widgetMetaInfo.getThumbnailURL());
+        out.name("configs");
+        configsAdapter.write(out, widgetMetaInfo.getConfigs());
+        out.name("version").value(widgetMetaInfo.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public WidgetMetaInfo read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        WidgetMetaInfo widgetMetaInfo = new WidgetMetaInfo();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    widgetMetaInfo.setName(readString(in));
+                    break;
+                case "id":
+                    widgetMetaInfo.setId(readString(in));
+                    break;
+                case "thumbnailURL":
+                    widgetMetaInfo.setThumbnailURL(readString(in));
+                    break;
+                case "configs":
+                    widgetMetaInfo.setConfigs(configsAdapter.read(in));
+                    break;
+                case "version":
+                    widgetMetaInfo.setVersion(readString(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return widgetMetaInfo;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a DAO call of the dashboard database.
+ *
+ * @since 4.1.26
+ */
+@Name("org.wso2.carbon.dashboards.DaoQuery")
+@Label("Dashboard DAO Query")
+@Category({"WSO2", "Dashboards"})
+@StackTrace(false)
+public class DaoQueryEvent extends Event {
+
+    @Label("Query Key")
+    private String queryKey;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Blob Bytes Read")
+    @DataAmount
+    private long blobBytesRead;
+
+    @Label("Blob Bytes Written")
+    @DataAmount
+    private long blobBytesWritten;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return started event
+     */
+    public static DaoQueryEvent start() {
+        DaoQueryEvent event = new DaoQueryEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event if it is being recorded.
+     *
+     * @param queryKey         key of the query
+     * @param rows             number of rows read or updated
+     * @param blobBytesRead    number of blob bytes read
+     * @param blobBytesWritten number of blob bytes written
+     */
+    public void complete(String queryKey, long rows, long blobBytesRead, long blobBytesWritten) {
+        end();
+        if (shouldCommit()) {
+            this.queryKey = queryKey;
+            this.rows = rows;
+            this.blobBytesRead = blobBytesRead;
+            this.blobBytesWritten = blobBytesWritten;
+            commit();
+        }
+    }
+}
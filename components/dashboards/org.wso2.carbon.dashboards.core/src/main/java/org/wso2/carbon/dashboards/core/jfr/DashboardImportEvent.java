@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a phase of importing dashboard artifacts at server startup.
+ *
+ * @since 4.1.26
+ */
+@Name("org.wso2.carbon.dashboards.DashboardImport")
+@Label("Dashboard Import")
+@Category({"WSO2", "Dashboards"})
+@StackTrace(false)
+public class DashboardImportEvent extends Event {
+
+    @Label("Artifact")
+    private String artifact;
+
+    @Label("Phase")
+    private String phase;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return started event
+     */
+    public static DashboardImportEvent start() {
+        DashboardImportEvent event = new DashboardImportEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event if it is being recorded.
+     *
+     * @param artifact path of the imported artifact, or the artifacts directory when reading artifacts
+     * @param phase    import phase
+     */
+    public void complete(String artifact, String phase) {
+        end();
+        if (shouldCommit()) {
+            this.artifact = artifact;
+            this.phase = phase;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a call to an external dependency, such as a permission check made through the permission
+ * provider.
+ *
+ * @since 4.1.26
+ */
+@Name("org.wso2.carbon.dashboards.DependencyCall")
+@Label("Dashboard Dependency Call")
+@Category({"WSO2", "Dashboards"})
+@StackTrace(false)
+public class DependencyCallEvent extends Event {
+
+    @Label("Dependency")
+    private String dependency;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Permission")
+    private String permission;
+
+    @Label("Failed")
+    private boolean failed;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return started event
+     */
+    public static DependencyCallEvent start() {
+        DependencyCallEvent event = new DependencyCallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event if it is being recorded.
+     *
+     * @param dependency name of the dependency
+     * @param method     name of the called method
+     * @param permission permission string (which ends with the permission level) of a permission check, if any
+     * @param failed     whether the call threw an exception
+     */
+    public void complete(String dependency, String method, String permission, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.dependency = dependency;
+            this.method = method;
+            this.permission = permission;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
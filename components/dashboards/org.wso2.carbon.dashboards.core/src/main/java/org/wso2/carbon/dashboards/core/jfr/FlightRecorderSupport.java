@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.jfr;
+
+/**
+ * Tells whether Java Flight Recorder events can be emitted. Event classes of this package extend
+ * {@code jdk.jfr.Event}, which is not available in older Java 8 runtimes, hence they must only be used after checking
+ * {@link #isAvailable()}. When flight recording is available but not recording, committing an event does nothing.
+ *
+ * @since 4.1.26
+ */
+public final class FlightRecorderSupport {
+
+    private static final boolean AVAILABLE = isEventClassPresent();
+
+    private FlightRecorderSupport() {
+    }
+
+    /**
+     * Checks whether Java Flight Recorder events are available in this runtime.
+     *
+     * @return {@code true} if events can be emitted
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private static boolean isEventClassPresent() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderSupport.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
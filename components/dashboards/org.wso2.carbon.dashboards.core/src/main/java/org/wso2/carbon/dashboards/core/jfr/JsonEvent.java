@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for parsing or serializing dashboard JSON.
+ *
+ * @since 4.1.26
+ */
+@Name("org.wso2.carbon.dashboards.Json")
+@Label("Dashboard JSON Processing")
+@Category({"WSO2", "Dashboards"})
+@StackTrace(false)
+public class JsonEvent extends Event {
+
+    /**
+     * Operation of parsing JSON into an object.
+     */
+    public static final String PARSE = "parse";
+    /**
+     * Operation of serializing an object into JSON.
+     */
+    public static final String SERIALIZE = "serialize";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Type")
+    private String type;
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return started event
+     */
+    public static JsonEvent start() {
+        JsonEvent event = new JsonEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event if it is being recorded.
+     *
+     * @param operation {@link #PARSE} or {@link #SERIALIZE}
+     * @param type      type of the parsed or serialized object
+     * @param size      size of the JSON in bytes
+     */
+    public void complete(String operation, Class<?> type, long size) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.type = type.getName();
+            this.size = size;
+            commit();
+        }
+    }
+}
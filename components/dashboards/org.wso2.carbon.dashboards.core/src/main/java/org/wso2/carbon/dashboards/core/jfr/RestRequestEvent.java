@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for handling a request of a dashboard REST API.
+ *
+ * @since 4.1.26
+ */
+@Name("org.wso2.carbon.dashboards.RestRequest")
+@Label("Dashboard REST Request")
+@Category({"WSO2", "Dashboards"})
+@StackTrace(false)
+public class RestRequestEvent extends Event {
+
+    @Label("Route")
+    private String route;
+
+    @Label("User")
+    private String user;
+
+    @Label("Dashboard URL")
+    private String dashboardUrl;
+
+    @Label("Status")
+    private int status;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return started event
+     */
+    public static RestRequestEvent start() {
+        RestRequestEvent event = new RestRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event if it is being recorded.
+     *
+     * @param route        HTTP method and path of the route
+     * @param user         name of the user who sent the request, if known
+     * @param dashboardUrl URL of the requested dashboard, if any
+     * @param status       status code of the response
+     */
+    public void complete(String route, String user, String dashboardUrl, int status) {
+        end();
+        if (shouldCommit()) {
+            this.route = route;
+            this.user = user;
+            this.dashboardUrl = dashboardUrl;
+            this.status = status;
+            commit();
+        }
+    }
+}
@@ -18,13 +18,24 @@
 package org.wso2.carbon.dashboards.core.utils;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
 import org.wso2.carbon.dashboards.core.bean.DashboardMetadataContent;
-import org.wso2.carbon.dashboards.core.bean.importer.Page;
+import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
 import org.wso2.carbon.dashboards.core.bean.importer.PageContent;
 import org.wso2.carbon.dashboards.core.bean.importer.WidgetType;
+import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
+import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
+import org.wso2.carbon.dashboards.core.internal.json.BeanTypeAdapterFactory;
 
-import java.util.HashMap;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +46,32 @@ import java.util.Set;
 public class DashboardUtil {
 
     private static final String UNIVERSAL_WIDGET = "UniversalWidget";
+    private static final String KEY_CONTENT = "content";
+    private static final String KEY_COMPONENT = "component";
+    private static final String KEY_PROPS = "props";
+    private static final String KEY_WIDGET_ID = "widgetID";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final Gson GSON = new GsonBuilder().registerTypeAdapterFactory(new BeanTypeAdapterFactory())
+            .create();
+
+    static {
+        // Resolve the adapters up front, so that the first requests do not pay for it.
+        GSON.getAdapter(DashboardMetadata.class);
+        GSON.getAdapter(DashboardArtifact.class);
+        GSON.getAdapter(GeneratedWidgetConfigs.class);
+        GSON.getAdapter(WidgetMetaInfo.class);
+    }
+
+    /**
+     * Returns the shared Gson instance, which (de)serializes dashboard beans without reflection. Gson instances are
+     * thread-safe and cache the adapters they resolve, hence this should be preferred over creating new ones.
+     *
+     * @return shared Gson instance
+     * @since 4.1.26
+     */
+    public static Gson getGson() {
+        return GSON;
+    }
 
     /**
      * Find widgets by analyzing a dashboard pages.
@@ -43,35 +80,127 @@ public class DashboardUtil {
      * @return Set of widget IDs
      */
     public static Map<WidgetType, Set<String>> findWidgets(DashboardMetadataContent dashboardMetadataContent) {
-        Map<WidgetType, Set<String>> widgets = new HashMap<>();
-        widgets.put(WidgetType.GENERATED, new HashSet<>());
-        widgets.put(WidgetType.CUSTOM, new HashSet<>());
-        Gson gson = new Gson();
-        for (JsonElement element : dashboardMetadataContent.getPages()) {
-            Page page = gson.fromJson(element, Page.class);
-            findWidgets(page.getContent(), widgets);
+        return findWidgets(dashboardMetadataContent.getPages());
+    }
+
+    /**
+     * Find widgets by walking the given dashboard pages. Only the {@code component} and {@code props.widgetID}
+     * fields of the page contents are visited, so no intermediate beans are created. Nested layouts are walked
+     * iteratively, hence the depth of the layout tree is not bounded by the call stack.
+     *
+     * @param pages Dashboard pages
+     * @return Set of widget IDs
+     */
+    public static Map<WidgetType, Set<String>> findWidgets(JsonArray pages) {
+        Map<WidgetType, Set<String>> widgets = createWidgetMap();
+        if (pages == null) {
+            return widgets;
+        }
+        Deque<JsonArray> pending = new ArrayDeque<>();
+        for (JsonElement page : pages) {
+            JsonArray content = getArray(page, KEY_CONTENT);
+            if (content != null) {
+                pending.push(content);
+            }
+        }
+        while (!pending.isEmpty()) {
+            for (JsonElement element : pending.pop()) {
+                if (!element.isJsonObject()) {
+                    continue;
+                }
+                JsonObject content = element.getAsJsonObject();
+                JsonObject props = content.has(KEY_PROPS) && content.get(KEY_PROPS).isJsonObject() ?
+                        content.getAsJsonObject(KEY_PROPS) : null;
+                addWidget(widgets, getString(content, KEY_COMPONENT), getString(props, KEY_WIDGET_ID));
+                JsonArray children = getArray(content, KEY_CONTENT);
+                if (children != null) {
+                    pending.push(children);
+                }
+            }
         }
         return widgets;
     }
 
     /**
-     * Recursively find widgets by analyzing dashboard page contents.
+     * Find widgets by analyzing dashboard page contents.
      *
      * @param contents Dashboard page content
      * @param widgets  Set of widget IDs
      */
     public static void findWidgets(Set<PageContent> contents, Map<WidgetType, Set<String>> widgets) {
-        for (PageContent content : contents) {
-            if (content.getComponent() != null) {
-                if (UNIVERSAL_WIDGET.equals(content.getComponent())) {
-                    widgets.get(WidgetType.GENERATED).add((String) content.getProps().get("widgetID"));
-                } else {
-                    widgets.get(WidgetType.CUSTOM).add(content.getComponent());
+        Deque<Set<PageContent>> pending = new ArrayDeque<>();
+        pending.push(contents);
+        while (!pending.isEmpty()) {
+            for (PageContent content : pending.pop()) {
+                if (content.getComponent() != null) {
+                    if (UNIVERSAL_WIDGET.equals(content.getComponent())) {
+                        widgets.get(WidgetType.GENERATED).add((String) content.getProps().get(KEY_WIDGET_ID));
+                    } else {
+                        widgets.get(WidgetType.CUSTOM).add(content.getComponent());
+                    }
+                }
+                if (content.getContent() != null) {
+                    pending.push(content.getContent());
                 }
             }
-            if (content.getContent() != null) {
-                findWidgets(content.getContent(), widgets);
+        }
+    }
+
+    /**
+     * Returns a hash of the given content that is suitable to be used as an entity tag or a cache busting parameter.
+     *
+     * @param content content to hash
+     * @return hex encoded hash of the content
+     * @since 4.1.26
+     */
+    public static String getContentHash(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            char[] hex = new char[32];
+            for (int i = 0; i < 16; i++) {
+                hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException("SHA-256 message digest is not available.", e);
+        }
+    }
+
+    private static Map<WidgetType, Set<String>> createWidgetMap() {
+        Map<WidgetType, Set<String>> widgets = new EnumMap<>(WidgetType.class);
+        widgets.put(WidgetType.GENERATED, new HashSet<>());
+        widgets.put(WidgetType.CUSTOM, new HashSet<>());
+        return widgets;
+    }
+
+    private static void addWidget(Map<WidgetType, Set<String>> widgets, String component, String widgetId) {
+        if (component == null) {
+            return;
+        }
+        if (UNIVERSAL_WIDGET.equals(component)) {
+            if (widgetId != null) {
+                widgets.get(WidgetType.GENERATED).add(widgetId);
             }
+        } else {
+            widgets.get(WidgetType.CUSTOM).add(component);
+        }
+    }
+
+    private static JsonArray getArray(JsonElement element, String key) {
+        if (element == null || !element.isJsonObject()) {
+            return null;
+        }
+        JsonElement value = element.getAsJsonObject().get(key);
+        return (value != null && value.isJsonArray()) ? value.getAsJsonArray() : null;
+    }
+
+    private static String getString(JsonObject object, String key) {
+        if (object == null) {
+            return null;
         }
+        JsonElement value = object.get(key);
+        return (value != null && value.isJsonPrimitive()) ? value.getAsString() : null;
     }
 }
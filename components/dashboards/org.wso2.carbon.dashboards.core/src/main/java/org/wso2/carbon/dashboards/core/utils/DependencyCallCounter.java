@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.utils;
+
+/**
+ * Counts the calls made to external dependencies (e.g. the permission provider or the identity provider client) by
+ * the current thread. REST APIs reset the counter when a request starts, so that the number of dependency calls made
+ * to serve a request can be recorded when it ends.
+ *
+ * @since 4.1.26
+ */
+public final class DependencyCallCounter {
+
+    private static final ThreadLocal<int[]> CALLS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private DependencyCallCounter() {
+    }
+
+    /**
+     * Resets the number of dependency calls made by the current thread.
+     */
+    public static void reset() {
+        CALLS.get()[0] = 0;
+    }
+
+    /**
+     * Returns the number of dependency calls made by the current thread since it last reset the counter.
+     *
+     * @return number of calls
+     */
+    public static int get() {
+        return CALLS.get()[0];
+    }
+
+    /**
+     * Counts a dependency call made by the current thread.
+     */
+    public static void increment() {
+        CALLS.get()[0]++;
+    }
+}
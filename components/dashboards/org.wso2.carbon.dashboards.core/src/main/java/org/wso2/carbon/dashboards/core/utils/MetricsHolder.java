@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.utils;
+
+import org.wso2.carbon.metrics.core.MetricService;
+
+import java.util.function.Function;
+
+/**
+ * Holds a group of metrics registered with the Carbon metric service. The metric service is a dynamic OSGi reference
+ * that can be replaced while the server runs, and metrics registered with a replaced service are no longer reported.
+ * Hence the metrics are created again whenever they are requested with a service other than the one they were created
+ * with.
+ *
+ * @param <M> type of the group of metrics
+ * @since 4.1.26
+ */
+public final class MetricsHolder<M> {
+
+    private final Function<MetricService, M> metricsFactory;
+    private volatile Binding<M> binding;
+
+    /**
+     * Creates a holder that creates its metrics lazily.
+     *
+     * @param metricsFactory creates the metrics with the given metric service
+     */
+    public MetricsHolder(Function<MetricService, M> metricsFactory) {
+        this.metricsFactory = metricsFactory;
+    }
+
+    /**
+     * Returns the metrics created with the given metric service, creating them if not created yet.
+     *
+     * @param metricService current metric service
+     * @return metrics
+     */
+    public M get(MetricService metricService) {
+        Binding<M> current = binding;
+        if ((current == null) || (current.metricService != metricService)) {
+            // Concurrent callers may both create the metrics, which is harmless as the service returns existing ones.
+            current = new Binding<>(metricService, metricsFactory.apply(metricService));
+            binding = current;
+        }
+        return current.metrics;
+    }
+
+    /**
+     * Metrics along with the metric service they were created with.
+     */
+    private static final class Binding<M> {
+
+        private final MetricService metricService;
+        private final M metrics;
+
+        private Binding(MetricService metricService, M metrics) {
+            this.metricService = metricService;
+            this.metrics = metrics;
+        }
+    }
+}
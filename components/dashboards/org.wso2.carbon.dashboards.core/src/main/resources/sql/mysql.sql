@@ -19,4 +19,28 @@ CREATE TABLE IF NOT EXISTS WIDGET_RESOURCE (
   WIDGET_CONFIGS              LONGBLOB,
   CONSTRAINT PK_WIDGET_RESOURCE PRIMARY KEY (WIDGET_ID, WIDGET_NAME),
   UNIQUE (WIDGET_ID, WIDGET_NAME)
+);
+
+DROP TABLE IF EXISTS WIDGET_THUMBNAIL;
+CREATE TABLE IF NOT EXISTS WIDGET_THUMBNAIL (
+  WIDGET_ID                   VARCHAR(255) NOT NULL,
+  MEDIA_TYPE                  VARCHAR(100) NOT NULL,
+  THUMBNAIL                   LONGBLOB,
+  CONSTRAINT PK_WIDGET_THUMBNAIL PRIMARY KEY (WIDGET_ID)
+);
+
+DROP TABLE IF EXISTS DASHBOARD_THUMBNAIL;
+CREATE TABLE IF NOT EXISTS DASHBOARD_THUMBNAIL (
+  URL                         VARCHAR(100) NOT NULL,
+  MEDIA_TYPE                  VARCHAR(100) NOT NULL,
+  THUMBNAIL_VERSION           VARCHAR(64) NOT NULL,
+  THUMBNAIL                   LONGBLOB,
+  CONSTRAINT PK_DASHBOARD_THUMBNAIL PRIMARY KEY (URL)
+);
+
+DROP TABLE IF EXISTS DASHBOARD_VERSION;
+CREATE TABLE IF NOT EXISTS DASHBOARD_VERSION (
+  URL                         VARCHAR(100) NOT NULL,
+  CONTENT_VERSION             BIGINT       NOT NULL,
+  CONSTRAINT PK_DASHBOARD_VERSION PRIMARY KEY (URL)
 );
\ No newline at end of file
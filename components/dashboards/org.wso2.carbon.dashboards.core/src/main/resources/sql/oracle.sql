@@ -65,3 +65,62 @@ DROP TABLE "WIDGET_RESOURCE";
   ALTER TABLE "WIDGET_RESOURCE" ADD CONSTRAINT "WIDGET_RESOURCE_PK" PRIMARY KEY ("WIDGET_ID", "WIDGET_NAME") ENABLE
   ALTER TABLE "WIDGET_RESOURCE" MODIFY ("WIDGET_NAME" NOT NULL ENABLE)
   ALTER TABLE "WIDGET_RESOURCE" MODIFY ("WIDGET_ID" NOT NULL ENABLE)
+
+
+DROP TABLE "WIDGET_THUMBNAIL";
+--------------------------------------------------------
+--  DDL for Table WIDGET_THUMBNAIL
+--------------------------------------------------------
+
+  CREATE TABLE "WIDGET_THUMBNAIL"
+   (
+    "WIDGET_ID" VARCHAR2(255),
+	"MEDIA_TYPE" VARCHAR2(100),
+	"THUMBNAIL" BLOB
+   )
+--------------------------------------------------------
+--  Constraints for Table WIDGET_THUMBNAIL
+--------------------------------------------------------
+
+  ALTER TABLE "WIDGET_THUMBNAIL" ADD CONSTRAINT "WIDGET_THUMBNAIL_PK" PRIMARY KEY ("WIDGET_ID") ENABLE
+  ALTER TABLE "WIDGET_THUMBNAIL" MODIFY ("MEDIA_TYPE" NOT NULL ENABLE)
+  ALTER TABLE "WIDGET_THUMBNAIL" MODIFY ("WIDGET_ID" NOT NULL ENABLE)
+
+DROP TABLE "DASHBOARD_THUMBNAIL";
+--------------------------------------------------------
+--  DDL for Table DASHBOARD_THUMBNAIL
+--------------------------------------------------------
+
+  CREATE TABLE "DASHBOARD_THUMBNAIL"
+   (
+    "URL" VARCHAR2(100),
+	"MEDIA_TYPE" VARCHAR2(100),
+	"THUMBNAIL_VERSION" VARCHAR2(64),
+	"THUMBNAIL" BLOB
+   )
+--------------------------------------------------------
+--  Constraints for Table DASHBOARD_THUMBNAIL
+--------------------------------------------------------
+
+  ALTER TABLE "DASHBOARD_THUMBNAIL" ADD CONSTRAINT "DASHBOARD_THUMBNAIL_PK" PRIMARY KEY ("URL") ENABLE
+  ALTER TABLE "DASHBOARD_THUMBNAIL" MODIFY ("THUMBNAIL_VERSION" NOT NULL ENABLE)
+  ALTER TABLE "DASHBOARD_THUMBNAIL" MODIFY ("MEDIA_TYPE" NOT NULL ENABLE)
+  ALTER TABLE "DASHBOARD_THUMBNAIL" MODIFY ("URL" NOT NULL ENABLE)
+
+DROP TABLE "DASHBOARD_VERSION";
+--------------------------------------------------------
+--  DDL for Table DASHBOARD_VERSION
+--------------------------------------------------------
+
+  CREATE TABLE "DASHBOARD_VERSION"
+   (
+    "URL" VARCHAR2(100),
+	"CONTENT_VERSION" NUMBER(19)
+   )
+--------------------------------------------------------
+--  Constraints for Table DASHBOARD_VERSION
+--------------------------------------------------------
+
+  ALTER TABLE "DASHBOARD_VERSION" ADD CONSTRAINT "DASHBOARD_VERSION_PK" PRIMARY KEY ("URL") ENABLE
+  ALTER TABLE "DASHBOARD_VERSION" MODIFY ("CONTENT_VERSION" NOT NULL ENABLE)
+  ALTER TABLE "DASHBOARD_VERSION" MODIFY ("URL" NOT NULL ENABLE)
\ No newline at end of file
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.dashboards.core.bean.CacheStatistics;
+import org.wso2.carbon.dashboards.core.exception.DashboardException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for {@link BoundedCache} class.
+ *
+ * @since 4.1.26
+ */
+public class BoundedCacheTest {
+
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 2, 0, TimeUnit.SECONDS);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.getIfPresent("a");
+        cache.put("c", "3");
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertTrue(cache.getIfPresent("a").isPresent());
+        Assertions.assertFalse(cache.getIfPresent("b").isPresent());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void testStatistics() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 2, 0, TimeUnit.SECONDS);
+        cache.put("a", "1");
+        cache.getIfPresent("a");
+        cache.getIfPresent("a");
+        cache.getIfPresent("b");
+        CacheStatistics statistics = cache.getStatistics();
+
+        Assertions.assertEquals("test", statistics.getName());
+        Assertions.assertEquals(1, statistics.getSize());
+        Assertions.assertEquals(2, statistics.getMaxEntries());
+        Assertions.assertEquals(2, statistics.getHitCount());
+        Assertions.assertEquals(1, statistics.getMissCount());
+        Assertions.assertEquals(2.0 / 3, statistics.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void testLoaderFailureIsNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 0, TimeUnit.SECONDS);
+        Assertions.assertThrows(DashboardException.class, () -> cache.get("a", key -> {
+            throw new DashboardException("failed");
+        }));
+        Assertions.assertEquals("1", cache.get("a", key -> "1"));
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 0, TimeUnit.SECONDS);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("a", key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return "1";
+            })));
+            loading.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get("a", key -> {
+                    loads.incrementAndGet();
+                    return "2";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> result : results) {
+                Assertions.assertEquals("1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidationDuringLoadDiscardsLoadedValue() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 0, TimeUnit.SECONDS);
+        Assertions.assertEquals("stale", cache.get("a", key -> {
+            cache.invalidate(key);
+            return "stale";
+        }));
+        Assertions.assertFalse(cache.getIfPresent("a").isPresent());
+    }
+
+    @Test
+    void testInvalidationDuringLoadKeepsLoadsOfOtherKeys() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 0, TimeUnit.SECONDS);
+        Assertions.assertEquals("1", cache.get("a", key -> {
+            cache.invalidate("b");
+            return "1";
+        }));
+        Assertions.assertEquals("1", cache.getIfPresent("a").orElse(null));
+    }
+
+    @Test
+    void testInvalidValueIsReloadedWithSingleLookup() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>("test", 10, 0, TimeUnit.SECONDS);
+        cache.put("a", 1);
+        Assertions.assertEquals(Integer.valueOf(1), cache.get("a", value -> value == 1, key -> 2));
+        Assertions.assertEquals(Integer.valueOf(2), cache.get("a", value -> value == 2, key -> 2));
+        Assertions.assertEquals(Integer.valueOf(2), cache.getIfPresent("a").orElse(null));
+        Assertions.assertEquals(2, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount(), "Invalid value should count as a single miss");
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
+import org.wso2.carbon.uiserver.api.Extension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Test cases for {@link CustomWidgetIndex} class.
+ *
+ * @since 4.1.26
+ */
+public class CustomWidgetIndexTest {
+
+    private Path widgetsPath;
+
+    @BeforeEach
+    void createWidgetsDirectory() throws IOException {
+        widgetsPath = Files.createTempDirectory("widgets");
+    }
+
+    @AfterEach
+    void deleteWidgetsDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(widgetsPath)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void testBuild() throws IOException {
+        Extension lineChart = createWidget("LineChart", "{\"id\": \"LineChart\", \"name\": \"Line Chart\"}");
+        Extension broken = createWidget("Broken", "{");
+        CustomWidgetIndex index = CustomWidgetIndex.build(Arrays.asList(lineChart, broken), null);
+
+        Assertions.assertTrue(index.contains("LineChart"));
+        Assertions.assertTrue(index.contains("Broken"), "Widget with an invalid configuration still exists");
+        Assertions.assertFalse(index.contains("Table"));
+        Assertions.assertEquals("Line Chart",
+                                index.get("LineChart").flatMap(CustomWidgetIndex.Entry::getConfiguration)
+                                        .map(WidgetMetaInfo::getName).orElse(null));
+        Assertions.assertFalse(index.get("Broken").flatMap(CustomWidgetIndex.Entry::getConfiguration).isPresent());
+        Assertions.assertEquals(1, index.getConfigurations().size());
+    }
+
+    @Test
+    void testRebuildReusesUnchangedWidgets() throws IOException {
+        Extension lineChart = createWidget("LineChart", "{\"id\": \"LineChart\", \"name\": \"Line Chart\"}");
+        Extension table = createWidget("Table", "{\"id\": \"Table\", \"name\": \"Table\"}");
+        CustomWidgetIndex index = CustomWidgetIndex.build(Arrays.asList(lineChart, table), null);
+        WidgetMetaInfo lineChartConfiguration = index.get("LineChart").get().getConfiguration().get();
+
+        Path tableConfPath = widgetsPath.resolve("Table").resolve("widgetConf.json");
+        Files.write(tableConfPath, "{\"id\": \"Table\", \"name\": \"Data Table\"}".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(tableConfPath, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        CustomWidgetIndex rebuiltIndex = CustomWidgetIndex.build(Arrays.asList(lineChart, table), index);
+
+        Assertions.assertSame(lineChartConfiguration, rebuiltIndex.get("LineChart").get().getConfiguration().get());
+        Assertions.assertEquals("Data Table", rebuiltIndex.get("Table").get().getConfiguration().get().getName());
+        Assertions.assertEquals("Table", index.get("Table").get().getConfiguration().get().getName(),
+                                "Previously built index should not change");
+    }
+
+    @Test
+    void testRebuildWithoutChangesReturnsSameIndex() throws IOException {
+        Extension lineChart = createWidget("LineChart", "{\"id\": \"LineChart\", \"name\": \"Line Chart\"}");
+        Extension broken = createWidget("Broken", "{");
+        CustomWidgetIndex index = CustomWidgetIndex.build(Arrays.asList(lineChart, broken), null);
+
+        Assertions.assertSame(index, CustomWidgetIndex.build(Arrays.asList(lineChart, broken), index));
+    }
+
+    @Test
+    void testRebuildDropsRemovedWidgets() throws IOException {
+        Extension lineChart = createWidget("LineChart", "{\"id\": \"LineChart\", \"name\": \"Line Chart\"}");
+        CustomWidgetIndex index = CustomWidgetIndex.build(Collections.singleton(lineChart), null);
+        CustomWidgetIndex rebuiltIndex = CustomWidgetIndex.build(Collections.emptySet(), index);
+
+        Assertions.assertTrue(index.contains("LineChart"));
+        Assertions.assertFalse(rebuiltIndex.contains("LineChart"));
+    }
+
+    private Extension createWidget(String name, String widgetConf) throws IOException {
+        Path widgetPath = Files.createDirectory(widgetsPath.resolve(name));
+        Files.write(widgetPath.resolve("widgetConf.json"), widgetConf.getBytes(StandardCharsets.UTF_8));
+        return new Extension(name, "widgets", widgetPath.toString());
+    }
+}
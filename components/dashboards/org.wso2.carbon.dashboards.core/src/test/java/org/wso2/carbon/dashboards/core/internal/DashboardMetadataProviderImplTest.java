@@ -27,19 +27,28 @@ import org.wso2.carbon.analytics.permissions.PermissionProvider;
 import org.wso2.carbon.analytics.permissions.bean.Permission;
 import org.wso2.carbon.dashboards.core.DashboardThemeConfigProvider;
 import org.wso2.carbon.dashboards.core.WidgetMetadataProvider;
+import org.wso2.carbon.dashboards.core.bean.ContentStatistics;
 import org.wso2.carbon.dashboards.core.bean.DashboardConfigurations;
 import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.Diagnostics;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
+import org.wso2.carbon.dashboards.core.exception.DashboardException;
 import org.wso2.carbon.dashboards.core.exception.UnauthorizedException;
 import org.wso2.carbon.dashboards.core.internal.database.DashboardMetadataDao;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -86,6 +95,61 @@ public class DashboardMetadataProviderImplTest {
         verify(dao).getAll();
     }
 
+    @Test
+    void testGetAllWithThumbnailUrls() throws Exception {
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        DashboardMetadata withThumbnail = new DashboardMetadata();
+        withThumbnail.setUrl("foo");
+        DashboardMetadata withoutThumbnail = new DashboardMetadata();
+        withoutThumbnail.setUrl("bar");
+        when(dao.getAll()).thenReturn(Arrays.asList(withThumbnail, withoutThumbnail));
+        when(dao.get(anyString())).thenReturn(Optional.of(new DashboardMetadata()));
+        when(dao.getThumbnailVersions()).thenReturn(Collections.singletonMap("foo", "abc"));
+
+        PermissionProvider permissionProvider = mock(PermissionProvider.class);
+        when(permissionProvider.hasPermission(eq("testUser"), Mockito.isA(Permission.class))).thenReturn(true);
+
+        DashboardMetadataProviderImpl dashboardMetadataProvider = createDashboardProvider(dao, permissionProvider);
+        List<DashboardMetadata> dashboards = dashboardMetadataProvider.getAllByUser("testUser");
+        Assertions.assertEquals("foo/thumbnail?v=abc", dashboards.get(0).getThumbnailUrl());
+        Assertions.assertNull(dashboards.get(1).getThumbnailUrl());
+        verify(dao, never()).getThumbnail(anyString());
+    }
+
+    @Test
+    void testThumbnailIsCachedUntilUpdated() throws Exception {
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        Thumbnail thumbnail = Thumbnail.fromContent("image/png", new byte[]{1, 2, 3});
+        when(dao.getThumbnail(eq("foo"))).thenReturn(Optional.of(thumbnail));
+
+        PermissionProvider permissionProvider = mock(PermissionProvider.class);
+        when(permissionProvider.hasPermission(eq("testUser"), Mockito.isA(Permission.class))).thenReturn(true);
+
+        DashboardMetadataProviderImpl dashboardMetadataProvider = createDashboardProvider(dao, permissionProvider);
+        Assertions.assertSame(thumbnail, dashboardMetadataProvider.getThumbnail("testUser", "foo").get());
+        Assertions.assertSame(thumbnail, dashboardMetadataProvider.getThumbnail("testUser", "foo").get());
+        verify(dao, times(1)).getThumbnail(eq("foo"));
+
+        dashboardMetadataProvider.setThumbnail("testUser", "foo", "image/png", new byte[]{4, 5, 6});
+        verify(dao).saveThumbnail(eq("foo"), any(Thumbnail.class));
+        dashboardMetadataProvider.getThumbnail("testUser", "foo");
+        verify(dao, times(2)).getThumbnail(eq("foo"));
+    }
+
+    @Test
+    void testUnauthorizedThumbnailAccess() throws Exception {
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        PermissionProvider permissionProvider = mock(PermissionProvider.class);
+        DashboardMetadataProviderImpl dashboardMetadataProvider = createDashboardProvider(dao, permissionProvider);
+
+        Assertions.assertThrows(UnauthorizedException.class, () -> dashboardMetadataProvider.
+                getThumbnail("testUser", "foo"));
+        Assertions.assertThrows(UnauthorizedException.class, () -> dashboardMetadataProvider.
+                setThumbnail("testUser", "foo", "image/png", new byte[]{1}));
+        verify(dao, never()).getThumbnail(anyString());
+        verify(dao, never()).saveThumbnail(anyString(), any(Thumbnail.class));
+    }
+
     @Test
     void testAdd() throws Exception {
         final DashboardMetadata dashboardMetadata = new DashboardMetadata();
@@ -175,6 +239,113 @@ public class DashboardMetadataProviderImplTest {
                 delete("testUser1", dashboardUrl));
     }
 
+    @Test
+    void testContentVersionIsDeletedOnDelete() throws Exception {
+        final String dashboardUrl = "foo";
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        PermissionProvider permissionProvider = mock(PermissionProvider.class);
+        DashboardMetadataProviderImpl dashboardMetadataProvider = createDashboardProvider(dao, permissionProvider);
+
+        when(dao.getContentVersion(dashboardUrl)).thenReturn(7L);
+        Assertions.assertEquals(7L, dashboardMetadataProvider.getContentVersion(dashboardUrl));
+        when(permissionProvider.hasPermission(eq("testUser"), Mockito.isA(Permission.class))).thenReturn(true);
+        dashboardMetadataProvider.delete("testUser", dashboardUrl);
+        verify(dao).deleteContentVersion(dashboardUrl);
+        verify(dao, never()).saveContentVersion(anyString(), anyLong());
+    }
+
+    @Test
+    void testUnreadableContentVersionIsNotTracked() throws Exception {
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        when(dao.getContentVersion("foo")).thenThrow(new DashboardException("failed"));
+        DashboardMetadataProviderImpl dashboardMetadataProvider = createDashboardProvider(
+                dao, mock(PermissionProvider.class));
+
+        Assertions.assertTrue(dashboardMetadataProvider.getContentVersion("foo") < 0);
+    }
+
+    @Test
+    void testNotReadyWhenTablesCannotBeCreated() throws Exception {
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        doThrow(new DashboardException("failed")).when(dao).initDashboardTable();
+        WidgetMetadataProviderImpl widgetMetadataProvider = mock(WidgetMetadataProviderImpl.class);
+        DashboardMetadataProviderImpl dashboardMetadataProvider = createDashboardProvider(
+                dao, mock(PermissionProvider.class));
+
+        Assertions.assertFalse(dashboardMetadataProvider.completeStartup(widgetMetadataProvider));
+        Assertions.assertFalse(dashboardMetadataProvider.isReady());
+        verify(widgetMetadataProvider, never()).initTables();
+    }
+
+    @Test
+    void testStartupIsRetriedUntilTablesAreCreated() throws Exception {
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        doThrow(new DashboardException("failed")).doNothing().when(dao).initDashboardTable();
+        WidgetMetadataProviderImpl widgetMetadataProvider = mock(WidgetMetadataProviderImpl.class);
+        DashboardMetadataProviderImpl dashboardMetadataProvider = createDashboardProvider(
+                dao, mock(PermissionProvider.class));
+        DashboardMetadataProviderImpl.Startup startup = dashboardMetadataProvider.new Startup(widgetMetadataProvider);
+        try {
+            startup.run();
+            Assertions.assertFalse(dashboardMetadataProvider.isReady());
+            Assertions.assertTrue(startup.isRetryScheduled());
+
+            startup.run();
+            Assertions.assertTrue(dashboardMetadataProvider.isReady());
+            Assertions.assertEquals(2, startup.getAttempts());
+        } finally {
+            dashboardMetadataProvider.destroy();
+        }
+    }
+
+    @Test
+    void testCancelledStartupIsNotRetried() throws Exception {
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        doThrow(new DashboardException("failed")).when(dao).initDashboardTable();
+        DashboardMetadataProviderImpl dashboardMetadataProvider = createDashboardProvider(
+                dao, mock(PermissionProvider.class));
+        DashboardMetadataProviderImpl.Startup startup =
+                dashboardMetadataProvider.new Startup(mock(WidgetMetadataProviderImpl.class));
+        try {
+            startup.run();
+            startup.cancel();
+            startup.run();
+            Assertions.assertFalse(startup.isRetryScheduled());
+            Assertions.assertEquals(1, startup.getAttempts());
+        } finally {
+            dashboardMetadataProvider.destroy();
+        }
+    }
+
+    @Test
+    void testStartupRetryDelayIsBounded() {
+        Assertions.assertEquals(5, DashboardMetadataProviderImpl.getStartupRetryDelay(1));
+        Assertions.assertEquals(10, DashboardMetadataProviderImpl.getStartupRetryDelay(2));
+        Assertions.assertEquals(300, DashboardMetadataProviderImpl.getStartupRetryDelay(7));
+        Assertions.assertEquals(300, DashboardMetadataProviderImpl.getStartupRetryDelay(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testDiagnostics() throws Exception {
+        DashboardMetadataDao dao = mock(DashboardMetadataDao.class);
+        when(dao.getContentStatistics()).thenReturn(new ContentStatistics(3, 1024, 4096));
+        when(dao.getDataSourcePoolStatistics()).thenReturn(Optional.empty());
+        IdPClient idPClient = mock(IdPClient.class);
+        when(idPClient.getAdminRole()).thenReturn(new Role("1", "admin"));
+        when(idPClient.getUserRoles("admin")).thenReturn(Collections.singletonList(new Role("1", "admin")));
+        when(idPClient.getUserRoles("user")).thenReturn(Collections.singletonList(new Role("2", "user")));
+        DashboardMetadataProviderImpl provider = createDashboardProvider(dao, mock(PermissionProvider.class),
+                                                                         idPClient,
+                                                                         mock(DashboardThemeConfigProvider.class));
+
+        Diagnostics diagnostics = provider.getDiagnostics("admin");
+        Assertions.assertEquals(3, diagnostics.getDashboards().getCount());
+        Assertions.assertEquals(4096, diagnostics.getDashboards().getMaxSize());
+        Assertions.assertEquals("dashboard-thumbnails", diagnostics.getCaches().get(0).getName());
+        Assertions.assertNull(diagnostics.getDataSourcePool());
+        Assertions.assertThrows(UnauthorizedException.class, () -> provider.getDiagnostics("user"));
+    }
+
     private static DashboardMetadataProviderImpl createDashboardProvider(DashboardMetadataDao dao,
                                                                          PermissionProvider permissionProvider) {
         return createDashboardProvider(dao, permissionProvider, mock(IdPClient.class),
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.analytics.permissions.PermissionProvider;
+import org.wso2.carbon.analytics.permissions.bean.Permission;
+import org.wso2.carbon.analytics.permissions.exceptions.PermissionException;
+import org.wso2.carbon.dashboards.core.bean.DependencyCallStatistics;
+import org.wso2.carbon.dashboards.core.utils.DependencyCallCounter;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for {@link DependencyMetrics} class.
+ *
+ * @since 4.1.26
+ */
+public class DependencyMetricsTest {
+
+    @Test
+    void testInstrument() throws Exception {
+        PermissionProvider permissionProvider = mock(PermissionProvider.class);
+        when(permissionProvider.hasPermission(eq("admin"), any(Permission.class))).thenReturn(true);
+        when(permissionProvider.hasPermission(eq("guest"), any(Permission.class)))
+                .thenThrow(new PermissionException("Cannot check permission."));
+        DependencyMetrics dependencyMetrics = new DependencyMetrics(() -> null);
+        PermissionProvider instrumented = dependencyMetrics.instrument(PermissionProvider.class, permissionProvider,
+                                                                       "permissionProvider");
+        DependencyCallCounter.reset();
+
+        Assertions.assertTrue(instrumented.hasPermission("admin", new Permission("DASH", "foo.viewer")));
+        Assertions.assertThrows(PermissionException.class,
+                                () -> instrumented.hasPermission("guest", new Permission("DASH", "foo.viewer")));
+
+        Assertions.assertEquals(2, DependencyCallCounter.get());
+        List<DependencyCallStatistics> statistics = dependencyMetrics.getStatistics();
+        Assertions.assertEquals(1, statistics.size());
+        Assertions.assertEquals("permissionProvider", statistics.get(0).getDependency());
+        Assertions.assertEquals("hasPermission", statistics.get(0).getMethod());
+        Assertions.assertEquals(2, statistics.get(0).getCalls());
+        Assertions.assertEquals(1, statistics.get(0).getFailures());
+    }
+
+    @Test
+    void testInstrumentNull() {
+        DependencyMetrics dependencyMetrics = new DependencyMetrics(() -> null);
+
+        Assertions.assertNull(dependencyMetrics.instrument(PermissionProvider.class, null, "permissionProvider"));
+    }
+}
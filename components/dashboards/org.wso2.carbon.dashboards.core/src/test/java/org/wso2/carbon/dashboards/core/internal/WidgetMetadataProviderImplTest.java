@@ -20,14 +20,29 @@ package org.wso2.carbon.dashboards.core.internal;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.wso2.carbon.dashboards.core.bean.CacheConfigurations;
+import org.wso2.carbon.dashboards.core.bean.importer.WidgetType;
+import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
+import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
 import org.wso2.carbon.dashboards.core.exception.DashboardException;
 import org.wso2.carbon.dashboards.core.internal.database.WidgetMetadataDao;
 import org.wso2.carbon.uiserver.api.App;
 import org.wso2.carbon.uiserver.api.Extension;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Test cases for {@link WidgetMetadataProviderImpl} class.
@@ -56,6 +71,68 @@ public class WidgetMetadataProviderImplTest {
         Assertions.assertEquals(1, widgetInfoProvider.getAllWidgetConfigurations().size());
     }
 
+    @Test
+    void testCustomWidgetConfigurationDoesNotReachDatabaseTwice() throws DashboardException {
+        WidgetMetadataDao dao = mock(WidgetMetadataDao.class);
+        WidgetMetadataProviderImpl widgetInfoProvider = new WidgetMetadataProviderImpl(createPortalApp(), dao);
+        Assertions.assertTrue(widgetInfoProvider.getWidgetConfiguration("LineChart").isPresent());
+        Assertions.assertTrue(widgetInfoProvider.getWidgetConfiguration("LineChart").isPresent());
+        verify(dao, times(1)).getGeneratedWidgetConfigsForId("LineChart");
+    }
+
+    @Test
+    void testGeneratedWidgetConfigurationCacheInvalidation() throws DashboardException {
+        WidgetMetadataDao dao = mock(WidgetMetadataDao.class);
+        GeneratedWidgetConfigs configs = new GeneratedWidgetConfigs();
+        configs.setId("Sales");
+        configs.setName("Sales");
+        when(dao.getGeneratedWidgetConfigsForId("Sales")).thenReturn(null, configs);
+        WidgetMetadataProviderImpl widgetInfoProvider = new WidgetMetadataProviderImpl(createPortalApp(), dao);
+
+        Assertions.assertFalse(widgetInfoProvider.getWidgetConfiguration("Sales").isPresent());
+        Assertions.assertFalse(widgetInfoProvider.isWidgetPresent("Sales", WidgetType.GENERATED));
+        widgetInfoProvider.addGeneratedWidgetConfigs(configs);
+        Assertions.assertTrue(widgetInfoProvider.getWidgetConfiguration("Sales").isPresent());
+        Assertions.assertTrue(widgetInfoProvider.isWidgetPresent("Sales", WidgetType.GENERATED));
+        verify(dao, times(2)).getGeneratedWidgetConfigsForId("Sales");
+
+        widgetInfoProvider.invalidateWidgetConfiguration("Sales");
+        Assertions.assertTrue(widgetInfoProvider.getWidgetConfiguration("Sales").isPresent());
+        verify(dao, times(3)).getGeneratedWidgetConfigsForId("Sales");
+    }
+
+    @Test
+    void testCustomWidgetChangesAreReloaded() throws DashboardException, IOException {
+        Path widgetPath = Files.createTempDirectory("LineChart");
+        try {
+            Path widgetConfPath = widgetPath.resolve("widgetConf.json");
+            Files.write(widgetConfPath, "{\"id\": \"LineChart\", \"name\": \"Line Chart\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+            Extension chartWidget = new Extension("LineChart", "widgets", widgetPath.toString());
+            App portalApp = new App("portal", "/analytics-dashboard", Collections.emptySortedSet(),
+                                    Collections.singleton(chartWidget), Collections.emptySet(), Collections.emptySet(),
+                                    null, null);
+            WidgetMetadataProviderImpl widgetInfoProvider = new WidgetMetadataProviderImpl(
+                    portalApp, new CacheConfigurations(), mock(WidgetMetadataDao.class));
+            Assertions.assertEquals("Line Chart", widgetInfoProvider.getWidgetConfiguration("LineChart")
+                    .map(WidgetMetaInfo::getName).orElse(null));
+
+            Files.write(widgetConfPath, "{\"id\": \"LineChart\", \"name\": \"Sales Chart\"}"
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(widgetConfPath, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+            Assertions.assertEquals("Line Chart", widgetInfoProvider.getWidgetConfiguration("LineChart")
+                    .map(WidgetMetaInfo::getName).orElse(null), "Requests should not check widgets for changes");
+
+            widgetInfoProvider.reloadCustomWidgets();
+            Assertions.assertEquals("Sales Chart", widgetInfoProvider.getWidgetConfiguration("LineChart")
+                    .map(WidgetMetaInfo::getName).orElse(null), "Changed widget configuration should be reloaded");
+        } finally {
+            try (Stream<Path> paths = Files.walk(widgetPath)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
     private static App createPortalApp() {
         Extension chartWidget = new Extension("LineChart", "widgets", "src/test/resources/LineChart");
         return new App("portal", "/analytics-dashboard", Collections.emptySortedSet(),
@@ -43,6 +43,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -138,6 +139,47 @@ public class DashboardMetadataDaoTest {
         verify(resultSet).close();
     }
 
+    @Test
+    void testGetContentVersion() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong(anyString())).thenReturn(42L);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        Connection connection = createConnection(preparedStatement);
+        DashboardMetadataDao dao = createDao(connection);
+
+        Assertions.assertEquals(42L, dao.getContentVersion("foo"));
+        Assertions.assertEquals(0L, dao.getContentVersion("foo"), "Dashboards without a version have version zero");
+        verify(preparedStatement, times(2)).close();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testSaveContentVersion() throws Exception {
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        Connection connection = createConnection(preparedStatement);
+        DashboardMetadataDao dao = createDao(connection);
+
+        dao.saveContentVersion("foo", 42L);
+        verify(preparedStatement).setLong(2, 42L);
+        verify(connection).commit();
+        verify(preparedStatement, times(2)).close();
+    }
+
+    @Test
+    void testDeleteContentVersion() throws Exception {
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        Connection connection = createConnection(preparedStatement);
+        DashboardMetadataDao dao = createDao(connection);
+
+        dao.deleteContentVersion("foo");
+        verify(preparedStatement).setString(1, "foo");
+        verify(preparedStatement).executeUpdate();
+        verify(connection).commit();
+        verify(connection).close();
+    }
+
     @Test
     void testGet() throws Exception {
         Blob blob = mock(Blob.class);
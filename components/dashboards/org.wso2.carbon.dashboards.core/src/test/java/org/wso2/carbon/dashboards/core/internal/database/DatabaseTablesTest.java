@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.database;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for {@link DatabaseTables} class.
+ *
+ * @since 4.1.26
+ */
+public class DatabaseTablesTest {
+
+    @Test
+    void testExistsWithLowerCaseIdentifiers() throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.storesLowerCaseIdentifiers()).thenReturn(true);
+        when(metaData.getSearchStringEscape()).thenReturn("\\");
+        ResultSet found = mock(ResultSet.class);
+        when(found.next()).thenReturn(true);
+        ResultSet notFound = mock(ResultSet.class);
+        when(metaData.getTables(eq("portal"), eq("public"), any(), any())).thenReturn(notFound);
+        when(metaData.getTables(eq("portal"), eq("public"), eq("dashboard\\_resource"), any())).thenReturn(found);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.getCatalog()).thenReturn("portal");
+        when(connection.getSchema()).thenReturn("public");
+
+        Assertions.assertTrue(DatabaseTables.exists(connection, "DASHBOARD_RESOURCE"));
+        Assertions.assertFalse(DatabaseTables.exists(connection, "WIDGET_RESOURCE"));
+    }
+
+    @Test
+    void testExistsWithoutCurrentSchema() throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.storesUpperCaseIdentifiers()).thenReturn(true);
+        ResultSet found = mock(ResultSet.class);
+        when(found.next()).thenReturn(true);
+        ResultSet notFound = mock(ResultSet.class);
+        when(metaData.getTables(any(), any(), any(), any())).thenReturn(notFound);
+        when(metaData.getTables(eq(null), eq(null), eq("WIDGET_RESOURCE"), any())).thenReturn(found);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.getSchema()).thenThrow(new SQLException("Not supported"));
+
+        Assertions.assertTrue(DatabaseTables.exists(connection, "widget_resource"),
+                              "Table names should be searched as stored by the database, in all schemas");
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.database;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.dashboards.core.bean.DatabaseConfigurations;
+import org.wso2.carbon.metrics.core.Histogram;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Timer;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for {@link QueryMetrics} class.
+ *
+ * @since 4.1.26
+ */
+public class QueryMetricsTest {
+
+    private static final String METRIC_PREFIX = "org.wso2.carbon.dashboards.core.database.";
+
+    @Test
+    void testRecordWithoutMetricService() throws Exception {
+        Connection connection = mock(Connection.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        QueryMetrics queryMetrics = new QueryMetrics(new DatabaseConfigurations(), () -> null);
+
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_DASHBOARD_BY_URL_QUERY);
+        Assertions.assertSame(connection, execution.getConnection(dataSource));
+        execution.addRows(1);
+        execution.end(connection);
+    }
+
+    @Test
+    void testRecord() throws Exception {
+        Timer acquisition = mock(Timer.class);
+        Timer latency = mock(Timer.class);
+        Histogram rows = mock(Histogram.class);
+        Histogram blobBytesRead = mock(Histogram.class);
+        Histogram blobBytesWritten = mock(Histogram.class);
+        MetricService metricService = mock(MetricService.class);
+        when(metricService.timer(eq(METRIC_PREFIX + "connection.acquisition"), any(Level.class)))
+                .thenReturn(acquisition);
+        when(metricService.timer(eq(METRIC_PREFIX + "get_dashboard_by_url.latency"), any(Level.class)))
+                .thenReturn(latency);
+        when(metricService.histogram(eq(METRIC_PREFIX + "get_dashboard_by_url.rows"), any(Level.class)))
+                .thenReturn(rows);
+        when(metricService.histogram(eq(METRIC_PREFIX + "get_dashboard_by_url.blobBytesRead"), any(Level.class)))
+                .thenReturn(blobBytesRead);
+        when(metricService.histogram(eq(METRIC_PREFIX + "get_dashboard_by_url.blobBytesWritten"),
+                                     any(Level.class))).thenReturn(blobBytesWritten);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        QueryMetrics queryMetrics = new QueryMetrics(new DatabaseConfigurations(), () -> metricService);
+
+        QueryMetrics.Execution execution = queryMetrics.start(QueryManager.GET_DASHBOARD_BY_URL_QUERY);
+        Connection connection = execution.getConnection(dataSource);
+        execution.addRows(1);
+        execution.addBlobBytesRead(2048);
+        execution.end(connection);
+
+        verify(acquisition).update(anyLong(), eq(TimeUnit.NANOSECONDS));
+        verify(latency).update(anyLong(), eq(TimeUnit.NANOSECONDS));
+        verify(rows).update(1L);
+        verify(blobBytesRead).update(2048L);
+        verify(blobBytesWritten, never()).update(anyLong());
+        verify(metricService, never()).counter(anyString(), any(Level.class));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.dashboards.core.bean.Thumbnail;
+import org.wso2.carbon.uiserver.api.Extension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Test cases for {@link WidgetThumbnailReader} class.
+ *
+ * @since 4.1.26
+ */
+public class WidgetThumbnailReaderTest {
+
+    private Path widgetsPath;
+    private Extension widget;
+
+    @BeforeEach
+    void createWidget() throws IOException {
+        widgetsPath = Files.createTempDirectory("widgets");
+        Path widgetPath = Files.createDirectory(widgetsPath.resolve("Sample"));
+        Files.write(widgetPath.resolve("thumbnail.png"), new byte[100]);
+        Files.write(widgetsPath.resolve("outside.png"), new byte[100]);
+        widget = new Extension("Sample", "widgets", widgetPath.toString());
+    }
+
+    @AfterEach
+    void deleteWidget() throws IOException {
+        try (Stream<Path> paths = Files.walk(widgetsPath)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void testGetThumbnailInMemory() {
+        Optional<Thumbnail> thumbnail = WidgetThumbnailReader.getThumbnail(widget, "thumbnail.png", 1024);
+        Assertions.assertTrue(thumbnail.isPresent());
+        Assertions.assertEquals("image/png", thumbnail.get().getMediaType());
+        Assertions.assertEquals(100, thumbnail.get().getContent().length);
+        Assertions.assertNull(thumbnail.get().getFile());
+    }
+
+    @Test
+    void testGetThumbnailFromFile() {
+        Optional<Thumbnail> thumbnail = WidgetThumbnailReader.getThumbnail(widget, "./thumbnail.png", 10);
+        Assertions.assertTrue(thumbnail.isPresent());
+        Assertions.assertNull(thumbnail.get().getContent());
+        Assertions.assertEquals(100, thumbnail.get().getSize());
+        Assertions.assertTrue(thumbnail.get().getFile().endsWith("thumbnail.png"));
+    }
+
+    @Test
+    void testGetUnavailableThumbnail() {
+        Assertions.assertFalse(WidgetThumbnailReader.getThumbnail(widget, null, 1024).isPresent());
+        Assertions.assertFalse(WidgetThumbnailReader.getThumbnail(widget, "missing.png", 1024).isPresent());
+        Assertions.assertFalse(WidgetThumbnailReader.getThumbnail(widget, "widgetConf.json", 1024).isPresent());
+        Assertions.assertFalse(WidgetThumbnailReader.getThumbnail(widget, "../outside.png", 1024).isPresent());
+        Assertions.assertFalse(WidgetThumbnailReader.getThumbnail(widget, "http://example.com/thumbnail.png", 1024)
+                                       .isPresent());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.internal.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadata;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadataContent;
+import org.wso2.carbon.dashboards.core.bean.importer.DashboardArtifact;
+import org.wso2.carbon.dashboards.core.bean.widget.GeneratedWidgetConfigs;
+import org.wso2.carbon.dashboards.core.bean.widget.WidgetMetaInfo;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
+
+import java.util.Collections;
+
+/**
+ * Test cases for {@link BeanTypeAdapterFactory} class.
+ *
+ * @since 4.1.26
+ */
+public class BeanTypeAdapterFactoryTest {
+
+    private static final Gson REFLECTIVE_GSON = new Gson();
+
+    @Test
+    void testDashboardMetadataMatchesReflectiveBinding() {
+        DashboardMetadata metadata = createDashboard();
+        String json = DashboardUtil.getGson().toJson(metadata);
+
+        Assertions.assertEquals(REFLECTIVE_GSON.toJson(metadata), json);
+        Assertions.assertEquals(json,
+                                REFLECTIVE_GSON.toJson(DashboardUtil.getGson().fromJson(json, DashboardMetadata.class)));
+    }
+
+    @Test
+    void testDashboardArtifactMatchesReflectiveBinding() {
+        GeneratedWidgetConfigs widget = new GeneratedWidgetConfigs();
+        widget.setName("Line Chart");
+        widget.setId("LineChart");
+        widget.setChartConfig(new JsonParser().parse("{\"type\": \"line\", \"x\": \"time\"}"));
+        DashboardArtifact artifact = new DashboardArtifact();
+        artifact.setDashboard(createDashboard());
+        artifact.getWidgets().getGenerated().add(widget);
+        artifact.getWidgets().getCustom().add("Table");
+        artifact.addPermissions("viewers", Collections.singletonList("admin"));
+        String json = DashboardUtil.getGson().toJson(artifact);
+
+        Assertions.assertEquals(REFLECTIVE_GSON.toJson(artifact), json);
+        Assertions.assertEquals(json,
+                                REFLECTIVE_GSON.toJson(DashboardUtil.getGson().fromJson(json, DashboardArtifact.class)));
+    }
+
+    @Test
+    void testReadIsLenientAsReflectiveBinding() {
+        String json = "{\"name\": \"Line Chart\", \"id\": 42, \"unknown\": {\"a\": [1, 2]}, \"configs\": null, " +
+                "\"version\": true}";
+        WidgetMetaInfo widgetMetaInfo = DashboardUtil.getGson().fromJson(json, WidgetMetaInfo.class);
+
+        Assertions.assertEquals(REFLECTIVE_GSON.toJson(REFLECTIVE_GSON.fromJson(json, WidgetMetaInfo.class)),
+                                REFLECTIVE_GSON.toJson(widgetMetaInfo));
+        Assertions.assertEquals("42", widgetMetaInfo.getId());
+        Assertions.assertNull(DashboardUtil.getGson().fromJson("null", DashboardMetadata.class));
+    }
+
+    private static DashboardMetadata createDashboard() {
+        JsonObject page = new JsonObject();
+        page.addProperty("id", "home");
+        page.add("content", new JsonArray());
+        JsonArray pages = new JsonArray();
+        pages.add(page);
+        DashboardMetadataContent content = new DashboardMetadataContent(pages);
+        content.getProperties().put("theme", "dark");
+        DashboardMetadata metadata = new DashboardMetadata();
+        metadata.setUrl("sales");
+        metadata.setName("Sales \"2019\"");
+        metadata.setOwner("admin");
+        metadata.setLandingPage("home");
+        metadata.setContent(content);
+        metadata.setHasViewerPermission(true);
+        return metadata;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.dashboards.core.bean.DashboardMetadataContent;
+import org.wso2.carbon.dashboards.core.bean.importer.WidgetType;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test cases for {@link DashboardUtil} class.
+ *
+ * @since 4.0.0
+ */
+public class DashboardUtilTest {
+
+    private static final String PAGES = "[{\"id\":\"home\",\"content\":[{\"type\":\"row\",\"content\":["
+            + "{\"type\":\"stack\",\"content\":[{\"type\":\"component\",\"component\":\"LineChart\","
+            + "\"props\":{\"id\":\"a\"}},{\"type\":\"component\",\"props\":{\"configs\":{\"widgetID\":\"x\"},"
+            + "\"widgetID\":\"SalesChart\"},\"component\":\"UniversalWidget\"}]}]}]},"
+            + "{\"id\":\"other\",\"content\":[{\"type\":\"component\",\"component\":\"Table\",\"content\":[]}]}]";
+
+    @Test
+    void testFindWidgetsFromPages() {
+        JsonArray pages = new JsonParser().parse(PAGES).getAsJsonArray();
+        assertWidgets(DashboardUtil.findWidgets(new DashboardMetadataContent(pages)));
+    }
+
+    @Test
+    void testFindWidgetsWithoutPages() {
+        Map<WidgetType, Set<String>> widgets = DashboardUtil.findWidgets(new DashboardMetadataContent());
+        Assertions.assertTrue(widgets.get(WidgetType.CUSTOM).isEmpty());
+        Assertions.assertTrue(widgets.get(WidgetType.GENERATED).isEmpty());
+    }
+
+    @Test
+    void testFindWidgetsInDeeplyNestedLayout() {
+        final int depth = 20000;
+        JsonObject root = new JsonObject();
+        JsonObject current = root;
+        for (int i = 0; i < depth; i++) {
+            JsonArray children = new JsonArray();
+            JsonObject child = new JsonObject();
+            children.add(child);
+            current.add("content", children);
+            current = child;
+        }
+        current.addProperty("component", "Leaf");
+        JsonArray pages = new JsonArray();
+        pages.add(root);
+
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("Leaf")),
+                                DashboardUtil.findWidgets(pages).get(WidgetType.CUSTOM));
+    }
+
+    private static void assertWidgets(Map<WidgetType, Set<String>> widgets) {
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("LineChart", "Table")), widgets.get(WidgetType.CUSTOM));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("SalesChart")), widgets.get(WidgetType.GENERATED));
+    }
+}
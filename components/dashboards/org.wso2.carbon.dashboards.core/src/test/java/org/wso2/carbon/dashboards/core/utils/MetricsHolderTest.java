@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.dashboards.core.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.metrics.core.MetricService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for {@link MetricsHolder} class.
+ *
+ * @since 4.1.26
+ */
+public class MetricsHolderTest {
+
+    @Test
+    void testMetricsAreCreatedOncePerMetricService() {
+        AtomicInteger creations = new AtomicInteger();
+        MetricsHolder<Integer> holder = new MetricsHolder<>(metricService -> creations.incrementAndGet());
+        MetricService metricService = Mockito.mock(MetricService.class);
+
+        Assertions.assertEquals(1, holder.get(metricService).intValue());
+        Assertions.assertEquals(1, holder.get(metricService).intValue());
+        Assertions.assertEquals(1, creations.get());
+    }
+
+    @Test
+    void testMetricsAreCreatedAgainWhenMetricServiceIsReplaced() {
+        AtomicInteger creations = new AtomicInteger();
+        MetricsHolder<Integer> holder = new MetricsHolder<>(metricService -> creations.incrementAndGet());
+        holder.get(Mockito.mock(MetricService.class));
+
+        Assertions.assertEquals(2, holder.get(Mockito.mock(MetricService.class)).intValue());
+    }
+}
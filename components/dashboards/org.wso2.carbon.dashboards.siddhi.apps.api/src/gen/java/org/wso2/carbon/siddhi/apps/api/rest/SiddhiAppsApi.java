@@ -20,6 +20,7 @@
 package org.wso2.carbon.siddhi.apps.api.rest;
 
 import org.wso2.carbon.analytics.msf4j.interceptor.common.AuthenticationInterceptor;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.StoreQuery;
 import org.wso2.carbon.siddhi.apps.api.rest.factories.SiddhiAppsApiServiceFactory;
 import org.wso2.msf4j.interceptor.annotation.RequestInterceptor;
 import org.wso2.msf4j.Microservice;
@@ -52,6 +53,56 @@ public class SiddhiAppsApi implements Microservice {
         return delegate.getSiddhiApps(request);
     }
 
+    /**
+     * Refreshes the siddhi apps fetched from workers in the background
+     *
+     * @return response
+     */
+    @Path("/siddhi-apps/refresh")
+    @POST
+    public Response refreshSiddhiApps(@Context Request request) {
+        return delegate.refreshSiddhiApps(request);
+    }
+
+    /**
+     * Searches @store annotated elements of all siddhi apps. Criteria are case insensitive and all given ones must
+     * match.
+     *
+     * @param query         prefix of the element name, or of a word in it
+     * @param type          element type, i.e. Table, Aggregation or Window
+     * @param attributeName name of an attribute of the element
+     * @param attributeType type of an attribute of the element, e.g. STRING
+     *
+     * @return response
+     */
+    @Path("/siddhi-apps/store-elements/search")
+    @GET
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response searchStoreElements(@Context Request request, @QueryParam("q") String query,
+                                        @QueryParam("type") String type,
+                                        @QueryParam("attribute") String attributeName,
+                                        @QueryParam("attributeType") String attributeType) {
+        return delegate.searchStoreElements(request, query, type, attributeName, attributeType);
+    }
+
+    /**
+     * Executes a store query on a @store annotated element of a siddhi app
+     *
+     * @param appName     siddhi app name
+     * @param elementName store element name
+     * @param storeQuery  parameters of the store query
+     *
+     * @return response
+     */
+    @Path("/siddhi-apps/{appName}/store-elements/{elementName}/query")
+    @POST
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response queryStoreElement(@Context Request request, @PathParam("appName") String appName,
+                                      @PathParam("elementName") String elementName, StoreQuery storeQuery) {
+        return delegate.queryStoreElement(request, appName, elementName, storeQuery);
+    }
+
     /**
      * Returns list of @store annotated elements from a siddhi app
      *
@@ -19,6 +19,7 @@
 
 package org.wso2.carbon.siddhi.apps.api.rest;
 
+import org.wso2.carbon.siddhi.apps.api.rest.bean.StoreQuery;
 import org.wso2.msf4j.Request;
 import javax.ws.rs.core.Response;
 
@@ -34,4 +35,15 @@ public abstract class SiddhiAppsApiService {
 
     //Get siddhi store elements from a siddhi app
     public abstract Response getSiddhiAppStoreElements(Request request, String appName);
+
+    //Search @store annotated elements of all siddhi apps
+    public abstract Response searchStoreElements(Request request, String query, String type, String attributeName,
+                                                 String attributeType);
+
+    //Execute a store query on a store element of a siddhi app
+    public abstract Response queryStoreElement(Request request, String appName, String elementName,
+                                               StoreQuery storeQuery);
+
+    //Refresh siddhi apps fetched from workers
+    public abstract Response refreshSiddhiApps(Request request);
 }
@@ -19,7 +19,9 @@
 
 package org.wso2.carbon.siddhi.apps.api.rest.bean;
 
+import io.siddhi.query.api.definition.AbstractDefinition;
 import io.siddhi.query.api.definition.Attribute;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -29,9 +31,15 @@ import java.util.Objects;
 
 public class SiddhiStoreElement implements Comparable<SiddhiStoreElement> {
     private String name;
-    private String definition;
+    /**
+     * Definition text, rendered from {@link #sourceDefinition} when it is first asked for.
+     */
+    private volatile String definition;
+    private AbstractDefinition sourceDefinition;
     private String type;
     private List<Attribute> attributes;
+    private List<String> primaryKeys = Collections.emptyList();
+    private List<String> indexes = Collections.emptyList();
 
     public SiddhiStoreElement(String name, String definition, String type, List<Attribute> attributes) {
         this.name = name;
@@ -40,6 +48,26 @@ public class SiddhiStoreElement implements Comparable<SiddhiStoreElement> {
         this.attributes = attributes;
     }
 
+    /**
+     * Creates a store element from a compiled definition, whose text is rendered only if it is asked for.
+     *
+     * @param name        name of the element
+     * @param definition  compiled definition of the element
+     * @param type        type of the element
+     * @param primaryKeys attributes of the primary key of the element
+     * @param indexes     indexed attributes of the element
+     * @since 4.1.26
+     */
+    public SiddhiStoreElement(String name, AbstractDefinition definition, String type, List<String> primaryKeys,
+                              List<String> indexes) {
+        this.name = name;
+        this.sourceDefinition = definition;
+        this.type = type;
+        this.attributes = definition.getAttributeList();
+        this.primaryKeys = primaryKeys;
+        this.indexes = indexes;
+    }
+
     public String getName() {
         return name;
     }
@@ -49,11 +77,18 @@ public class SiddhiStoreElement implements Comparable<SiddhiStoreElement> {
     }
 
     public String getDefinition() {
+        String definition = this.definition;
+        if ((definition == null) && (sourceDefinition != null)) {
+            // Rendering is idempotent, hence concurrent callers may render it at the same time.
+            definition = sourceDefinition.toString();
+            this.definition = definition;
+        }
         return definition;
     }
 
     public void setDefinition(String definition) {
         this.definition = definition;
+        this.sourceDefinition = null;
     }
 
     public String getType() {
@@ -73,6 +108,34 @@ public class SiddhiStoreElement implements Comparable<SiddhiStoreElement> {
         this.attributes = attributes;
     }
 
+    /**
+     * Returns the attributes of the primary key of this element, as given by its {@code @PrimaryKey} annotation.
+     *
+     * @return primary key attributes, empty if there is no primary key
+     * @since 4.1.26
+     */
+    public List<String> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    public void setPrimaryKeys(List<String> primaryKeys) {
+        this.primaryKeys = primaryKeys;
+    }
+
+    /**
+     * Returns the indexed attributes of this element, as given by its {@code @Index} annotations.
+     *
+     * @return indexed attributes, empty if there are no indexes
+     * @since 4.1.26
+     */
+    public List<String> getIndexes() {
+        return indexes;
+    }
+
+    public void setIndexes(List<String> indexes) {
+        this.indexes = indexes;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -83,14 +146,30 @@ public class SiddhiStoreElement implements Comparable<SiddhiStoreElement> {
         }
         SiddhiStoreElement that = (SiddhiStoreElement) o;
         return Objects.equals(name, that.name) &&
-                Objects.equals(definition, that.definition) &&
                 Objects.equals(type, that.type) &&
-                Objects.equals(attributes, that.attributes);
+                Objects.equals(attributes, that.attributes) &&
+                Objects.equals(primaryKeys, that.primaryKeys) &&
+                Objects.equals(indexes, that.indexes) &&
+                definitionEquals(that);
+    }
+
+    private boolean definitionEquals(SiddhiStoreElement that) {
+        if ((sourceDefinition == null) || (that.sourceDefinition == null)) {
+            // Elements created from definition text have nothing else to compare.
+            return Objects.equals(getDefinition(), that.getDefinition());
+        }
+        // Compiled definitions are compared by their parts, hence they are not rendered just to be compared.
+        return (sourceDefinition.getClass() == that.sourceDefinition.getClass()) &&
+                Objects.equals(sourceDefinition.getId(), that.sourceDefinition.getId()) &&
+                Objects.equals(sourceDefinition.getAttributeList(), that.sourceDefinition.getAttributeList()) &&
+                Objects.equals(sourceDefinition.getAnnotations(), that.sourceDefinition.getAnnotations());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, definition, type, attributes);
+        // Definition is left out as it is not rendered until needed, elements with equal definitions still have equal
+        // hash codes.
+        return Objects.hash(name, type, attributes, primaryKeys, indexes);
     }
 
     @Override
@@ -0,0 +1,52 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.bean;
+
+/**
+ * Bean class to hold a store element found by a search, along with the SiddhiApp it belongs to
+ */
+public class SiddhiStoreElementMatch {
+    private String siddhiAppName;
+    private SiddhiStoreElement storeElement;
+
+    public SiddhiStoreElementMatch() {
+    }
+
+    public SiddhiStoreElementMatch(String siddhiAppName, SiddhiStoreElement storeElement) {
+        this.siddhiAppName = siddhiAppName;
+        this.storeElement = storeElement;
+    }
+
+    public String getSiddhiAppName() {
+        return siddhiAppName;
+    }
+
+    public void setSiddhiAppName(String siddhiAppName) {
+        this.siddhiAppName = siddhiAppName;
+    }
+
+    public SiddhiStoreElement getStoreElement() {
+        return storeElement;
+    }
+
+    public void setStoreElement(SiddhiStoreElement storeElement) {
+        this.storeElement = storeElement;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.bean;
+
+import java.util.List;
+
+/**
+ * Bean class to hold a store query on a store element. The Siddhi store query is built from these parameters, e.g.
+ * {@code from <element> select name, amount order by amount desc limit 10}
+ */
+public class StoreQuery {
+    private List<String> attributes;
+    private String orderBy;
+    private boolean descending;
+    private Integer limit;
+    private Long withinStart;
+    private Long withinEnd;
+    private String per;
+
+    public StoreQuery() {
+    }
+
+    /**
+     * Returns the attributes to select.
+     *
+     * @return attributes of the store element, all of them if empty
+     */
+    public List<String> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(List<String> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * Returns the attribute the records are ordered by.
+     *
+     * @return attribute of the store element, or {@code null} if records are not ordered
+     */
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    public void setOrderBy(String orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public void setDescending(boolean descending) {
+        this.descending = descending;
+    }
+
+    /**
+     * Returns the maximum number of records.
+     *
+     * @return record limit, or {@code null} to use the maximum allowed
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Returns the start of the time range of an aggregation query.
+     *
+     * @return start time in milliseconds since epoch
+     */
+    public Long getWithinStart() {
+        return withinStart;
+    }
+
+    public void setWithinStart(Long withinStart) {
+        this.withinStart = withinStart;
+    }
+
+    /**
+     * Returns the end of the time range of an aggregation query.
+     *
+     * @return end time in milliseconds since epoch
+     */
+    public Long getWithinEnd() {
+        return withinEnd;
+    }
+
+    public void setWithinEnd(Long withinEnd) {
+        this.withinEnd = withinEnd;
+    }
+
+    /**
+     * Returns the granularity of an aggregation query.
+     *
+     * @return one of {@code seconds}, {@code minutes}, {@code hours}, {@code days}, {@code months} or {@code years}
+     */
+    public String getPer() {
+        return per;
+    }
+
+    public void setPer(String per) {
+        this.per = per;
+    }
+}
@@ -37,6 +37,58 @@ public class DeploymentConfigs {
     @Element(description = "List of viewer roles")
     private List<String> roleIdList;
 
+    @Element(description = "List of roles allowed to execute store queries on store elements")
+    private List<String> storeQueryRoleIdList;
+
+    @Element(description = "Interval in seconds between refreshes of the Siddhi apps fetched from workers")
+    private long catalogRefreshInterval = 300;
+
+    @Element(description = "Maximum number of compiled Siddhi apps whose store elements are cached")
+    private int storeElementCacheSize = 1000;
+
+    @Element(description = "Maximum time in seconds a refresh waits for workers, slower workers keep the Siddhi apps " +
+            "fetched previously")
+    private long catalogRefreshTimeout = 60;
+
+    @Element(description = "Connect timeout in milliseconds of requests sent to workers")
+    private int workerConnectTimeout = 1000;
+
+    @Element(description = "Read timeout in milliseconds of requests sent to workers")
+    private int workerReadTimeout = 1000;
+
+    @Element(description = "Number of consecutive failed requests after which a worker is not contacted for a while")
+    private int workerFailureThreshold = 3;
+
+    @Element(description = "Time in seconds a failing worker is not contacted, which doubles while it keeps failing")
+    private long workerRetryInterval = 10;
+
+    @Element(description = "Maximum time in seconds a failing worker is not contacted")
+    private long workerMaxRetryInterval = 300;
+
+    @Element(description = "Number of threads that fetch Siddhi apps from workers")
+    private int fetchThreads = 16;
+
+    @Element(description = "Maximum number of concurrent requests sent to a worker when fetching Siddhi apps")
+    private int maxConcurrentFetchesPerWorker = 4;
+
+    @Element(description = "Number of threads that compile Siddhi apps, 0 to use half the available processors")
+    private int compileThreads = 0;
+
+    @Element(description = "Maximum number of store query results that are cached")
+    private int storeQueryCacheSize = 500;
+
+    @Element(description = "Time in seconds a store query result is cached")
+    private long storeQueryCacheExpiry = 10;
+
+    @Element(description = "Maximum number of rows in a store query result")
+    private int storeQueryMaxRows = 10000;
+
+    @Element(description = "Maximum size in bytes of a store query result")
+    private int storeQueryMaxBytes = 5 * 1024 * 1024;
+
+    @Element(description = "Read timeout in milliseconds of store queries sent to workers")
+    private int storeQueryTimeout = 10000;
+
     public DeploymentConfigs() {
     }
 
@@ -73,8 +125,144 @@ public class DeploymentConfigs {
         this.roleIdList = roleIdList;
     }
 
+    public List<String> getStoreQueryRoleIdList() {
+        return storeQueryRoleIdList;
+    }
+
+    public void setStoreQueryRoleIdList(List<String> storeQueryRoleIdList) {
+        this.storeQueryRoleIdList = storeQueryRoleIdList;
+    }
+
     public void setWorkerList(List<String> workerList) {
         this.workerList = workerList;
     }
 
+    public long getCatalogRefreshInterval() {
+        return catalogRefreshInterval;
+    }
+
+    public void setCatalogRefreshInterval(long catalogRefreshInterval) {
+        this.catalogRefreshInterval = catalogRefreshInterval;
+    }
+
+    public int getStoreElementCacheSize() {
+        return storeElementCacheSize;
+    }
+
+    public void setStoreElementCacheSize(int storeElementCacheSize) {
+        this.storeElementCacheSize = storeElementCacheSize;
+    }
+
+    public long getCatalogRefreshTimeout() {
+        return catalogRefreshTimeout;
+    }
+
+    public void setCatalogRefreshTimeout(long catalogRefreshTimeout) {
+        this.catalogRefreshTimeout = catalogRefreshTimeout;
+    }
+
+    public int getWorkerConnectTimeout() {
+        return workerConnectTimeout;
+    }
+
+    public void setWorkerConnectTimeout(int workerConnectTimeout) {
+        this.workerConnectTimeout = workerConnectTimeout;
+    }
+
+    public int getWorkerReadTimeout() {
+        return workerReadTimeout;
+    }
+
+    public void setWorkerReadTimeout(int workerReadTimeout) {
+        this.workerReadTimeout = workerReadTimeout;
+    }
+
+    public int getWorkerFailureThreshold() {
+        return workerFailureThreshold;
+    }
+
+    public void setWorkerFailureThreshold(int workerFailureThreshold) {
+        this.workerFailureThreshold = workerFailureThreshold;
+    }
+
+    public long getWorkerRetryInterval() {
+        return workerRetryInterval;
+    }
+
+    public void setWorkerRetryInterval(long workerRetryInterval) {
+        this.workerRetryInterval = workerRetryInterval;
+    }
+
+    public long getWorkerMaxRetryInterval() {
+        return workerMaxRetryInterval;
+    }
+
+    public void setWorkerMaxRetryInterval(long workerMaxRetryInterval) {
+        this.workerMaxRetryInterval = workerMaxRetryInterval;
+    }
+
+    public int getFetchThreads() {
+        return fetchThreads;
+    }
+
+    public void setFetchThreads(int fetchThreads) {
+        this.fetchThreads = fetchThreads;
+    }
+
+    public int getMaxConcurrentFetchesPerWorker() {
+        return maxConcurrentFetchesPerWorker;
+    }
+
+    public void setMaxConcurrentFetchesPerWorker(int maxConcurrentFetchesPerWorker) {
+        this.maxConcurrentFetchesPerWorker = maxConcurrentFetchesPerWorker;
+    }
+
+    public int getCompileThreads() {
+        return compileThreads;
+    }
+
+    public void setCompileThreads(int compileThreads) {
+        this.compileThreads = compileThreads;
+    }
+
+
+    public int getStoreQueryCacheSize() {
+        return storeQueryCacheSize;
+    }
+
+    public void setStoreQueryCacheSize(int storeQueryCacheSize) {
+        this.storeQueryCacheSize = storeQueryCacheSize;
+    }
+
+    public long getStoreQueryCacheExpiry() {
+        return storeQueryCacheExpiry;
+    }
+
+    public void setStoreQueryCacheExpiry(long storeQueryCacheExpiry) {
+        this.storeQueryCacheExpiry = storeQueryCacheExpiry;
+    }
+
+    public int getStoreQueryMaxRows() {
+        return storeQueryMaxRows;
+    }
+
+    public void setStoreQueryMaxRows(int storeQueryMaxRows) {
+        this.storeQueryMaxRows = storeQueryMaxRows;
+    }
+
+    public int getStoreQueryMaxBytes() {
+        return storeQueryMaxBytes;
+    }
+
+    public void setStoreQueryMaxBytes(int storeQueryMaxBytes) {
+        this.storeQueryMaxBytes = storeQueryMaxBytes;
+    }
+
+    public int getStoreQueryTimeout() {
+        return storeQueryTimeout;
+    }
+
+    public void setStoreQueryTimeout(int storeQueryTimeout) {
+        this.storeQueryTimeout = storeQueryTimeout;
+    }
 }
@@ -20,36 +20,33 @@
 package org.wso2.carbon.siddhi.apps.api.rest.impl;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import io.siddhi.query.api.SiddhiApp;
-import io.siddhi.query.compiler.SiddhiCompiler;
+import com.google.gson.GsonBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.analytics.permissions.PermissionProvider;
 import org.wso2.carbon.analytics.permissions.bean.Permission;
 import org.wso2.carbon.siddhi.apps.api.rest.SiddhiAppsApiService;
-import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiAppContent;
 import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElementMatch;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.StoreQuery;
+import org.wso2.carbon.siddhi.apps.api.rest.internal.SiddhiAppCatalog;
+import org.wso2.carbon.siddhi.apps.api.rest.internal.SiddhiAppCatalogRefresher;
 import org.wso2.carbon.siddhi.apps.api.rest.internal.SiddhiAppsDataHolder;
-import org.wso2.carbon.siddhi.apps.api.rest.worker.WorkerServiceFactory;
+import org.wso2.carbon.siddhi.apps.api.rest.internal.StoreElementIndex;
+import org.wso2.carbon.siddhi.apps.api.rest.internal.StoreQueryException;
+import org.wso2.carbon.siddhi.apps.api.rest.internal.StoreQueryExecutor;
+import org.wso2.carbon.siddhi.apps.api.rest.utils.ApiMetrics;
+import org.wso2.carbon.siddhi.apps.api.rest.utils.SiddhiStoreElementTypeAdapter;
 import org.wso2.msf4j.Request;
-import java.io.IOException;
-import java.io.Reader;
-import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import javax.ws.rs.core.Response;
 
-import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.AGGREGATION;
-import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.PROTOCOL;
-import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.STORE_ANNOTATION;
-import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.TABLE;
-import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.WINDOW;
-
 /**
  * Implementation of SiddhiApps REST API
  */
@@ -60,8 +57,14 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
     private static final Logger log = LoggerFactory.getLogger(SiddhiAppsApiServiceImpl.class);
     private static final String PERMISSION_APP_NAME = "DASH";
     private static final String VIEW_SIDDHI_APP_PERMISSION_STRING = "DASH.siddhiApp.viewer";
-    private static final Type listType = new TypeToken<List<String>>() { }.getType();
-    private Gson gson = new Gson();
+    // Store queries read the data of stores, hence viewing Siddhi apps is not enough to execute them.
+    private static final String STORE_QUERY_PERMISSION_STRING = "DASH.siddhiApp.storeQuery";
+    // Siddhi apps kept from workers that could not be contacted are served with a warning.
+    private static final String WARNING_HEADER = "Warning";
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(SiddhiStoreElement.class, new SiddhiStoreElementTypeAdapter())
+            .create();
     private PermissionProvider permissionProvider;
 
     public SiddhiAppsApiServiceImpl() {
@@ -70,38 +73,134 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
 
     @Override
     public Response getSiddhiAppStoreElements(Request request, String appName) {
-        if (getUserName(request) != null && !permissionProvider.hasPermission(getUserName(request), new Permission
-                (PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING))) {
-            return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to view Siddhi " +
-                    "Apps for user " + getUserName(request)).build();
-        }
+        return ApiMetrics.time("GET /apis/datasearch/siddhi-apps/{appName}", () -> {
+            if (getUserName(request) != null && !permissionProvider.hasPermission(getUserName(request), new Permission
+                    (PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING))) {
+                return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to view Siddhi " +
+                        "Apps for user " + getUserName(request)).build();
+            }
+
+            SiddhiAppCatalog catalog = getCatalog();
+            List<SiddhiStoreElement> storeElementsList = catalog.getSiddhiApps().get(appName);
+            if (storeElementsList != null) {
+                String jsonString = GSON.toJson(storeElementsList);
+                Response.ResponseBuilder responseBuilder = Response.ok().entity(jsonString);
+                if (catalog.getStaleSiddhiApps().contains(appName)) {
+                    responseBuilder.header(WARNING_HEADER, STALE_WARNING);
+                }
+                return responseBuilder.build();
+            }
+            return Response.status(Response.Status.NOT_FOUND).entity("Siddhi App not found").build();
+        });
+    }
 
-        if (SiddhiAppsDataHolder.getInstance().getSiddhiAppMap().isEmpty()) {
-            getSiddhiAppsFromWorkers();
-        }
+    @Override
+    public Response getSiddhiApps(Request request) {
+        return ApiMetrics.time("GET /apis/datasearch/siddhi-apps", () -> {
+            if (getUserName(request) != null && !permissionProvider.hasPermission(getUserName(request), new
+                    Permission(PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING))) {
+                return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to view Siddhi " +
+                        "Appsfor user " + getUserName(request))
+                        .build();
+            }
+
+            SiddhiAppCatalog catalog = getCatalog();
+            List<String> siddhiAppList = catalog.getSiddhiApps().keySet().stream().sorted()
+                    .collect(Collectors.toList());
+            String jsonString = GSON.toJson(siddhiAppList);
+            Response.ResponseBuilder responseBuilder = Response.ok().entity(jsonString);
+            if (!catalog.getStaleSiddhiApps().isEmpty()) {
+                responseBuilder.header(WARNING_HEADER, STALE_WARNING);
+            }
+            return responseBuilder.build();
+        });
+    }
 
-        List<SiddhiStoreElement> storeElementsList = SiddhiAppsDataHolder.getInstance().getSiddhiAppMap().get(appName);
-        if (storeElementsList != null) {
-            String jsonString = new Gson().toJson(storeElementsList);
-            return Response.ok().entity(jsonString).build();
-        }
-        return Response.status(Response.Status.NOT_FOUND).entity("Siddhi App not found").build();
+    @Override
+    public Response searchStoreElements(Request request, String query, String type, String attributeName,
+                                        String attributeType) {
+        return ApiMetrics.time("GET /apis/datasearch/siddhi-apps/store-elements/search", () -> {
+            if (getUserName(request) != null && !permissionProvider.hasPermission(getUserName(request), new
+                    Permission(PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING))) {
+                return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to view Siddhi " +
+                        "Apps for user " + getUserName(request)).build();
+            }
+            if (isEmpty(query) && isEmpty(type) && isEmpty(attributeName) && isEmpty(attributeType)) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("At least one of 'q', 'type', " +
+                        "'attribute' or 'attributeType' query parameters is required").build();
+            }
+
+            // Brings the catalog, and hence the index, up to date.
+            Set<String> staleSiddhiApps = getCatalog().getStaleSiddhiApps();
+            List<StoreElementIndex.Entry> entries = SiddhiAppsDataHolder.getInstance().getStoreElementIndex()
+                    .search(query, type, attributeName, attributeType);
+            List<SiddhiStoreElementMatch> matches = entries.stream()
+                    .map(entry -> new SiddhiStoreElementMatch(entry.getSiddhiAppName(), entry.getStoreElement()))
+                    .collect(Collectors.toList());
+            Response.ResponseBuilder responseBuilder = Response.ok().entity(GSON.toJson(matches));
+            if (entries.stream().anyMatch(entry -> staleSiddhiApps.contains(entry.getSiddhiAppName()))) {
+                responseBuilder.header(WARNING_HEADER, STALE_WARNING);
+            }
+            return responseBuilder.build();
+        });
     }
 
     @Override
-    public Response getSiddhiApps(Request request) {
-        if (getUserName(request) != null && !permissionProvider.hasPermission(getUserName(request), new
-                Permission(PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING))) {
-            return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to view Siddhi Apps" +
-                    "for user " + getUserName(request))
-                    .build();
-        }
+    public Response queryStoreElement(Request request, String appName, String elementName, StoreQuery storeQuery) {
+        return ApiMetrics.time("POST /apis/datasearch/siddhi-apps/{appName}/store-elements/{elementName}/query", () -> {
+            if (getUserName(request) != null && !permissionProvider.hasPermission(getUserName(request), new
+                    Permission(PERMISSION_APP_NAME, STORE_QUERY_PERMISSION_STRING))) {
+                return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to query " +
+                        "Siddhi Apps for user " + getUserName(request)).build();
+            }
+
+            List<SiddhiStoreElement> storeElementsList = getCatalog().getSiddhiApps().get(appName);
+            if (storeElementsList == null) {
+                return Response.status(Response.Status.NOT_FOUND).entity("Siddhi App not found").build();
+            }
+            // Only @store annotated elements of the app can be queried.
+            SiddhiStoreElement storeElement = storeElementsList.stream()
+                    .filter(element -> element.getName().equals(elementName))
+                    .findFirst().orElse(null);
+            if (storeElement == null) {
+                return Response.status(Response.Status.NOT_FOUND).entity("Store element not found").build();
+            }
+            StoreQueryExecutor storeQueryExecutor = SiddhiAppsDataHolder.getInstance().getStoreQueryExecutor();
+            if (storeQueryExecutor == null) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Store queries cannot be " +
+                        "executed").build();
+            }
+            try {
+                String result = storeQueryExecutor.execute(appName, storeElement, storeQuery);
+                return Response.ok().entity(result).build();
+            } catch (StoreQueryException e) {
+                return Response.status(e.getStatus()).entity(e.getMessage()).build();
+            }
+        });
+    }
 
-        getSiddhiAppsFromWorkers();
-        List<String> siddhiAppList = SiddhiAppsDataHolder.getInstance().getSiddhiAppMap().keySet().stream().sorted()
-                .collect(Collectors.toList());
-        String jsonString = new Gson().toJson(siddhiAppList);
-        return Response.ok().entity(jsonString).build();
+    @Override
+    public Response refreshSiddhiApps(Request request) {
+        return ApiMetrics.time("POST /apis/datasearch/siddhi-apps/refresh", () -> {
+            if (getUserName(request) != null && !permissionProvider.hasPermission(getUserName(request), new
+                    Permission(PERMISSION_APP_NAME, VIEW_SIDDHI_APP_PERMISSION_STRING))) {
+                return Response.status(Response.Status.UNAUTHORIZED).entity("Insufficient permissions to refresh " +
+                        "Siddhi Apps for user " + getUserName(request)).build();
+            }
+
+            SiddhiAppCatalogRefresher catalogRefresher = SiddhiAppsDataHolder.getInstance().getCatalogRefresher();
+            if (catalogRefresher == null) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity("Siddhi Apps are not fetched " +
+                        "from workers").build();
+            }
+            // Refreshes requested while one is running share it, hence repeated requests cannot overload workers.
+            catalogRefresher.refresh();
+            return Response.accepted().build();
+        });
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.trim().isEmpty();
     }
 
     private static String getUserName(Request request) {
@@ -109,98 +208,27 @@ public class SiddhiAppsApiServiceImpl extends SiddhiAppsApiService {
         return username != null ? username.toString() : null;
     }
 
-    private void getSiddhiAppsFromWorkers() {
-        String username = SiddhiAppsDataHolder.getInstance().getUsername();
-        String password = SiddhiAppsDataHolder.getInstance().getPassword();
-        List<String> workerList = SiddhiAppsDataHolder.getInstance().getWorkerList();
-        Map<String, List<SiddhiStoreElement>> siddhiAppsMap = new ConcurrentHashMap<>();
-
-        if (workerList != null) {
-            workerList.parallelStream().forEach(worker -> {
+    private static SiddhiAppCatalog getCatalog() {
+        SiddhiAppsDataHolder dataHolder = SiddhiAppsDataHolder.getInstance();
+        SiddhiAppCatalogRefresher catalogRefresher = dataHolder.getCatalogRefresher();
+        if (catalogRefresher != null) {
+            if (!dataHolder.getCatalog().isLoaded()) {
+                // Nothing to serve until the first refresh completes, whereas a loaded but empty catalog is served.
                 try {
-                    feign.Response workerResponse = WorkerServiceFactory.getWorkerHttpsClient(PROTOCOL + worker,
-                            username, password).getSiddhiAppNames();
-                    if (workerResponse == null) {
-                        log.warn("Requested Response is null from worker " + worker);
-                    } else {
-                        if (workerResponse.status() == 200) {
-                            Reader inputStream = workerResponse.body().asReader();
-
-                            //list of siddhi apps in the worker
-                            List<String> siddhiAppList = gson.fromJson(inputStream, listType);
-                            siddhiAppList.parallelStream().forEach(appName -> {
-                                try {
-                                    feign.Response response = WorkerServiceFactory.getWorkerHttpsClient(
-                                            PROTOCOL + worker, username, password).getSiddhiAppContent(appName);
-
-                                    //Get App Content
-                                    SiddhiAppContent siddhiAppContent = gson.fromJson(response.body().toString(),
-                                            SiddhiAppContent.class);
-                                    String siddhiAppText = siddhiAppContent.getContent();
-
-                                    //Compile and get Siddhi App
-                                    SiddhiApp siddhiApp = SiddhiCompiler.parse(String.valueOf(siddhiAppText));
-                                    List<SiddhiStoreElement> storeElementList = new ArrayList<>();
-
-                                    //Add aggregations to list if they contain store anotation
-                                    siddhiApp.getAggregationDefinitionMap().entrySet().stream().forEach(entry -> {
-                                        if (entry.getValue().toString().toLowerCase().contains(STORE_ANNOTATION)) {
-                                            SiddhiStoreElement siddhiStoreElement = new SiddhiStoreElement(entry
-                                                    .getKey(), entry.getValue().toString(), AGGREGATION,
-                                                    entry.getValue().getAttributeList());
-                                            storeElementList.add(siddhiStoreElement);
-                                        }
-                                    });
-
-                                    //Add tables to list if they contain store anotation
-                                    siddhiApp.getTableDefinitionMap().entrySet().stream().forEach(entry -> {
-                                        if (entry.getValue().toString().toLowerCase().contains(STORE_ANNOTATION)) {
-                                            SiddhiStoreElement siddhiStoreElement = new SiddhiStoreElement(entry
-                                                    .getKey(), entry.getValue().toString(), TABLE,
-                                                    entry.getValue().getAttributeList());
-                                            storeElementList.add(siddhiStoreElement);
-                                        }
-                                    });
-
-                                    //Add windows to list if they contain store anotation
-                                    siddhiApp.getWindowDefinitionMap().entrySet().stream().forEach(entry -> {
-                                        if (entry.getValue().toString().toLowerCase().contains(STORE_ANNOTATION)) {
-                                            SiddhiStoreElement siddhiStoreElement = new SiddhiStoreElement(entry
-                                                    .getKey(), entry.getValue().toString(), WINDOW,
-                                                    entry.getValue().getAttributeList());
-                                            storeElementList.add(siddhiStoreElement);
-                                        }
-                                    });
-
-                                    //Add siddhiApp to the map if it has store elements
-                                    if (!storeElementList.isEmpty()) {
-                                        Collections.sort(storeElementList);
-                                        siddhiAppsMap.put(appName, storeElementList);
-                                    }
-
-                                } catch (feign.RetryableException e) {
-                                    log.warn("Unable to reach the worker " + worker + e.getMessage(), e);
-                                }
-                            });
-
-                        } else if (workerResponse.status() == 401) {
-                            log.warn("Unauthorized to get reponse from worker " + worker);
-                        } else {
-                            log.warn("Unknown Error occured while getting response from worker " + worker);
-                        }
-                    }
-                } catch (feign.RetryableException e) {
-                    log.warn("Unable to reach the worker " + worker + e.getMessage(), e);
-                } catch (IOException e) {
-                    log.warn("Error occured while reading the response from worker " + worker + e.getMessage(), e);
+                    catalogRefresher.refresh().get(catalogRefresher.getRefreshTimeout(), TimeUnit.MILLISECONDS);
+                } catch (ExecutionException | CancellationException e) {
+                    log.warn("Unable to fetch Siddhi apps from workers.", e);
+                } catch (TimeoutException e) {
+                    log.warn("Siddhi apps were not fetched from workers within {} ms.",
+                             catalogRefresher.getRefreshTimeout());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 }
-            });
-        } else {
-            log.warn("No workers are configured for Data Search Feature");
-        }
-
-        if (!siddhiAppsMap.isEmpty()) {
-            SiddhiAppsDataHolder.getInstance().setSiddhiAppMap(siddhiAppsMap);
+            } else if (catalogRefresher.isStale()) {
+                // Stale catalog is served while it is being refreshed.
+                catalogRefresher.refresh();
+            }
         }
+        return dataHolder.getCatalog();
     }
 }
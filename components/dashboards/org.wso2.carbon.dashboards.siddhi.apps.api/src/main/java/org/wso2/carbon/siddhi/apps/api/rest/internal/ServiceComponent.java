@@ -21,6 +21,7 @@ package org.wso2.carbon.siddhi.apps.api.rest.internal;
 
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -33,7 +34,9 @@ import org.wso2.carbon.analytics.permissions.bean.Permission;
 import org.wso2.carbon.analytics.permissions.bean.Role;
 import org.wso2.carbon.config.ConfigurationException;
 import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.carbon.siddhi.apps.api.rest.config.DeploymentConfigs;
+import org.wso2.carbon.siddhi.apps.api.rest.worker.WorkerServiceFactory;
 
 import java.util.List;
 
@@ -48,6 +51,8 @@ import java.util.List;
 public class ServiceComponent {
     private static final Permission viewPermission = new Permission("DASH",
             "DASH.siddhiApp.viewer");
+    private static final Permission storeQueryPermission = new Permission("DASH",
+            "DASH.siddhiApp.storeQuery");
     private static final Logger logger = LoggerFactory.getLogger(ServiceComponent.class);
     private PermissionProvider permissionProvider;
 
@@ -59,23 +64,44 @@ public class ServiceComponent {
             SiddhiAppsDataHolder.getInstance().setUsername(deploymentConfigs.getUsername());
             SiddhiAppsDataHolder.getInstance().setPassword(deploymentConfigs.getPassword());
             SiddhiAppsDataHolder.getInstance().setWorkerList(deploymentConfigs.getWorkerList());
-            initPermission(deploymentConfigs.getRoleIdList());
+            SiddhiAppsDataHolder.getInstance().setWorkerConnectTimeout(deploymentConfigs.getWorkerConnectTimeout());
+            SiddhiAppsDataHolder.getInstance().setWorkerReadTimeout(deploymentConfigs.getWorkerReadTimeout());
+            // Clients built for previous worker configurations are not reused.
+            WorkerServiceFactory.invalidateClients();
+            initPermission(viewPermission, deploymentConfigs.getRoleIdList());
+            initPermission(storeQueryPermission, deploymentConfigs.getStoreQueryRoleIdList());
             SiddhiAppsDataHolder.getInstance().setPermissionProvider(permissionProvider);
+            SiddhiAppCatalogRefresher catalogRefresher = new SiddhiAppCatalogRefresher(deploymentConfigs);
+            SiddhiAppsDataHolder.getInstance().setCatalogRefresher(catalogRefresher);
+            catalogRefresher.start();
+            SiddhiAppsDataHolder.getInstance().setStoreQueryExecutor(new StoreQueryExecutor(deploymentConfigs,
+                                                                                            catalogRefresher));
 
         } catch (ConfigurationException e) {
             logger.error("Error in reading datasearch configuration from deployment.yaml", e);
         }
     }
 
-    private void initPermission(List<String> roleIdList) {
-        if (!permissionProvider.isPermissionExists(viewPermission)) {
-            permissionProvider.addPermission(viewPermission);
+    @Deactivate
+    public void stop() {
+        SiddhiAppCatalogRefresher catalogRefresher = SiddhiAppsDataHolder.getInstance().getCatalogRefresher();
+        if (catalogRefresher != null) {
+            catalogRefresher.stop();
+            SiddhiAppsDataHolder.getInstance().setCatalogRefresher(null);
+        }
+        SiddhiAppsDataHolder.getInstance().setStoreQueryExecutor(null);
+        WorkerServiceFactory.invalidateClients();
+    }
+
+    private void initPermission(Permission permission, List<String> roleIdList) {
+        if (!permissionProvider.isPermissionExists(permission)) {
+            permissionProvider.addPermission(permission);
         }
 
         if (roleIdList != null) {
             //Grant permission to given role ids
-            for (String viewerRole : roleIdList) {
-                permissionProvider.grantPermission(viewPermission, new Role(viewerRole, ""));
+            for (String role : roleIdList) {
+                permissionProvider.grantPermission(permission, new Role(role, ""));
             }
         }
     }
@@ -108,6 +134,7 @@ public class ServiceComponent {
 
     protected void unregisterAnalyticsHttpClient(AnalyticsHttpClientBuilderService service) {
         SiddhiAppsDataHolder.getInstance().setClientBuilderService(null);
+        WorkerServiceFactory.invalidateClients();
     }
 
     @Reference(
@@ -126,4 +153,19 @@ public class ServiceComponent {
         this.permissionProvider = null;
         SiddhiAppsDataHolder.getInstance().setPermissionProvider(null);
     }
+
+    @Reference(
+            name = "carbon.metrics.service",
+            service = MetricService.class,
+            cardinality = ReferenceCardinality.OPTIONAL,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetMetricService"
+    )
+    protected void setMetricService(MetricService metricService) {
+        SiddhiAppsDataHolder.getInstance().setMetricService(metricService);
+    }
+
+    protected void unsetMetricService(MetricService metricService) {
+        SiddhiAppsDataHolder.getInstance().setMetricService(null);
+    }
 }
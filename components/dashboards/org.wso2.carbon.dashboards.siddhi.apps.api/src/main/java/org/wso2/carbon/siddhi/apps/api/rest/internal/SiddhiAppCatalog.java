@@ -0,0 +1,173 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of the Siddhi apps with store elements fetched from workers. A new snapshot is published as a
+ * whole after every refresh, hence the apps, their staleness and the worker statuses read from a snapshot are always
+ * consistent with each other.
+ * <p>
+ * The version of a snapshot changes only when its content changes, whereas the fetched time changes on every refresh.
+ * A catalog that is loaded but has no apps is distinguished from one that was never loaded, so that an empty cluster
+ * is not refreshed on every request.
+ *
+ * @since 4.1.26
+ */
+public final class SiddhiAppCatalog {
+
+    /**
+     * Catalog before the first refresh.
+     */
+    static final SiddhiAppCatalog NOT_LOADED = new SiddhiAppCatalog(0, Collections.emptyMap(), Collections.emptySet(),
+                                                                    Collections.emptyMap(), -1, -1);
+
+    private final long version;
+    private final Map<String, List<SiddhiStoreElement>> siddhiApps;
+    private final Set<String> staleSiddhiApps;
+    private final Map<String, WorkerStatus> workerStatuses;
+    private final long updatedTime;
+    private final long fetchedTime;
+
+    private SiddhiAppCatalog(long version, Map<String, List<SiddhiStoreElement>> siddhiApps,
+                             Set<String> staleSiddhiApps, Map<String, WorkerStatus> workerStatuses, long updatedTime,
+                             long fetchedTime) {
+        this.version = version;
+        this.siddhiApps = siddhiApps;
+        this.staleSiddhiApps = staleSiddhiApps;
+        this.workerStatuses = workerStatuses;
+        this.updatedTime = updatedTime;
+        this.fetchedTime = fetchedTime;
+    }
+
+    /**
+     * Creates the snapshot that follows this one.
+     *
+     * @param siddhiApps      store elements keyed by Siddhi app name
+     * @param staleSiddhiApps names of the apps that are kept from a previous refresh, e.g. as their workers are
+     *                        unreachable
+     * @param workerStatuses  statuses of the workers in the refresh
+     * @param fetchedTime     time the apps were fetched
+     * @return next snapshot
+     */
+    SiddhiAppCatalog next(Map<String, List<SiddhiStoreElement>> siddhiApps, Set<String> staleSiddhiApps,
+                          Map<String, WorkerStatus> workerStatuses, long fetchedTime) {
+        Map<String, List<SiddhiStoreElement>> apps = new HashMap<>(siddhiApps.size());
+        siddhiApps.forEach((appName, storeElements) -> apps.put(appName, Collections.unmodifiableList(storeElements)));
+        Set<String> staleApps = new HashSet<>(staleSiddhiApps);
+        Map<String, WorkerStatus> statuses = Collections.unmodifiableMap(new TreeMap<>(workerStatuses));
+        if (isLoaded() && apps.equals(this.siddhiApps) && staleApps.equals(this.staleSiddhiApps)) {
+            return new SiddhiAppCatalog(version, this.siddhiApps, this.staleSiddhiApps, statuses, updatedTime,
+                                        fetchedTime);
+        }
+        return new SiddhiAppCatalog(version + 1, Collections.unmodifiableMap(apps),
+                                    Collections.unmodifiableSet(staleApps), statuses, fetchedTime, fetchedTime);
+    }
+
+    /**
+     * Returns the version of the content of this snapshot.
+     *
+     * @return version, {@code 0} if the catalog is not loaded
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the Siddhi apps that have store elements.
+     *
+     * @return store elements keyed by Siddhi app name
+     */
+    public Map<String, List<SiddhiStoreElement>> getSiddhiApps() {
+        return siddhiApps;
+    }
+
+    /**
+     * Returns the names of the apps that could not be refreshed and are kept from a previous refresh.
+     *
+     * @return names of stale apps
+     */
+    public Set<String> getStaleSiddhiApps() {
+        return staleSiddhiApps;
+    }
+
+    /**
+     * Returns the statuses of the workers in the refresh that produced this snapshot.
+     *
+     * @return statuses keyed by worker
+     */
+    public Map<String, WorkerStatus> getWorkerStatuses() {
+        return workerStatuses;
+    }
+
+    /**
+     * Returns the time the content of the catalog last changed.
+     *
+     * @return time in milliseconds since the epoch, or {@code -1} if the catalog is not loaded
+     */
+    public long getUpdatedTime() {
+        return updatedTime;
+    }
+
+    /**
+     * Returns the time Siddhi apps were last fetched from workers, whether or not the fetch found any.
+     *
+     * @return time in milliseconds since the epoch, or {@code -1} if the catalog is not loaded
+     */
+    public long getFetchedTime() {
+        return fetchedTime;
+    }
+
+    /**
+     * Checks whether Siddhi apps have been fetched from workers at least once, even if none were found.
+     *
+     * @return {@code true} if the catalog is loaded
+     */
+    public boolean isLoaded() {
+        return fetchedTime >= 0;
+    }
+
+    /**
+     * Status of a worker in a refresh.
+     */
+    public enum WorkerStatus {
+        /**
+         * All apps of the worker were fetched.
+         */
+        SYNCED,
+        /**
+         * Apps were listed, but some of them were not fetched in time and are kept from a previous refresh.
+         */
+        PARTIALLY_SYNCED,
+        /**
+         * Apps could not be listed, hence all apps of the worker are kept from a previous refresh.
+         */
+        UNREACHABLE
+    }
+}
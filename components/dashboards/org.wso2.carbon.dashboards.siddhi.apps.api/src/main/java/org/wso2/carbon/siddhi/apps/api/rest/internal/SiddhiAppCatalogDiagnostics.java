@@ -0,0 +1,77 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import org.osgi.service.component.annotations.Component;
+import org.wso2.carbon.dashboards.core.DiagnosticsContributor;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports the size and freshness of the catalog of Siddhi apps with store elements in the dashboard diagnostics.
+ *
+ * @since 4.1.26
+ */
+@Component(
+        name = "org.wso2.carbon.siddhi.apps.api.rest.internal.SiddhiAppCatalogDiagnostics",
+        service = DiagnosticsContributor.class,
+        immediate = true
+)
+public class SiddhiAppCatalogDiagnostics implements DiagnosticsContributor {
+
+    @Override
+    public String getName() {
+        return "siddhiAppCatalog";
+    }
+
+    @Override
+    public Map<String, Object> getDiagnostics() {
+        SiddhiAppsDataHolder dataHolder = SiddhiAppsDataHolder.getInstance();
+        SiddhiAppCatalog catalog = dataHolder.getCatalog();
+        Map<String, List<SiddhiStoreElement>> siddhiAppMap = catalog.getSiddhiApps();
+        List<String> workerList = dataHolder.getWorkerList();
+        long updatedTime = catalog.getUpdatedTime();
+        long now = System.currentTimeMillis();
+
+        Map<String, Object> diagnostics = new LinkedHashMap<>();
+        diagnostics.put("workers", (workerList == null) ? 0 : workerList.size());
+        diagnostics.put("loaded", catalog.isLoaded());
+        diagnostics.put("version", catalog.getVersion());
+        diagnostics.put("siddhiApps", siddhiAppMap.size());
+        diagnostics.put("storeElements", siddhiAppMap.values().stream().mapToInt(List::size).sum());
+        diagnostics.put("staleSiddhiApps", catalog.getStaleSiddhiApps().size());
+        diagnostics.put("lastUpdated", (updatedTime < 0) ? null : updatedTime);
+        diagnostics.put("age", (updatedTime < 0) ? null : (now - updatedTime));
+        long fetchTime = catalog.getFetchedTime();
+        diagnostics.put("lastFetched", (fetchTime < 0) ? null : fetchTime);
+        SiddhiAppCatalogRefresher catalogRefresher = dataHolder.getCatalogRefresher();
+        diagnostics.put("storeElementCache",
+                        (catalogRefresher == null) ? null : catalogRefresher.getStoreElementCacheStatistics());
+        diagnostics.put("workerStatuses", catalog.getWorkerStatuses());
+        diagnostics.put("workerStates", (catalogRefresher == null) ? null : catalogRefresher.getWorkerDiagnostics());
+        StoreQueryExecutor storeQueryExecutor = dataHolder.getStoreQueryExecutor();
+        diagnostics.put("storeQueryCache",
+                        (storeQueryExecutor == null) ? null : storeQueryExecutor.getResultCacheStatistics());
+        return diagnostics;
+    }
+}
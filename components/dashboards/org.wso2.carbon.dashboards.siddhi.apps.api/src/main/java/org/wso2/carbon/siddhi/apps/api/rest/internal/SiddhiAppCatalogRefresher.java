@@ -0,0 +1,614 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.siddhi.query.api.SiddhiApp;
+import io.siddhi.query.api.annotation.Annotation;
+import io.siddhi.query.api.annotation.Element;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.compiler.SiddhiCompiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.dashboards.core.bean.CacheStatistics;
+import org.wso2.carbon.dashboards.core.cache.BoundedCache;
+import org.wso2.carbon.dashboards.core.jfr.FlightRecorderSupport;
+import org.wso2.carbon.dashboards.core.utils.DashboardUtil;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiAppContent;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+import org.wso2.carbon.siddhi.apps.api.rest.config.DeploymentConfigs;
+import org.wso2.carbon.siddhi.apps.api.rest.utils.WorkerFetchEvent;
+import org.wso2.carbon.siddhi.apps.api.rest.worker.WorkerServiceFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.AGGREGATION;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.INDEX_ANNOTATION_NAME;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.PRIMARY_KEY_ANNOTATION_NAME;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.PROTOCOL;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.STORE_ANNOTATION_NAME;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.TABLE;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.WINDOW;
+
+/**
+ * Refreshes the catalog of Siddhi apps with store elements in the background, by fetching and compiling the Siddhi
+ * apps of all workers. Requests are served from the last {@link SiddhiAppCatalog} snapshot instead of
+ * contacting every worker themselves. Only one refresh runs at a time; refreshes requested meanwhile share it.
+ * <p>
+ * Apps are fetched and compiled on dedicated pools, instead of the common fork join pool of the JVM, so that blocking
+ * HTTP calls do not starve the parallel streams of the server and compilation does not take all the processors.
+ * Each worker is sent a limited number of concurrent requests. Workers that do not respond before the refresh
+ * deadline keep the apps they had, so a slow worker delays neither the refresh nor the other workers.
+ * <p>
+ * Workers that fail repeatedly are not contacted until a backoff elapses (see {@link WorkerCircuitBreaker}). Apps
+ * kept from workers that could not be contacted are served, but marked as stale.
+ *
+ * @since 4.1.26
+ */
+public class SiddhiAppCatalogRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(SiddhiAppCatalogRefresher.class);
+    private static final Type listType = new TypeToken<List<String>>() { }.getType();
+    private static final Gson GSON = new Gson();
+
+    private final long refreshIntervalMillis;
+    private final long refreshTimeoutNanos;
+    private final int maxConcurrentFetchesPerWorker;
+    private final int workerFailureThreshold;
+    private final long workerRetryIntervalMillis;
+    private final long workerMaxRetryIntervalMillis;
+    private final Map<String, WorkerCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService fetchExecutor;
+    private final ExecutorService compileExecutor;
+    private CompletableFuture<Void> pendingRefresh;
+    private boolean stopped;
+    /**
+     * Apps fetched in the previous refresh, keyed by worker and then by app name.
+     */
+    private final Map<String, Map<String, SyncedSiddhiApp>> syncedApps = new ConcurrentHashMap<>();
+    /**
+     * Store elements of compiled Siddhi apps keyed by the hash of the app content, so that an app is compiled again
+     * only when its content changes. Shared by all workers, as the same app is usually deployed on several of them.
+     */
+    private final BoundedCache<String, List<SiddhiStoreElement>> storeElementCache;
+
+    /**
+     * Creates a new refresher.
+     *
+     * @param deploymentConfigs datasearch configurations
+     */
+    public SiddhiAppCatalogRefresher(DeploymentConfigs deploymentConfigs) {
+        this.refreshIntervalMillis = TimeUnit.SECONDS.toMillis(Math.max(1, deploymentConfigs
+                .getCatalogRefreshInterval()));
+        this.refreshTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(1, deploymentConfigs.getCatalogRefreshTimeout()));
+        this.maxConcurrentFetchesPerWorker = Math.max(1, deploymentConfigs.getMaxConcurrentFetchesPerWorker());
+        this.workerFailureThreshold = Math.max(1, deploymentConfigs.getWorkerFailureThreshold());
+        this.workerRetryIntervalMillis = TimeUnit.SECONDS.toMillis(Math.max(1, deploymentConfigs
+                .getWorkerRetryInterval()));
+        this.workerMaxRetryIntervalMillis = Math.max(workerRetryIntervalMillis, TimeUnit.SECONDS.toMillis(
+                deploymentConfigs.getWorkerMaxRetryInterval()));
+        this.storeElementCache = new BoundedCache<>("siddhi-app-store-elements",
+                                                    Math.max(1, deploymentConfigs.getStoreElementCacheSize()), 0,
+                                                    TimeUnit.SECONDS);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                createThreadFactory("siddhi-app-catalog-refresher"));
+        this.fetchExecutor = Executors.newFixedThreadPool(Math.max(1, deploymentConfigs.getFetchThreads()),
+                                                          createThreadFactory("siddhi-app-fetch"));
+        int compileThreads = (deploymentConfigs.getCompileThreads() > 0) ? deploymentConfigs.getCompileThreads() :
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.compileExecutor = Executors.newFixedThreadPool(compileThreads, createThreadFactory("siddhi-app-compile"));
+    }
+
+    private static ThreadFactory createThreadFactory(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Starts refreshing the catalog now and at every refresh interval.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops refreshing the catalog. A refresh that is awaited is cancelled, so that its callers do not wait forever.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        scheduler.shutdownNow();
+        fetchExecutor.shutdownNow();
+        compileExecutor.shutdownNow();
+        if (pendingRefresh != null) {
+            pendingRefresh.cancel(false);
+        }
+    }
+
+    /**
+     * Refreshes the catalog in the background, unless a refresh is already running.
+     *
+     * @return refresh, which completes when the catalog has been refreshed, or completes exceptionally if the
+     * refresher is stopped
+     */
+    public synchronized CompletableFuture<Void> refresh() {
+        if ((pendingRefresh == null) || pendingRefresh.isDone()) {
+            try {
+                if (stopped) {
+                    throw new RejectedExecutionException("Siddhi app catalog refresher is stopped.");
+                }
+                pendingRefresh = CompletableFuture.runAsync(this::fetchSiddhiAppsFromWorkers, scheduler);
+            } catch (RejectedExecutionException e) {
+                CompletableFuture<Void> rejectedRefresh = new CompletableFuture<>();
+                rejectedRefresh.completeExceptionally(e);
+                return rejectedRefresh;
+            }
+        }
+        return pendingRefresh;
+    }
+
+    /**
+     * Returns the time a refresh may take before workers that have not responded yet are given up.
+     *
+     * @return refresh timeout in milliseconds
+     */
+    public long getRefreshTimeout() {
+        return TimeUnit.NANOSECONDS.toMillis(refreshTimeoutNanos);
+    }
+
+    /**
+     * Checks whether the catalog was fetched more than a refresh interval ago, e.g. when workers were unreachable.
+     *
+     * @return {@code true} if the catalog is stale
+     */
+    public boolean isStale() {
+        SiddhiAppCatalog catalog = SiddhiAppsDataHolder.getInstance().getCatalog();
+        return !catalog.isLoaded() || (System.currentTimeMillis() - catalog.getFetchedTime() > refreshIntervalMillis);
+    }
+
+    /**
+     * Returns the statistics of the cache of compiled Siddhi apps, which survives refreshes.
+     *
+     * @return cache statistics
+     */
+    public CacheStatistics getStoreElementCacheStatistics() {
+        return storeElementCache.getStatistics();
+    }
+
+    /**
+     * Returns the circuit breaker states of the workers for diagnostics.
+     *
+     * @return breaker states keyed by worker
+     */
+    public Map<String, Object> getWorkerDiagnostics() {
+        Map<String, Object> diagnostics = new TreeMap<>();
+        circuitBreakers.forEach((worker, circuitBreaker) -> diagnostics.put(worker, circuitBreaker.getDiagnostics()));
+        return diagnostics;
+    }
+
+    /**
+     * Returns the workers the given Siddhi app was fetched from. Workers that are reachable as far as known are
+     * listed first.
+     *
+     * @param appName name of the Siddhi app
+     * @return workers of the app
+     */
+    public List<String> getWorkers(String appName) {
+        List<String> workers = new ArrayList<>();
+        syncedApps.forEach((worker, apps) -> {
+            if (apps.containsKey(appName)) {
+                workers.add(worker);
+            }
+        });
+        workers.sort(Comparator.comparing(worker -> {
+            WorkerCircuitBreaker circuitBreaker = circuitBreakers.get(worker);
+            return (circuitBreaker != null) && !circuitBreaker.isClosed();
+        }));
+        return workers;
+    }
+
+    private void fetchSiddhiAppsFromWorkers() {
+        List<String> workerList = SiddhiAppsDataHolder.getInstance().getWorkerList();
+        if (workerList == null) {
+            log.warn("No workers are configured for Data Search Feature");
+            // Loaded but empty, so that requests do not keep refreshing the catalog.
+            SiddhiAppsDataHolder.getInstance().publishCatalog(Collections.emptyMap(), Collections.emptySet(),
+                                                              Collections.emptyMap());
+            return;
+        }
+
+        long deadline = System.nanoTime() + refreshTimeoutNanos;
+        List<WorkerSync> workerSyncs = new ArrayList<>(workerList.size());
+        List<CompletableFuture<Void>> workerFetches = new ArrayList<>(workerList.size());
+        for (String worker : workerList) {
+            WorkerSync workerSync = new WorkerSync(worker, deadline);
+            workerSyncs.add(workerSync);
+            workerFetches.add(workerSync.start());
+        }
+        try {
+            CompletableFuture.allOf(workerFetches.toArray(new CompletableFuture[0]))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Siddhi apps were not fetched from all workers within " +
+                    TimeUnit.NANOSECONDS.toSeconds(refreshTimeoutNanos) + " seconds, hence the catalog is partially " +
+                    "refreshed");
+        } catch (ExecutionException e) {
+            // Failures of individual workers and apps are handled where they occur.
+            log.warn("Error occured while fetching Siddhi apps from workers", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        Set<String> staleApps = new HashSet<>();
+        Map<String, SiddhiAppCatalog.WorkerStatus> workerStatuses = new HashMap<>();
+        for (WorkerSync workerSync : workerSyncs) {
+            Set<String> workerStaleApps = new HashSet<>();
+            Map<String, SyncedSiddhiApp> apps = workerSync.getApps(workerStaleApps);
+            if (apps != null) {
+                syncedApps.put(workerSync.worker, apps);
+                workerStatuses.put(workerSync.worker, workerStaleApps.isEmpty() ?
+                        SiddhiAppCatalog.WorkerStatus.SYNCED : SiddhiAppCatalog.WorkerStatus.PARTIALLY_SYNCED);
+            } else {
+                // Workers that were not reachable keep the apps they had, until they are reachable again.
+                workerStaleApps.addAll(syncedApps.getOrDefault(workerSync.worker, Collections.emptyMap()).keySet());
+                workerStatuses.put(workerSync.worker, SiddhiAppCatalog.WorkerStatus.UNREACHABLE);
+            }
+            staleApps.addAll(workerStaleApps);
+        }
+        syncedApps.keySet().retainAll(workerList);
+        circuitBreakers.keySet().retainAll(workerList);
+
+        Map<String, List<SiddhiStoreElement>> siddhiAppsMap = new HashMap<>();
+        for (String worker : workerList) {
+            syncedApps.getOrDefault(worker, Collections.emptyMap()).forEach((appName, app) -> {
+                //Add siddhiApp to the map if it has store elements
+                if (!app.storeElements.isEmpty()) {
+                    siddhiAppsMap.put(appName, app.storeElements);
+                }
+            });
+        }
+        staleApps.retainAll(siddhiAppsMap.keySet());
+        SiddhiAppsDataHolder.getInstance().publishCatalog(siddhiAppsMap, staleApps, workerStatuses);
+        if (log.isDebugEnabled()) {
+            CacheStatistics cacheStatistics = storeElementCache.getStatistics();
+            log.debug("Refreshed Siddhi app catalog with " + siddhiAppsMap.size() + " apps, compiled app cache " +
+                    "hit ratio " + cacheStatistics.getHitRatio());
+        }
+    }
+
+    /**
+     * Fetches the Siddhi apps of a worker in a single refresh. Apps whose content hash is unchanged since the
+     * previous refresh are not compiled again.
+     */
+    private class WorkerSync {
+
+        private final String worker;
+        private final long deadline;
+        private final Map<String, SyncedSiddhiApp> previousApps;
+        private final WorkerCircuitBreaker circuitBreaker;
+        private final Map<String, SyncedSiddhiApp> apps = new ConcurrentHashMap<>();
+        /**
+         * Apps that failed to load and should be dropped rather than keep their previous state.
+         */
+        private final Set<String> failedApps = ConcurrentHashMap.newKeySet();
+        private volatile List<String> siddhiAppList;
+
+        private WorkerSync(String worker, long deadline) {
+            this.worker = worker;
+            this.deadline = deadline;
+            this.previousApps = syncedApps.getOrDefault(worker, Collections.emptyMap());
+            this.circuitBreaker = circuitBreakers.computeIfAbsent(worker, key -> new WorkerCircuitBreaker(
+                    key, workerFailureThreshold, workerRetryIntervalMillis, workerMaxRetryIntervalMillis));
+        }
+
+        private CompletableFuture<Void> start() {
+            return CompletableFuture.runAsync(this::fetchSiddhiAppList, fetchExecutor).thenCompose(ignored -> {
+                List<String> appNames = siddhiAppList;
+                if (appNames == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                // Apps are fetched in a few lanes, so that the worker is not sent too many requests at once.
+                int laneCount = Math.min(maxConcurrentFetchesPerWorker, appNames.size());
+                List<CompletableFuture<Void>> lanes = new ArrayList<>(laneCount);
+                for (int lane = 0; lane < laneCount; lane++) {
+                    List<String> laneAppNames = new ArrayList<>();
+                    for (int i = lane; i < appNames.size(); i += laneCount) {
+                        laneAppNames.add(appNames.get(i));
+                    }
+                    lanes.add(CompletableFuture.supplyAsync(() -> fetchSiddhiApps(laneAppNames), fetchExecutor)
+                                      .thenCompose(compilations -> CompletableFuture.allOf(
+                                              compilations.toArray(new CompletableFuture[0]))));
+                }
+                return CompletableFuture.allOf(lanes.toArray(new CompletableFuture[0]));
+            });
+        }
+
+        /**
+         * Returns the apps of the worker as far as they are fetched. Apps that are not fetched yet, e.g. when the
+         * worker is slow, keep their previous state and are marked as stale.
+         *
+         * @param staleApps names of the apps that keep their previous state are added to this
+         * @return apps keyed by name, or {@code null} if the worker did not list its apps
+         */
+        private Map<String, SyncedSiddhiApp> getApps(Set<String> staleApps) {
+            List<String> appNames = siddhiAppList;
+            if (appNames == null) {
+                return null;
+            }
+            // Apps that are no longer listed by the worker are dropped.
+            Map<String, SyncedSiddhiApp> currentApps = new HashMap<>(appNames.size());
+            for (String appName : appNames) {
+                SyncedSiddhiApp app = apps.get(appName);
+                if (app == null && !failedApps.contains(appName)) {
+                    app = previousApps.get(appName);
+                    if (app != null) {
+                        staleApps.add(appName);
+                    }
+                }
+                if (app != null) {
+                    currentApps.put(appName, app);
+                }
+            }
+            return currentApps;
+        }
+
+        private void fetchSiddhiAppList() {
+            if (!circuitBreaker.allowProbe()) {
+                log.debug("Skipped fetching Siddhi apps from unreachable worker " + worker);
+                return;
+            }
+            String username = SiddhiAppsDataHolder.getInstance().getUsername();
+            String password = SiddhiAppsDataHolder.getInstance().getPassword();
+            boolean succeeded = false;
+            try (feign.Response workerResponse = fetch(null, () -> WorkerServiceFactory.getWorkerHttpsClient(
+                    PROTOCOL + worker, username, password).getSiddhiAppNames())) {
+                if (workerResponse == null) {
+                    log.warn("Requested Response is null from worker " + worker);
+                } else if (workerResponse.status() == 401) {
+                    log.warn("Unauthorized to get reponse from worker " + worker);
+                } else if (workerResponse.status() != 200) {
+                    log.warn("Unknown Error occured while getting response from worker " + worker);
+                } else {
+                    //list of siddhi apps in the worker
+                    siddhiAppList = GSON.fromJson(workerResponse.body().asReader(), listType);
+                }
+                // Workers that answer with client errors are reachable, hence only server errors count as failures.
+                succeeded = (workerResponse != null) && (workerResponse.status() < 500);
+            } catch (feign.RetryableException e) {
+                log.warn("Unable to reach the worker " + worker + e.getMessage(), e);
+            } catch (IOException e) {
+                log.warn("Error occured while reading the response from worker " + worker + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                // A faulty worker should not stop the catalog from being refreshed.
+                log.warn("Error occured while fetching Siddhi apps from worker " + worker, e);
+            } finally {
+                // Every probe records its outcome, otherwise a half open breaker would wait for it forever.
+                if (succeeded) {
+                    circuitBreaker.recordSuccess();
+                } else {
+                    circuitBreaker.recordFailure();
+                }
+            }
+        }
+
+        /**
+         * Fetches the given apps one after the other, and starts compiling each of them.
+         *
+         * @return compilations of the apps
+         */
+        private List<CompletableFuture<Void>> fetchSiddhiApps(List<String> appNames) {
+            List<CompletableFuture<Void>> compilations = new ArrayList<>(appNames.size());
+            for (String appName : appNames) {
+                if ((System.nanoTime() > deadline) || !circuitBreaker.isClosed()) {
+                    // Remaining apps keep their previous state.
+                    break;
+                }
+                try {
+                    compilations.add(fetchSiddhiApp(appName));
+                } catch (feign.RetryableException e) {
+                    circuitBreaker.recordFailure();
+                    log.warn("Unable to reach the worker " + worker + e.getMessage(), e);
+                } catch (RuntimeException e) {
+                    log.warn("Unable to load Siddhi app " + appName + " from worker " + worker, e);
+                    failedApps.add(appName);
+                }
+            }
+            return compilations;
+        }
+
+        private CompletableFuture<Void> fetchSiddhiApp(String appName) {
+            SiddhiAppContent siddhiAppContent;
+            try (feign.Response response = fetch(appName, () -> WorkerServiceFactory.getWorkerHttpsClient(
+                    PROTOCOL + worker, SiddhiAppsDataHolder.getInstance().getUsername(),
+                    SiddhiAppsDataHolder.getInstance().getPassword()).getSiddhiAppContent(appName))) {
+                if (response.status() != 200) {
+                    log.warn("Unable to get Siddhi app " + appName + " from worker " + worker + ", status " +
+                            response.status());
+                    failedApps.add(appName);
+                    return CompletableFuture.completedFuture(null);
+                }
+                //Get App Content
+                siddhiAppContent = GSON.fromJson(response.body().toString(), SiddhiAppContent.class);
+            }
+            String siddhiAppText = String.valueOf(siddhiAppContent.getContent());
+            String contentHash = DashboardUtil.getContentHash(siddhiAppText.getBytes(StandardCharsets.UTF_8));
+            SyncedSiddhiApp previousApp = previousApps.get(appName);
+            if ((previousApp != null) && contentHash.equals(previousApp.contentHash)) {
+                // Unchanged since the previous refresh, hence neither compiled again nor looked up in the shared
+                // cache, from which it may have been evicted. Apps that failed to compile are not retried either.
+                apps.put(appName, new SyncedSiddhiApp(contentHash, previousApp.storeElements));
+                return CompletableFuture.completedFuture(null);
+            }
+            //Compile and get Siddhi App, unless an app with the same content has been compiled before
+            return CompletableFuture.supplyAsync(() -> storeElementCache.get(
+                    contentHash, hash -> getStoreElements(SiddhiCompiler.parse(siddhiAppText))), compileExecutor)
+                    .handle((storeElements, e) -> {
+                        if (e != null) {
+                            // E.g. a Siddhi app that cannot be compiled, which should not hide the other apps. It is
+                            // kept without store elements, so that it is not compiled again until its content changes.
+                            log.warn("Unable to load Siddhi app " + appName + " from worker " + worker, e);
+                            apps.put(appName, new SyncedSiddhiApp(contentHash, Collections.emptyList()));
+                        } else {
+                            apps.put(appName, new SyncedSiddhiApp(contentHash, storeElements));
+                        }
+                        return null;
+                    });
+        }
+
+        /**
+         * Sends a request to the worker, recording it as a flight recorder event when available. The response is
+         * to be closed by the caller.
+         */
+        private feign.Response fetch(String appName, Supplier<feign.Response> request) {
+            WorkerFetchEvent event = startWorkerFetchEvent();
+            feign.Response response = null;
+            try {
+                response = request.get();
+                return response;
+            } finally {
+                completeWorkerFetchEvent(event, worker, appName, response);
+            }
+        }
+    }
+
+    /**
+     * Returns the store elements of a compiled Siddhi app, i.e. its aggregations, tables and windows that have a
+     * {@code @store} annotation. Annotations are read from the definitions, hence definitions are not rendered to
+     * text unless a client asks for them.
+     *
+     * @param siddhiApp compiled Siddhi app
+     * @return store elements sorted by name
+     */
+    static List<SiddhiStoreElement> getStoreElements(SiddhiApp siddhiApp) {
+        List<SiddhiStoreElement> storeElementList = new ArrayList<>();
+        siddhiApp.getAggregationDefinitionMap().forEach((name, definition) ->
+                addStoreElement(storeElementList, name, definition, AGGREGATION));
+        siddhiApp.getTableDefinitionMap().forEach((name, definition) ->
+                addStoreElement(storeElementList, name, definition, TABLE));
+        siddhiApp.getWindowDefinitionMap().forEach((name, definition) ->
+                addStoreElement(storeElementList, name, definition, WINDOW));
+        Collections.sort(storeElementList);
+        return Collections.unmodifiableList(storeElementList);
+    }
+
+    private static void addStoreElement(List<SiddhiStoreElement> storeElementList, String name,
+                                        AbstractDefinition definition, String type) {
+        List<Annotation> storeAnnotations = new ArrayList<>(1);
+        findAnnotations(definition.getAnnotations(), STORE_ANNOTATION_NAME, storeAnnotations);
+        if (storeAnnotations.isEmpty()) {
+            return;
+        }
+        // Keys and indexes are given on the definition, or nested in the store annotation in older Siddhi apps.
+        List<Annotation> primaryKeyAnnotations = new ArrayList<>(1);
+        findAnnotations(definition.getAnnotations(), PRIMARY_KEY_ANNOTATION_NAME, primaryKeyAnnotations);
+        List<Annotation> indexAnnotations = new ArrayList<>(1);
+        findAnnotations(definition.getAnnotations(), INDEX_ANNOTATION_NAME, indexAnnotations);
+        storeElementList.add(new SiddhiStoreElement(name, definition, type, getElementValues(primaryKeyAnnotations),
+                                                    getElementValues(indexAnnotations)));
+    }
+
+    /**
+     * Finds the annotations with the given name, at any depth. Annotation names are case insensitive in Siddhi.
+     */
+    private static void findAnnotations(List<Annotation> annotations, String name, List<Annotation> found) {
+        if (annotations == null) {
+            return;
+        }
+        for (Annotation annotation : annotations) {
+            if (name.equalsIgnoreCase(annotation.getName())) {
+                found.add(annotation);
+            }
+            findAnnotations(annotation.getAnnotations(), name, found);
+        }
+    }
+
+    private static List<String> getElementValues(List<Annotation> annotations) {
+        if (annotations.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        for (Annotation annotation : annotations) {
+            for (Element element : annotation.getElements()) {
+                String value = (element.getValue() == null) ? null : element.getValue().trim();
+                if ((value != null) && !value.isEmpty() && !values.contains(value)) {
+                    values.add(value);
+                }
+            }
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static WorkerFetchEvent startWorkerFetchEvent() {
+        return FlightRecorderSupport.isAvailable() ? WorkerFetchEvent.start() : null;
+    }
+
+    private static void completeWorkerFetchEvent(WorkerFetchEvent event, String worker, String appName,
+                                                 feign.Response response) {
+        if (event != null) {
+            event.complete(worker, appName, (response == null) ? -1 : response.status());
+        }
+    }
+
+    /**
+     * A Siddhi app as fetched from a worker.
+     */
+    private static class SyncedSiddhiApp {
+
+        private final String contentHash;
+        /**
+         * Store elements of the app, which are empty if it could not be compiled.
+         */
+        private final List<SiddhiStoreElement> storeElements;
+
+        private SyncedSiddhiApp(String contentHash, List<SiddhiStoreElement> storeElements) {
+            this.contentHash = contentHash;
+            this.storeElements = storeElements;
+        }
+    }
+}
@@ -22,11 +22,13 @@ package org.wso2.carbon.siddhi.apps.api.rest.internal;
 import org.wso2.carbon.analytics.idp.client.core.api.AnalyticsHttpClientBuilderService;
 import org.wso2.carbon.analytics.permissions.PermissionProvider;
 import org.wso2.carbon.config.provider.ConfigProvider;
+import org.wso2.carbon.metrics.core.MetricService;
 import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Data holder for siddhi apps api
@@ -36,14 +38,33 @@ public class SiddhiAppsDataHolder {
     private  PermissionProvider permissionProvider;
     private ConfigProvider configProvider;
     private AnalyticsHttpClientBuilderService clientBuilderService;
-    private Map<String, List<SiddhiStoreElement>> siddhiAppMap = new HashMap<>();
+    private final AtomicReference<SiddhiAppCatalog> catalog = new AtomicReference<>(SiddhiAppCatalog.NOT_LOADED);
     private String username;
     private String password;
     private List<String> workerList;
+    private volatile MetricService metricService;
+    private volatile SiddhiAppCatalogRefresher catalogRefresher;
+    private volatile StoreQueryExecutor storeQueryExecutor;
+    private volatile int workerConnectTimeout = 1000;
+    private volatile int workerReadTimeout = 1000;
+    private final StoreElementIndex storeElementIndex = new StoreElementIndex();
 
     private SiddhiAppsDataHolder(){
     }
 
+    /**
+     * Returns the metric service.
+     *
+     * @return metric service, or {@code null} if it is not available
+     */
+    public MetricService getMetricService() {
+        return metricService;
+    }
+
+    public void setMetricService(MetricService metricService) {
+        this.metricService = metricService;
+    }
+
     public AnalyticsHttpClientBuilderService getClientBuilderService() {
         return clientBuilderService;
     }
@@ -151,20 +172,92 @@ public class SiddhiAppsDataHolder {
     }
 
     /**
-     * Returns siddhiAppMap
+     * Returns the current snapshot of the Siddhi app catalog
+     *
+     * @return catalog, which is not loaded until Siddhi apps are fetched from workers for the first time
+     */
+    public SiddhiAppCatalog getCatalog() {
+        return catalog.get();
+    }
+
+    /**
+     * Publishes a new snapshot of the Siddhi app catalog and updates the store element index to match it
+     *
+     * @param siddhiAppMap    siddhi apps keyed by name
+     * @param staleSiddhiApps names of the apps that are kept from a previous refresh, e.g. as their workers are
+     *                        unreachable
+     * @param workerStatuses  statuses of the workers in the refresh
+     */
+    public synchronized void publishCatalog(Map<String, List<SiddhiStoreElement>> siddhiAppMap,
+                                            Set<String> staleSiddhiApps,
+                                            Map<String, SiddhiAppCatalog.WorkerStatus> workerStatuses) {
+        SiddhiAppCatalog previous = catalog.get();
+        SiddhiAppCatalog next = previous.next(siddhiAppMap, staleSiddhiApps, workerStatuses,
+                                              System.currentTimeMillis());
+        if (next.getVersion() != previous.getVersion()) {
+            storeElementIndex.update(next.getSiddhiApps());
+        }
+        catalog.set(next);
+    }
+
+    /**
+     * Returns the index of the store elements in the catalog
+     *
+     * @return store element index
+     */
+    public StoreElementIndex getStoreElementIndex() {
+        return storeElementIndex;
+    }
+
+    /**
+     * Returns the connect timeout of requests sent to workers.
+     *
+     * @return timeout in milliseconds
+     */
+    public int getWorkerConnectTimeout() {
+        return workerConnectTimeout;
+    }
+
+    public void setWorkerConnectTimeout(int workerConnectTimeout) {
+        this.workerConnectTimeout = workerConnectTimeout;
+    }
+
+    /**
+     * Returns the read timeout of requests sent to workers.
+     *
+     * @return timeout in milliseconds
+     */
+    public int getWorkerReadTimeout() {
+        return workerReadTimeout;
+    }
+
+    public void setWorkerReadTimeout(int workerReadTimeout) {
+        this.workerReadTimeout = workerReadTimeout;
+    }
+
+    /**
+     * Returns the refresher of the Siddhi app catalog.
      *
-     * @return siddhiAppMap
+     * @return refresher, or {@code null} if the catalog is not refreshed
      */
-    public Map<String, List<SiddhiStoreElement>> getSiddhiAppMap() {
-        return siddhiAppMap;
+    public SiddhiAppCatalogRefresher getCatalogRefresher() {
+        return catalogRefresher;
+    }
+
+    public void setCatalogRefresher(SiddhiAppCatalogRefresher catalogRefresher) {
+        this.catalogRefresher = catalogRefresher;
     }
 
     /**
-     * Sets siddhiAppMap
+     * Returns the executor of store queries.
      *
-     * @param siddhiAppMap
+     * @return executor, or {@code null} if store queries cannot be executed
      */
-    public void setSiddhiAppMap(Map<String, List<SiddhiStoreElement>> siddhiAppMap) {
-        this.siddhiAppMap = siddhiAppMap;
+    public StoreQueryExecutor getStoreQueryExecutor() {
+        return storeQueryExecutor;
+    }
+
+    public void setStoreQueryExecutor(StoreQueryExecutor storeQueryExecutor) {
+        this.storeQueryExecutor = storeQueryExecutor;
     }
 }
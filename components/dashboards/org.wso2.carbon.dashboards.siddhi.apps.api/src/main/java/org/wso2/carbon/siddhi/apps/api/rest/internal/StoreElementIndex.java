@@ -0,0 +1,241 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import io.siddhi.query.api.definition.Attribute;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of the store elements of all Siddhi apps in the catalog, so that elements can be found by
+ * name, type and attributes without knowing their Siddhi app. The index is updated incrementally when the catalog
+ * changes: only the apps whose store elements changed are indexed again.
+ *
+ * @since 4.1.26
+ */
+public class StoreElementIndex {
+
+    private static final Pattern NAME_TOKEN_SEPARATOR = Pattern.compile("[^A-Za-z0-9]+|(?<=[a-z0-9])(?=[A-Z])");
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(Entry::getSiddhiAppName)
+            .thenComparing(entry -> entry.getStoreElement().getName());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IndexedApp> apps = new HashMap<>();
+    /**
+     * Element names and the tokens in them, sorted so that they can be searched by prefix.
+     */
+    private final NavigableMap<String, Set<Entry>> nameTerms = new TreeMap<>();
+    private final Map<String, Set<Entry>> types = new HashMap<>();
+    private final Map<String, Set<Entry>> attributeNames = new HashMap<>();
+    private final Map<String, Set<Entry>> attributeTypes = new HashMap<>();
+
+    /**
+     * Updates this index to match the given catalog.
+     *
+     * @param siddhiAppMap store elements keyed by Siddhi app name
+     */
+    void update(Map<String, List<SiddhiStoreElement>> siddhiAppMap) {
+        lock.writeLock().lock();
+        try {
+            Iterator<Map.Entry<String, IndexedApp>> iterator = apps.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, IndexedApp> app = iterator.next();
+                List<SiddhiStoreElement> storeElements = siddhiAppMap.get(app.getKey());
+                if ((storeElements == null) || !storeElements.equals(app.getValue().storeElements)) {
+                    app.getValue().entries.forEach(this::remove);
+                    iterator.remove();
+                }
+            }
+            siddhiAppMap.forEach((appName, storeElements) -> {
+                if (!apps.containsKey(appName)) {
+                    List<Entry> entries = new ArrayList<>(storeElements.size());
+                    for (SiddhiStoreElement storeElement : storeElements) {
+                        Entry entry = new Entry(appName, storeElement);
+                        add(entry);
+                        entries.add(entry);
+                    }
+                    apps.put(appName, new IndexedApp(storeElements, entries));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches store elements that match all the given criteria. Criteria are case insensitive and ignored when
+     * {@code null} or empty.
+     *
+     * @param query         prefix of the name of the element, or of a word in it
+     * @param type          type of the element, e.g. {@code Table}
+     * @param attributeName name of an attribute of the element
+     * @param attributeType type of an attribute of the element, e.g. {@code STRING}
+     * @return matching elements ordered by Siddhi app and element name
+     */
+    public List<Entry> search(String query, String type, String attributeName, String attributeType) {
+        lock.readLock().lock();
+        try {
+            List<Set<Entry>> criteria = new ArrayList<>(4);
+            if (!isEmpty(query)) {
+                String prefix = normalize(query);
+                Set<Entry> matches = new HashSet<>();
+                nameTerms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+                        .forEach(matches::addAll);
+                criteria.add(matches);
+            }
+            if (!isEmpty(type)) {
+                criteria.add(types.getOrDefault(normalize(type), Collections.emptySet()));
+            }
+            if (!isEmpty(attributeName)) {
+                criteria.add(attributeNames.getOrDefault(normalize(attributeName), Collections.emptySet()));
+            }
+            if (!isEmpty(attributeType)) {
+                criteria.add(attributeTypes.getOrDefault(normalize(attributeType), Collections.emptySet()));
+            }
+            if (criteria.isEmpty()) {
+                return Collections.emptyList();
+            }
+            // Smallest set first, so that fewer entries are checked against the others.
+            criteria.sort(Comparator.comparingInt(Set::size));
+            List<Entry> results = new ArrayList<>();
+            for (Entry entry : criteria.get(0)) {
+                if (criteria.stream().allMatch(matches -> matches.contains(entry))) {
+                    results.add(entry);
+                }
+            }
+            results.sort(ENTRY_ORDER);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Entry entry) {
+        for (String term : getNameTerms(entry.storeElement.getName())) {
+            nameTerms.computeIfAbsent(term, key -> new HashSet<>()).add(entry);
+        }
+        if (entry.storeElement.getType() != null) {
+            types.computeIfAbsent(normalize(entry.storeElement.getType()), key -> new HashSet<>()).add(entry);
+        }
+        for (Attribute attribute : getAttributes(entry.storeElement)) {
+            attributeNames.computeIfAbsent(normalize(attribute.getName()), key -> new HashSet<>()).add(entry);
+            attributeTypes.computeIfAbsent(normalize(attribute.getType().name()), key -> new HashSet<>()).add(entry);
+        }
+    }
+
+    private void remove(Entry entry) {
+        for (String term : getNameTerms(entry.storeElement.getName())) {
+            remove(nameTerms, term, entry);
+        }
+        if (entry.storeElement.getType() != null) {
+            remove(types, normalize(entry.storeElement.getType()), entry);
+        }
+        for (Attribute attribute : getAttributes(entry.storeElement)) {
+            remove(attributeNames, normalize(attribute.getName()), entry);
+            remove(attributeTypes, normalize(attribute.getType().name()), entry);
+        }
+    }
+
+    private static void remove(Map<String, Set<Entry>> postings, String term, Entry entry) {
+        Set<Entry> entries = postings.get(term);
+        if (entries != null) {
+            entries.remove(entry);
+            if (entries.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static Set<String> getNameTerms(String name) {
+        Set<String> terms = new HashSet<>();
+        if (name != null) {
+            terms.add(normalize(name));
+            for (String token : NAME_TOKEN_SEPARATOR.split(name)) {
+                if (!token.isEmpty()) {
+                    terms.add(normalize(token));
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static List<Attribute> getAttributes(SiddhiStoreElement storeElement) {
+        return (storeElement.getAttributes() == null) ? Collections.emptyList() : storeElement.getAttributes();
+    }
+
+    private static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static boolean isEmpty(String value) {
+        return (value == null) || value.trim().isEmpty();
+    }
+
+    /**
+     * A store element found in the index.
+     */
+    public static final class Entry {
+
+        private final String siddhiAppName;
+        private final SiddhiStoreElement storeElement;
+
+        private Entry(String siddhiAppName, SiddhiStoreElement storeElement) {
+            this.siddhiAppName = siddhiAppName;
+            this.storeElement = storeElement;
+        }
+
+        public String getSiddhiAppName() {
+            return siddhiAppName;
+        }
+
+        public SiddhiStoreElement getStoreElement() {
+            return storeElement;
+        }
+    }
+
+    /**
+     * Store elements of a Siddhi app as they were indexed.
+     */
+    private static final class IndexedApp {
+
+        private final List<SiddhiStoreElement> storeElements;
+        private final List<Entry> entries;
+
+        private IndexedApp(List<SiddhiStoreElement> storeElements, List<Entry> entries) {
+            this.storeElements = storeElements;
+            this.entries = entries;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+/**
+ * Thrown when a store query cannot be executed. Carries the HTTP status to respond with.
+ *
+ * @since 4.1.26
+ */
+public class StoreQueryException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public StoreQueryException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public StoreQueryException(int status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    /**
+     * Returns the HTTP status to respond with.
+     *
+     * @return HTTP status code
+     */
+    public int getStatus() {
+        return status;
+    }
+}
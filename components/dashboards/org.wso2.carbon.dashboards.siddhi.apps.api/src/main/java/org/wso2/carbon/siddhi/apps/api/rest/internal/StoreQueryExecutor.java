@@ -0,0 +1,318 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.dashboards.core.bean.CacheStatistics;
+import org.wso2.carbon.dashboards.core.cache.BoundedCache;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.StoreQuery;
+import org.wso2.carbon.siddhi.apps.api.rest.config.DeploymentConfigs;
+import org.wso2.carbon.siddhi.apps.api.rest.worker.WorkerServiceFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.core.Response;
+
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.AGGREGATION;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.PROTOCOL;
+
+/**
+ * Executes store queries on the workers of Siddhi apps on behalf of dashboards. Results are cached for a short time
+ * keyed by the Siddhi app and the query, so that many viewers of the same dashboard send a single query to workers.
+ * Concurrent identical queries share a single request to the worker.
+ * <p>
+ * Queries are read only and always target the given store element: the Siddhi store query is built from the
+ * parameters of a {@link StoreQuery}, whose attributes must be attributes of the element, and whose limit cannot
+ * exceed the configured row limit. Results larger than the configured row and byte limits are rejected instead of
+ * being truncated.
+ *
+ * @since 4.1.26
+ */
+public class StoreQueryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreQueryExecutor.class);
+    private static final Gson GSON = new Gson();
+    private static final String RECORDS = "records";
+    /**
+     * Attribute that holds the start time of the aggregated period in the results of aggregation queries.
+     */
+    private static final String AGGREGATION_TIMESTAMP = "AGG_TIMESTAMP";
+    private static final Set<String> GRANULARITIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "seconds", "minutes", "hours", "days", "months", "years")));
+
+    private final SiddhiAppCatalogRefresher catalogRefresher;
+    private final int maxRows;
+    private final int maxBytes;
+    private final int timeout;
+    private final BoundedCache<QueryKey, String> resultCache;
+
+    /**
+     * Creates a new executor.
+     *
+     * @param deploymentConfigs datasearch configurations
+     * @param catalogRefresher  refresher of the catalog, which knows the workers of the Siddhi apps
+     */
+    public StoreQueryExecutor(DeploymentConfigs deploymentConfigs, SiddhiAppCatalogRefresher catalogRefresher) {
+        this.catalogRefresher = catalogRefresher;
+        this.maxRows = Math.max(1, deploymentConfigs.getStoreQueryMaxRows());
+        this.maxBytes = Math.max(1, deploymentConfigs.getStoreQueryMaxBytes());
+        this.timeout = Math.max(1, deploymentConfigs.getStoreQueryTimeout());
+        this.resultCache = new BoundedCache<>("siddhi-store-query-results",
+                                              Math.max(1, deploymentConfigs.getStoreQueryCacheSize()),
+                                              Math.max(0, deploymentConfigs.getStoreQueryCacheExpiry()),
+                                              TimeUnit.SECONDS);
+    }
+
+    /**
+     * Executes a store query on a store element, or returns the cached result of an identical query.
+     *
+     * @param appName      name of the Siddhi app
+     * @param storeElement store element of the Siddhi app
+     * @param query        parameters of the query, all attributes up to the row limit if {@code null}
+     * @return result as a JSON object with the {@code records}
+     * @throws StoreQueryException if the query is not allowed, or cannot be executed
+     */
+    public String execute(String appName, SiddhiStoreElement storeElement, StoreQuery query)
+            throws StoreQueryException {
+        String storeQuery = buildQuery(storeElement, (query == null) ? new StoreQuery() : query, maxRows);
+        return resultCache.get(new QueryKey(appName, storeQuery), key -> executeOnWorkers(appName, storeQuery));
+    }
+
+    /**
+     * Returns the statistics of the cache of query results.
+     *
+     * @return cache statistics
+     */
+    public CacheStatistics getResultCacheStatistics() {
+        return resultCache.getStatistics();
+    }
+
+    /**
+     * Builds the Siddhi store query of the given parameters. Attribute names and the granularity are checked against
+     * the store element and the known granularities, hence no text given by clients reaches the query unchecked.
+     *
+     * @param storeElement store element to query
+     * @param query        parameters of the query
+     * @param maxRows      maximum number of records a query may ask for
+     * @return Siddhi store query
+     * @throws StoreQueryException if a parameter is not valid for the store element
+     */
+    static String buildQuery(SiddhiStoreElement storeElement, StoreQuery query, int maxRows)
+            throws StoreQueryException {
+        boolean aggregation = AGGREGATION.equals(storeElement.getType());
+        Set<String> attributeNames = new HashSet<>();
+        storeElement.getAttributes().forEach(attribute -> attributeNames.add(attribute.getName()));
+        if (aggregation) {
+            attributeNames.add(AGGREGATION_TIMESTAMP);
+        }
+
+        StringBuilder storeQuery = new StringBuilder("from ").append(storeElement.getName());
+        if (aggregation) {
+            if ((query.getWithinStart() == null) || (query.getWithinEnd() == null) || (query.getPer() == null)) {
+                throw invalidQuery("Store queries on aggregations require 'withinStart', 'withinEnd' and 'per'");
+            }
+            if (!GRANULARITIES.contains(query.getPer())) {
+                throw invalidQuery("'per' should be one of " + GRANULARITIES);
+            }
+            storeQuery.append(" within ").append(query.getWithinStart()).append("L, ").append(query.getWithinEnd())
+                    .append("L per '").append(query.getPer()).append('\'');
+        } else if ((query.getWithinStart() != null) || (query.getWithinEnd() != null) || (query.getPer() != null)) {
+            throw invalidQuery("'withinStart', 'withinEnd' and 'per' are allowed only for aggregations");
+        }
+
+        List<String> attributes = query.getAttributes();
+        if ((attributes == null) || attributes.isEmpty()) {
+            storeQuery.append(" select *");
+        } else {
+            for (String attribute : attributes) {
+                checkAttribute(attribute, attributeNames);
+            }
+            storeQuery.append(" select ").append(String.join(", ", attributes));
+        }
+        if (query.getOrderBy() != null) {
+            checkAttribute(query.getOrderBy(), attributeNames);
+            storeQuery.append(" order by ").append(query.getOrderBy()).append(query.isDescending() ? " desc" : "");
+        }
+        int limit = (query.getLimit() == null) ? maxRows : query.getLimit();
+        if ((limit < 1) || (limit > maxRows)) {
+            throw invalidQuery("'limit' should be between 1 and " + maxRows);
+        }
+        return storeQuery.append(" limit ").append(limit).toString();
+    }
+
+    private static void checkAttribute(String attribute, Set<String> attributeNames) throws StoreQueryException {
+        if (!attributeNames.contains(attribute)) {
+            throw invalidQuery("Store element has no attribute named '" + attribute + "'");
+        }
+    }
+
+    private static StoreQueryException invalidQuery(String message) {
+        return new StoreQueryException(Response.Status.BAD_REQUEST.getStatusCode(), message);
+    }
+
+    private String executeOnWorkers(String appName, String storeQuery) throws StoreQueryException {
+        List<String> workers = catalogRefresher.getWorkers(appName);
+        if (workers.isEmpty()) {
+            throw new StoreQueryException(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(),
+                                          "No worker is known to run Siddhi app " + appName);
+        }
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("appName", appName);
+        requestBody.addProperty("query", storeQuery);
+        String requestJson = GSON.toJson(requestBody);
+
+        StoreQueryException lastError = null;
+        // Same app deployed on several workers, e.g. for high availability, is queried on the next worker on errors.
+        for (String worker : workers) {
+            try {
+                return executeOnWorker(worker, requestJson);
+            } catch (StoreQueryException e) {
+                if (e.getStatus() != Response.Status.BAD_GATEWAY.getStatusCode()) {
+                    throw e;
+                }
+                log.warn("Unable to execute store query on worker " + worker + ", " + e.getMessage());
+                lastError = e;
+            }
+        }
+        throw lastError;
+    }
+
+    private String executeOnWorker(String worker, String requestJson) throws StoreQueryException {
+        SiddhiAppsDataHolder dataHolder = SiddhiAppsDataHolder.getInstance();
+        int status;
+        String body;
+        // Store queries may take longer than the requests that fetch Siddhi apps, hence they have their own timeout.
+        try (feign.Response response = WorkerServiceFactory.getWorkerHttpsClient(
+                PROTOCOL + worker, dataHolder.getUsername(), dataHolder.getPassword(), timeout)
+                .executeStoreQuery(requestJson)) {
+            status = response.status();
+            body = readBody(response);
+        } catch (IOException | RuntimeException e) {
+            // Any client error, e.g. an unreachable worker or a failure to build its client, is tried on other workers.
+            throw new StoreQueryException(Response.Status.BAD_GATEWAY.getStatusCode(),
+                                          "worker is unreachable: " + e.getMessage(), e);
+        }
+        if (status == Response.Status.BAD_REQUEST.getStatusCode()) {
+            // Invalid query, which no other worker would execute either.
+            throw new StoreQueryException(Response.Status.BAD_REQUEST.getStatusCode(),
+                                          "Invalid store query: " + body);
+        } else if (status != Response.Status.OK.getStatusCode()) {
+            throw new StoreQueryException(Response.Status.BAD_GATEWAY.getStatusCode(),
+                                          "worker responded with status " + status);
+        }
+
+        JsonArray records;
+        try {
+            JsonElement result = new JsonParser().parse(body);
+            JsonElement recordsElement = result.isJsonObject() ? result.getAsJsonObject().get(RECORDS) : null;
+            records = ((recordsElement == null) || recordsElement.isJsonNull()) ? new JsonArray() :
+                    recordsElement.getAsJsonArray();
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new StoreQueryException(Response.Status.BAD_GATEWAY.getStatusCode(),
+                                          "worker responded with an invalid result", e);
+        }
+        if (records.size() > maxRows) {
+            throw new StoreQueryException(Response.Status.BAD_REQUEST.getStatusCode(),
+                                          "Store query result has more than " + maxRows + " rows");
+        }
+        JsonObject result = new JsonObject();
+        result.add(RECORDS, records);
+        return GSON.toJson(result);
+    }
+
+    /**
+     * Reads the body of a worker response, up to the maximum result size.
+     */
+    private String readBody(feign.Response response) throws IOException, StoreQueryException {
+        if (response.body() == null) {
+            return "";
+        }
+        Integer length = response.body().length();
+        if ((length != null) && (length > maxBytes)) {
+            throw resultTooLarge();
+        }
+        try (InputStream inputStream = response.body().asInputStream()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                if (outputStream.size() + read > maxBytes) {
+                    throw resultTooLarge();
+                }
+                outputStream.write(buffer, 0, read);
+            }
+            return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private StoreQueryException resultTooLarge() {
+        return new StoreQueryException(Response.Status.BAD_REQUEST.getStatusCode(),
+                                       "Store query result is larger than " + maxBytes + " bytes, lower the " +
+                                               "limit of the query");
+    }
+
+    /**
+     * Identifies the results that can be reused.
+     */
+    private static final class QueryKey {
+
+        private final String appName;
+        private final String query;
+
+        private QueryKey(String appName, String query) {
+            this.appName = appName;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey other = (QueryKey) obj;
+            return appName.equals(other.appName) && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(appName, query);
+        }
+    }
+}
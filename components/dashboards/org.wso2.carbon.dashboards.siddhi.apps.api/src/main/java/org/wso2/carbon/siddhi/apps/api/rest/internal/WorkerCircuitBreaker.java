@@ -0,0 +1,121 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for the requests sent to a worker. After a number of consecutive failures, requests are not sent to
+ * the worker until a backoff elapses, which doubles every time a probe fails again. Once the backoff elapses a single
+ * probe request is let through, and the breaker closes again if it succeeds.
+ *
+ * @since 4.1.26
+ */
+final class WorkerCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerCircuitBreaker.class);
+
+    /**
+     * States of a circuit breaker.
+     */
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String worker;
+    private final int failureThreshold;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long backoffMillis;
+    private long retryTime;
+
+    WorkerCircuitBreaker(String worker, int failureThreshold, long initialBackoffMillis, long maxBackoffMillis) {
+        this.worker = worker;
+        this.failureThreshold = failureThreshold;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Checks whether a request that probes the worker, i.e. lists its Siddhi apps, can be sent.
+     *
+     * @return {@code true} if the request can be sent
+     */
+    synchronized boolean allowProbe() {
+        if (state == State.OPEN && System.currentTimeMillis() >= retryTime) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Checks whether further requests can be sent to the worker, e.g. to fetch Siddhi apps once they are listed.
+     *
+     * @return {@code true} if requests can be sent
+     */
+    synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Worker " + worker + " is reachable again");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        backoffMillis = 0;
+    }
+
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            backoffMillis = Math.min(maxBackoffMillis, backoffMillis * 2);
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            backoffMillis = initialBackoffMillis;
+        } else {
+            return;
+        }
+        state = State.OPEN;
+        retryTime = System.currentTimeMillis() + backoffMillis;
+        log.warn("Worker " + worker + " failed " + consecutiveFailures + " consecutive requests, hence it is not " +
+                "contacted for " + TimeUnit.MILLISECONDS.toSeconds(backoffMillis) + " seconds");
+    }
+
+    /**
+     * Returns the state of this breaker for diagnostics.
+     *
+     * @return state
+     */
+    synchronized Map<String, Object> getDiagnostics() {
+        Map<String, Object> diagnostics = new LinkedHashMap<>();
+        diagnostics.put("state", state.name());
+        diagnostics.put("consecutiveFailures", consecutiveFailures);
+        diagnostics.put("retryTime", (state == State.CLOSED) ? null : retryTime);
+        return diagnostics;
+    }
+}
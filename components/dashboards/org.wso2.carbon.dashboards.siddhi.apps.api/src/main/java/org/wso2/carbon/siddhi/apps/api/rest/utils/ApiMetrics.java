@@ -0,0 +1,111 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.utils;
+
+import org.wso2.carbon.metrics.core.Counter;
+import org.wso2.carbon.metrics.core.Histogram;
+import org.wso2.carbon.metrics.core.Level;
+import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Timer;
+import org.wso2.carbon.siddhi.apps.api.rest.internal.SiddhiAppsDataHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.ws.rs.core.Response;
+
+/**
+ * Records latency, error and response size metrics for the routes of the Siddhi apps REST API, through the Carbon
+ * metrics service when it is available. Metrics are named
+ * {@code org.wso2.carbon.siddhi.apps.api.<METHOD> <path>.<metric>}.
+ *
+ * @since 4.1.26
+ */
+public class ApiMetrics {
+
+    private static final String METRIC_PREFIX = "org.wso2.carbon.siddhi.apps.api.";
+    private static final ConcurrentMap<String, RouteMetrics> ROUTE_METRICS = new ConcurrentHashMap<>();
+
+    private ApiMetrics() {
+    }
+
+    /**
+     * Runs a resource method and records its metrics.
+     *
+     * @param route          HTTP method and full path of the route
+     * @param resourceMethod body of the resource method
+     * @return response of the resource method
+     */
+    public static Response time(String route, Supplier<Response> resourceMethod) {
+        MetricService metricService = SiddhiAppsDataHolder.getInstance().getMetricService();
+        if (metricService == null) {
+            return resourceMethod.get();
+        }
+        long startTime = System.nanoTime();
+        Response response = null;
+        try {
+            response = resourceMethod.get();
+            return response;
+        } finally {
+            RouteMetrics metrics = ROUTE_METRICS.get(route);
+            if ((metrics == null) || (metrics.metricService != metricService)) {
+                metrics = new RouteMetrics(metricService, METRIC_PREFIX + route);
+                ROUTE_METRICS.put(route, metrics);
+            }
+            metrics.record(System.nanoTime() - startTime, response);
+        }
+    }
+
+    /**
+     * Metrics of a single route.
+     */
+    private static class RouteMetrics {
+
+        private final MetricService metricService;
+        private final Timer latency;
+        private final Counter clientErrors;
+        private final Counter serverErrors;
+        private final Histogram responseSize;
+
+        private RouteMetrics(MetricService metricService, String name) {
+            this.metricService = metricService;
+            this.latency = metricService.timer(name + ".latency", Level.INFO);
+            this.clientErrors = metricService.counter(name + ".clientErrors", Level.INFO);
+            this.serverErrors = metricService.counter(name + ".serverErrors", Level.INFO);
+            this.responseSize = metricService.histogram(name + ".responseSize", Level.INFO);
+        }
+
+        private void record(long elapsedNanos, Response response) {
+            latency.update(elapsedNanos, TimeUnit.NANOSECONDS);
+            int status = (response == null) ? 500 : response.getStatus();
+            if (status >= 500) {
+                serverErrors.inc();
+            } else if (status >= 400) {
+                clientErrors.inc();
+            }
+            // Responses of this API carry JSON strings.
+            if ((response != null) && (response.getEntity() instanceof String)) {
+                responseSize.update(((String) response.getEntity()).getBytes(StandardCharsets.UTF_8).length);
+            }
+        }
+    }
+}
@@ -25,6 +25,9 @@ package org.wso2.carbon.siddhi.apps.api.rest.utils;
 public class Constants {
     public static final String PROTOCOL = "https://";
     public static final String STORE_ANNOTATION = "@store";
+    public static final String STORE_ANNOTATION_NAME = "store";
+    public static final String PRIMARY_KEY_ANNOTATION_NAME = "PrimaryKey";
+    public static final String INDEX_ANNOTATION_NAME = "Index";
     public static final String AGGREGATION = "Aggregation";
     public static final String TABLE = "Table";
     public static final String WINDOW = "Window";
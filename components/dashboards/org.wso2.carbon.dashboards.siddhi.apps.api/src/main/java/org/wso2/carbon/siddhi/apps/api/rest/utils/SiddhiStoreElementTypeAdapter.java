@@ -0,0 +1,222 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.utils;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.siddhi.query.api.definition.Attribute;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hand-written type adapter for {@link SiddhiStoreElement}, which writes the same JSON as the reflective Gson binding
+ * without its reflection overhead. Attributes are written with their name, type and query context indexes. Primary
+ * keys and indexes are written only if the element has any.
+ *
+ * @since 4.1.26
+ */
+public class SiddhiStoreElementTypeAdapter extends TypeAdapter<SiddhiStoreElement> {
+
+    @Override
+    public void write(JsonWriter out, SiddhiStoreElement element) throws IOException {
+        if (element == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(element.getName());
+        out.name("definition").value(element.getDefinition());
+        out.name("type").value(element.getType());
+        List<Attribute> attributes = element.getAttributes();
+        if (attributes != null) {
+            out.name("attributes").beginArray();
+            for (Attribute attribute : attributes) {
+                writeAttribute(out, attribute);
+            }
+            out.endArray();
+        }
+        writeStrings(out, "primaryKeys", element.getPrimaryKeys());
+        writeStrings(out, "indexes", element.getIndexes());
+        out.endObject();
+    }
+
+    @Override
+    public SiddhiStoreElement read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        String name = null;
+        String definition = null;
+        String type = null;
+        List<Attribute> attributes = null;
+        List<String> primaryKeys = Collections.emptyList();
+        List<String> indexes = Collections.emptyList();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    name = readString(in);
+                    break;
+                case "definition":
+                    definition = readString(in);
+                    break;
+                case "type":
+                    type = readString(in);
+                    break;
+                case "attributes":
+                    if (!skipNull(in)) {
+                        attributes = new ArrayList<>();
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            attributes.add(readAttribute(in));
+                        }
+                        in.endArray();
+                    }
+                    break;
+                case "primaryKeys":
+                    primaryKeys = readStrings(in);
+                    break;
+                case "indexes":
+                    indexes = readStrings(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        SiddhiStoreElement element = new SiddhiStoreElement(name, definition, type, attributes);
+        element.setPrimaryKeys(primaryKeys);
+        element.setIndexes(indexes);
+        return element;
+    }
+
+    private static void writeAttribute(JsonWriter out, Attribute attribute) throws IOException {
+        if (attribute == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(attribute.getName());
+        out.name("type").value((attribute.getType() == null) ? null : attribute.getType().name());
+        writeIndexes(out, "queryContextStartIndex", attribute.getQueryContextStartIndex());
+        writeIndexes(out, "queryContextEndIndex", attribute.getQueryContextEndIndex());
+        out.endObject();
+    }
+
+    private static Attribute readAttribute(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        String name = null;
+        Attribute.Type type = null;
+        int[] queryContextStartIndex = null;
+        int[] queryContextEndIndex = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name":
+                    name = readString(in);
+                    break;
+                case "type":
+                    String typeName = readString(in);
+                    type = (typeName == null) ? null : Attribute.Type.valueOf(typeName);
+                    break;
+                case "queryContextStartIndex":
+                    queryContextStartIndex = readIndexes(in);
+                    break;
+                case "queryContextEndIndex":
+                    queryContextEndIndex = readIndexes(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        Attribute attribute = new Attribute(name, type);
+        attribute.setQueryContextStartIndex(queryContextStartIndex);
+        attribute.setQueryContextEndIndex(queryContextEndIndex);
+        return attribute;
+    }
+
+    private static void writeIndexes(JsonWriter out, String name, int[] indexes) throws IOException {
+        if (indexes != null) {
+            out.name(name).beginArray();
+            for (int index : indexes) {
+                out.value(index);
+            }
+            out.endArray();
+        }
+    }
+
+    private static int[] readIndexes(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        List<Integer> indexes = new ArrayList<>(2);
+        in.beginArray();
+        while (in.hasNext()) {
+            indexes.add(in.nextInt());
+        }
+        in.endArray();
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void writeStrings(JsonWriter out, String name, List<String> values) throws IOException {
+        // Omitted when empty, as most store elements have neither primary keys nor indexes.
+        if ((values != null) && !values.isEmpty()) {
+            out.name(name).beginArray();
+            for (String value : values) {
+                out.value(value);
+            }
+            out.endArray();
+        }
+    }
+
+    private static List<String> readStrings(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(readString(in));
+        }
+        in.endArray();
+        return values;
+    }
+
+    private static String readString(JsonReader in) throws IOException {
+        return skipNull(in) ? null : in.nextString();
+    }
+
+    private static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+}
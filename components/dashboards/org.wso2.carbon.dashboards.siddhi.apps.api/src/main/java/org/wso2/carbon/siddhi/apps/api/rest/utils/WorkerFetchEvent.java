@@ -0,0 +1,77 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.wso2.carbon.dashboards.core.jfr.FlightRecorderSupport;
+
+/**
+ * Flight recorder event for fetching Siddhi apps from a worker. Use only when
+ * {@link FlightRecorderSupport#isAvailable()}.
+ *
+ * @since 4.1.26
+ */
+@Name("org.wso2.carbon.dashboards.SiddhiWorkerFetch")
+@Label("Siddhi Worker Fetch")
+@Category({"WSO2", "Dashboards"})
+@StackTrace(false)
+public class WorkerFetchEvent extends Event {
+
+    @Label("Worker")
+    private String worker;
+
+    @Label("Siddhi App")
+    private String app;
+
+    @Label("Status")
+    private int status;
+
+    /**
+     * Creates an event and starts timing it.
+     *
+     * @return started event
+     */
+    public static WorkerFetchEvent start() {
+        WorkerFetchEvent event = new WorkerFetchEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event if it is being recorded.
+     *
+     * @param worker host and port of the worker
+     * @param app    name of the fetched Siddhi app, or {@code null} when fetching the names of the apps
+     * @param status status code of the worker response, or {@code -1} if the worker could not be reached
+     */
+    public void complete(String worker, String app, int status) {
+        end();
+        if (shouldCommit()) {
+            this.worker = worker;
+            this.app = app;
+            this.status = status;
+            commit();
+        }
+    }
+}
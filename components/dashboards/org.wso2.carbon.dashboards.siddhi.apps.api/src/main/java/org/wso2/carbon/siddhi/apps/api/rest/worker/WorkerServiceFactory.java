@@ -19,15 +19,95 @@
 
 package org.wso2.carbon.siddhi.apps.api.rest.worker;
 
+import org.wso2.carbon.analytics.idp.client.core.api.AnalyticsHttpClientBuilderService;
 import org.wso2.carbon.siddhi.apps.api.rest.internal.SiddhiAppsDataHolder;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
- * REST API service used to access service stub for calling workers
+ * REST API service used to access service stub for calling workers. Clients are reused for the same worker URL and
+ * credentials, so that their connections and TLS sessions are reused too.
  */
 public class WorkerServiceFactory {
 
+    private static final ConcurrentMap<ClientKey, WorkerServiceStub> CLIENTS = new ConcurrentHashMap<>();
+
     public static WorkerServiceStub getWorkerHttpsClient(String url, String username, String password) {
-        return SiddhiAppsDataHolder.getInstance().getClientBuilderService().build(username, password, 1000,
-                1000, WorkerServiceStub.class, url);
+        return getWorkerHttpsClient(url, username, password, SiddhiAppsDataHolder.getInstance().getWorkerReadTimeout());
+    }
+
+    /**
+     * Returns a client whose requests time out after the given time, e.g. for requests slower than fetching apps.
+     *
+     * @param url         URL of the worker
+     * @param username    username to access the worker
+     * @param password    password to access the worker
+     * @param readTimeout read timeout in milliseconds
+     * @return client
+     * @since 4.1.26
+     */
+    public static WorkerServiceStub getWorkerHttpsClient(String url, String username, String password,
+                                                         int readTimeout) {
+        SiddhiAppsDataHolder dataHolder = SiddhiAppsDataHolder.getInstance();
+        AnalyticsHttpClientBuilderService clientBuilderService = dataHolder.getClientBuilderService();
+        int connectTimeout = dataHolder.getWorkerConnectTimeout();
+        // Timeouts and the client builder are part of the key, so that clients built with stale ones are not used.
+        return CLIENTS.computeIfAbsent(
+                new ClientKey(url, username, password, connectTimeout, readTimeout, clientBuilderService),
+                key -> clientBuilderService.build(username, password, connectTimeout, readTimeout,
+                                                  WorkerServiceStub.class, url));
+    }
+
+    /**
+     * Discards the clients built so far, e.g. when worker configurations change.
+     *
+     * @since 4.1.26
+     */
+    public static void invalidateClients() {
+        CLIENTS.clear();
+    }
+
+    /**
+     * Identifies the clients that can be reused.
+     */
+    private static final class ClientKey {
+
+        private final String url;
+        private final String username;
+        private final String password;
+        private final int connectTimeout;
+        private final int readTimeout;
+        private final AnalyticsHttpClientBuilderService clientBuilderService;
+
+        private ClientKey(String url, String username, String password, int connectTimeout, int readTimeout,
+                          AnalyticsHttpClientBuilderService clientBuilderService) {
+            this.url = url;
+            this.username = username;
+            this.password = password;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.clientBuilderService = clientBuilderService;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ClientKey)) {
+                return false;
+            }
+            ClientKey other = (ClientKey) obj;
+            return url.equals(other.url) && Objects.equals(username, other.username) &&
+                    Objects.equals(password, other.password) && (connectTimeout == other.connectTimeout) &&
+                    (readTimeout == other.readTimeout) && (clientBuilderService == other.clientBuilderService);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, username, connectTimeout, readTimeout);
+        }
     }
 }
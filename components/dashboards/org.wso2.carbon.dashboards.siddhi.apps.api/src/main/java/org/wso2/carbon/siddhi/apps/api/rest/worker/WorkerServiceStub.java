@@ -36,4 +36,13 @@ public interface WorkerServiceStub {
     @RequestLine("GET /siddhi-apps/{appName}")
     @Headers("Content-Type: application/json")
     Response getSiddhiAppContent(@Param("appName") String appName);
+
+    /**
+     * Executes a store query, given as a JSON object with the {@code appName} and the {@code query}.
+     *
+     * @since 4.1.26
+     */
+    @RequestLine("POST /stores/query")
+    @Headers("Content-Type: application/json")
+    Response executeStoreQuery(String storeQuery);
 }
@@ -0,0 +1,159 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import io.siddhi.query.compiler.SiddhiCompiler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.analytics.idp.client.core.api.AnalyticsHttpClientBuilderService;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+import org.wso2.carbon.siddhi.apps.api.rest.config.DeploymentConfigs;
+import org.wso2.carbon.siddhi.apps.api.rest.worker.WorkerServiceFactory;
+import org.wso2.carbon.siddhi.apps.api.rest.worker.WorkerServiceStub;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.AGGREGATION;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.TABLE;
+
+/**
+ * Test cases for {@link SiddhiAppCatalogRefresher} class.
+ *
+ * @since 4.1.26
+ */
+public class SiddhiAppCatalogRefresherTest {
+
+    private static final String SIDDHI_APP = "@App:name('ShipmentHistoryApp')\n" +
+            "define stream ShipmentStream (name string, supplier string, amount double);\n" +
+            "@Store(type='rdbms', datasource='SweetFactoryDB')\n" +
+            "@PrimaryKey('name')\n" +
+            "@Index('supplier')\n" +
+            "define table ShipmentDetails (name string, supplier string, amount double);\n" +
+            "@store(type='rdbms', datasource='SweetFactoryDB', @primaryKey('name', 'supplier'))\n" +
+            "define table LegacyShipmentDetails (name string, supplier string, amount double);\n" +
+            "@purge(enable='false', description='kept in @store of another app')\n" +
+            "define table ShipmentCache (name string, amount double);\n" +
+            "@store(type='rdbms', datasource='SweetFactoryDB')\n" +
+            "define aggregation ShipmentAggregation\n" +
+            "from ShipmentStream\n" +
+            "select name, sum(amount) as totalAmount\n" +
+            "group by name\n" +
+            "aggregate every sec ... year;\n";
+    private static final String WORKER = "localhost:9443";
+
+    @AfterEach
+    void tearDown() {
+        SiddhiAppsDataHolder.getInstance().setWorkerList(null);
+        SiddhiAppsDataHolder.getInstance().setClientBuilderService(null);
+        WorkerServiceFactory.invalidateClients();
+    }
+
+    @Test
+    void testGetStoreElements() {
+        List<SiddhiStoreElement> storeElements =
+                SiddhiAppCatalogRefresher.getStoreElements(SiddhiCompiler.parse(SIDDHI_APP));
+
+        Assertions.assertEquals(Arrays.asList("LegacyShipmentDetails", "ShipmentAggregation", "ShipmentDetails"),
+                                storeElements.stream().map(SiddhiStoreElement::getName).collect(Collectors.toList()),
+                                "Only elements with a store annotation should be found");
+        SiddhiStoreElement legacyShipmentDetails = storeElements.get(0);
+        Assertions.assertEquals(TABLE, legacyShipmentDetails.getType());
+        Assertions.assertEquals(Arrays.asList("name", "supplier"), legacyShipmentDetails.getPrimaryKeys());
+        Assertions.assertEquals(Collections.emptyList(), legacyShipmentDetails.getIndexes());
+        SiddhiStoreElement shipmentAggregation = storeElements.get(1);
+        Assertions.assertEquals(AGGREGATION, shipmentAggregation.getType());
+        Assertions.assertEquals(Collections.emptyList(), shipmentAggregation.getPrimaryKeys());
+        SiddhiStoreElement shipmentDetails = storeElements.get(2);
+        Assertions.assertEquals(Collections.singletonList("name"), shipmentDetails.getPrimaryKeys());
+        Assertions.assertEquals(Collections.singletonList("supplier"), shipmentDetails.getIndexes());
+        Assertions.assertEquals(3, shipmentDetails.getAttributes().size());
+        Assertions.assertTrue(shipmentDetails.getDefinition().contains("define table ShipmentDetails"));
+    }
+
+    @Test
+    void testStoreElementsOfSameAppAreEqual() {
+        List<SiddhiStoreElement> storeElements =
+                SiddhiAppCatalogRefresher.getStoreElements(SiddhiCompiler.parse(SIDDHI_APP));
+        List<SiddhiStoreElement> recompiledStoreElements =
+                SiddhiAppCatalogRefresher.getStoreElements(SiddhiCompiler.parse(SIDDHI_APP));
+        List<SiddhiStoreElement> changedStoreElements = SiddhiAppCatalogRefresher.getStoreElements(
+                SiddhiCompiler.parse(SIDDHI_APP.replace("@Index('supplier')", "@Index('amount')")));
+
+        Assertions.assertEquals(storeElements, recompiledStoreElements);
+        Assertions.assertEquals(storeElements.hashCode(), recompiledStoreElements.hashCode());
+        Assertions.assertNotEquals(storeElements, changedStoreElements);
+    }
+
+    @Test
+    void testStoreElementsWithChangedAnnotationsAreNotEqual() {
+        List<SiddhiStoreElement> storeElements =
+                SiddhiAppCatalogRefresher.getStoreElements(SiddhiCompiler.parse(SIDDHI_APP));
+        List<SiddhiStoreElement> changedStoreElements = SiddhiAppCatalogRefresher.getStoreElements(
+                SiddhiCompiler.parse(SIDDHI_APP.replace("@Store(type='rdbms', datasource='SweetFactoryDB')",
+                                                        "@Store(type='rdbms', datasource='ShipmentDB')")));
+
+        Assertions.assertEquals(storeElements.get(0), changedStoreElements.get(0));
+        Assertions.assertNotEquals(storeElements.get(2), changedStoreElements.get(2),
+                                   "Elements stored elsewhere should not be equal");
+    }
+
+    @Test
+    void testRefreshFailsOnceStopped() {
+        SiddhiAppCatalogRefresher refresher = new SiddhiAppCatalogRefresher(new DeploymentConfigs());
+        refresher.stop();
+
+        CompletableFuture<Void> refresh = refresher.refresh();
+        Assertions.assertTrue(refresh.isCompletedExceptionally(), "Refresh should not wait for a stopped refresher");
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, refresh::get);
+        Assertions.assertTrue(exception.getCause() instanceof RejectedExecutionException);
+    }
+
+    @Test
+    void testUnexpectedProbeErrorsAreRecordedAsFailures() throws Exception {
+        WorkerServiceStub workerService = Mockito.mock(WorkerServiceStub.class);
+        Mockito.when(workerService.getSiddhiAppNames()).thenThrow(new IllegalStateException("Malformed response"));
+        AnalyticsHttpClientBuilderService clientBuilderService = Mockito.mock(AnalyticsHttpClientBuilderService.class);
+        Mockito.when(clientBuilderService.build(Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt(),
+                                                Mockito.eq(WorkerServiceStub.class), Mockito.anyString()))
+                .thenReturn(workerService);
+        SiddhiAppsDataHolder.getInstance().setClientBuilderService(clientBuilderService);
+        SiddhiAppsDataHolder.getInstance().setWorkerList(Collections.singletonList(WORKER));
+        SiddhiAppCatalogRefresher refresher = new SiddhiAppCatalogRefresher(new DeploymentConfigs());
+        try {
+            refresher.refresh().get(10, TimeUnit.SECONDS);
+
+            Map<?, ?> diagnostics = (Map<?, ?>) refresher.getWorkerDiagnostics().get(WORKER);
+            Assertions.assertEquals(1, diagnostics.get("consecutiveFailures"),
+                                    "A probe that failed unexpectedly should count as a failure of the worker");
+        } finally {
+            refresher.stop();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import io.siddhi.query.api.definition.Attribute;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.AGGREGATION;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.TABLE;
+
+/**
+ * Test cases for {@link StoreElementIndex} class.
+ *
+ * @since 4.1.26
+ */
+public class StoreElementIndexTest {
+
+    private static final SiddhiStoreElement SHIPMENT_DETAILS = createStoreElement(
+            "ShipmentDetails", TABLE, new Attribute("name", Attribute.Type.STRING),
+            new Attribute("amount", Attribute.Type.DOUBLE));
+    private static final SiddhiStoreElement SHIPMENT_AGGREGATION = createStoreElement(
+            "ShipmentAggregation", AGGREGATION, new Attribute("name", Attribute.Type.STRING),
+            new Attribute("totalAmount", Attribute.Type.DOUBLE));
+    private static final SiddhiStoreElement SUPPLIER_DETAILS = createStoreElement(
+            "supplier_details", TABLE, new Attribute("supplier", Attribute.Type.STRING));
+
+    @Test
+    void testSearchByName() {
+        StoreElementIndex index = createIndex();
+
+        Assertions.assertEquals(Arrays.asList("ShipmentAggregation", "ShipmentDetails"),
+                                getNames(index.search("ship", null, null, null)), "Name prefix should match");
+        Assertions.assertEquals(Arrays.asList("ShipmentDetails", "supplier_details"),
+                                getNames(index.search(" DETAILS ", null, null, null)),
+                                "Words in names should match case insensitively");
+        Assertions.assertEquals(Collections.singletonList("ShipmentDetails"),
+                                getNames(index.search("shipmentdet", null, null, null)));
+        Assertions.assertEquals(Collections.emptyList(), getNames(index.search("ipment", null, null, null)),
+                                "Only prefixes of names and words should match");
+        Assertions.assertEquals("SupplierApp",
+                                index.search("supplier", null, null, null).get(0).getSiddhiAppName());
+    }
+
+    @Test
+    void testCriteriaAreCombined() {
+        StoreElementIndex index = createIndex();
+
+        Assertions.assertEquals(Arrays.asList("ShipmentDetails", "supplier_details"),
+                                getNames(index.search(null, "table", null, null)));
+        Assertions.assertEquals(Arrays.asList("ShipmentAggregation", "ShipmentDetails"),
+                                getNames(index.search(null, null, "NAME", "string")));
+        Assertions.assertEquals(Collections.singletonList("ShipmentDetails"),
+                                getNames(index.search("shipment", TABLE, "name", "double")),
+                                "Elements should match all criteria");
+        Assertions.assertEquals(Collections.emptyList(), getNames(index.search("supplier", AGGREGATION, null, null)));
+        Assertions.assertEquals(Collections.emptyList(), getNames(index.search(null, "", " ", null)),
+                                "Nothing should match without criteria");
+    }
+
+    @Test
+    void testUpdate() {
+        StoreElementIndex index = createIndex();
+        SiddhiStoreElement shipmentHistory = createStoreElement(
+                "ShipmentHistory", TABLE, new Attribute("name", Attribute.Type.STRING),
+                new Attribute("amount", Attribute.Type.DOUBLE));
+
+        Map<String, List<SiddhiStoreElement>> siddhiAppMap = new HashMap<>();
+        siddhiAppMap.put("ShipmentApp", Arrays.asList(shipmentHistory, SHIPMENT_AGGREGATION));
+        index.update(siddhiAppMap);
+
+        Assertions.assertEquals(Arrays.asList("ShipmentAggregation", "ShipmentHistory"),
+                                getNames(index.search("shipment", null, null, null)),
+                                "Elements of a changed app should be indexed again");
+        Assertions.assertEquals(Collections.emptyList(), getNames(index.search("details", null, null, null)),
+                                "Elements of removed apps and removed elements should not be found");
+        Assertions.assertEquals(Collections.emptyList(), getNames(index.search(null, null, "supplier", null)),
+                                "Attributes of removed apps should not be found");
+        Assertions.assertEquals(Collections.singletonList("ShipmentHistory"),
+                                getNames(index.search(null, TABLE, null, null)));
+
+        index.update(Collections.emptyMap());
+        Assertions.assertEquals(Collections.emptyList(), getNames(index.search(null, null, "name", null)));
+    }
+
+    private static StoreElementIndex createIndex() {
+        Map<String, List<SiddhiStoreElement>> siddhiAppMap = new HashMap<>();
+        siddhiAppMap.put("ShipmentApp", Arrays.asList(SHIPMENT_DETAILS, SHIPMENT_AGGREGATION));
+        siddhiAppMap.put("SupplierApp", Collections.singletonList(SUPPLIER_DETAILS));
+        StoreElementIndex index = new StoreElementIndex();
+        index.update(siddhiAppMap);
+        return index;
+    }
+
+    private static SiddhiStoreElement createStoreElement(String name, String type, Attribute... attributes) {
+        return new SiddhiStoreElement(name, "define " + type + " " + name, type, Arrays.asList(attributes));
+    }
+
+    private static List<String> getNames(List<StoreElementIndex.Entry> entries) {
+        return entries.stream().map(entry -> entry.getStoreElement().getName()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import io.siddhi.query.api.definition.Attribute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.analytics.idp.client.core.api.AnalyticsHttpClientBuilderService;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.SiddhiStoreElement;
+import org.wso2.carbon.siddhi.apps.api.rest.bean.StoreQuery;
+import org.wso2.carbon.siddhi.apps.api.rest.config.DeploymentConfigs;
+import org.wso2.carbon.siddhi.apps.api.rest.worker.WorkerServiceFactory;
+import org.wso2.carbon.siddhi.apps.api.rest.worker.WorkerServiceStub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.AGGREGATION;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.PROTOCOL;
+import static org.wso2.carbon.siddhi.apps.api.rest.utils.Constants.TABLE;
+
+/**
+ * Test cases for {@link StoreQueryExecutor} class, which query a local stub worker.
+ *
+ * @since 4.1.26
+ */
+public class StoreQueryExecutorTest {
+
+    private static final String APP_NAME = "ShipmentHistoryApp";
+    private static final SiddhiStoreElement SHIPMENT_DETAILS = new SiddhiStoreElement(
+            "ShipmentDetails", "define table ShipmentDetails (name string, amount double)", TABLE,
+            Arrays.asList(new Attribute("name", Attribute.Type.STRING),
+                          new Attribute("amount", Attribute.Type.DOUBLE)));
+    private static final SiddhiStoreElement SHIPMENT_AGGREGATION = new SiddhiStoreElement(
+            "ShipmentAggregation", "define aggregation ShipmentAggregation", AGGREGATION,
+            Arrays.asList(new Attribute("name", Attribute.Type.STRING),
+                          new Attribute("totalAmount", Attribute.Type.DOUBLE)));
+    private static final String RECORDS = "{\"records\":[[\"Toffee\",100.0],[\"Candy\",50.0]]}";
+
+    private final List<HttpServer> workers = new ArrayList<>();
+    private final ExecutorService workerThreads = Executors.newCachedThreadPool();
+    private SiddhiAppCatalogRefresher catalogRefresher;
+    private DeploymentConfigs deploymentConfigs;
+
+    @BeforeEach
+    void setUp() {
+        AnalyticsHttpClientBuilderService clientBuilderService = Mockito.mock(AnalyticsHttpClientBuilderService.class);
+        // Stub workers listen on plain HTTP.
+        Mockito.when(clientBuilderService.build(Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt(),
+                                                Mockito.eq(WorkerServiceStub.class), Mockito.anyString()))
+                .thenAnswer(invocation -> Feign.builder().target(
+                        WorkerServiceStub.class,
+                        "http://" + invocation.<String>getArgument(5).substring(PROTOCOL.length())));
+        SiddhiAppsDataHolder.getInstance().setClientBuilderService(clientBuilderService);
+        catalogRefresher = Mockito.mock(SiddhiAppCatalogRefresher.class);
+        deploymentConfigs = new DeploymentConfigs();
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.forEach(worker -> worker.stop(0));
+        workerThreads.shutdownNow();
+        SiddhiAppsDataHolder.getInstance().setClientBuilderService(null);
+        WorkerServiceFactory.invalidateClients();
+    }
+
+    @Test
+    void testExecuteForwardsQueryToWorker() throws Exception {
+        List<String> requests = new CopyOnWriteArrayList<>();
+        String worker = startWorker(200, RECORDS, 0, requests);
+        Mockito.when(catalogRefresher.getWorkers(APP_NAME)).thenReturn(Collections.singletonList(worker));
+        StoreQueryExecutor executor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+
+        String result = executor.execute(APP_NAME, SHIPMENT_DETAILS, query(10, "name", "amount"));
+
+        Assertions.assertEquals(RECORDS, result);
+        Assertions.assertEquals(1, requests.size());
+        Assertions.assertTrue(requests.get(0).contains("\"appName\":\"" + APP_NAME + "\""));
+        Assertions.assertTrue(requests.get(0).contains("\"query\":\"from ShipmentDetails select name, amount limit " +
+                                                               "10\""));
+    }
+
+    @Test
+    void testIdenticalQueriesAreCached() throws Exception {
+        List<String> requests = new CopyOnWriteArrayList<>();
+        String worker = startWorker(200, RECORDS, 0, requests);
+        Mockito.when(catalogRefresher.getWorkers(APP_NAME)).thenReturn(Collections.singletonList(worker));
+        StoreQueryExecutor executor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+
+        executor.execute(APP_NAME, SHIPMENT_DETAILS, query(null, "name", "amount"));
+        executor.execute(APP_NAME, SHIPMENT_DETAILS, query(deploymentConfigs.getStoreQueryMaxRows(), "name", "amount"));
+        Assertions.assertEquals(1, requests.size(), "Queries that build the same store query share results");
+
+        executor.execute(APP_NAME, SHIPMENT_DETAILS, query(1, "name", "amount"));
+        Assertions.assertEquals(2, requests.size());
+        Assertions.assertEquals(1, executor.getResultCacheStatistics().getHitCount());
+    }
+
+    @Test
+    void testConcurrentIdenticalQueriesShareRequest() throws Exception {
+        List<String> requests = new CopyOnWriteArrayList<>();
+        String worker = startWorker(200, RECORDS, 200, requests);
+        Mockito.when(catalogRefresher.getWorkers(APP_NAME)).thenReturn(Collections.singletonList(worker));
+        StoreQueryExecutor executor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(threads.submit(() -> executor.execute(APP_NAME, SHIPMENT_DETAILS, null)));
+            }
+            for (Future<String> result : results) {
+                Assertions.assertEquals(RECORDS, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        Assertions.assertEquals(1, requests.size());
+    }
+
+    @Test
+    void testResultLimits() throws Exception {
+        List<String> requests = new CopyOnWriteArrayList<>();
+        String worker = startWorker(200, RECORDS, 0, requests);
+        Mockito.when(catalogRefresher.getWorkers(APP_NAME)).thenReturn(Collections.singletonList(worker));
+
+        deploymentConfigs.setStoreQueryMaxRows(1);
+        StoreQueryExecutor rowLimitedExecutor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+        StoreQueryException e = Assertions.assertThrows(
+                StoreQueryException.class, () -> rowLimitedExecutor.execute(APP_NAME, SHIPMENT_DETAILS, null));
+        Assertions.assertEquals(400, e.getStatus());
+        Assertions.assertThrows(StoreQueryException.class,
+                                () -> rowLimitedExecutor.execute(APP_NAME, SHIPMENT_DETAILS, null));
+        Assertions.assertEquals(2, requests.size(), "Rejected results should not be cached");
+
+        deploymentConfigs.setStoreQueryMaxRows(10);
+        deploymentConfigs.setStoreQueryMaxBytes(RECORDS.length() - 1);
+        StoreQueryExecutor sizeLimitedExecutor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+        e = Assertions.assertThrows(StoreQueryException.class,
+                                    () -> sizeLimitedExecutor.execute(APP_NAME, SHIPMENT_DETAILS, null));
+        Assertions.assertEquals(400, e.getStatus());
+    }
+
+    @Test
+    void testFailingWorkerIsSkipped() throws Exception {
+        String failingWorker = startWorker(500, "", 0, new CopyOnWriteArrayList<>());
+        String worker = startWorker(200, RECORDS, 0, new CopyOnWriteArrayList<>());
+        Mockito.when(catalogRefresher.getWorkers(APP_NAME)).thenReturn(Arrays.asList(failingWorker, worker));
+        StoreQueryExecutor executor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+
+        Assertions.assertEquals(RECORDS, executor.execute(APP_NAME, SHIPMENT_DETAILS, null));
+    }
+
+    @Test
+    void testInvalidQueryIsNotRetried() throws Exception {
+        List<String> requests = new CopyOnWriteArrayList<>();
+        String invalidQueryWorker = startWorker(400, "Invalid query", 0, requests);
+        String worker = startWorker(200, RECORDS, 0, requests);
+        Mockito.when(catalogRefresher.getWorkers(APP_NAME)).thenReturn(Arrays.asList(invalidQueryWorker, worker));
+        StoreQueryExecutor executor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+
+        StoreQueryException e = Assertions.assertThrows(
+                StoreQueryException.class, () -> executor.execute(APP_NAME, SHIPMENT_DETAILS, query(1, "name")));
+        Assertions.assertEquals(400, e.getStatus());
+        Assertions.assertEquals(1, requests.size());
+    }
+
+    @Test
+    void testWorkerClientErrorsAreFailedOver() throws Exception {
+        String worker = startWorker(200, RECORDS, 0, new CopyOnWriteArrayList<>());
+        String brokenWorker = "broken-worker:9443";
+        AnalyticsHttpClientBuilderService clientBuilderService =
+                SiddhiAppsDataHolder.getInstance().getClientBuilderService();
+        Mockito.when(clientBuilderService.build(Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.anyInt(),
+                                                Mockito.eq(WorkerServiceStub.class),
+                                                Mockito.eq(PROTOCOL + brokenWorker)))
+                .thenThrow(new IllegalStateException("Unable to build client"));
+        Mockito.when(catalogRefresher.getWorkers(APP_NAME)).thenReturn(Arrays.asList(brokenWorker, worker));
+        StoreQueryExecutor executor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+
+        Assertions.assertEquals(RECORDS, executor.execute(APP_NAME, SHIPMENT_DETAILS, null));
+    }
+
+    @Test
+    void testStoreQueriesUseTheirOwnTimeout() throws Exception {
+        String worker = startWorker(200, RECORDS, 0, new CopyOnWriteArrayList<>());
+        Mockito.when(catalogRefresher.getWorkers(APP_NAME)).thenReturn(Collections.singletonList(worker));
+        deploymentConfigs.setStoreQueryTimeout(12345);
+        StoreQueryExecutor executor = new StoreQueryExecutor(deploymentConfigs, catalogRefresher);
+
+        executor.execute(APP_NAME, SHIPMENT_DETAILS, null);
+        Mockito.verify(SiddhiAppsDataHolder.getInstance().getClientBuilderService())
+                .build(Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.eq(12345),
+                       Mockito.eq(WorkerServiceStub.class), Mockito.eq(PROTOCOL + worker));
+    }
+
+    @Test
+    void testBuildQuery() throws Exception {
+        Assertions.assertEquals("from ShipmentDetails select * limit 100",
+                                StoreQueryExecutor.buildQuery(SHIPMENT_DETAILS, new StoreQuery(), 100));
+        StoreQuery orderedQuery = query(5, "name");
+        orderedQuery.setOrderBy("amount");
+        orderedQuery.setDescending(true);
+        Assertions.assertEquals("from ShipmentDetails select name order by amount desc limit 5",
+                                StoreQueryExecutor.buildQuery(SHIPMENT_DETAILS, orderedQuery, 100));
+
+        StoreQuery aggregationQuery = query(null, "AGG_TIMESTAMP", "totalAmount");
+        aggregationQuery.setWithinStart(1000L);
+        aggregationQuery.setWithinEnd(2000L);
+        aggregationQuery.setPer("hours");
+        Assertions.assertEquals("from ShipmentAggregation within 1000L, 2000L per 'hours' select AGG_TIMESTAMP, " +
+                                        "totalAmount limit 100",
+                                StoreQueryExecutor.buildQuery(SHIPMENT_AGGREGATION, aggregationQuery, 100));
+    }
+
+    @Test
+    void testInvalidQueryParametersAreRejected() {
+        assertRejected(SHIPMENT_DETAILS, query(null, "name from ShipmentDetails delete ShipmentDetails"));
+        assertRejected(SHIPMENT_DETAILS, query(null, "unknown"));
+        StoreQuery orderedQuery = query(null);
+        orderedQuery.setOrderBy("amount; delete");
+        assertRejected(SHIPMENT_DETAILS, orderedQuery);
+        assertRejected(SHIPMENT_DETAILS, query(0));
+        assertRejected(SHIPMENT_DETAILS, query(101));
+        StoreQuery tableQuery = query(null);
+        tableQuery.setPer("hours");
+        assertRejected(SHIPMENT_DETAILS, tableQuery);
+
+        assertRejected(SHIPMENT_AGGREGATION, query(null), "Aggregations require a time range and a granularity");
+        StoreQuery aggregationQuery = query(null);
+        aggregationQuery.setWithinStart(1000L);
+        aggregationQuery.setWithinEnd(2000L);
+        aggregationQuery.setPer("hours' select *");
+        assertRejected(SHIPMENT_AGGREGATION, aggregationQuery);
+    }
+
+    private static void assertRejected(SiddhiStoreElement storeElement, StoreQuery query) {
+        assertRejected(storeElement, query, "Invalid query parameters should be rejected");
+    }
+
+    private static void assertRejected(SiddhiStoreElement storeElement, StoreQuery query, String message) {
+        StoreQueryException e = Assertions.assertThrows(
+                StoreQueryException.class, () -> StoreQueryExecutor.buildQuery(storeElement, query, 100), message);
+        Assertions.assertEquals(400, e.getStatus());
+    }
+
+    private static StoreQuery query(Integer limit, String... attributes) {
+        StoreQuery query = new StoreQuery();
+        query.setAttributes(Arrays.asList(attributes));
+        query.setLimit(limit);
+        return query;
+    }
+
+    /**
+     * Starts a stub worker that responds to store queries with the given status and body.
+     *
+     * @return host and port of the worker
+     */
+    private String startWorker(int status, String body, long delayMillis, List<String> requests) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(workerThreads);
+        server.createContext("/stores/query", exchange -> {
+            requests.add(read(exchange.getRequestBody()));
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, (bytes.length == 0) ? -1 : bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        });
+        server.start();
+        workers.add(server);
+        return "localhost:" + server.getAddress().getPort();
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
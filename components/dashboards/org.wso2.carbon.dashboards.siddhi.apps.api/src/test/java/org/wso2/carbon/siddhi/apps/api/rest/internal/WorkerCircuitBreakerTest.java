@@ -0,0 +1,97 @@
+/*
+ *   Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ *
+ */
+
+package org.wso2.carbon.siddhi.apps.api.rest.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test cases for {@link WorkerCircuitBreaker} class.
+ *
+ * @since 4.1.26
+ */
+public class WorkerCircuitBreakerTest {
+
+    private static final long INITIAL_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 150;
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        WorkerCircuitBreaker circuitBreaker = new WorkerCircuitBreaker("localhost:9443", 2, INITIAL_BACKOFF_MILLIS,
+                                                                       MAX_BACKOFF_MILLIS);
+        circuitBreaker.recordFailure();
+        Assertions.assertTrue(circuitBreaker.isClosed(), "Breaker should stay closed below the failure threshold");
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+        Assertions.assertTrue(circuitBreaker.isClosed(), "A success should reset the consecutive failures");
+
+        long before = System.currentTimeMillis();
+        circuitBreaker.recordFailure();
+        long after = System.currentTimeMillis();
+        Assertions.assertFalse(circuitBreaker.isClosed());
+        Assertions.assertFalse(circuitBreaker.allowProbe(), "No probe should be sent before the backoff elapses");
+        Assertions.assertEquals("OPEN", circuitBreaker.getDiagnostics().get("state"));
+        assertBackoff(circuitBreaker, INITIAL_BACKOFF_MILLIS, before, after);
+    }
+
+    @Test
+    void testBackoffDoublesUntilProbeSucceeds() throws InterruptedException {
+        WorkerCircuitBreaker circuitBreaker = new WorkerCircuitBreaker("localhost:9443", 1, INITIAL_BACKOFF_MILLIS,
+                                                                       MAX_BACKOFF_MILLIS);
+        circuitBreaker.recordFailure();
+
+        long expectedBackoffMillis = INITIAL_BACKOFF_MILLIS;
+        for (int probe = 0; probe < 2; probe++) {
+            Thread.sleep(expectedBackoffMillis);
+            Assertions.assertTrue(circuitBreaker.allowProbe(), "A probe should be sent once the backoff elapses");
+            Assertions.assertEquals("HALF_OPEN", circuitBreaker.getDiagnostics().get("state"));
+            Assertions.assertFalse(circuitBreaker.isClosed(), "Only the probe should be sent while half open");
+            Assertions.assertFalse(circuitBreaker.allowProbe(), "A single probe should be sent while half open");
+
+            long before = System.currentTimeMillis();
+            circuitBreaker.recordFailure();
+            long after = System.currentTimeMillis();
+            expectedBackoffMillis = Math.min(MAX_BACKOFF_MILLIS, expectedBackoffMillis * 2);
+            Assertions.assertEquals("OPEN", circuitBreaker.getDiagnostics().get("state"));
+            assertBackoff(circuitBreaker, expectedBackoffMillis, before, after);
+        }
+        Assertions.assertEquals(MAX_BACKOFF_MILLIS, expectedBackoffMillis, "Backoff should be capped");
+
+        Thread.sleep(expectedBackoffMillis);
+        Assertions.assertTrue(circuitBreaker.allowProbe());
+        circuitBreaker.recordSuccess();
+        Assertions.assertTrue(circuitBreaker.isClosed(), "Breaker should close once a probe succeeds");
+        Assertions.assertTrue(circuitBreaker.allowProbe());
+        Assertions.assertEquals(0, circuitBreaker.getDiagnostics().get("consecutiveFailures"));
+        Assertions.assertNull(circuitBreaker.getDiagnostics().get("retryTime"));
+
+        long before = System.currentTimeMillis();
+        circuitBreaker.recordFailure();
+        long after = System.currentTimeMillis();
+        assertBackoff(circuitBreaker, INITIAL_BACKOFF_MILLIS, before, after);
+    }
+
+    private static void assertBackoff(WorkerCircuitBreaker circuitBreaker, long backoffMillis, long before,
+                                      long after) {
+        long retryTime = (long) circuitBreaker.getDiagnostics().get("retryTime");
+        Assertions.assertTrue((retryTime >= before + backoffMillis) && (retryTime <= after + backoffMillis),
+                              "Worker should not be contacted for " + backoffMillis + " ms");
+    }
+}
@@ -33,4 +33,49 @@ CREATE TABLE [dbo].[WIDGET_RESOURCE](
 )WITH (PAD_INDEX = OFF, STATISTICS_NORECOMPUTE = OFF, IGNORE_DUP_KEY = OFF, ALLOW_ROW_LOCKS = ON, ALLOW_PAGE_LOCKS = ON) ON [PRIMARY]
 ) ON [PRIMARY]
 
+GO
+
+DROP TABLE [dbo].[WIDGET_THUMBNAIL]
+GO
+
+CREATE TABLE [dbo].[WIDGET_THUMBNAIL](
+  [WIDGET_ID] [varchar](255) NOT NULL,
+  [MEDIA_TYPE] [varchar](100) NOT NULL,
+  [THUMBNAIL] [varbinary](max) NULL,
+ CONSTRAINT [PK_WIDGET_THUMBNAIL] PRIMARY KEY CLUSTERED
+(
+  [WIDGET_ID] ASC
+)WITH (PAD_INDEX = OFF, STATISTICS_NORECOMPUTE = OFF, IGNORE_DUP_KEY = OFF, ALLOW_ROW_LOCKS = ON, ALLOW_PAGE_LOCKS = ON) ON [PRIMARY]
+) ON [PRIMARY]
+
+GO
+
+DROP TABLE [dbo].[DASHBOARD_THUMBNAIL]
+GO
+
+CREATE TABLE [dbo].[DASHBOARD_THUMBNAIL](
+  [URL] [varchar](100) NOT NULL,
+  [MEDIA_TYPE] [varchar](100) NOT NULL,
+  [THUMBNAIL_VERSION] [varchar](64) NOT NULL,
+  [THUMBNAIL] [varbinary](max) NULL,
+ CONSTRAINT [PK_DASHBOARD_THUMBNAIL] PRIMARY KEY CLUSTERED
+(
+  [URL] ASC
+)WITH (PAD_INDEX = OFF, STATISTICS_NORECOMPUTE = OFF, IGNORE_DUP_KEY = OFF, ALLOW_ROW_LOCKS = ON, ALLOW_PAGE_LOCKS = ON) ON [PRIMARY]
+) ON [PRIMARY]
+
+GO
+
+DROP TABLE [dbo].[DASHBOARD_VERSION]
+GO
+
+CREATE TABLE [dbo].[DASHBOARD_VERSION](
+  [URL] [varchar](100) NOT NULL,
+  [CONTENT_VERSION] [bigint] NOT NULL,
+ CONSTRAINT [PK_DASHBOARD_VERSION] PRIMARY KEY CLUSTERED
+(
+  [URL] ASC
+)WITH (PAD_INDEX = OFF, STATISTICS_NORECOMPUTE = OFF, IGNORE_DUP_KEY = OFF, ALLOW_ROW_LOCKS = ON, ALLOW_PAGE_LOCKS = ON) ON [PRIMARY]
+) ON [PRIMARY]
+
 GO
\ No newline at end of file